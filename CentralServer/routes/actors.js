@@ -27,6 +27,10 @@ router.get("/search", async function (req, res, next) {
         res.json(response.data);
         console.log(response.data);
     } catch (error) {
+        // No actor with this name: forward the closest names (didYouMean) of the backend, if any
+        if (error.response && error.response.status === 404) {
+            return res.status(404).json(error.response.data || {didYouMean: []});
+        }
         res.status(500).json({error: "Error while searching for actors.hbs!"});
     }
 })
@@ -0,0 +1,45 @@
+package it.unito.iumtweb.springboot;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+
+/**
+ * Reads whole tables for the in-memory indexes without loading them into memory at once.
+ * <p>
+ * The PostgreSQL driver only honours the fetch size within a transaction: callers stream from a
+ * {@code @Transactional(readOnly = true)} method, and the rows then come in chunks of {@value #FETCH_SIZE}.
+ * Outside a transaction the whole result is buffered before the first row is handled.
+ * </p>
+ */
+@Component
+public class TableStreamer {
+    static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbc;
+
+    /**
+     * Constructs a new TableStreamer with the specified JdbcTemplate.
+     *
+     * @param jdbc the template used to run the queries
+     */
+    public TableStreamer(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Streams the rows of a query to a handler.
+     *
+     * @param sql     the query, without parameters
+     * @param handler the handler of each row
+     */
+    public void stream(String sql, RowCallbackHandler handler) {
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setFetchSize(FETCH_SIZE);
+            return ps;
+        }, handler);
+    }
+}
@@ -0,0 +1,10 @@
+package it.unito.iumtweb.springboot.actors;
+
+import java.util.Set;
+
+/**
+ * Application event published whenever an {@link Actors} row is inserted, updated or deleted.
+ *
+ * @param names the actor names affected by the change (previous and current, without nulls)
+ */
+public record ActorChangedEvent(Set<String> names) {}
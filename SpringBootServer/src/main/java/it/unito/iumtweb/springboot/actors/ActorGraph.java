@@ -0,0 +1,485 @@
+package it.unito.iumtweb.springboot.actors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Immutable in-memory bipartite graph linking actors to the movies they appear in.
+ * <p>
+ * Actors and movies are numbered, and both directions of the graph are stored in compressed sparse row form:
+ * the movies of actor {@code a} are {@code actorMovies[actorOffsets[a] .. actorOffsets[a + 1]]}, sorted, and
+ * symmetrically for the cast of a movie. The graph is thus a handful of int arrays, without any per-edge object.
+ * Actors are identified by their lower-cased name, as by the actor queries, and found by binary search.
+ * </p>
+ * <p>
+ * Co-stars are counted in arrays borrowed from a pool. Paths are found by a bidirectional breadth-first search
+ * expanding, level by level, the side with the smaller frontier; each movie is expanded at most once per side,
+ * and visit marks are generation-stamped so that no array has to be cleared between searches.
+ * </p>
+ */
+public class ActorGraph {
+    private final String[] keys;
+    private final String[] names;
+    private final String[] movieIds;
+    private final int[] actorOffsets;
+    private final int[] actorMovies;
+    private final int[] movieOffsets;
+    private final int[] movieActors;
+    private final Queue<Scratch> scratches = new ConcurrentLinkedQueue<>();
+
+    /**
+     * An actor with the number of movies shared with another one.
+     *
+     * @param name         the name of the actor
+     * @param sharedMovies the number of movies both actors appear in
+     */
+    public record CoStar(String name, int sharedMovies) {
+    }
+
+    /**
+     * A shortest chain of actors linked by the movies they appeared in together.
+     *
+     * @param actors   the names of the actors, from the first to the second one queried
+     * @param movieIds the IDs of the movies linking consecutive actors, one fewer than the actors
+     */
+    public record Path(List<String> actors, List<String> movieIds) {
+    }
+
+    private ActorGraph(String[] keys, String[] names, String[] movieIds, int[] actorOffsets, int[] actorMovies,
+                       int[] movieOffsets, int[] movieActors) {
+        this.keys = keys;
+        this.names = names;
+        this.movieIds = movieIds;
+        this.actorOffsets = actorOffsets;
+        this.actorMovies = actorMovies;
+        this.movieOffsets = movieOffsets;
+        this.movieActors = movieActors;
+    }
+
+    /**
+     * Finds the actors who appeared in the most movies with the given actor.
+     *
+     * @param name  the name of the actor (case-insensitive)
+     * @param limit the maximum number of co-stars to return
+     * @return the co-stars, by descending number of shared movies, then by name; empty if the actor is unknown
+     */
+    public List<CoStar> coStars(String name, int limit) {
+        int actor = find(name);
+        if (actor < 0 || limit <= 0) {
+            return List.of();
+        }
+        Scratch scratch = borrow();
+        int touched = 0;
+        try {
+            for (int m = actorOffsets[actor]; m < actorOffsets[actor + 1]; m++) {
+                int movie = actorMovies[m];
+                for (int c = movieOffsets[movie]; c < movieOffsets[movie + 1]; c++) {
+                    int other = movieActors[c];
+                    if (other != actor && scratch.counts[other]++ == 0) {
+                        scratch.touched[touched++] = other;
+                    }
+                }
+            }
+            PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(limit, 1024) + 1, (a, b) -> {
+                int byCount = Integer.compare(scratch.counts[a], scratch.counts[b]);
+                return byCount != 0 ? byCount : keys[b].compareTo(keys[a]);
+            });
+            for (int i = 0; i < touched; i++) {
+                best.add(scratch.touched[i]);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            CoStar[] result = new CoStar[best.size()];
+            for (int i = result.length - 1; i >= 0; i--) {
+                int other = best.poll();
+                result[i] = new CoStar(names[other], scratch.counts[other]);
+            }
+            return Arrays.asList(result);
+        } finally {
+            for (int i = 0; i < touched; i++) {
+                scratch.counts[scratch.touched[i]] = 0;
+            }
+            scratches.offer(scratch);
+        }
+    }
+
+    /**
+     * Lists the movies both actors appear in.
+     *
+     * @param name  the name of the first actor (case-insensitive)
+     * @param other the name of the second actor (case-insensitive)
+     * @return the IDs of the shared movies; empty if either actor is unknown
+     */
+    public List<String> sharedMovies(String name, String other) {
+        int a = find(name);
+        int b = find(other);
+        if (a < 0 || b < 0) {
+            return List.of();
+        }
+        List<String> shared = new ArrayList<>();
+        int i = actorOffsets[a];
+        int j = actorOffsets[b];
+        while (i < actorOffsets[a + 1] && j < actorOffsets[b + 1]) {
+            int compare = Integer.compare(actorMovies[i], actorMovies[j]);
+            if (compare == 0) {
+                shared.add(movieIds[actorMovies[i]]);
+                i++;
+                j++;
+            } else if (compare < 0) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Finds a shortest chain of co-stars linking two actors.
+     *
+     * @param from     the name of the first actor (case-insensitive)
+     * @param to       the name of the second actor (case-insensitive)
+     * @param maxDepth the maximum number of movies in the chain
+     * @return the chain, or null if either actor is unknown or they are not linked within maxDepth movies
+     */
+    public Path shortestPath(String from, String to, int maxDepth) {
+        int source = find(from);
+        int target = find(to);
+        if (source < 0 || target < 0) {
+            return null;
+        }
+        if (source == target) {
+            return new Path(List.of(names[source]), List.of());
+        }
+        Scratch scratch = borrow();
+        try {
+            return search(scratch, source, target, maxDepth);
+        } finally {
+            scratches.offer(scratch);
+        }
+    }
+
+    /**
+     * Returns the number of actors.
+     *
+     * @return the number of actors
+     */
+    public int actorCount() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the number of movies with at least one actor.
+     *
+     * @return the number of movies
+     */
+    public int movieCount() {
+        return movieIds.length;
+    }
+
+    /**
+     * Returns the number of distinct (actor, movie) credits.
+     *
+     * @return the number of edges
+     */
+    public int edgeCount() {
+        return actorMovies.length;
+    }
+
+    /**
+     * Estimates the memory used by the graph: its arrays, the strings they reference,
+     * and the scratch space of one concurrent query.
+     *
+     * @return the estimated size, in bytes
+     */
+    public long estimatedBytes() {
+        long bytes = 4L * (actorOffsets.length + actorMovies.length + movieOffsets.length + movieActors.length);
+        for (int i = 0; i < keys.length; i++) {
+            bytes += stringBytes(keys[i]) + (names[i] == keys[i] ? 0 : stringBytes(names[i])) + 8;
+        }
+        for (String movieId : movieIds) {
+            bytes += stringBytes(movieId) + 4;
+        }
+        bytes += 4L * (5L * keys.length + movieIds.length);
+        return bytes;
+    }
+
+    private static long stringBytes(String s) {
+        // Object header, hash and array reference, plus the Latin-1 or UTF-16 array
+        return 24 + 16 + (long) s.length() * (s.chars().allMatch(c -> c < 256) ? 1 : 2);
+    }
+
+    /**
+     * Expands the smaller frontier one level at a time until both searches meet.
+     */
+    private Path search(Scratch scratch, int source, int target, int maxDepth) {
+        int forwardStamp = scratch.nextStamp();
+        int backwardStamp = scratch.nextStamp();
+        int[] forward = {source};
+        int[] backward = {target};
+        scratch.actorStamp[source] = forwardStamp;
+        scratch.actorStamp[target] = backwardStamp;
+        scratch.parentMovie[source] = -1;
+        scratch.parentMovie[target] = -1;
+        int depth = 0;
+        while (forward.length > 0 && backward.length > 0 && depth < maxDepth) {
+            depth++;
+            boolean expandForward = frontierWork(forward) <= frontierWork(backward);
+            int[] frontier = expandForward ? forward : backward;
+            int stamp = expandForward ? forwardStamp : backwardStamp;
+            int otherStamp = expandForward ? backwardStamp : forwardStamp;
+            int[] next = new int[16];
+            int size = 0;
+            for (int actor : frontier) {
+                for (int m = actorOffsets[actor]; m < actorOffsets[actor + 1]; m++) {
+                    int movie = actorMovies[m];
+                    if (scratch.movieStamp[movie] == stamp) {
+                        continue;
+                    }
+                    scratch.movieStamp[movie] = stamp;
+                    for (int c = movieOffsets[movie]; c < movieOffsets[movie + 1]; c++) {
+                        int other = movieActors[c];
+                        if (scratch.actorStamp[other] == otherStamp) {
+                            // Reached from the other side: link both half-paths through this movie
+                            return expandForward
+                                    ? join(scratch, actor, movie, other)
+                                    : join(scratch, other, movie, actor);
+                        }
+                        if (scratch.actorStamp[other] != stamp) {
+                            scratch.actorStamp[other] = stamp;
+                            scratch.parentActor[other] = actor;
+                            scratch.parentMovie[other] = movie;
+                            if (size == next.length) {
+                                next = Arrays.copyOf(next, size * 2);
+                            }
+                            next[size++] = other;
+                        }
+                    }
+                }
+            }
+            if (expandForward) {
+                forward = Arrays.copyOf(next, size);
+            } else {
+                backward = Arrays.copyOf(next, size);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Estimates the cost of expanding a frontier as the number of credits of its actors.
+     */
+    private long frontierWork(int[] frontier) {
+        long work = 0;
+        for (int actor : frontier) {
+            work += actorOffsets[actor + 1] - actorOffsets[actor];
+        }
+        return work;
+    }
+
+    /**
+     * Builds the path source ... forwardEnd -movie- backwardEnd ... target from the parent links of both searches.
+     */
+    private Path join(Scratch scratch, int forwardEnd, int movie, int backwardEnd) {
+        List<String> actors = new ArrayList<>();
+        List<String> movies = new ArrayList<>();
+        List<Integer> head = new ArrayList<>();
+        List<Integer> headMovies = new ArrayList<>();
+        for (int actor = forwardEnd; actor >= 0; ) {
+            head.add(actor);
+            if (scratch.parentMovie[actor] < 0) {
+                break;
+            }
+            headMovies.add(scratch.parentMovie[actor]);
+            actor = scratch.parentActor[actor];
+        }
+        for (int i = head.size() - 1; i >= 0; i--) {
+            actors.add(names[head.get(i)]);
+            if (i > 0) {
+                movies.add(movieIds[headMovies.get(i - 1)]);
+            }
+        }
+        movies.add(movieIds[movie]);
+        for (int actor = backwardEnd; ; ) {
+            actors.add(names[actor]);
+            if (scratch.parentMovie[actor] < 0) {
+                break;
+            }
+            movies.add(movieIds[scratch.parentMovie[actor]]);
+            actor = scratch.parentActor[actor];
+        }
+        return new Path(actors, movies);
+    }
+
+    private int find(String name) {
+        if (name == null) {
+            return -1;
+        }
+        int position = Arrays.binarySearch(keys, name.trim().toLowerCase(Locale.ROOT));
+        return position >= 0 ? position : -1;
+    }
+
+    private Scratch borrow() {
+        Scratch scratch = scratches.poll();
+        return scratch != null ? scratch : new Scratch(keys.length, movieIds.length);
+    }
+
+    /**
+     * Per-query arrays: co-star counters, and the visit marks and parent links of the path searches.
+     */
+    private static final class Scratch {
+        private final int[] counts;
+        private final int[] touched;
+        private final int[] actorStamp;
+        private final int[] movieStamp;
+        private final int[] parentActor;
+        private final int[] parentMovie;
+        private int stamp;
+
+        Scratch(int actors, int movies) {
+            counts = new int[actors];
+            touched = new int[actors];
+            actorStamp = new int[actors];
+            movieStamp = new int[movies];
+            parentActor = new int[actors];
+            parentMovie = new int[actors];
+        }
+
+        /**
+         * Returns a stamp not used by any previous search.
+         */
+        int nextStamp() {
+            if (stamp == Integer.MAX_VALUE) {
+                Arrays.fill(actorStamp, 0);
+                Arrays.fill(movieStamp, 0);
+                stamp = 0;
+            }
+            return ++stamp;
+        }
+    }
+
+    /**
+     * Accumulates actor names and credits, then packs them into an {@link ActorGraph}. Not thread-safe.
+     */
+    public static class Builder {
+        private final Map<String, Integer> actorIds = new HashMap<>();
+        private final List<String> actorNames = new ArrayList<>();
+        private final Map<String, Integer> movieOrdinals = new HashMap<>();
+        private final List<String> movieIds = new ArrayList<>();
+        private long[] credits = new long[1024];
+        private int creditCount;
+
+        /**
+         * Sets the displayed name of an actor, e.g. its most frequent spelling. Actors credited without
+         * a displayed name keep the spelling of their first credit.
+         *
+         * @param name the name of the actor
+         * @return this builder
+         */
+        public Builder addName(String name) {
+            if (name != null && !name.isBlank()) {
+                String key = name.trim().toLowerCase(Locale.ROOT);
+                Integer id = actorIds.get(key);
+                if (id == null) {
+                    actorIds.put(key, actorNames.size());
+                    actorNames.add(name);
+                } else {
+                    actorNames.set(id, name);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Adds the credit of an actor in a movie. Repeated credits are counted once.
+         *
+         * @param movieId the ID of the movie
+         * @param name    the name of the actor
+         * @return this builder
+         */
+        public Builder addCredit(String movieId, String name) {
+            if (movieId == null || name == null || name.isBlank()) {
+                return this;
+            }
+            String key = name.trim().toLowerCase(Locale.ROOT);
+            int actor = actorIds.computeIfAbsent(key, k -> {
+                actorNames.add(name);
+                return actorNames.size() - 1;
+            });
+            int movie = movieOrdinals.computeIfAbsent(movieId, id -> {
+                movieIds.add(id);
+                return movieIds.size() - 1;
+            });
+            if (creditCount == credits.length) {
+                credits = Arrays.copyOf(credits, creditCount * 2);
+            }
+            credits[creditCount++] = ((long) actor << 32) | movie;
+            return this;
+        }
+
+        /**
+         * Numbers the actors by name, then packs the de-duplicated credits into both adjacency arrays.
+         *
+         * @return the new graph
+         */
+        public ActorGraph build() {
+            // Number actors in the order of their key, so that they can be found by binary search
+            String[] sortedKeys = actorIds.keySet().toArray(String[]::new);
+            Arrays.sort(sortedKeys);
+            int[] rank = new int[sortedKeys.length];
+            String[] names = new String[sortedKeys.length];
+            for (int i = 0; i < sortedKeys.length; i++) {
+                int id = actorIds.get(sortedKeys[i]);
+                rank[id] = i;
+                String name = actorNames.get(id);
+                names[i] = name.equals(sortedKeys[i]) ? sortedKeys[i] : name;
+            }
+
+            long[] edges = new long[creditCount];
+            for (int i = 0; i < creditCount; i++) {
+                edges[i] = ((long) rank[(int) (credits[i] >>> 32)] << 32) | (credits[i] & 0xffffffffL);
+            }
+            credits = null;
+            Arrays.sort(edges);
+            int unique = 0;
+            for (int i = 0; i < edges.length; i++) {
+                if (i == 0 || edges[i] != edges[i - 1]) {
+                    edges[unique++] = edges[i];
+                }
+            }
+
+            int actors = sortedKeys.length;
+            int movies = movieIds.size();
+            int[] actorOffsets = new int[actors + 1];
+            int[] actorMovies = new int[unique];
+            int[] movieOffsets = new int[movies + 1];
+            for (int i = 0; i < unique; i++) {
+                actorOffsets[(int) (edges[i] >>> 32) + 1]++;
+                movieOffsets[(int) edges[i] + 1]++;
+                actorMovies[i] = (int) edges[i];
+            }
+            for (int i = 0; i < actors; i++) {
+                actorOffsets[i + 1] += actorOffsets[i];
+            }
+            for (int i = 0; i < movies; i++) {
+                movieOffsets[i + 1] += movieOffsets[i];
+            }
+            // Edges are sorted by actor, so each cast is filled in ascending actor order
+            int[] movieActors = new int[unique];
+            int[] next = Arrays.copyOf(movieOffsets, movies);
+            for (int i = 0; i < unique; i++) {
+                movieActors[next[(int) edges[i]]++] = (int) (edges[i] >>> 32);
+            }
+            return new ActorGraph(sortedKeys, names, movieIds.toArray(String[]::new), actorOffsets, actorMovies,
+                    movieOffsets, movieActors);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package it.unito.iumtweb.springboot.actors;
+
+import it.unito.iumtweb.springboot.movies.MoviesCardInfoDTO;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * REST controller that exposes the co-star and degrees-of-separation queries of the actor graph.
+ * All endpoints are mapped under <code>/actors/graph</code>, and answer 503 while the graph is being built
+ * for the first time.
+ */
+@RestController
+@RequestMapping("/actors/graph")
+public class ActorGraphController {
+    private static final int MAX_DEPTH = 12;
+    private static final int MAX_CO_STARS = 100;
+
+    private final ActorGraphService service;
+
+    /**
+     * Constructs a new ActorGraphController with the specified ActorGraphService.
+     *
+     * @param service the service querying the actor graph
+     */
+    public ActorGraphController(ActorGraphService service) {
+        this.service = service;
+    }
+
+    /**
+     * Retrieves the actors who appeared in the most movies with the given actor.
+     *
+     * @param name  the name of the actor
+     * @param limit the maximum number of co-stars to return (default 10, at most {@value #MAX_CO_STARS})
+     * @return a ResponseEntity containing the co-stars by descending number of shared movies
+     */
+    @GetMapping("/costars")
+    public ResponseEntity<List<ActorGraph.CoStar>> getCoStars(@RequestParam String name,
+                                                              @RequestParam(defaultValue = "10") int limit) {
+        if (name.isBlank() || limit < 1 || limit > MAX_CO_STARS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return orUnavailable(service.getCoStars(name, limit));
+    }
+
+    /**
+     * Retrieves the movies both actors appear in.
+     *
+     * @param actor the name of the first actor
+     * @param other the name of the second actor
+     * @return a ResponseEntity containing the cards of the shared movies
+     */
+    @GetMapping("/shared")
+    public ResponseEntity<List<MoviesCardInfoDTO>> getSharedMovies(@RequestParam String actor,
+                                                                   @RequestParam String other) {
+        if (actor.isBlank() || other.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return orUnavailable(service.getSharedMovies(actor, other));
+    }
+
+    /**
+     * Retrieves a shortest chain of co-stars linking two actors.
+     *
+     * @param from     the name of the first actor
+     * @param to       the name of the second actor
+     * @param maxDepth the maximum number of movies in the chain (default 6, at most {@value #MAX_DEPTH})
+     * @return a ResponseEntity containing an {@link ActorPathDTO}, with -1 degrees if the actors are not linked
+     */
+    @GetMapping("/path")
+    public ResponseEntity<ActorPathDTO> getPath(@RequestParam String from,
+                                                @RequestParam String to,
+                                                @RequestParam(defaultValue = "6") int maxDepth) {
+        if (from.isBlank() || to.isBlank() || maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            return ResponseEntity.badRequest().build();
+        }
+        return orUnavailable(service.getPath(from, to, maxDepth));
+    }
+
+    /**
+     * Retrieves the size of the graph, its estimated memory and the time it took to build.
+     *
+     * @return a ResponseEntity containing an {@link ActorGraphStatsDTO}
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<ActorGraphStatsDTO> getStats() {
+        return orUnavailable(service.getStats());
+    }
+
+    private static <T> ResponseEntity<T> orUnavailable(Optional<T> result) {
+        return result.map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+}
@@ -0,0 +1,145 @@
+package it.unito.iumtweb.springboot.actors;
+
+import it.unito.iumtweb.springboot.TableStreamer;
+import it.unito.iumtweb.springboot.importer.DatasetImportedEvent;
+import it.unito.iumtweb.springboot.importer.ImportTable;
+import it.unito.iumtweb.springboot.movies.MoviesCardInfoDTO;
+import it.unito.iumtweb.springboot.movies.MoviesService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service answering co-star and degrees-of-separation queries from an in-memory {@link ActorGraph}.
+ * <p>
+ * The graph is built from the actors table once the application is ready and rebuilt after every bulk import
+ * of the actors dataset; queries keep being served by the previous graph while a new one is built. Credits
+ * saved one at a time are picked up by the next rebuild. Until the first build completes, every query returns
+ * an empty {@link Optional}.
+ * </p>
+ */
+@Service
+public class ActorGraphService {
+    private static final Logger log = LoggerFactory.getLogger(ActorGraphService.class);
+
+    private final TableStreamer streamer;
+    private final MoviesService moviesService;
+    private volatile ActorGraph graph;
+    private volatile ActorGraphStatsDTO stats;
+
+    /**
+     * Constructs a new ActorGraphService with the specified TableStreamer and MoviesService.
+     *
+     * @param streamer      the streamer of the actors table
+     * @param moviesService the service reading the cards of the movies linking actors
+     */
+    public ActorGraphService(TableStreamer streamer, MoviesService moviesService) {
+        this.streamer = streamer;
+        this.moviesService = moviesService;
+    }
+
+    /**
+     * Builds the graph once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the graph once the actors table has been bulk loaded.
+     *
+     * @param event the completed import
+     */
+    @EventListener
+    @Order(DatasetImportedEvent.INDEX_ORDER)
+    @Transactional(readOnly = true)
+    public void onDatasetImported(DatasetImportedEvent event) {
+        if (event.includes(ImportTable.ACTORS)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Streams the actor names and credits into a new graph, then swaps it in.
+     */
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        ActorGraph.Builder builder = new ActorGraph.Builder();
+        streamer.stream("SELECT movie_id, name FROM actors", rs -> builder.addCredit(rs.getString(1), rs.getString(2)));
+        streamer.stream("SELECT name FROM actor_names WHERE film_count > 0", rs -> builder.addName(rs.getString(1)));
+        ActorGraph built = builder.build();
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        graph = built;
+        stats = new ActorGraphStatsDTO(built.actorCount(), built.movieCount(), built.edgeCount(),
+                built.estimatedBytes(), buildMillis);
+        log.info("Actor graph built: {} actors, {} movies, {} credits, ~{} MB in {} ms", built.actorCount(),
+                built.movieCount(), built.edgeCount(), built.estimatedBytes() >> 20, buildMillis);
+    }
+
+    /**
+     * Finds the actors who appeared in the most movies with the given actor.
+     *
+     * @param name  the name of the actor
+     * @param limit the maximum number of co-stars to return
+     * @return the co-stars by descending number of shared movies, or empty if the graph is not built yet
+     */
+    public Optional<List<ActorGraph.CoStar>> getCoStars(String name, int limit) {
+        ActorGraph current = graph;
+        return current == null ? Optional.empty() : Optional.of(current.coStars(name, limit));
+    }
+
+    /**
+     * Reads the cards of the movies both actors appear in.
+     *
+     * @param name  the name of the first actor
+     * @param other the name of the second actor
+     * @return the shared movies, or empty if the graph is not built yet
+     */
+    public Optional<List<MoviesCardInfoDTO>> getSharedMovies(String name, String other) {
+        ActorGraph current = graph;
+        if (current == null) {
+            return Optional.empty();
+        }
+        return Optional.of(moviesService.getMovieCardsByIds(current.sharedMovies(name, other)));
+    }
+
+    /**
+     * Finds a shortest chain of co-stars linking two actors, with the cards of the movies linking them.
+     *
+     * @param from     the name of the first actor
+     * @param to       the name of the second actor
+     * @param maxDepth the maximum number of movies in the chain
+     * @return the chain (with no actors if none was found), or empty if the graph is not built yet
+     */
+    public Optional<ActorPathDTO> getPath(String from, String to, int maxDepth) {
+        ActorGraph current = graph;
+        if (current == null) {
+            return Optional.empty();
+        }
+        ActorGraph.Path path = current.shortestPath(from, to, maxDepth);
+        if (path == null) {
+            return Optional.of(new ActorPathDTO(List.of(), List.of(), -1));
+        }
+        return Optional.of(new ActorPathDTO(path.actors(), moviesService.getMovieCardsByIds(path.movieIds()),
+                path.movieIds().size()));
+    }
+
+    /**
+     * Returns the size of the graph and the time it took to build.
+     *
+     * @return the statistics, or empty if the graph is not built yet
+     */
+    public Optional<ActorGraphStatsDTO> getStats() {
+        return Optional.ofNullable(stats);
+    }
+}
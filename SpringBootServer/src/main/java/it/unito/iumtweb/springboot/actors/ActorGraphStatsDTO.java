@@ -0,0 +1,79 @@
+package it.unito.iumtweb.springboot.actors;
+
+/**
+ * Data Transfer Object (DTO) describing the size of the in-memory actor graph.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * ActorGraphStatsDTO stats = new ActorGraphStatsDTO(180_000, 940_000, 5_100_000, 96_000_000, 4200);
+ * }
+ * </pre>
+ * </p>
+ */
+public class ActorGraphStatsDTO {
+    private int actors;
+    private int movies;
+    private int credits;
+    private long estimatedBytes;
+    private long buildMillis;
+
+    /**
+     * Constructs an {@code ActorGraphStatsDTO} with the specified details.
+     *
+     * @param actors         the number of actors
+     * @param movies         the number of movies with at least one actor
+     * @param credits        the number of distinct (actor, movie) credits
+     * @param estimatedBytes the estimated memory used by the graph
+     * @param buildMillis    the time taken to build the graph, in milliseconds
+     */
+    public ActorGraphStatsDTO(int actors, int movies, int credits, long estimatedBytes, long buildMillis) {
+        this.actors = actors;
+        this.movies = movies;
+        this.credits = credits;
+        this.estimatedBytes = estimatedBytes;
+        this.buildMillis = buildMillis;
+    }
+
+    // Getter & Setter
+    public int getActors() {
+        return actors;
+    }
+
+    public void setActors(int actors) {
+        this.actors = actors;
+    }
+
+    public int getMovies() {
+        return movies;
+    }
+
+    public void setMovies(int movies) {
+        this.movies = movies;
+    }
+
+    public int getCredits() {
+        return credits;
+    }
+
+    public void setCredits(int credits) {
+        this.credits = credits;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public void setEstimatedBytes(long estimatedBytes) {
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    public long getBuildMillis() {
+        return buildMillis;
+    }
+
+    public void setBuildMillis(long buildMillis) {
+        this.buildMillis = buildMillis;
+    }
+}
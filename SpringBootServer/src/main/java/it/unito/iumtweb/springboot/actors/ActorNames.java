@@ -0,0 +1,86 @@
+package it.unito.iumtweb.springboot.actors;
+
+import jakarta.persistence.*;
+
+/**
+ * Entity class representing an entry of the actor dimension: one distinct actor name with its number of movies
+ * and its Oscar nominations and wins.
+ * <p>
+ * Rows are derived from the {@link Actors} table and maintained by the {@link ActorNamesService};
+ * they are never written through JPA. The table also holds the sorted IDs of the movies of each actor
+ * ({@code movie_ids}), read by the profile query only and not mapped here.
+ * </p>
+ */
+@Entity
+@Table(name = "actor_names")
+public class ActorNames {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    // Lower-cased name, unique
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String normalizedName;
+    // Most frequent spelling of the name in the dataset
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String name;
+    @Column(nullable = false)
+    private int filmCount;
+    // Nominations and wins in the acting categories
+    @Column(nullable = false)
+    private int oscarNominations;
+    @Column(nullable = false)
+    private int oscarWins;
+
+    /**
+     * Default constructor for ActorNames.
+     */
+    public ActorNames() {}
+
+    // Getter & Setter
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNormalizedName() {
+        return normalizedName;
+    }
+
+    public void setNormalizedName(String normalizedName) {
+        this.normalizedName = normalizedName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getFilmCount() {
+        return filmCount;
+    }
+
+    public void setFilmCount(int filmCount) {
+        this.filmCount = filmCount;
+    }
+
+    public int getOscarNominations() {
+        return oscarNominations;
+    }
+
+    public void setOscarNominations(int oscarNominations) {
+        this.oscarNominations = oscarNominations;
+    }
+
+    public int getOscarWins() {
+        return oscarWins;
+    }
+
+    public void setOscarWins(int oscarWins) {
+        this.oscarWins = oscarWins;
+    }
+}
@@ -0,0 +1,183 @@
+package it.unito.iumtweb.springboot.actors;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link ActorNames} entities.
+ * Provides the autocomplete and profile queries over the actor dimension and the statements maintaining it.
+ */
+@Repository
+public interface ActorNamesRepository extends JpaRepository<ActorNames, Long> {
+    /**
+     * Finds a page of actor names containing the given search value, ignoring case,
+     * from the actor with the most movies to the one with the fewest.
+     * Autocomplete never shows a total, so no count query runs alongside the search.
+     *
+     * @param searchValue the string to search for in actor names
+     * @param pageable    the pagination information
+     * @return the actor names of the requested page matching the search criteria
+     */
+    @Query(nativeQuery = true, value = "SELECT n.name FROM actor_names n " +
+            "WHERE n.film_count > 0 AND n.normalized_name LIKE CONCAT('%', LOWER(:searchValue), '%') " +
+            "ORDER BY n.film_count DESC, n.normalized_name")
+    List<String> findNamesContaining(@Param("searchValue") String searchValue, Pageable pageable);
+
+    /**
+     * Upserts one row per distinct actor name of the actors table, with its sorted movie IDs,
+     * writing only the rows that change.
+     *
+     * @return the number of rows inserted or updated
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO actor_names (normalized_name, name, film_count, movie_ids) " +
+            "SELECT LOWER(a.name), mode() WITHIN GROUP (ORDER BY a.name), COUNT(DISTINCT a.movie_id), " +
+            "COALESCE(array_agg(DISTINCT CAST(a.movie_id AS text) ORDER BY CAST(a.movie_id AS text)) " +
+            "FILTER (WHERE a.movie_id IS NOT NULL), '{}') " +
+            "FROM actors a WHERE a.name IS NOT NULL AND a.name <> '' GROUP BY LOWER(a.name) " +
+            "ON CONFLICT (normalized_name) DO UPDATE SET name = EXCLUDED.name, film_count = EXCLUDED.film_count, " +
+            "movie_ids = EXCLUDED.movie_ids " +
+            "WHERE actor_names.name <> EXCLUDED.name OR actor_names.film_count <> EXCLUDED.film_count " +
+            "OR actor_names.movie_ids <> EXCLUDED.movie_ids")
+    int upsertAll();
+
+    /**
+     * Sets the film count of the names no longer present in the actors table to 0 and empties their movie IDs,
+     * keeping their rows and IDs.
+     *
+     * @return the number of rows updated
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "UPDATE actor_names n SET film_count = 0, movie_ids = '{}' " +
+            "WHERE n.film_count > 0 AND NOT EXISTS (SELECT 1 FROM actors a WHERE LOWER(a.name) = n.normalized_name)")
+    int clearMissing();
+
+    /**
+     * Recomputes the row of a single actor name, creating it if needed.
+     *
+     * @param name the name of the actor, in any case
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO actor_names (normalized_name, name, film_count, movie_ids) " +
+            "SELECT LOWER(:name), COALESCE(mode() WITHIN GROUP (ORDER BY a.name), :name), COUNT(DISTINCT a.movie_id), " +
+            "COALESCE(array_agg(DISTINCT CAST(a.movie_id AS text) ORDER BY CAST(a.movie_id AS text)) " +
+            "FILTER (WHERE a.movie_id IS NOT NULL), '{}') " +
+            "FROM actors a WHERE LOWER(a.name) = LOWER(:name) " +
+            "ON CONFLICT (normalized_name) DO UPDATE SET name = EXCLUDED.name, film_count = EXCLUDED.film_count, " +
+            "movie_ids = EXCLUDED.movie_ids")
+    void refreshName(@Param("name") String name);
+
+    /**
+     * Reads the profile of an actor: one row per movie of the actor, each with the profile columns and the
+     * nomination of the actor for that movie, if any, ordered by movie ID.
+     * Only the row of the actor is read, by its normalized name, then the nominations by the key of the actor.
+     *
+     * @param name the name of the actor, in any case
+     * @return the rows of the profile, empty if no movie credits this actor
+     */
+    @Query(nativeQuery = true, value = "SELECT n.name AS \"name\", n.film_count AS \"filmCount\", " +
+            "n.oscar_nominations AS \"oscarNominations\", n.oscar_wins AS \"oscarWins\", " +
+            "m.movie_id AS \"movieId\", f.category AS \"category\", f.winner AS \"winner\" " +
+            "FROM actor_names n " +
+            "CROSS JOIN LATERAL unnest(n.movie_ids) WITH ORDINALITY AS m(movie_id, position) " +
+            "LEFT JOIN actor_oscar_films f ON f.actor_name_id = n.id AND f.movie_id = m.movie_id " +
+            "WHERE n.normalized_name = LOWER(:name) AND n.film_count > 0 " +
+            "ORDER BY m.position")
+    List<ActorProfileRow> findProfile(@Param("name") String name);
+
+    /**
+     * Recomputes the Oscar nominations and wins of every nominated actor from the award links,
+     * writing only the rows that change.
+     *
+     * @return the number of rows updated
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "UPDATE actor_names n SET oscar_nominations = s.nominations, oscar_wins = s.wins " +
+            "FROM (SELECT l.actor_name_id, COUNT(*) AS nominations, COUNT(*) FILTER (WHERE o.winner) AS wins " +
+            "FROM oscar_award_links l JOIN the_oscar_awards o ON o.id = l.award_id " +
+            "WHERE l.actor_name_id IS NOT NULL AND o.category LIKE 'ACTOR%' GROUP BY l.actor_name_id) s " +
+            "WHERE n.id = s.actor_name_id " +
+            "AND (n.oscar_nominations <> s.nominations OR n.oscar_wins <> s.wins)")
+    int refreshAllOscarCounts();
+
+    /**
+     * Sets the Oscar nominations and wins of the actors no longer nominated to 0.
+     *
+     * @return the number of rows updated
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "UPDATE actor_names n SET oscar_nominations = 0, oscar_wins = 0 " +
+            "WHERE n.oscar_nominations > 0 AND NOT EXISTS (SELECT 1 FROM oscar_award_links l " +
+            "JOIN the_oscar_awards o ON o.id = l.award_id WHERE l.actor_name_id = n.id AND o.category LIKE 'ACTOR%')")
+    int clearMissingOscarCounts();
+
+    /**
+     * Deletes the nominated movies of every actor.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM actor_oscar_films")
+    void deleteAllOscarFilms();
+
+    /**
+     * Links every actor to the movies of the actor for which they were nominated, the nomination won taking
+     * precedence over the others. Only the awards linked to a movie the actor is credited in are kept.
+     *
+     * @return the number of rows inserted
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO actor_oscar_films (actor_name_id, movie_id, category, winner) " +
+            "SELECT DISTINCT ON (l.actor_name_id, m.movie_id) l.actor_name_id, m.movie_id, o.category, " +
+            "COALESCE(o.winner, false) " +
+            "FROM oscar_award_links l " +
+            "JOIN the_oscar_awards o ON o.id = l.award_id " +
+            "JOIN movies m ON m.id = l.movie_key " +
+            "WHERE l.actor_confidence = 1 " +
+            "ORDER BY l.actor_name_id, m.movie_id, o.winner DESC NULLS LAST")
+    int insertAllOscarFilms();
+
+    /**
+     * Recomputes the Oscar nominations and wins of a single actor.
+     *
+     * @param name the name of the actor, in any case
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "UPDATE actor_names n SET " +
+            "oscar_nominations = (SELECT COUNT(*) FROM oscar_award_links l JOIN the_oscar_awards o ON o.id = l.award_id " +
+            "WHERE l.actor_name_id = n.id AND o.category LIKE 'ACTOR%'), " +
+            "oscar_wins = (SELECT COUNT(*) FROM oscar_award_links l JOIN the_oscar_awards o ON o.id = l.award_id " +
+            "WHERE l.actor_name_id = n.id AND o.category LIKE 'ACTOR%' AND o.winner) " +
+            "WHERE n.normalized_name = LOWER(:name)")
+    void refreshOscarCounts(@Param("name") String name);
+
+    /**
+     * Deletes the nominated movies of a single actor.
+     *
+     * @param name the name of the actor, in any case
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM actor_oscar_films f USING actor_names n " +
+            "WHERE f.actor_name_id = n.id AND n.normalized_name = LOWER(:name)")
+    void deleteOscarFilms(@Param("name") String name);
+
+    /**
+     * Links a single actor to the movies of the actor for which they were nominated.
+     *
+     * @param name the name of the actor, in any case
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO actor_oscar_films (actor_name_id, movie_id, category, winner) " +
+            "SELECT DISTINCT ON (m.movie_id) n.id, m.movie_id, o.category, COALESCE(o.winner, false) " +
+            "FROM actor_names n " +
+            "JOIN oscar_award_links l ON l.actor_name_id = n.id " +
+            "JOIN the_oscar_awards o ON o.id = l.award_id " +
+            "JOIN movies m ON m.id = l.movie_key " +
+            "WHERE n.normalized_name = LOWER(:name) AND l.actor_confidence = 1 " +
+            "ORDER BY m.movie_id, o.winner DESC NULLS LAST")
+    void insertOscarFilms(@Param("name") String name);
+}
@@ -0,0 +1,140 @@
+package it.unito.iumtweb.springboot.actors;
+
+import it.unito.iumtweb.springboot.importer.DatasetImportedEvent;
+import it.unito.iumtweb.springboot.importer.ImportTable;
+import it.unito.iumtweb.springboot.theoscarawards.OscarAwardChangedEvent;
+import it.unito.iumtweb.springboot.theoscarawards.OscarAwardLinkService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service that maintains the actor dimension ({@link ActorNames}) derived from the actors table,
+ * and its Oscar profile derived from the awards table.
+ * <p>
+ * The dimension is refreshed entirely after a bulk import of the actors dataset, and only for the affected names
+ * whenever a credit is inserted, updated or deleted. The Oscar profile (nominations, wins and nominated movies
+ * of each actor) is also refreshed entirely after an import of the actors, movies or awards, and only for the
+ * affected names when a credit or an award changes.
+ * </p>
+ * <p>
+ * The profile is read from the award links, which are resolved against the dimension: the dimension is refreshed
+ * first, then the links by the {@link OscarAwardLinkService}, then the profile.
+ * </p>
+ */
+@Service
+public class ActorNamesService {
+    private static final Logger log = LoggerFactory.getLogger(ActorNamesService.class);
+
+    private final ActorNamesRepository actorNamesRepo;
+
+    /**
+     * Constructs a new ActorNamesService with the specified ActorNamesRepository.
+     *
+     * @param actorNamesRepo the repository for the actor dimension
+     */
+    public ActorNamesService(ActorNamesRepository actorNamesRepo) {
+        this.actorNamesRepo = actorNamesRepo;
+    }
+
+    /**
+     * Recomputes every row of the dimension with two set-based statements that only write the rows that change.
+     */
+    @Transactional
+    public void refreshAll() {
+        int upserted = actorNamesRepo.upsertAll();
+        int cleared = actorNamesRepo.clearMissing();
+        log.info("Actor names refreshed: {} upserted, {} cleared", upserted, cleared);
+    }
+
+    /**
+     * Recomputes the Oscar profile of every actor.
+     */
+    @Transactional
+    public void refreshAllOscars() {
+        int updated = actorNamesRepo.refreshAllOscarCounts() + actorNamesRepo.clearMissingOscarCounts();
+        actorNamesRepo.deleteAllOscarFilms();
+        int films = actorNamesRepo.insertAllOscarFilms();
+        log.info("Actor Oscar profiles refreshed: {} counts updated, {} nominated movies", updated, films);
+    }
+
+    /**
+     * Rebuilds the dimension once the actors table has been bulk loaded,
+     * before the award links and the in-memory indexes reading the dimension are rebuilt.
+     *
+     * @param event the completed import
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void onDatasetImported(DatasetImportedEvent event) {
+        if (event.includes(ImportTable.ACTORS)) {
+            refreshAll();
+        }
+    }
+
+    /**
+     * Rebuilds the Oscar profiles once the actors, movies or awards table has been bulk loaded,
+     * after the award links have been resolved. The counts, and the nominated movies deleted then inserted again,
+     * are refreshed in a single transaction.
+     *
+     * @param event the completed import
+     */
+    @EventListener
+    @Order(OscarAwardLinkService.ORDER + 1)
+    @Transactional
+    public void onDatasetImportedLinked(DatasetImportedEvent event) {
+        if (event.includes(ImportTable.ACTORS) || event.includes(ImportTable.MOVIES)
+                || event.includes(ImportTable.THE_OSCAR_AWARDS)) {
+            refreshAllOscars();
+        }
+    }
+
+    /**
+     * Refreshes the names affected by a credit change, once the change has been committed.
+     *
+     * @param event the credit change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onActorChanged(ActorChangedEvent event) {
+        event.names().forEach(actorNamesRepo::refreshName);
+    }
+
+    /**
+     * Refreshes the Oscar profile of the names affected by a credit change, after their award links.
+     *
+     * @param event the credit change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Order(OscarAwardLinkService.ORDER + 1)
+    public void onActorChangedLinked(ActorChangedEvent event) {
+        event.names().forEach(this::refreshOscars);
+    }
+
+    /**
+     * Refreshes the Oscar profile of the nominees affected by an award change, after the links of the award.
+     *
+     * @param event the award change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Order(OscarAwardLinkService.ORDER + 1)
+    public void onOscarAwardChanged(OscarAwardChangedEvent event) {
+        event.nomineeNames().forEach(this::refreshOscars);
+    }
+
+    private void refreshOscars(String name) {
+        actorNamesRepo.refreshOscarCounts(name);
+        actorNamesRepo.deleteOscarFilms(name);
+        actorNamesRepo.insertOscarFilms(name);
+    }
+}
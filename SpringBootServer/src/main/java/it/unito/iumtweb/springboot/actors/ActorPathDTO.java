@@ -0,0 +1,65 @@
+package it.unito.iumtweb.springboot.actors;
+
+import it.unito.iumtweb.springboot.movies.MoviesCardInfoDTO;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing a shortest chain of co-stars between two actors.
+ * <p>
+ * The movie at position {@code i} links the actors at positions {@code i} and {@code i + 1}; the degrees of
+ * separation are the number of movies in the chain, or -1 if the actors are not linked.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * ActorPathDTO path = new ActorPathDTO(List.of("Kevin Bacon", "Tom Hanks"), cards, 1);
+ * }
+ * </pre>
+ * </p>
+ */
+public class ActorPathDTO {
+    private List<String> actors;
+    private List<MoviesCardInfoDTO> movies;
+    private int degrees;
+
+    /**
+     * Constructs an {@code ActorPathDTO} with the specified chain.
+     *
+     * @param actors  the names of the actors, from the first to the second one queried
+     * @param movies  the cards of the movies linking consecutive actors
+     * @param degrees the number of movies in the chain, or -1 if the actors are not linked
+     */
+    public ActorPathDTO(List<String> actors, List<MoviesCardInfoDTO> movies, int degrees) {
+        this.actors = actors;
+        this.movies = movies;
+        this.degrees = degrees;
+    }
+
+    // Getter & Setter
+    public List<String> getActors() {
+        return actors;
+    }
+
+    public void setActors(List<String> actors) {
+        this.actors = actors;
+    }
+
+    public List<MoviesCardInfoDTO> getMovies() {
+        return movies;
+    }
+
+    public void setMovies(List<MoviesCardInfoDTO> movies) {
+        this.movies = movies;
+    }
+
+    public int getDegrees() {
+        return degrees;
+    }
+
+    public void setDegrees(int degrees) {
+        this.degrees = degrees;
+    }
+}
@@ -0,0 +1,42 @@
+package it.unito.iumtweb.springboot.actors;
+
+/**
+ * Projection of one row of {@link ActorNamesRepository#findProfile}: the profile of an actor,
+ * repeated on every row, with one movie of the actor and the nomination of the actor for it.
+ */
+public interface ActorProfileRow {
+    /**
+     * @return the most frequent spelling of the name of the actor
+     */
+    String getName();
+
+    /**
+     * @return the number of movies of the actor
+     */
+    int getFilmCount();
+
+    /**
+     * @return the number of nominations of the actor in the acting categories
+     */
+    int getOscarNominations();
+
+    /**
+     * @return the number of wins of the actor in the acting categories
+     */
+    int getOscarWins();
+
+    /**
+     * @return the ID of a movie of the actor
+     */
+    String getMovieId();
+
+    /**
+     * @return the category of the nomination of the actor for this movie, or null if none
+     */
+    String getCategory();
+
+    /**
+     * @return true if the actor won the nomination for this movie, null if there is none
+     */
+    Boolean getWinner();
+}
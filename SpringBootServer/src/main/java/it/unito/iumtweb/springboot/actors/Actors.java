@@ -6,6 +6,7 @@ import jakarta.persistence.*;
  */
 @Entity
 @Table(name = "Actors")
+@EntityListeners(ActorsChangeListener.class)
 public class Actors {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -13,6 +14,9 @@ public class Actors {
     private String name;
     @Column(nullable = false)
     private String role;
+    // Value read from the database, used to refresh the actor dimension when it changes
+    @Transient
+    private String loadedName;
 
     /**
      * Default constructor for Actors.
@@ -56,6 +60,15 @@ public class Actors {
     public void setRole(String role) {
         this.role = role;
     }
-}
 
+    String getLoadedName() {
+        return loadedName;
+    }
 
+    /**
+     * Records the current name as the value stored in the database.
+     */
+    void rememberLoadedState() {
+        this.loadedName = name;
+    }
+}
@@ -0,0 +1,52 @@
+package it.unito.iumtweb.springboot.actors;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * JPA entity listener that turns every change of an {@link Actors} row into an {@link ActorChangedEvent}.
+ * <p>
+ * The listener is instantiated by Spring through Hibernate's bean container, so it can publish application events.
+ * The name read from the database is remembered on load, so that renaming a credit also refreshes the previous name.
+ * </p>
+ */
+@Component
+public class ActorsChangeListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Constructs a new ActorsChangeListener with the specified ApplicationEventPublisher.
+     *
+     * @param eventPublisher the publisher of the {@link ActorChangedEvent}
+     */
+    public ActorsChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostLoad
+    void remember(Actors actor) {
+        actor.rememberLoadedState();
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void publish(Actors actor) {
+        Set<String> names = new HashSet<>(2);
+        if (actor.getName() != null) {
+            names.add(actor.getName());
+        }
+        if (actor.getLoadedName() != null) {
+            names.add(actor.getLoadedName());
+        }
+        eventPublisher.publishEvent(new ActorChangedEvent(Set.copyOf(names)));
+        actor.rememberLoadedState();
+    }
+}
@@ -1,6 +1,7 @@
 package it.unito.iumtweb.springboot.actors;
 
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -72,7 +73,8 @@ public class ActorsController {
      * Retrieves detailed information about an actor by their name.
      *
      * @param name the name of the actor
-     * @return a ResponseEntity containing an ActorsInfoDTO with detailed actor information
+     * @return a ResponseEntity containing an ActorsInfoDTO with detailed actor information,
+     *         or 404 if no actor has this name, with the closest names in {@code didYouMean} if any
      */
     @GetMapping("/info/{name}")
     public ResponseEntity<ActorsInfoDTO> getActorsInfo(@PathVariable String name) {
@@ -80,9 +82,12 @@ public class ActorsController {
             return ResponseEntity.badRequest().build();
         }
         ActorsInfoDTO dto = service.getActorsInfo(name);
-//        if (dto == null) {
-//            return ResponseEntity.notFound().build();
-//        }
+        if (dto == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (dto.getName() == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(dto);
+        }
         return ResponseEntity.ok(dto);
     }
 }
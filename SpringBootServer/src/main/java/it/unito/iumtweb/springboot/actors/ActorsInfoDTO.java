@@ -13,6 +13,15 @@ import java.util.List;
  *  information typically needed for displaying actor profiles, listings, or
  *  search results in REST API responses or user interface components.
  * </p>
+ * <p>
+ * When the requested name matches no actor exactly, {@code didYouMean} lists the closest names, best first; it is
+ * empty for an exact match. The DTO then describes the closest known actor if the correction is unambiguous, and
+ * otherwise has no name and no movies.
+ * </p>
+ * <p>
+ * {@code oscarNominations} and {@code oscarNumber} count the nominations and wins in the acting categories,
+ * and {@code filmCount} the movies the actor appears in.
+ * </p>
  *
  * <p>
  * Example usage:
@@ -31,6 +40,9 @@ public class ActorsInfoDTO {
     private String name;
     private List<MoviesCardInfoDTO> movies;
     private Integer oscarNumber;
+    private Integer oscarNominations;
+    private Integer filmCount;
+    private List<String> didYouMean = List.of();
 
     /**
      * Constructs an {@code ActorsInfoDTO} with the specified details.
@@ -69,4 +81,28 @@ public class ActorsInfoDTO {
     public void setOscarNumber(Integer oscarNumber) {
         this.oscarNumber = oscarNumber;
     }
+
+    public Integer getOscarNominations() {
+        return oscarNominations;
+    }
+
+    public void setOscarNominations(Integer oscarNominations) {
+        this.oscarNominations = oscarNominations;
+    }
+
+    public Integer getFilmCount() {
+        return filmCount;
+    }
+
+    public void setFilmCount(Integer filmCount) {
+        this.filmCount = filmCount;
+    }
+
+    public List<String> getDidYouMean() {
+        return didYouMean;
+    }
+
+    public void setDidYouMean(List<String> didYouMean) {
+        this.didYouMean = didYouMean;
+    }
 }
@@ -4,7 +4,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -23,15 +22,6 @@ public interface ActorsRepository extends JpaRepository<Actors, Long> {
      */
     List<Actors> findByNameIgnoreCase(String name);
 
-    /**
-     * Finds a list of actors whose names contain the specified substring, ignoring case.
-     *
-     * @param name the substring to search for in actor names
-     * @return a list of {@link Actors} entities whose names match the search criteria
-     */
-    @Query("SELECT DISTINCT a.name FROM Actors a WHERE LOWER(a.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<String> findByNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
-
     /**
      * Finds a paginated list of actors associated with a specific movie ID.
      *
@@ -46,17 +36,12 @@ public interface ActorsRepository extends JpaRepository<Actors, Long> {
     Page<Actors> findActorByMovieId(String movieId, Pageable pageable);
 
     /**
-     * Finds a paginated list of distinct actor names that match the given search value.
+     * Finds the whole cast of the movie with the specified ID.
      *
-     * @param searchValue the string to search for in actor names
-     * @param pageable    the pagination information
-     * @return a paginated list of actor names matching the search criteria
+     * @param movieId the unique identifier of the movie
+     * @return a list of {@link Actors} entities for the given movie
      */
-    @Query(nativeQuery = true, value="SELECT DISTINCT  a.name " +
-            "FROM Actors as a " +
-            "WHERE LOWER(a.name) LIKE LOWER(CONCAT('%', :searchValue, '%')) ",
-            countQuery="SELECT count(DISTINCT  a.name) FROM Actors as a WHERE LOWER(a.name) LIKE LOWER(CONCAT('%', :searchValue, '%'))")
-    Page<String> findActorNameByString(@Param("searchValue")String searchValue, Pageable pageable);
+    List<Actors> findByMovieId(String movieId);
 
     /**
      * Finds a list of roles played by an actor with the specified name.
@@ -2,14 +2,17 @@ package it.unito.iumtweb.springboot.actors;
 
 import it.unito.iumtweb.springboot.movies.MoviesCardInfoDTO;
 import it.unito.iumtweb.springboot.movies.MoviesRepository;
-import it.unito.iumtweb.springboot.theoscarawards.TheOscarAwardsRepository;
+import it.unito.iumtweb.springboot.search.DidYouMeanService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Service class for managing actors-related operations.
@@ -17,26 +20,33 @@ import java.util.List;
  */
 @Service
 public class ActorsService {
+    private static final int DID_YOU_MEAN_LIMIT = 5;
+
     private final ActorsRepository actorsRepo;
+    private final ActorNamesRepository actorNamesRepo;
     private final MoviesRepository moviesRepo;
-    private final TheOscarAwardsRepository theOscarAwardsRepo;
+    private final DidYouMeanService didYouMeanService;
 
     /**
-     * Constructs an ActorsService with the specified repositories.
+     * Constructs an ActorsService with the specified repositories and DidYouMeanService.
      *
-     * @param actorsRepo          the repository for managing Actors entities
-     * @param moviesRepo          the repository for managing Movies entities
-     * @param theOscarAwardsRepo  the repository for managing TheOscarAwards entities
+     * @param actorsRepo        the repository for managing Actors entities
+     * @param actorNamesRepo    the repository of the actor dimension, used for name searches and actor profiles
+     * @param moviesRepo        the repository for managing Movies entities
+     * @param didYouMeanService the service correcting misspelled actor names
      */
     @Autowired
-    public ActorsService(ActorsRepository actorsRepo, MoviesRepository moviesRepo, TheOscarAwardsRepository theOscarAwardsRepo) {
+    public ActorsService(ActorsRepository actorsRepo, ActorNamesRepository actorNamesRepo, MoviesRepository moviesRepo,
+                         DidYouMeanService didYouMeanService) {
         this.actorsRepo = actorsRepo;
+        this.actorNamesRepo = actorNamesRepo;
         this.moviesRepo = moviesRepo;
-        this.theOscarAwardsRepo = theOscarAwardsRepo;
+        this.didYouMeanService = didYouMeanService;
     }
 
     /**
-     * Retrieves a paginated list of actor names that match the given search value.
+     * Retrieves a paginated list of actor names that match the given search value,
+     * from the actor with the most movies to the one with the fewest.
      *
      * @param searchValue the string to search for in actor names
      * @param page        the page number to retrieve (0-based)
@@ -45,22 +55,19 @@ public class ActorsService {
      */
     public List<String> getActorsNamesByString(String searchValue, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return actorsRepo.findActorNameByString(searchValue ,pageable).getContent();
+        return actorNamesRepo.findNamesContaining(searchValue, pageable);
     }
 
     /**
      * Retrieves a list of actors whose names contain the specified substring, ignoring case.
+     * Names are searched in the actor dimension, which holds each name once, and ranked by number of movies.
      *
      * @param name the substring to search for in actor names
-     * @return a list of {@link Actors} entities whose names match the search criteria
+     * @return a list of distinct actor names matching the search criteria
      */
     public List<String> getActorByName(String name, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        // 1. Trova le entità dal DB
-        return actorsRepo.findByNameContainingIgnoreCase(name, pageable)
-                .stream()
-                .distinct()
-                .toList();
+        return actorNamesRepo.findNamesContaining(name, pageable);
     }
 
     /**
@@ -76,22 +83,77 @@ public class ActorsService {
         return actorsRepo.findActorByMovieId(movieId, pageable);
     }
 
+    /**
+     * Retrieves the whole cast of a specific movie.
+     *
+     * @param movieId the unique identifier of the movie
+     * @return a list of {@link Actors} entities for the given movie
+     */
+    public List<Actors> getActorsByMovieId(String movieId) {
+        return actorsRepo.findByMovieId(movieId);
+    }
+
     /**
      * Retrieves detailed information about an actor, including their filmography and number of Oscars won.
-     * If the actor is not found, it returns null.
+     * If no actor has this name, the closest known names are listed in {@link ActorsInfoDTO#getDidYouMean()}.
+     * The profile of the closest name is only returned instead when that correction is unambiguous: a single known
+     * name one edit away. Otherwise the DTO has no name and only lists the suggestions, and if no name is close
+     * enough, it returns null.
+     * <p>
+     * The profile is read with a single query from the actor dimension, which holds the Oscar counts and the
+     * nominated movies of each actor; the movie cards are then read with a single query by ID.
+     * </p>
      *
      * @param name the name of the actor
-     * @return an {@link ActorsInfoDTO} containing the actor's information, or null if the actor is not found
+     * @return an {@link ActorsInfoDTO} containing the actor's information, one without name listing the closest
+     *         names if the name cannot be corrected unambiguously, or null if the actor is not found
      */
     public ActorsInfoDTO getActorsInfo(String name) {
-        List<Actors> actors = actorsRepo.findByNameIgnoreCase(name);
-        if (actors.isEmpty()) {
-            return null; // Actor not found
+        List<ActorProfileRow> profile = actorNamesRepo.findProfile(name);
+        List<String> didYouMean = List.of();
+        if (profile.isEmpty()) {
+            didYouMean = didYouMeanService.suggestActorNames(name, DID_YOU_MEAN_LIMIT);
+            if (didYouMean.isEmpty()) {
+                return null; // Actor not found
+            }
+            Optional<String> correction = didYouMeanService.correctActorName(name);
+            if (correction.isPresent()) {
+                profile = actorNamesRepo.findProfile(correction.get());
+            }
+            if (profile.isEmpty()) {
+                ActorsInfoDTO suggestions = new ActorsInfoDTO(null, List.of(), null);
+                suggestions.setDidYouMean(didYouMean);
+                return suggestions;
+            }
         }
-        String actorName = actors.getFirst().getName();
-        List<MoviesCardInfoDTO> movies = moviesRepo.findMoviesByActorOscarWinner(actorName);
-        //int oscarNumber = theOscarAwardsRepo.countTheOscarAwardsByNameAndCategory(actorName, "ACTOR");
-        int oscarNumber = theOscarAwardsRepo.countOscarsByActorGenericCategory(actorName);
-        return new ActorsInfoDTO(actorName, movies, oscarNumber);
+        ActorProfileRow first = profile.getFirst();
+        ActorsInfoDTO dto = new ActorsInfoDTO(first.getName(), toCards(profile), first.getOscarWins());
+        dto.setFilmCount(first.getFilmCount());
+        dto.setOscarNominations(first.getOscarNominations());
+        dto.setDidYouMean(didYouMean);
+        return dto;
+    }
+
+    /**
+     * Reads the cards of the movies of a profile, in its order, with the nomination of the actor for each movie
+     * as roles and the outcome of that nomination as Oscar-winner flag.
+     *
+     * @param profile the rows of the profile
+     * @return the cards of the movies
+     */
+    private List<MoviesCardInfoDTO> toCards(List<ActorProfileRow> profile) {
+        Map<String, MoviesCardInfoDTO> cards = new HashMap<>();
+        for (MoviesCardInfoDTO card : moviesRepo.findMovieCardsByIds(profile.stream().map(ActorProfileRow::getMovieId).toList())) {
+            cards.put(card.movieId(), card);
+        }
+        return profile.stream()
+                .filter(row -> cards.containsKey(row.getMovieId()))
+                .map(row -> {
+                    MoviesCardInfoDTO card = cards.get(row.getMovieId());
+                    return new MoviesCardInfoDTO(card.movieId(), card.movieTitle(), card.tagline(), card.description(),
+                            card.rating(), card.yearOfRelease(), card.posterLink(), row.getCategory(),
+                            Boolean.TRUE.equals(row.getWinner()));
+                })
+                .toList();
     }
-}
\ No newline at end of file
+}
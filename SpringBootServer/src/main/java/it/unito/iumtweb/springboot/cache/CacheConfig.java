@@ -0,0 +1,82 @@
+package it.unito.iumtweb.springboot.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Configuration class enabling the in-process Caffeine caches of the application.
+ * <p>
+ * Each cache listed in {@link CacheNames} has its own time-to-live and maximum weight. The weight of an entry is
+ * the number of elements it holds (names of a list, cards of a page), so the bound caps the memory of a cache
+ * rather than its number of entries. Statistics are recorded for every cache and exposed by {@link CacheController}.
+ * Caches not declared here cannot be created at runtime.
+ * </p>
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Expiry and size bound of a single cache.
+     *
+     * @param timeToLive   how long an entry stays valid after being written
+     * @param maximumWeight the maximum total number of elements held by the cache
+     */
+    record CacheSpec(Duration timeToLive, long maximumWeight) {
+    }
+
+    /**
+     * Reference data only changes with a dataset import, which clears every cache anyway.
+     * Listings expire quickly, as they also reflect added movies and Oscar award changes.
+     */
+    static final Map<String, CacheSpec> SPECS = Map.of(
+            CacheNames.GENRES, new CacheSpec(Duration.ofHours(24), 1_000),
+            CacheNames.COUNTRY_NAMES, new CacheSpec(Duration.ofHours(24), 1_000),
+            CacheNames.YEARS, new CacheSpec(Duration.ofHours(1), 1_000),
+            CacheNames.TOP_MOVIES, new CacheSpec(Duration.ofMinutes(10), 100),
+            CacheNames.MOVIES_OPTIONS, new CacheSpec(Duration.ofMinutes(5), 50_000),
+            CacheNames.CREW, new CacheSpec(Duration.ofHours(24), 20_000));
+
+    /**
+     * Creates the cache manager with one Caffeine cache per entry of {@link #SPECS}.
+     *
+     * @return the application {@link CacheManager}
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager manager = new CaffeineCacheManager();
+        manager.setCacheNames(SPECS.keySet());
+        SPECS.forEach((name, spec) -> manager.registerCustomCache(name, Caffeine.newBuilder()
+                .expireAfterWrite(spec.timeToLive())
+                .maximumWeight(spec.maximumWeight())
+                .weigher((Object key, Object value) -> weigh(value))
+                .recordStats()
+                .build()));
+        return manager;
+    }
+
+    /**
+     * Weighs a cached value by the number of elements it holds.
+     *
+     * @param value the cached value
+     * @return the weight of the value, at least 1
+     */
+    static int weigh(Object value) {
+        if (value instanceof Page<?> page) {
+            return Math.max(1, page.getNumberOfElements());
+        }
+        if (value instanceof Collection<?> collection) {
+            return Math.max(1, collection.size());
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,46 @@
+package it.unito.iumtweb.springboot.cache;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller that exposes endpoints for monitoring and clearing the application caches.
+ * All endpoints are mapped under <code>/cache</code>.
+ */
+@RestController
+@RequestMapping("/cache")
+public class CacheController {
+    private final CacheService service;
+
+    /**
+     * Constructs a new CacheController with the specified CacheService.
+     *
+     * @param service the service for the application caches
+     */
+    public CacheController(CacheService service) {
+        this.service = service;
+    }
+
+    /**
+     * Retrieves the hit, miss, eviction and size statistics of every cache.
+     *
+     * @return a list of {@link CacheStatsDTO} objects, one per cache
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStatsDTO>> getStats() {
+        return ResponseEntity.ok(service.getStats());
+    }
+
+    /**
+     * Empties every cache.
+     *
+     * @return 204 once the caches have been cleared
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> clearAll() {
+        service.clearAll();
+        return ResponseEntity.noContent().build();
+    }
+}
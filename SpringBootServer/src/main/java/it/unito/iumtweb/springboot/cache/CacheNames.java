@@ -0,0 +1,23 @@
+package it.unito.iumtweb.springboot.cache;
+
+/**
+ * Names of the application caches, shared by the {@code @Cacheable} and {@code @CacheEvict} annotations
+ * of the services and by {@link CacheConfig}, which defines the expiry and size bound of each of them.
+ */
+public final class CacheNames {
+    /** Distinct genre names served by <code>/genres/all</code>. */
+    public static final String GENRES = "genres";
+    /** Distinct years of release served by <code>/movies/years</code>. */
+    public static final String YEARS = "years";
+    /** Distinct country names served by <code>/countries/names/unique</code>. */
+    public static final String COUNTRY_NAMES = "countryNames";
+    /** Top-rated movies served by <code>/movies/top</code>. */
+    public static final String TOP_MOVIES = "topMovies";
+    /** First pages of the filtered listing served by <code>/movies/options</code>. */
+    public static final String MOVIES_OPTIONS = "moviesOptions";
+    /** Crew of a single movie served by <code>/crew/movie/{movieId}</code> and the movie detail. */
+    public static final String CREW = "crew";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,103 @@
+package it.unito.iumtweb.springboot.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import it.unito.iumtweb.springboot.importer.DatasetImportedEvent;
+import it.unito.iumtweb.springboot.theoscarawards.OscarAwardChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Service class that reports on and invalidates the application caches.
+ * <p>
+ * Entries invalidated by a single service operation are evicted by that operation's {@code @CacheEvict};
+ * this service handles the events that affect several caches at once.
+ * </p>
+ */
+@Service
+public class CacheService {
+    private static final Logger log = LoggerFactory.getLogger(CacheService.class);
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Constructs a new CacheService with the specified CacheManager.
+     *
+     * @param cacheManager the application cache manager
+     */
+    public CacheService(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Retrieves the usage statistics of every cache.
+     * The pending maintenance of each cache is run first, so that sizes and weights include the latest writes.
+     *
+     * @return a list of {@link CacheStatsDTO} objects, one per cache, sorted by name
+     */
+    public List<CacheStatsDTO> getStats() {
+        return cacheManager.getCacheNames().stream()
+                .sorted()
+                .map(cacheManager::getCache)
+                .filter(CaffeineCache.class::isInstance)
+                .map(cache -> {
+                    com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = ((CaffeineCache) cache).getNativeCache();
+                    // Caffeine records writes in a buffer applied asynchronously: apply them before reading the weight
+                    nativeCache.cleanUp();
+                    CacheStats stats = nativeCache.stats();
+                    long weight = nativeCache.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L);
+                    return new CacheStatsDTO(cache.getName(), nativeCache.estimatedSize(), stats.hitCount(),
+                            stats.missCount(), stats.hitRate(), stats.evictionCount(), weight);
+                })
+                .toList();
+    }
+
+    /**
+     * Empties every cache.
+     */
+    public void clearAll() {
+        cacheManager.getCacheNames().stream()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .forEach(Cache::clear);
+    }
+
+    /**
+     * Empties every cache once a dataset has been bulk loaded, as any reference list may have changed.
+     *
+     * @param event the completed import
+     */
+    @EventListener
+    @Order(DatasetImportedEvent.CACHE_ORDER)
+    public void onDatasetImported(DatasetImportedEvent event) {
+        clearAll();
+        log.info("Caches cleared after dataset import");
+    }
+
+    /**
+     * Evicts the cached listings once an award change has been committed, as their Oscar-winner flags may have changed.
+     *
+     * @param event the award change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOscarAwardChanged(OscarAwardChangedEvent event) {
+        evict(CacheNames.TOP_MOVIES);
+        evict(CacheNames.MOVIES_OPTIONS);
+    }
+
+    private void evict(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package it.unito.iumtweb.springboot.cache;
+
+/**
+ * Data Transfer Object (DTO) representing the usage statistics of a single cache.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * CacheStatsDTO stats = new CacheStatsDTO("genres", 12, 120, 1, 0.99, 0, 1);
+ * }
+ * </pre>
+ * </p>
+ */
+public class CacheStatsDTO {
+    private String name;
+    private long entries;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;
+    private long weight;
+
+    /**
+     * Constructs a {@code CacheStatsDTO} with the specified statistics.
+     *
+     * @param name      the name of the cache
+     * @param entries   the approximate number of entries currently cached
+     * @param hits      the number of lookups served from the cache
+     * @param misses    the number of lookups that had to be computed
+     * @param hitRate   the ratio of hits over all lookups
+     * @param evictions the number of entries evicted because of the size bound
+     * @param weight    the total weight of the cached entries
+     */
+    public CacheStatsDTO(String name, long entries, long hits, long misses, double hitRate, long evictions, long weight) {
+        this.name = name;
+        this.entries = entries;
+        this.hits = hits;
+        this.misses = misses;
+        this.hitRate = hitRate;
+        this.evictions = evictions;
+        this.weight = weight;
+    }
+
+    // Getter & Setter
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getEntries() {
+        return entries;
+    }
+
+    public void setEntries(long entries) {
+        this.entries = entries;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public void setHitRate(double hitRate) {
+        this.hitRate = hitRate;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    public void setWeight(long weight) {
+        this.weight = weight;
+    }
+}
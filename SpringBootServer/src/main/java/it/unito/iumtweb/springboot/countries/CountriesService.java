@@ -1,5 +1,7 @@
 package it.unito.iumtweb.springboot.countries;
 
+import it.unito.iumtweb.springboot.cache.CacheNames;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -35,8 +37,11 @@ public class CountriesService {
     /**
      * Retrieves a list of distinct country names from the Countries entities.
      *
+     * The list is cached, as countries only change with a dataset import.
+     *
      * @return a list of unique country names
      */
+    @Cacheable(CacheNames.COUNTRY_NAMES)
     public List<String> getUniqueCountryNames() {
         return repo.findDistinctCountryNames();
     }
@@ -33,7 +33,7 @@ public class CrewController {
      * @param movieId the unique identifier of the movie
      * @return a {@link CrewInfoDTO} containing crew details for that movie
      */
-    @GetMapping("/movie/{moviesId}")
+    @GetMapping("/movie/{movieId}")
     public ResponseEntity<CrewInfoDTO> getCrew(@PathVariable String movieId) {
 
         if (movieId == null || movieId.isEmpty()) {
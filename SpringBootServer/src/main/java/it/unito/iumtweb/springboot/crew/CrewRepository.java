@@ -9,45 +9,17 @@ import java.util.List;
 
 /**
  * Repository interface for managing {@link Crew} entities.
- * Provides methods for querying crew members by movie ID and role.
+ * Provides methods for querying crew members by movie ID.
  */
 @Repository
 public interface CrewRepository extends JpaRepository<Crew, Long> {
     /**
-     * Retrieves a list of distinct crew members for the specified movie ID.
+     * Retrieves every crew member of the specified movie, in the order of the dataset.
+     * Served by the index on <code>crew.movie_id</code>.
      *
      * @param movieId the unique identifier of the movie
      * @return a list of {@link Crew} entities for the given movie
      */
-    List<Crew> findCrewByMovieId(String movieId);
-
-    /**
-     * Retrieves the list of director names for the specified movie.
-     * Only crew members whose role is exactly "director" (case-insensitive) are returned.
-     *
-     * @param movieId the unique identifier of the movie
-     * @return a list of director names for the given movie
-     */
-    @Query("SELECT DISTINCT c.name FROM Crew c WHERE LOWER(c.role) = 'director' AND c.movieId = :movieId")
-    List<String> findDirectorNamesByMovieId(@Param("movieId") String movieId);
-
-    /**
-     * Retrieves the list of producer names for the specified movie.
-     * Only crew members whose role is exactly "producer" (case-insensitive) are returned.
-     *
-     * @param movieId the unique identifier of the movie
-     * @return a list of producer names for the given movie
-     */
-    @Query("SELECT DISTINCT c.name FROM Crew c WHERE LOWER(c.role) = 'producer' AND c.movieId = :movieId")
-    List<String> findProducerNamesByMovieId(@Param("movieId") String movieId);
-
-    /**
-     * Retrieves the list of screenwriter names for the specified movie.
-     * Only crew members whose role is exactly "screenwriter" (case-insensitive) are returned.
-     *
-     * @param movieId the unique identifier of the movie
-     * @return a list of screenwriter names for the given movie
-     */
-    @Query("SELECT DISTINCT c.name FROM Crew c WHERE LOWER(c.role) = 'screenwriter' AND c.movieId = :movieId")
-    List<String> findScreenwriterNamesByMovieId(@Param("movieId") String movieId);
+    @Query("SELECT c FROM Crew c WHERE c.movieId = :movieId ORDER BY c.id")
+    List<Crew> findCrewByMovieId(@Param("movieId") String movieId);
 }
@@ -0,0 +1,49 @@
+package it.unito.iumtweb.springboot.crew;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Dictionary of the crew roles given a dedicated field of {@link CrewInfoDTO}.
+ * <p>
+ * The dataset spells roles freely ("Director", "director", "Writer", "Screenplay"...). Every spelling is resolved
+ * once, through a case-insensitive lookup table, to a role code; roles without a dedicated field resolve to
+ * {@link #OTHER} and are listed among the other credits under their original name.
+ * </p>
+ */
+public enum CrewRole {
+    DIRECTOR("director"),
+    PRODUCER("producer"),
+    SCREENWRITER("writer", "screenwriter", "screenplay"),
+    OTHER;
+
+    private static final Map<String, CrewRole> BY_NAME = new HashMap<>();
+
+    static {
+        for (CrewRole role : values()) {
+            for (String name : role.names) {
+                BY_NAME.put(name, role);
+            }
+        }
+    }
+
+    private final String[] names;
+
+    CrewRole(String... names) {
+        this.names = names;
+    }
+
+    /**
+     * Resolves a role as spelled in the dataset to its role code.
+     *
+     * @param role the role of a crew member
+     * @return the matching role, or {@link #OTHER} if the role has no dedicated field
+     */
+    public static CrewRole of(String role) {
+        if (role == null) {
+            return OTHER;
+        }
+        return BY_NAME.getOrDefault(role.trim().toLowerCase(Locale.ROOT), OTHER);
+    }
+}
@@ -1,12 +1,18 @@
 package it.unito.iumtweb.springboot.crew;
 
+import it.unito.iumtweb.springboot.cache.CacheNames;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * Service class that provides high-level operations for retrieving and analyzing
@@ -41,12 +47,14 @@ public class CrewService {
      *
      * <p>The method performs the following operations:</p>
      * <ul>
-     *     <li>Fetches director, producer, and screenwriter names through dedicated repository queries.</li>
-     *     <li>Retrieves the full list of crew members associated with the movie.</li>
+     *     <li>Retrieves the full list of crew members associated with the movie, with a single query.</li>
      *     <li>If no crew is found, returns an empty {@link CrewInfoDTO}.</li>
-     *     <li>Groups all remaining crew members by role, excluding the main roles
-     *         (Director, Producer, Writer), and maps them into {@link CrewInfoDTO.CrewCreditDTO} objects.</li>
+     *     <li>Resolves the role of each member through the {@link CrewRole} dictionary, so that every spelling
+     *         of director, producer and screenwriter lands in its dedicated list, without duplicate names.</li>
+     *     <li>Groups all remaining crew members by role, in the order of the dataset, and maps them into
+     *         {@link CrewInfoDTO.CrewCreditDTO} objects.</li>
      * </ul>
+     * The result is cached per movie: crew data only changes with a dataset import, which clears the caches.
      *
      * @param movieId the unique identifier of the movie whose crew information is requested
      * @return a {@link CrewInfoDTO} containing:
@@ -57,23 +65,30 @@ public class CrewService {
      *             <li>a list of other crew roles with their associated member names</li>
      *         </ul>
      */
+    @Cacheable(CacheNames.CREW)
     public CrewInfoDTO getCrewByMovieId(String movieId) {
-        List<String> directors = repo.findDirectorNamesByMovieId(movieId);
-        List<String> producers = repo.findProducerNamesByMovieId(movieId);
-        List<String> screenwriters = repo.findScreenwriterNamesByMovieId(movieId);
         List<Crew> allCrew = repo.findCrewByMovieId(movieId);
         if (allCrew.isEmpty()) {
             return new CrewInfoDTO(Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
         }
-        Map<String, List<String>> crewByRole = allCrew.stream()
-                .collect(Collectors.groupingBy(
-                        Crew::getRole,
-                        Collectors.mapping(Crew::getName, Collectors.toList())
-                ));
-        List<CrewInfoDTO.CrewCreditDTO> otherCredits = crewByRole.entrySet().stream()
-                .filter(entry -> !List.of("Director", "Producer", "Writer").contains(entry.getKey()))
-                .map(entry -> new CrewInfoDTO.CrewCreditDTO(entry.getKey(), entry.getValue()))
-                .collect(Collectors.toList());
-        return new CrewInfoDTO(directors, producers, screenwriters, otherCredits);
+        Map<CrewRole, Set<String>> mainRoles = new EnumMap<>(CrewRole.class);
+        Map<String, List<String>> otherRoles = new LinkedHashMap<>();
+        for (Crew member : allCrew) {
+            CrewRole role = CrewRole.of(member.getRole());
+            if (role == CrewRole.OTHER) {
+                otherRoles.computeIfAbsent(member.getRole(), r -> new ArrayList<>()).add(member.getName());
+            } else {
+                mainRoles.computeIfAbsent(role, r -> new LinkedHashSet<>()).add(member.getName());
+            }
+        }
+        List<CrewInfoDTO.CrewCreditDTO> otherCredits = new ArrayList<>(otherRoles.size());
+        otherRoles.forEach((role, names) -> otherCredits.add(new CrewInfoDTO.CrewCreditDTO(role, names)));
+        return new CrewInfoDTO(names(mainRoles, CrewRole.DIRECTOR), names(mainRoles, CrewRole.PRODUCER),
+                names(mainRoles, CrewRole.SCREENWRITER), otherCredits);
+    }
+
+    private static List<String> names(Map<CrewRole, Set<String>> mainRoles, CrewRole role) {
+        Set<String> names = mainRoles.get(role);
+        return names == null ? Collections.emptyList() : new ArrayList<>(names);
     }
 }
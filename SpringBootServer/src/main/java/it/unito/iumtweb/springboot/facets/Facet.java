@@ -0,0 +1,52 @@
+package it.unito.iumtweb.springboot.facets;
+
+import it.unito.iumtweb.springboot.importer.ImportTable;
+
+/**
+ * Dimensions the movie listing can be filtered and counted by, with the query reading the (movie_id, value) pairs
+ * of each dimension and the dataset it is read from.
+ */
+public enum Facet {
+    GENRE("genre", ImportTable.GENRES, "SELECT movie_id, genre FROM genres WHERE genre IS NOT NULL"),
+    YEAR("year", ImportTable.MOVIES, "SELECT movie_id, CAST(date AS text) FROM movies WHERE date IS NOT NULL"),
+    COUNTRY("country", ImportTable.COUNTRIES, "SELECT movie_id, country FROM countries WHERE country IS NOT NULL"),
+    LANGUAGE("language", ImportTable.LANGUAGES, "SELECT movie_id, language FROM languages WHERE language IS NOT NULL"),
+    STUDIO("studio", ImportTable.STUDIOS, "SELECT movie_id, studio FROM studios WHERE studio IS NOT NULL");
+
+    private final String parameter;
+    private final ImportTable table;
+    private final String sql;
+
+    Facet(String parameter, ImportTable table, String sql) {
+        this.parameter = parameter;
+        this.table = table;
+        this.sql = sql;
+    }
+
+    /**
+     * Returns the name of the facet, as used by the request parameters and the response.
+     *
+     * @return the name of the facet
+     */
+    public String parameter() {
+        return parameter;
+    }
+
+    /**
+     * Returns the dataset the values of the facet are read from.
+     *
+     * @return the imported table holding the values
+     */
+    public ImportTable table() {
+        return table;
+    }
+
+    /**
+     * Returns the query reading the (movie_id, value) pairs of the facet.
+     *
+     * @return the SQL query
+     */
+    public String sql() {
+        return sql;
+    }
+}
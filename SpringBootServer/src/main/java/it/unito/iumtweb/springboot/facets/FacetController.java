@@ -0,0 +1,81 @@
+package it.unito.iumtweb.springboot.facets;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller that exposes the faceted movie listing.
+ * All endpoints are mapped under <code>/facets</code>.
+ */
+@RestController
+@RequestMapping("/facets")
+public class FacetController {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_VALUE_LIMIT = 100;
+
+    private final FacetService service;
+
+    /**
+     * Constructs a new FacetController with the specified FacetService.
+     *
+     * @param service the service selecting and counting movies by facets
+     */
+    public FacetController(FacetService service) {
+        this.service = service;
+    }
+
+    /**
+     * Retrieves a page of the movies matching the selected facet values, by descending rating,
+     * with the number of movies of the most frequent values of every facet.
+     * Each parameter may be repeated to select several values of the same facet (any of them matches);
+     * different facets must all match.
+     *
+     * @param genre      the selected genres
+     * @param year       the selected release years
+     * @param country    the selected countries
+     * @param language   the selected languages
+     * @param studio     the selected studios
+     * @param page       the page number to retrieve (default 0)
+     * @param size       the number of movies per page (default 12, at most {@value #MAX_PAGE_SIZE})
+     * @param valueLimit the maximum number of values counted per facet (default 20, at most {@value #MAX_VALUE_LIMIT})
+     * @return a {@link FacetResultDTO} with the page and the counts, 400 if the paging is invalid,
+     *         or 503 while the index is being built for the first time
+     */
+    @GetMapping
+    public ResponseEntity<FacetResultDTO> select(@RequestParam(required = false) List<String> genre,
+                                                 @RequestParam(required = false) List<String> year,
+                                                 @RequestParam(required = false) List<String> country,
+                                                 @RequestParam(required = false) List<String> language,
+                                                 @RequestParam(required = false) List<String> studio,
+                                                 @RequestParam(defaultValue = "0") int page,
+                                                 @RequestParam(defaultValue = "12") int size,
+                                                 @RequestParam(defaultValue = "20") int valueLimit) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE || valueLimit < 0 || valueLimit > MAX_VALUE_LIMIT
+                || (long) page * size > Integer.MAX_VALUE) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<Facet, List<String>> filters = new EnumMap<>(Facet.class);
+        putIfPresent(filters, Facet.GENRE, genre);
+        putIfPresent(filters, Facet.YEAR, year);
+        putIfPresent(filters, Facet.COUNTRY, country);
+        putIfPresent(filters, Facet.LANGUAGE, language);
+        putIfPresent(filters, Facet.STUDIO, studio);
+        return service.select(filters, page, size, valueLimit)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    private static void putIfPresent(Map<Facet, List<String>> filters, Facet facet, List<String> values) {
+        if (values != null && !values.isEmpty()) {
+            filters.put(facet, values);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package it.unito.iumtweb.springboot.facets;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable in-memory facet engine over the movies, with one compressed bitmap per value of every {@link Facet}.
+ * <p>
+ * Movies are numbered by rank (rating, best first), so that the bitmap of a selection lists its movies in the order
+ * they are shown and a page is read by position, without sorting. A selection holds, for every facet, the movies
+ * having any of the selected values (OR), and intersects the facets (AND).
+ * </p>
+ * <p>
+ * Counts follow the multi-select convention: the count of a value is the number of movies it would match if it
+ * were added to the selection of its own facet, i.e. the value bitmap intersected with the filters of the other
+ * facets only. Selecting a genre thus leaves the counts of the other genres unchanged.
+ * </p>
+ */
+public class FacetIndex {
+    private final String[] movieIds;
+    private final RoaringBitmap all;
+    private final Map<Facet, Map<String, RoaringBitmap>> bitmaps;
+
+    /**
+     * A page of the movies matching a selection, with the counts of the facet values.
+     *
+     * @param movieIds the IDs of the movies of the page, by rank
+     * @param total    the number of movies matching the selection
+     * @param counts   the most frequent values of every facet, with their count, most frequent first
+     */
+    public record Selection(List<String> movieIds, int total, Map<Facet, List<ValueCount>> counts) {
+    }
+
+    /**
+     * A facet value with the number of movies it matches.
+     *
+     * @param value the value
+     * @param count the number of matching movies
+     */
+    public record ValueCount(String value, int count) {
+    }
+
+    private FacetIndex(String[] movieIds, Map<Facet, Map<String, RoaringBitmap>> bitmaps) {
+        this.movieIds = movieIds;
+        this.bitmaps = bitmaps;
+        this.all = new RoaringBitmap();
+        this.all.add(0L, movieIds.length);
+    }
+
+    /**
+     * Selects the movies matching the given filters and counts the values of every facet.
+     *
+     * @param filters    the selected values of each filtered facet; facets without values are not filtered
+     * @param offset     the number of matching movies to skip
+     * @param limit      the maximum number of movies to return
+     * @param valueLimit the maximum number of values counted per facet
+     * @return the requested page of the matching movies, with their total and the value counts
+     */
+    public Selection select(Map<Facet, ? extends Collection<String>> filters, int offset, int limit, int valueLimit) {
+        Map<Facet, RoaringBitmap> facetFilters = new EnumMap<>(Facet.class);
+        filters.forEach((facet, values) -> {
+            if (values != null && !values.isEmpty()) {
+                facetFilters.put(facet, union(facet, values));
+            }
+        });
+
+        RoaringBitmap matching = intersect(facetFilters.values());
+        int total = matching.getCardinality();
+        List<String> page = new ArrayList<>(Math.max(0, Math.min(limit, total - offset)));
+        for (int position = offset; position < total && position - offset < limit; position++) {
+            page.add(movieIds[matching.select(position)]);
+        }
+
+        Map<Facet, List<ValueCount>> counts = new EnumMap<>(Facet.class);
+        for (Facet facet : Facet.values()) {
+            List<RoaringBitmap> others = new ArrayList<>();
+            facetFilters.forEach((other, bitmap) -> {
+                if (other != facet) {
+                    others.add(bitmap);
+                }
+            });
+            counts.put(facet, count(facet, others.isEmpty() ? null : intersect(others), valueLimit));
+        }
+        return new Selection(page, total, counts);
+    }
+
+    /**
+     * Returns the number of movies.
+     *
+     * @return the number of movies
+     */
+    public int size() {
+        return movieIds.length;
+    }
+
+    /**
+     * Returns the number of distinct values of a facet.
+     *
+     * @param facet the facet
+     * @return the number of values
+     */
+    public int valueCount(Facet facet) {
+        return bitmaps.get(facet).size();
+    }
+
+    /**
+     * Returns the approximate size of the bitmaps, in bytes.
+     *
+     * @return the serialized size of every bitmap
+     */
+    public long bitmapBytes() {
+        long bytes = 0;
+        for (Map<String, RoaringBitmap> values : bitmaps.values()) {
+            for (RoaringBitmap bitmap : values.values()) {
+                bytes += bitmap.getSizeInBytes();
+            }
+        }
+        return bytes;
+    }
+
+    private RoaringBitmap union(Facet facet, Collection<String> values) {
+        Map<String, RoaringBitmap> byValue = bitmaps.get(facet);
+        List<RoaringBitmap> selected = new ArrayList<>(values.size());
+        for (String value : values) {
+            RoaringBitmap bitmap = byValue.get(value);
+            if (bitmap != null) {
+                selected.add(bitmap);
+            }
+        }
+        return selected.size() == 1 ? selected.getFirst() : FastAggregation.or(selected.iterator());
+    }
+
+    private RoaringBitmap intersect(Collection<RoaringBitmap> filters) {
+        if (filters.isEmpty()) {
+            return all;
+        }
+        if (filters.size() == 1) {
+            return filters.iterator().next();
+        }
+        return FastAggregation.and(filters.iterator());
+    }
+
+    /**
+     * Counts the values of a facet within the given filter (all movies if null), keeping the most frequent ones.
+     */
+    private List<ValueCount> count(Facet facet, RoaringBitmap filter, int valueLimit) {
+        if (valueLimit <= 0) {
+            return List.of();
+        }
+        Comparator<ValueCount> leastFrequentFirst = Comparator.comparingInt(ValueCount::count)
+                .thenComparing(ValueCount::value, Comparator.reverseOrder());
+        PriorityQueue<ValueCount> best = new PriorityQueue<>(Math.min(valueLimit, 1024) + 1, leastFrequentFirst);
+        for (Map.Entry<String, RoaringBitmap> entry : bitmaps.get(facet).entrySet()) {
+            RoaringBitmap bitmap = entry.getValue();
+            if (best.size() == valueLimit && bitmap.getCardinality() < best.peek().count()) {
+                // Cannot enter the top values, whatever the filter
+                continue;
+            }
+            int count = filter == null ? bitmap.getCardinality() : RoaringBitmap.andCardinality(bitmap, filter);
+            if (count > 0) {
+                best.add(new ValueCount(entry.getKey(), count));
+                if (best.size() > valueLimit) {
+                    best.poll();
+                }
+            }
+        }
+        ValueCount[] result = new ValueCount[best.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = best.poll();
+        }
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Accumulates the movies, by rank, and their facet values, then compresses them into a {@link FacetIndex}.
+     * Not thread-safe.
+     */
+    public static class Builder {
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final List<String> movieIds = new ArrayList<>();
+        private final Map<Facet, Map<String, RoaringBitmap>> bitmaps = new EnumMap<>(Facet.class);
+
+        /**
+         * Creates an empty builder.
+         */
+        public Builder() {
+            for (Facet facet : Facet.values()) {
+                bitmaps.put(facet, new HashMap<>());
+            }
+        }
+
+        /**
+         * Adds a movie after the previously added ones. Movies already added keep their rank.
+         *
+         * @param movieId the ID of the movie
+         * @return this builder
+         */
+        public Builder addMovie(String movieId) {
+            ordinals.computeIfAbsent(movieId, id -> {
+                movieIds.add(id);
+                return movieIds.size() - 1;
+            });
+            return this;
+        }
+
+        /**
+         * Adds a facet value to an already added movie. Values of unknown movies are ignored.
+         *
+         * @param facet   the facet of the value
+         * @param movieId the ID of the movie
+         * @param value   the value
+         * @return this builder
+         */
+        public Builder addValue(Facet facet, String movieId, String value) {
+            Integer ordinal = movieId == null ? null : ordinals.get(movieId);
+            if (ordinal != null && value != null) {
+                bitmaps.get(facet).computeIfAbsent(value, v -> new RoaringBitmap()).add(ordinal);
+            }
+            return this;
+        }
+
+        /**
+         * Compresses the bitmaps, turning long runs of consecutive movies into run containers.
+         *
+         * @return the new index
+         */
+        public FacetIndex build() {
+            for (Map<String, RoaringBitmap> values : bitmaps.values()) {
+                for (RoaringBitmap bitmap : values.values()) {
+                    bitmap.runOptimize();
+                }
+            }
+            return new FacetIndex(movieIds.toArray(String[]::new), bitmaps);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package it.unito.iumtweb.springboot.facets;
+
+import it.unito.iumtweb.springboot.movies.MoviesCardInfoDTO;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Transfer Object (DTO) representing a page of the faceted movie listing.
+ * <p>
+ * It holds the cards of the page, the number of movies matching the filters, and for every facet
+ * ("genre", "year", "country", "language", "studio") its most frequent values with their number of movies.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * FacetResultDTO result = new FacetResultDTO(cards, 1532, 0, 12,
+ *     Map.of("genre", List.of(new FacetIndex.ValueCount("Drama", 840))));
+ * }
+ * </pre>
+ * </p>
+ */
+public class FacetResultDTO {
+    private List<MoviesCardInfoDTO> movies;
+    private long total;
+    private int page;
+    private int size;
+    private Map<String, List<FacetIndex.ValueCount>> facets;
+
+    /**
+     * Constructs a {@code FacetResultDTO} with the specified details.
+     *
+     * @param movies the cards of the movies of the page, by descending rating
+     * @param total  the number of movies matching the filters
+     * @param page   the page number (zero-based)
+     * @param size   the number of movies per page
+     * @param facets the most frequent values of every facet, with their number of movies
+     */
+    public FacetResultDTO(List<MoviesCardInfoDTO> movies, long total, int page, int size,
+                          Map<String, List<FacetIndex.ValueCount>> facets) {
+        this.movies = movies;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+        this.facets = facets;
+    }
+
+    // Getter & Setter
+    public List<MoviesCardInfoDTO> getMovies() {
+        return movies;
+    }
+
+    public void setMovies(List<MoviesCardInfoDTO> movies) {
+        this.movies = movies;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public Map<String, List<FacetIndex.ValueCount>> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(Map<String, List<FacetIndex.ValueCount>> facets) {
+        this.facets = facets;
+    }
+}
@@ -0,0 +1,120 @@
+package it.unito.iumtweb.springboot.facets;
+
+import it.unito.iumtweb.springboot.TableStreamer;
+import it.unito.iumtweb.springboot.importer.DatasetImportedEvent;
+import it.unito.iumtweb.springboot.movies.MoviesCardInfoDTO;
+import it.unito.iumtweb.springboot.movies.MoviesService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service filtering the movie listing by facets and counting the movies of every facet value,
+ * from an in-memory {@link FacetIndex}.
+ * <p>
+ * The index is built once the application is ready and rebuilt after an import of the movies or of one of the
+ * faceted tables; selections keep being served by the previous index while a new one is built. Only the cards of
+ * the requested page are read from the database. Until the first build completes, {@link #select} returns an
+ * empty {@link Optional}.
+ * </p>
+ */
+@Service
+public class FacetService {
+    private static final Logger log = LoggerFactory.getLogger(FacetService.class);
+
+    private final TableStreamer streamer;
+    private final MoviesService moviesService;
+    private volatile FacetIndex index;
+
+    /**
+     * Constructs a new FacetService with the specified TableStreamer and MoviesService.
+     *
+     * @param streamer      the streamer of the movies and their facet values
+     * @param moviesService the service reading the cards of the selected movies
+     */
+    public FacetService(TableStreamer streamer, MoviesService moviesService) {
+        this.streamer = streamer;
+        this.moviesService = moviesService;
+    }
+
+    /**
+     * Builds the index once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the index if the movies or one of the faceted tables have been bulk loaded.
+     *
+     * @param event the completed import
+     */
+    @EventListener
+    @Order(DatasetImportedEvent.INDEX_ORDER)
+    @Transactional(readOnly = true)
+    public void onDatasetImported(DatasetImportedEvent event) {
+        for (Facet facet : Facet.values()) {
+            if (event.includes(facet.table())) {
+                rebuild();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the index, numbering the movies by descending rating.
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        FacetIndex.Builder builder = new FacetIndex.Builder();
+        streamer.stream("SELECT movie_id FROM movies ORDER BY rating DESC NULLS LAST, movie_id",
+                rs -> builder.addMovie(rs.getString(1)));
+        for (Facet facet : Facet.values()) {
+            streamer.stream(facet.sql(), rs -> builder.addValue(facet, rs.getString(1), rs.getString(2)));
+        }
+        FacetIndex built = builder.build();
+        index = built;
+        log.info("Facet index built: {} movies, {} genres, {} years, {} countries, {} languages, {} studios, "
+                        + "~{} KB of bitmaps in {} ms", built.size(), built.valueCount(Facet.GENRE),
+                built.valueCount(Facet.YEAR), built.valueCount(Facet.COUNTRY), built.valueCount(Facet.LANGUAGE),
+                built.valueCount(Facet.STUDIO), built.bitmapBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Selects a page of the movies matching the given filters, by descending rating, and counts the values of
+     * every facet.
+     *
+     * @param filters    the selected values of each facet; a movie matches if it has any selected value of every
+     *                   filtered facet
+     * @param page       the page number to retrieve (zero-based)
+     * @param size       the number of movies per page
+     * @param valueLimit the maximum number of values counted per facet
+     * @return a {@link FacetResultDTO} with the page and the counts, or empty if the index is not built yet
+     * @throws ArithmeticException if the offset of the page overflows an int
+     */
+    public Optional<FacetResultDTO> select(Map<Facet, ? extends Collection<String>> filters, int page, int size,
+                                           int valueLimit) {
+        FacetIndex current = index;
+        if (current == null) {
+            return Optional.empty();
+        }
+        FacetIndex.Selection selection = current.select(filters, Math.multiplyExact(page, size), size, valueLimit);
+        List<MoviesCardInfoDTO> movies = moviesService.getMovieCardsByIds(selection.movieIds());
+        Map<String, List<FacetIndex.ValueCount>> facets = new LinkedHashMap<>();
+        selection.counts().forEach((facet, counts) -> facets.put(facet.parameter(), counts));
+        return Optional.of(new FacetResultDTO(movies, selection.total(), page, size, facets));
+    }
+}
@@ -1,6 +1,8 @@
 package it.unito.iumtweb.springboot.genres;
 
+import it.unito.iumtweb.springboot.cache.CacheNames;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -37,8 +39,11 @@ public class GenresService {
     /**
      * Retrieves a list of all distinct genres in the database.
      *
+     * The list is cached, as genres only change with a dataset import.
+     *
      * @return a list of genre names as strings
      */
+    @Cacheable(CacheNames.GENRES)
     public List<String> getAllGenres() {
         //return repo.findAll();
         return repo.findUniqueGenreNames();
@@ -0,0 +1,85 @@
+package it.unito.iumtweb.springboot.importer;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * SQL type of a column loaded by the {@link CsvImportService}.
+ * <p>
+ * Each constant knows how to convert a raw CSV cell into the corresponding JDBC parameter.
+ * Empty cells and values that cannot be parsed are bound as SQL {@code NULL}, so a single
+ * malformed cell never aborts a whole batch.
+ * </p>
+ */
+public enum ColumnType {
+    TEXT(Types.VARCHAR) {
+        @Override
+        void bind(PreparedStatement ps, int index, String raw) throws SQLException {
+            ps.setString(index, raw);
+        }
+    },
+    INTEGER(Types.INTEGER) {
+        @Override
+        void bind(PreparedStatement ps, int index, String raw) throws SQLException {
+            ps.setInt(index, (int) Double.parseDouble(raw));
+        }
+    },
+    DOUBLE(Types.DOUBLE) {
+        @Override
+        void bind(PreparedStatement ps, int index, String raw) throws SQLException {
+            ps.setDouble(index, Double.parseDouble(raw));
+        }
+    },
+    /**
+     * Release year. The dataset exports years as floats ("2023.0"), they are stored as SMALLINT years (2023).
+     */
+    YEAR(Types.SMALLINT) {
+        @Override
+        void bind(PreparedStatement ps, int index, String raw) throws SQLException {
+            ps.setShort(index, (short) Double.parseDouble(raw));
+        }
+    },
+    BOOLEAN(Types.BOOLEAN) {
+        @Override
+        void bind(PreparedStatement ps, int index, String raw) throws SQLException {
+            ps.setBoolean(index, raw.equalsIgnoreCase("true") || raw.equals("1") || raw.equalsIgnoreCase("t"));
+        }
+    };
+
+    private final int sqlType;
+
+    ColumnType(int sqlType) {
+        this.sqlType = sqlType;
+    }
+
+    /**
+     * Binds a non-empty raw CSV value to the given statement parameter.
+     *
+     * @param ps    the prepared statement
+     * @param index the 1-based parameter index
+     * @param raw   the raw, non-empty CSV cell
+     * @throws SQLException if the driver rejects the value
+     */
+    abstract void bind(PreparedStatement ps, int index, String raw) throws SQLException;
+
+    /**
+     * Binds a raw CSV value, falling back to SQL {@code NULL} for empty or unparsable cells.
+     *
+     * @param ps    the prepared statement
+     * @param index the 1-based parameter index
+     * @param raw   the raw CSV cell, possibly {@code null}
+     * @throws SQLException if the driver rejects the value
+     */
+    void bindOrNull(PreparedStatement ps, int index, String raw) throws SQLException {
+        if (raw == null || raw.isBlank()) {
+            ps.setNull(index, sqlType);
+            return;
+        }
+        try {
+            bind(ps, index, raw.trim());
+        } catch (NumberFormatException e) {
+            ps.setNull(index, sqlType);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package it.unito.iumtweb.springboot.importer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Runs a full reload of the dataset at startup when the <code>importer.dir</code> property is set.
+ * <p>
+ * Example: <code>java -jar app.jar --importer.dir=/data/letterboxd</code>, or the
+ * <code>IMPORTER_DIR</code> environment variable in docker-compose.
+ * Existing rows are truncated before each table is loaded unless <code>importer.truncate=false</code>.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty("importer.dir")
+public class CsvImportRunner implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(CsvImportRunner.class);
+
+    private final CsvImportService importService;
+    private final Path directory;
+    private final boolean truncate;
+
+    /**
+     * Constructs a new CsvImportRunner.
+     *
+     * @param importService the service performing the load
+     * @param directory     the directory containing the dataset CSV files
+     * @param truncate      whether existing rows must be removed before loading
+     */
+    public CsvImportRunner(CsvImportService importService,
+                           @Value("${importer.dir}") Path directory,
+                           @Value("${importer.truncate:true}") boolean truncate) {
+        this.importService = importService;
+        this.directory = directory;
+        this.truncate = truncate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long start = System.nanoTime();
+        List<ImportReport> reports = importService.importAll(directory, truncate);
+        long rows = reports.stream().mapToLong(ImportReport::rows).sum();
+        log.info("Dataset import from {} completed: {} tables, {} rows in {} s",
+                directory, reports.size(), rows, (System.nanoTime() - start) / 1_000_000_000);
+    }
+}
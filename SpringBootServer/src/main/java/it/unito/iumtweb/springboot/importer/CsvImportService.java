@@ -0,0 +1,177 @@
+package it.unito.iumtweb.springboot.importer;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.exceptions.CsvValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service that bulk loads the CSV files of the Letterboxd dataset into the database.
+ * <p>
+ * Files are read one row at a time and inserted through JDBC batches of {@link #BATCH_SIZE} rows,
+ * so memory usage stays flat regardless of the size of the file. Each table is loaded in a single transaction,
+ * together with its TRUNCATE: a failed load leaves the previous rows in place, and readers never see
+ * a table half loaded. The generation bumped by the TRUNCATE triggers of movies and genres is thus committed
+ * together with the complete table.
+ * JPA is deliberately bypassed: no entity is instantiated and nothing is kept in the persistence context.
+ * For the best throughput the datasource URL should enable {@code reWriteBatchedInserts=true},
+ * which lets the PostgreSQL driver collapse each batch into multi-row INSERT statements.
+ * </p>
+ */
+@Service
+public class CsvImportService {
+    private static final Logger log = LoggerFactory.getLogger(CsvImportService.class);
+
+    /**
+     * Number of rows sent to the database in a single batch.
+     */
+    static final int BATCH_SIZE = 5_000;
+
+    private final DataSource dataSource;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Constructs a new CsvImportService with the specified DataSource.
+     *
+     * @param dataSource     the datasource the tables are loaded into
+     * @param eventPublisher the publisher of the {@link DatasetImportedEvent}
+     */
+    public CsvImportService(DataSource dataSource, ApplicationEventPublisher eventPublisher) {
+        this.dataSource = dataSource;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Loads every table of the dataset whose CSV file is present in the given directory.
+     * Tables are loaded in the order declared by {@link ImportTable}; missing files are skipped.
+     * A {@link DatasetImportedEvent} is published once every table has been loaded.
+     *
+     * @param directory the directory containing the dataset CSV files
+     * @param truncate  whether existing rows must be removed before loading each table
+     * @return the report of every loaded table
+     * @throws IOException  if a file cannot be read
+     * @throws SQLException if the database rejects a batch
+     */
+    public List<ImportReport> importAll(Path directory, boolean truncate) throws IOException, SQLException {
+        List<ImportReport> reports = new ArrayList<>();
+        for (ImportTable table : ImportTable.values()) {
+            Path file = directory.resolve(table.getFileName());
+            if (!Files.isRegularFile(file)) {
+                log.warn("Skipping table {}: {} not found", table.getTableName(), file);
+                continue;
+            }
+            ImportReport report = importTable(table, file, truncate);
+            log.info("Imported {}", report);
+            reports.add(report);
+        }
+        eventPublisher.publishEvent(new DatasetImportedEvent(List.copyOf(reports)));
+        return reports;
+    }
+
+    /**
+     * Streams a single CSV file into its table using batched inserts, committed once the whole file is loaded.
+     *
+     * @param table    the table to load
+     * @param file     the CSV file to read
+     * @param truncate whether existing rows must be removed before loading
+     * @return the report of the load
+     * @throws IOException  if the file cannot be read or is not valid CSV
+     * @throws SQLException if the database rejects a batch
+     */
+    public ImportReport importTable(ImportTable table, Path file, boolean truncate) throws IOException, SQLException {
+        long start = System.nanoTime();
+        long rows = 0;
+        try (Connection connection = dataSource.getConnection();
+             Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             CSVReader csv = new CSVReaderBuilder(reader).build()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                if (truncate) {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("TRUNCATE TABLE " + table.getTableName() + " RESTART IDENTITY");
+                    }
+                }
+                int[] positions = resolvePositions(table, csv.readNext());
+                List<ImportTable.ImportColumn> columns = table.getColumns();
+                try (PreparedStatement ps = connection.prepareStatement(table.insertSql())) {
+                    String[] row;
+                    int pending = 0;
+                    while ((row = csv.readNext()) != null) {
+                        for (int i = 0; i < columns.size(); i++) {
+                            int position = positions[i];
+                            String raw = (position >= 0 && position < row.length) ? row[position] : null;
+                            columns.get(i).bind(ps, i + 1, raw);
+                        }
+                        ps.addBatch();
+                        rows++;
+                        if (++pending == BATCH_SIZE) {
+                            ps.executeBatch();
+                            pending = 0;
+                        }
+                    }
+                    if (pending > 0) {
+                        ps.executeBatch();
+                    }
+                }
+                connection.commit();
+            } catch (SQLException | IOException | CsvValidationException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (CsvValidationException e) {
+            throw new IOException("Invalid CSV in " + file + " at row " + (rows + 1), e);
+        }
+        return new ImportReport(table, rows, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Resolves the position of every column of the table inside the CSV header.
+     *
+     * @param table  the table being loaded
+     * @param header the header row of the CSV file
+     * @return for each table column, its index in the CSV rows, or -1 if the header is missing
+     * @throws IOException if the file has no header row
+     */
+    private int[] resolvePositions(ImportTable table, String[] header) throws IOException {
+        if (header == null) {
+            throw new IOException("Empty CSV file for table " + table.getTableName());
+        }
+        List<ImportTable.ImportColumn> columns = table.getColumns();
+        int[] positions = new int[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            positions[i] = -1;
+            for (int j = 0; j < header.length; j++) {
+                // Strip the UTF-8 BOM some exports put in front of the first header
+                String name = header[j].replace("\uFEFF", "").trim();
+                if (name.equalsIgnoreCase(columns.get(i).header())) {
+                    positions[i] = j;
+                    break;
+                }
+            }
+            if (positions[i] < 0) {
+                log.warn("Column {} not found in {}, it will be loaded as {}", columns.get(i).header(), table.getFileName(),
+                        columns.get(i).nullable() ? "NULL" : "empty strings");
+            }
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,48 @@
+package it.unito.iumtweb.springboot.importer;
+
+import org.springframework.core.Ordered;
+
+import java.util.List;
+
+/**
+ * Application event published by the {@link CsvImportService} once a bulk load of the dataset has completed.
+ * <p>
+ * Components that keep data derived from the imported tables (flags, indexes, aggregates)
+ * listen to this event to rebuild it once, instead of reacting to every single inserted row.
+ * </p>
+ * <p>
+ * The event is published once every loaded table has been committed, outside any transaction. A listener writing
+ * to the database is therefore {@code @Transactional} itself: the methods it calls on its own bean do not go
+ * through the transactional proxy. Each such listener commits on its own, so a later one sees its writes.
+ * </p>
+ * <p>
+ * Listeners run in order: first the tables derived in the database (the actor dimension, then the award links,
+ * then the Oscar-winner flags and the actor profiles derived from the links), then the in-memory indexes at
+ * {@link #INDEX_ORDER}, which read those tables, and last the caches at {@link #CACHE_ORDER}, so that no page
+ * computed from a stale index is cached.
+ * </p>
+ *
+ * @param reports the report of every table that has been loaded
+ */
+public record DatasetImportedEvent(List<ImportReport> reports) {
+
+    /**
+     * Order of the listeners rebuilding an in-memory index from the imported tables.
+     */
+    public static final int INDEX_ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+    /**
+     * Order of the listeners clearing cached responses: after every index has been rebuilt.
+     */
+    public static final int CACHE_ORDER = Ordered.LOWEST_PRECEDENCE;
+
+    /**
+     * Checks whether the given table has been loaded by this import.
+     *
+     * @param table the table to look for
+     * @return true if the table has been loaded
+     */
+    public boolean includes(ImportTable table) {
+        return reports.stream().anyMatch(report -> report.table() == table);
+    }
+}
@@ -0,0 +1,26 @@
+package it.unito.iumtweb.springboot.importer;
+
+/**
+ * Outcome of the bulk load of a single table.
+ *
+ * @param table         the table that has been loaded
+ * @param rows          the number of rows inserted
+ * @param elapsedMillis the wall-clock time spent reading and inserting, in milliseconds
+ */
+public record ImportReport(ImportTable table, long rows, long elapsedMillis) {
+
+    /**
+     * Computes the load throughput of the table.
+     *
+     * @return the number of rows inserted per second
+     */
+    public long rowsPerSecond() {
+        return elapsedMillis == 0 ? rows : rows * 1000 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-16s %,12d rows in %,8d ms (%,d rows/s)",
+                table.getTableName(), rows, elapsedMillis, rowsPerSecond());
+    }
+}
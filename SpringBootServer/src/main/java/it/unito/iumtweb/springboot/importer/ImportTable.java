@@ -0,0 +1,140 @@
+package it.unito.iumtweb.springboot.importer;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Tables of the Letterboxd dataset that can be bulk loaded by the {@link CsvImportService}.
+ * <p>
+ * Each constant maps a CSV file of the dataset to its database table. Columns are matched by
+ * CSV header name, so the order of the columns inside the file does not matter.
+ * The constants are declared in load order: movies first, then every table keyed by movie ID.
+ * </p>
+ */
+public enum ImportTable {
+    MOVIES("movies.csv", "movies", List.of(
+            new ImportColumn("id", "movie_id", ColumnType.TEXT),
+            new ImportColumn("name", "name", ColumnType.TEXT),
+            new ImportColumn("date", "date", ColumnType.YEAR),
+            new ImportColumn("tagline", "tagline", ColumnType.TEXT),
+            new ImportColumn("description", "description", ColumnType.TEXT),
+            new ImportColumn("minute", "minute", ColumnType.INTEGER),
+            new ImportColumn("rating", "rating", ColumnType.DOUBLE))),
+    ACTORS("actors.csv", "actors", List.of(
+            new ImportColumn("id", "movie_id", ColumnType.TEXT),
+            new ImportColumn("name", "name", ColumnType.TEXT),
+            new ImportColumn("role", "role", ColumnType.TEXT, false))),
+    CREW("crew.csv", "crew", List.of(
+            new ImportColumn("id", "movie_id", ColumnType.TEXT),
+            new ImportColumn("role", "role", ColumnType.TEXT),
+            new ImportColumn("name", "name", ColumnType.TEXT))),
+    COUNTRIES("countries.csv", "countries", List.of(
+            new ImportColumn("id", "movie_id", ColumnType.TEXT),
+            new ImportColumn("country", "country", ColumnType.TEXT))),
+    GENRES("genres.csv", "genres", List.of(
+            new ImportColumn("id", "movie_id", ColumnType.TEXT),
+            new ImportColumn("genre", "genre", ColumnType.TEXT))),
+    LANGUAGES("languages.csv", "languages", List.of(
+            new ImportColumn("id", "movie_id", ColumnType.TEXT),
+            new ImportColumn("language", "language", ColumnType.TEXT))),
+    POSTERS("posters.csv", "posters", List.of(
+            new ImportColumn("id", "movie_id", ColumnType.TEXT),
+            new ImportColumn("link", "link", ColumnType.TEXT))),
+    RELEASES("releases.csv", "releases", List.of(
+            new ImportColumn("id", "movie_id", ColumnType.TEXT),
+            new ImportColumn("country", "country", ColumnType.TEXT),
+            new ImportColumn("date", "date", ColumnType.TEXT),
+            new ImportColumn("type", "type", ColumnType.TEXT),
+            new ImportColumn("rating", "rating", ColumnType.TEXT))),
+    STUDIOS("studios.csv", "studios", List.of(
+            new ImportColumn("id", "movie_id", ColumnType.TEXT),
+            new ImportColumn("studio", "studio", ColumnType.TEXT))),
+    THEMES("themes.csv", "themes", List.of(
+            new ImportColumn("id", "movie_id", ColumnType.TEXT),
+            new ImportColumn("theme", "theme", ColumnType.TEXT))),
+    THE_OSCAR_AWARDS("the_oscar_awards.csv", "the_oscar_awards", List.of(
+            new ImportColumn("year_film", "year_film", ColumnType.INTEGER),
+            new ImportColumn("year_ceremony", "year_ceremony", ColumnType.INTEGER),
+            new ImportColumn("ceremony", "ceremony", ColumnType.INTEGER),
+            new ImportColumn("category", "category", ColumnType.TEXT),
+            new ImportColumn("name", "actor_name", ColumnType.TEXT),
+            new ImportColumn("film", "film_title", ColumnType.TEXT),
+            new ImportColumn("winner", "winner", ColumnType.BOOLEAN)));
+
+    private final String fileName;
+    private final String tableName;
+    private final List<ImportColumn> columns;
+
+    ImportTable(String fileName, String tableName, List<ImportColumn> columns) {
+        this.fileName = fileName;
+        this.tableName = tableName;
+        this.columns = columns;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<ImportColumn> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Builds the parameterized INSERT statement used for the batched load of this table.
+     *
+     * @return the INSERT statement, with one placeholder per column
+     */
+    String insertSql() {
+        String names = columns.stream().map(ImportColumn::column).collect(Collectors.joining(", "));
+        String placeholders = columns.stream().map(c -> "?").collect(Collectors.joining(", "));
+        return "INSERT INTO " + tableName + " (" + names + ") VALUES (" + placeholders + ")";
+    }
+
+    /**
+     * Mapping between a CSV header and a database column.
+     *
+     * @param header   the CSV header name
+     * @param column   the database column name
+     * @param type     the SQL type used to convert the raw CSV value
+     * @param nullable whether the column accepts {@code NULL}; empty cells of a {@code NOT NULL} column
+     *                 are loaded as empty strings, so only {@link ColumnType#TEXT} columns can be {@code NOT NULL}
+     */
+    public record ImportColumn(String header, String column, ColumnType type, boolean nullable) {
+
+        public ImportColumn {
+            if (!nullable && type != ColumnType.TEXT) {
+                throw new IllegalArgumentException("Only text columns can be NOT NULL: " + column);
+            }
+        }
+
+        /**
+         * Creates the mapping of a nullable column.
+         */
+        public ImportColumn(String header, String column, ColumnType type) {
+            this(header, column, type, true);
+        }
+
+        /**
+         * Binds a raw CSV value: empty cells become an empty string in a {@code NOT NULL} column,
+         * and {@code NULL} otherwise (see {@link ColumnType#bindOrNull}).
+         *
+         * @param ps    the prepared statement
+         * @param index the 1-based parameter index
+         * @param raw   the raw CSV cell, possibly {@code null}
+         * @throws SQLException if the driver rejects the value
+         */
+        void bind(PreparedStatement ps, int index, String raw) throws SQLException {
+            if (!nullable && (raw == null || raw.isBlank())) {
+                ps.setString(index, "");
+                return;
+            }
+            type.bindOrNull(ps, index, raw);
+        }
+    }
+}
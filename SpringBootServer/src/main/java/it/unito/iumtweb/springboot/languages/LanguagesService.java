@@ -30,7 +30,7 @@ public class LanguagesService {
      * @param movieId the unique identifier of the movie
      * @return a list of {@link Languages} entities for the given movie
      */
-    List<Languages> findLanguagesByMovieId (String movieId) {
+    public List<Languages> findLanguagesByMovieId (String movieId) {
         return repo.findLanguagesByMovieId(movieId);
     }
 
@@ -0,0 +1,497 @@
+package it.unito.iumtweb.springboot.movies;
+
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, column-oriented snapshot of the attributes the movie listing filters and sorts on.
+ * <p>
+ * Movies are numbered by ascending movie_id and each attribute is a primitive array indexed by that ordinal:
+ * ratings as floats (NaN when missing), years as shorts ({@link #NO_YEAR} when missing), and genres as one bit set
+ * per genre. Every sort of the listing is precomputed as a permutation of the ordinals, in the order of the SQL
+ * query it replaces: key in the requested direction with missing keys last, then ascending movie_id. A page is
+ * then read by walking a permutation and testing the filters on primitive arrays, without boxing or sorting.
+ * </p>
+ * <p>
+ * The title orders are taken from the database at build time, so that they follow its collation. A movie added
+ * afterwards with {@link #withMovies} is placed with a {@link Collator}, which may differ slightly until the next
+ * rebuild.
+ * </p>
+ */
+public class CatalogSnapshot {
+    /**
+     * Year of the movies without a year of release.
+     */
+    public static final short NO_YEAR = Short.MIN_VALUE;
+
+    /**
+     * Sort keys of the listing, named after the movies column they sort by.
+     */
+    public enum SortKey {
+        RATING, DATE, NAME;
+
+        /**
+         * Resolves the sort column of the listing to its key.
+         *
+         * @param column the movies column ("rating", "date" or "name")
+         * @return the matching sort key
+         * @throws IllegalArgumentException if the column is not sortable
+         */
+        public static SortKey ofColumn(String column) {
+            return switch (column) {
+                case "rating" -> RATING;
+                case "date" -> DATE;
+                case "name" -> NAME;
+                default -> throw new IllegalArgumentException("Unsupported sort column: " + column);
+            };
+        }
+    }
+
+    /**
+     * The columns of a movie added to an existing snapshot.
+     *
+     * @param movieId the ID of the movie
+     * @param title   the title of the movie, or null
+     * @param rating  the rating of the movie, or null
+     * @param year    the year of release of the movie, or null
+     */
+    public record Row(String movieId, String title, Double rating, Integer year) {
+    }
+
+    /**
+     * A page of the listing.
+     *
+     * @param movieIds the IDs of the movies of the page, in order
+     * @param total    the number of movies matching the filters
+     */
+    public record Listing(List<String> movieIds, int total) {
+    }
+
+    private static final Collator TITLE_COLLATOR = Collator.getInstance(Locale.ROOT);
+
+    private final String[] movieIds;
+    private final Map<String, Integer> ordinals;
+    private final String[] titles;
+    private final float[] ratings;
+    private final short[] years;
+    private final Map<String, BitSet> genres;
+    private final int[][] ascending;
+    private final int[][] descending;
+
+    private CatalogSnapshot(String[] movieIds, Map<String, Integer> ordinals, String[] titles, float[] ratings,
+                            short[] years, Map<String, BitSet> genres, int[][] ascending, int[][] descending) {
+        this.movieIds = movieIds;
+        this.ordinals = ordinals != null ? ordinals : indexOrdinals(movieIds);
+        this.titles = titles;
+        this.ratings = ratings;
+        this.years = years;
+        this.genres = genres;
+        this.ascending = ascending;
+        this.descending = descending;
+    }
+
+    /**
+     * Reads a page of the movies matching the filters, in the order of the given sort.
+     *
+     * @param key        the sort key
+     * @param descending true to sort by descending key (missing keys stay last)
+     * @param genre      the genre the movies must have, or null for any genre
+     * @param year       the year of release of the movies, or null for any year
+     * @param offset     the number of matching movies to skip
+     * @param limit      the maximum number of movies to return
+     * @return the page, with the number of matching movies
+     */
+    public Listing list(SortKey key, boolean descending, String genre, Integer year, int offset, int limit) {
+        int[] order = (descending ? this.descending : this.ascending)[key.ordinal()];
+        BitSet genreBits = null;
+        if (genre != null) {
+            genreBits = genres.get(genre);
+            if (genreBits == null) {
+                return new Listing(List.of(), 0);
+            }
+        }
+        if (year != null && (year < Short.MIN_VALUE + 1 || year > Short.MAX_VALUE)) {
+            return new Listing(List.of(), 0);
+        }
+        short wantedYear = year == null ? NO_YEAR : year.shortValue();
+
+        // No more movies than the order holds past the offset can match, whatever the limit
+        String[] page = new String[Math.max(0, Math.min(limit, order.length - offset))];
+        int found = 0;
+        int total = 0;
+        if (genreBits == null && year == null) {
+            total = order.length;
+            for (int position = offset; position < total && found < limit; position++) {
+                page[found++] = movieIds[order[position]];
+            }
+        } else {
+            for (int ordinal : order) {
+                if ((genreBits == null || genreBits.get(ordinal)) && (year == null || years[ordinal] == wantedYear)) {
+                    if (total >= offset && found < limit) {
+                        page[found++] = movieIds[ordinal];
+                    }
+                    total++;
+                }
+            }
+        }
+        return new Listing(Arrays.asList(Arrays.copyOf(page, found)), total);
+    }
+
+    /**
+     * Returns the number of movies.
+     *
+     * @return the number of movies
+     */
+    public int size() {
+        return movieIds.length;
+    }
+
+    /**
+     * Returns the number of distinct genres.
+     *
+     * @return the number of genres
+     */
+    public int genreCount() {
+        return genres.size();
+    }
+
+    /**
+     * Recreates a snapshot from its columns, as read back by {@link CatalogSnapshotFile}.
+     * The arrays are used as they are, without copy or validation.
+     *
+     * @param movieIds   the movie IDs, by ordinal
+     * @param titles     the titles, by ordinal
+     * @param ratings    the ratings, by ordinal
+     * @param years      the years of release, by ordinal
+     * @param genres     the bit set of the ordinals of each genre
+     * @param ascending  the ascending order of each {@link SortKey}
+     * @param descending the descending order of each {@link SortKey}
+     * @return the snapshot
+     */
+    static CatalogSnapshot ofColumns(String[] movieIds, String[] titles, float[] ratings, short[] years,
+                                     Map<String, BitSet> genres, int[][] ascending, int[][] descending) {
+        return new CatalogSnapshot(movieIds, null, titles, ratings, years, genres, ascending, descending);
+    }
+
+    // Columns, for CatalogSnapshotFile
+    String[] movieIds() {
+        return movieIds;
+    }
+
+    String[] titles() {
+        return titles;
+    }
+
+    float[] ratings() {
+        return ratings;
+    }
+
+    short[] years() {
+        return years;
+    }
+
+    Map<String, BitSet> genres() {
+        return genres;
+    }
+
+    int[] order(SortKey key, boolean descending) {
+        return (descending ? this.descending : this.ascending)[key.ordinal()];
+    }
+
+    private static Map<String, Integer> indexOrdinals(String[] movieIds) {
+        Map<String, Integer> ordinals = new HashMap<>(movieIds.length * 4 / 3 + 1);
+        for (int i = 0; i < movieIds.length; i++) {
+            ordinals.put(movieIds[i], i);
+        }
+        return ordinals;
+    }
+
+    /**
+     * Creates a copy of this snapshot including one more movie, inserted at its place in every sort order.
+     * An already known movie ID leaves the snapshot unchanged.
+     *
+     * @param movieId the ID of the movie
+     * @param title   the title of the movie, or null
+     * @param rating  the rating of the movie, or null
+     * @param year    the year of release of the movie, or null
+     * @return the new snapshot
+     */
+    public CatalogSnapshot withMovie(String movieId, String title, Double rating, Integer year) {
+        return withMovies(List.of(new Row(movieId, title, rating, year)));
+    }
+
+    /**
+     * Creates a copy of this snapshot including more movies, merged at their place into every sort order.
+     * Movies whose ID is already known, or appears earlier in the list, are skipped.
+     *
+     * @param rows the columns of the movies to add
+     * @return the new snapshot
+     */
+    public CatalogSnapshot withMovies(List<Row> rows) {
+        Map<String, Integer> newOrdinals = new HashMap<>(ordinals);
+        int size = movieIds.length;
+        String[] newMovieIds = Arrays.copyOf(movieIds, size + rows.size());
+        String[] newTitles = Arrays.copyOf(titles, size + rows.size());
+        float[] newRatings = Arrays.copyOf(ratings, size + rows.size());
+        short[] newYears = Arrays.copyOf(years, size + rows.size());
+        int added = 0;
+        for (Row row : rows) {
+            if (row.movieId() == null || newOrdinals.putIfAbsent(row.movieId(), size + added) != null) {
+                continue;
+            }
+            int ordinal = size + added++;
+            newMovieIds[ordinal] = row.movieId();
+            newTitles[ordinal] = row.title();
+            newRatings[ordinal] = row.rating() == null ? Float.NaN : row.rating().floatValue();
+            newYears[ordinal] = row.year() == null ? NO_YEAR : row.year().shortValue();
+        }
+        if (added == 0) {
+            return this;
+        }
+
+        CatalogSnapshot extended = new CatalogSnapshot(Arrays.copyOf(newMovieIds, size + added), newOrdinals,
+                Arrays.copyOf(newTitles, size + added), Arrays.copyOf(newRatings, size + added),
+                Arrays.copyOf(newYears, size + added), genres,
+                new int[SortKey.values().length][], new int[SortKey.values().length][]);
+        for (SortKey key : SortKey.values()) {
+            extended.ascending[key.ordinal()] = extended.merge(ascending[key.ordinal()], key, false, size, added);
+            extended.descending[key.ordinal()] = extended.merge(descending[key.ordinal()], key, true, size, added);
+        }
+        return extended;
+    }
+
+    /**
+     * Merges a sort order with the given range of new ordinals, sorted first with the same comparator.
+     */
+    private int[] merge(int[] order, SortKey key, boolean descending, int from, int count) {
+        int[] added = new int[count];
+        for (int i = 0; i < count; i++) {
+            added[i] = from + i;
+        }
+        if (count > 1) {
+            added = Arrays.stream(added).boxed()
+                    .sorted((a, b) -> compare(key, descending, a, b))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+        int[] result = new int[order.length + count];
+        int i = 0;
+        int j = 0;
+        int target = 0;
+        while (i < order.length && j < count) {
+            result[target++] = compare(key, descending, order[i], added[j]) < 0 ? order[i++] : added[j++];
+        }
+        System.arraycopy(order, i, result, target, order.length - i);
+        System.arraycopy(added, j, result, target + order.length - i, count - j);
+        return result;
+    }
+
+    /**
+     * Compares two movies in the order of a sort: key in the given direction, missing keys last, then movie_id.
+     */
+    private int compare(SortKey key, boolean descending, int a, int b) {
+        boolean missingA = isMissing(key, a);
+        boolean missingB = isMissing(key, b);
+        int result;
+        if (missingA || missingB) {
+            result = Boolean.compare(missingA, missingB);
+        } else {
+            result = switch (key) {
+                case RATING -> Float.compare(ratings[a], ratings[b]);
+                case DATE -> Short.compare(years[a], years[b]);
+                case NAME -> TITLE_COLLATOR.compare(titles[a], titles[b]);
+            };
+            if (descending) {
+                result = -result;
+            }
+        }
+        return result != 0 ? result : movieIds[a].compareTo(movieIds[b]);
+    }
+
+    private boolean isMissing(SortKey key, int ordinal) {
+        return switch (key) {
+            case RATING -> Float.isNaN(ratings[ordinal]);
+            case DATE -> years[ordinal] == NO_YEAR;
+            case NAME -> titles[ordinal] == null;
+        };
+    }
+
+    /**
+     * Derives the descending order of a key from its ascending order: the groups of movies with the same key are
+     * reversed, each group keeping its ascending movie_id order, and the movies without a key stay last.
+     */
+    private int[] reverseGroups(int[] ascendingOrder, SortKey key) {
+        int length = ascendingOrder.length;
+        int missingFrom = length;
+        while (missingFrom > 0 && isMissing(key, ascendingOrder[missingFrom - 1])) {
+            missingFrom--;
+        }
+        int[] result = new int[length];
+        int target = 0;
+        int groupEnd = missingFrom;
+        while (groupEnd > 0) {
+            int groupStart = groupEnd - 1;
+            while (groupStart > 0 && sameKey(key, ascendingOrder[groupStart - 1], ascendingOrder[groupEnd - 1])) {
+                groupStart--;
+            }
+            System.arraycopy(ascendingOrder, groupStart, result, target, groupEnd - groupStart);
+            target += groupEnd - groupStart;
+            groupEnd = groupStart;
+        }
+        System.arraycopy(ascendingOrder, missingFrom, result, target, length - missingFrom);
+        return result;
+    }
+
+    private boolean sameKey(SortKey key, int a, int b) {
+        return switch (key) {
+            case RATING -> Float.compare(ratings[a], ratings[b]) == 0;
+            case DATE -> years[a] == years[b];
+            case NAME -> titles[a].equals(titles[b]);
+        };
+    }
+
+    /**
+     * Accumulates the columns of the movies, then sorts them into a {@link CatalogSnapshot}. Not thread-safe.
+     */
+    public static class Builder {
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private String[] movieIds = new String[1024];
+        private String[] titles = new String[1024];
+        private float[] ratings = new float[1024];
+        private short[] years = new short[1024];
+        private final Map<String, BitSet> genres = new HashMap<>();
+        private int[] titleOrder = new int[1024];
+        private int titled;
+        private int size;
+
+        /**
+         * Adds a movie. Movies must be added by ascending movie_id, as their ordinals break the ties of every sort.
+         * Of several movies with the same ID, only the first is kept.
+         *
+         * @param movieId the ID of the movie
+         * @param title   the title of the movie, or null
+         * @param rating  the rating of the movie, or null
+         * @param year    the year of release of the movie, or null
+         * @return this builder
+         */
+        public Builder addMovie(String movieId, String title, Double rating, Integer year) {
+            if (movieId == null || ordinals.putIfAbsent(movieId, size) != null) {
+                return this;
+            }
+            if (size == movieIds.length) {
+                movieIds = Arrays.copyOf(movieIds, size * 2);
+                titles = Arrays.copyOf(titles, size * 2);
+                ratings = Arrays.copyOf(ratings, size * 2);
+                years = Arrays.copyOf(years, size * 2);
+            }
+            movieIds[size] = movieId;
+            titles[size] = title;
+            ratings[size] = rating == null ? Float.NaN : rating.floatValue();
+            years[size] = year == null ? NO_YEAR : year.shortValue();
+            size++;
+            return this;
+        }
+
+        /**
+         * Appends an already added movie to the ascending title order. Movies must be appended in the order of
+         * <code>ORDER BY name ASC NULLS LAST, movie_id</code>; unknown movies are ignored.
+         *
+         * @param movieId the ID of the movie
+         * @return this builder
+         */
+        public Builder appendTitleOrder(String movieId) {
+            Integer ordinal = ordinals.get(movieId);
+            if (ordinal != null) {
+                if (titled == titleOrder.length) {
+                    titleOrder = Arrays.copyOf(titleOrder, titled * 2);
+                }
+                titleOrder[titled++] = ordinal;
+            }
+            return this;
+        }
+
+        /**
+         * Adds a genre to an already added movie. Genres of unknown movies are ignored.
+         *
+         * @param movieId the ID of the movie
+         * @param genre   the genre
+         * @return this builder
+         */
+        public Builder addGenre(String movieId, String genre) {
+            Integer ordinal = movieId == null ? null : ordinals.get(movieId);
+            if (ordinal != null && genre != null) {
+                genres.computeIfAbsent(genre, g -> new BitSet()).set(ordinal);
+            }
+            return this;
+        }
+
+        /**
+         * Sorts the ordinals by rating and by year, and completes the title order if not every movie was appended.
+         *
+         * @return the new snapshot
+         */
+        public CatalogSnapshot build() {
+            int[][] ascending = new int[SortKey.values().length][];
+            int[][] descending = new int[SortKey.values().length][];
+            CatalogSnapshot snapshot = new CatalogSnapshot(Arrays.copyOf(movieIds, size), ordinals,
+                    Arrays.copyOf(titles, size), Arrays.copyOf(ratings, size), Arrays.copyOf(years, size),
+                    genres, ascending, descending);
+
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                // Missing ratings sort after every rating; NaN bits are not ordered
+                int bits = Float.isNaN(ratings[i]) ? Integer.MAX_VALUE : Float.floatToIntBits(ratings[i]);
+                bits ^= (bits >> 31) & 0x7fffffff;
+                keys[i] = ((long) bits << 32) | i;
+            }
+            ascending[SortKey.RATING.ordinal()] = sortedOrdinals(keys);
+            for (int i = 0; i < size; i++) {
+                int year = years[i] == NO_YEAR ? Integer.MAX_VALUE : years[i];
+                keys[i] = ((long) year << 32) | i;
+            }
+            ascending[SortKey.DATE.ordinal()] = sortedOrdinals(keys);
+            ascending[SortKey.NAME.ordinal()] = completeTitleOrder(snapshot);
+
+            for (SortKey key : SortKey.values()) {
+                descending[key.ordinal()] = snapshot.reverseGroups(ascending[key.ordinal()], key);
+            }
+            return snapshot;
+        }
+
+        private static int[] sortedOrdinals(long[] keys) {
+            Arrays.sort(keys);
+            int[] order = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                order[i] = (int) keys[i];
+            }
+            return order;
+        }
+
+        /**
+         * Returns the title order as appended, or, if some movies are missing from it, an order computed
+         * with the snapshot comparator.
+         */
+        private int[] completeTitleOrder(CatalogSnapshot snapshot) {
+            BitSet seen = new BitSet(size);
+            for (int i = 0; i < titled; i++) {
+                seen.set(titleOrder[i]);
+            }
+            if (titled == size && seen.cardinality() == size) {
+                return Arrays.copyOf(titleOrder, size);
+            }
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            return Arrays.stream(order).boxed()
+                    .sorted((a, b) -> snapshot.compare(SortKey.NAME, false, a, b))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package it.unito.iumtweb.springboot.movies;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary file format of a {@link CatalogSnapshot}, letting a node restart from its last snapshot instead of
+ * rebuilding it from the database.
+ * <p>
+ * The file starts with a fixed {@value #HEADER_BYTES}-byte header: magic number, format version, number of movies
+ * and genres, the {@link Watermark} of the tables the snapshot was built from, its creation time and the CRC-32C
+ * of everything after the header. The body holds the columns as fixed-width little-endian arrays: ratings, years,
+ * then the ascending and descending order of every {@link CatalogSnapshot.SortKey}; strings follow as an offsets
+ * table into a block of UTF-8 bytes, titles with a bitmap of the missing ones; each genre ends the file with its
+ * name and the words of its bit set.
+ * </p>
+ * <p>
+ * Files are read through a read-only memory mapping, so columns are copied into the arrays of the snapshot in bulk
+ * straight from the page cache. A file with another magic number or version, a wrong size or a wrong checksum is
+ * rejected. Files are written to a temporary file first and atomically moved in place.
+ * </p>
+ */
+public final class CatalogSnapshotFile {
+    static final int MAGIC = 0x4D434154; // "MCAT"
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 72;
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    /**
+     * Position of the snapshot in the movies and genres tables: their generation, and the highest row id and
+     * the number of rows of each table when the snapshot was built. Rows inserted later have a higher id; any other
+     * change of the tables, an update, a deletion or the truncation starting a re-import, bumps the generation.
+     *
+     * @param generation         the sum of the generations of the movies and genres tables
+     * @param movieHighWaterMark the highest id of the movies table
+     * @param movieRows          the number of rows of the movies table
+     * @param genreHighWaterMark the highest id of the genres table
+     * @param genreRows          the number of rows of the genres table
+     */
+    public record Watermark(long generation, long movieHighWaterMark, long movieRows, long genreHighWaterMark, long genreRows) {
+    }
+
+    /**
+     * A snapshot read back from a file.
+     *
+     * @param snapshot  the snapshot
+     * @param watermark the position of the snapshot in the tables
+     * @param createdAt the time the file was written, in milliseconds since the epoch
+     */
+    public record Loaded(CatalogSnapshot snapshot, Watermark watermark, long createdAt) {
+    }
+
+    private CatalogSnapshotFile() {
+    }
+
+    /**
+     * Writes a snapshot to a file, replacing it atomically.
+     *
+     * @param snapshot  the snapshot to write
+     * @param watermark the position of the snapshot in the tables
+     * @param file      the destination file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(CatalogSnapshot snapshot, Watermark watermark, Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                Writer writer = new Writer(channel);
+                writer.writeBody(snapshot);
+                writer.flush();
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION)
+                        .putInt(snapshot.size()).putInt(snapshot.genres().size())
+                        .putLong(watermark.generation())
+                        .putLong(watermark.movieHighWaterMark()).putLong(watermark.movieRows())
+                        .putLong(watermark.genreHighWaterMark()).putLong(watermark.genreRows())
+                        .putLong(System.currentTimeMillis()).putLong(writer.checksum.getValue());
+                header.flip();
+                channel.write(header, 0);
+                channel.force(false);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Reads a snapshot from a file, after checking its header and checksum.
+     *
+     * @param file the file to read
+     * @return the snapshot, with its watermark
+     * @throws IOException if the file cannot be read, or is not a valid snapshot of the current version
+     */
+    public static Loaded read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES || fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Invalid snapshot size: " + fileSize);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a catalog snapshot");
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported snapshot version " + buffer.getInt(4));
+            }
+            CRC32C checksum = new CRC32C();
+            checksum.update(buffer.slice(HEADER_BYTES, (int) fileSize - HEADER_BYTES));
+            if (checksum.getValue() != buffer.getLong(64)) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+
+            int size = buffer.getInt(8);
+            int genreCount = buffer.getInt(12);
+            Watermark watermark = new Watermark(buffer.getLong(16), buffer.getLong(24), buffer.getLong(32),
+                    buffer.getLong(40), buffer.getLong(48));
+            long createdAt = buffer.getLong(56);
+            try {
+                buffer.position(HEADER_BYTES);
+                return new Loaded(readBody(buffer, size, genreCount), watermark, createdAt);
+            } catch (RuntimeException e) {
+                // A valid checksum over inconsistent counts: written by a faulty writer
+                throw new IOException("Corrupted snapshot", e);
+            }
+        }
+    }
+
+    private static CatalogSnapshot readBody(ByteBuffer buffer, int size, int genreCount) {
+        float[] ratings = new float[size];
+        buffer.asFloatBuffer().get(ratings);
+        buffer.position(buffer.position() + size * Float.BYTES);
+        short[] years = new short[size];
+        buffer.asShortBuffer().get(years);
+        buffer.position(buffer.position() + size * Short.BYTES);
+
+        int keys = CatalogSnapshot.SortKey.values().length;
+        int[][] ascending = new int[keys][];
+        int[][] descending = new int[keys][];
+        for (int key = 0; key < keys; key++) {
+            ascending[key] = readInts(buffer, size);
+            descending[key] = readInts(buffer, size);
+        }
+
+        String[] movieIds = readStrings(buffer, size);
+        byte[] missingTitles = new byte[(size + 7) / 8];
+        buffer.get(missingTitles);
+        String[] titles = readStrings(buffer, size);
+        BitSet missing = BitSet.valueOf(missingTitles);
+        for (int i = missing.nextSetBit(0); i >= 0; i = missing.nextSetBit(i + 1)) {
+            titles[i] = null;
+        }
+
+        Map<String, BitSet> genres = new HashMap<>();
+        for (int g = 0; g < genreCount; g++) {
+            byte[] name = new byte[buffer.getInt()];
+            buffer.get(name);
+            long[] words = new long[buffer.getInt()];
+            buffer.asLongBuffer().get(words);
+            buffer.position(buffer.position() + words.length * Long.BYTES);
+            genres.put(new String(name, StandardCharsets.UTF_8), BitSet.valueOf(words));
+        }
+        return CatalogSnapshot.ofColumns(movieIds, titles, ratings, years, genres, ascending, descending);
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int size) {
+        int[] values = new int[size];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + size * Integer.BYTES);
+        return values;
+    }
+
+    private static String[] readStrings(ByteBuffer buffer, int size) {
+        int[] offsets = readInts(buffer, size + 1);
+        int start = buffer.position();
+        byte[] bytes = new byte[offsets[size]];
+        buffer.get(bytes);
+        String[] strings = new String[size];
+        for (int i = 0; i < size; i++) {
+            strings[i] = new String(bytes, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.UTF_8);
+        }
+        buffer.position(start + bytes.length);
+        return strings;
+    }
+
+    /**
+     * Buffered little-endian writer of the body, computing its checksum as it is flushed.
+     */
+    private static final class Writer {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32C checksum = new CRC32C();
+
+        Writer(FileChannel channel) throws IOException {
+            this.channel = channel;
+            channel.position(HEADER_BYTES);
+        }
+
+        void writeBody(CatalogSnapshot snapshot) throws IOException {
+            for (float rating : snapshot.ratings()) {
+                ensure(Float.BYTES).putFloat(rating);
+            }
+            for (short year : snapshot.years()) {
+                ensure(Short.BYTES).putShort(year);
+            }
+            for (CatalogSnapshot.SortKey key : CatalogSnapshot.SortKey.values()) {
+                writeInts(snapshot.order(key, false));
+                writeInts(snapshot.order(key, true));
+            }
+
+            writeStrings(snapshot.movieIds());
+            String[] titles = snapshot.titles();
+            BitSet missing = new BitSet(titles.length);
+            for (int i = 0; i < titles.length; i++) {
+                if (titles[i] == null) {
+                    missing.set(i);
+                }
+            }
+            byte[] missingBytes = new byte[(titles.length + 7) / 8];
+            byte[] setBytes = missing.toByteArray();
+            System.arraycopy(setBytes, 0, missingBytes, 0, setBytes.length);
+            writeBytes(missingBytes);
+            writeStrings(titles);
+
+            for (Map.Entry<String, BitSet> genre : snapshot.genres().entrySet()) {
+                byte[] name = genre.getKey().getBytes(StandardCharsets.UTF_8);
+                ensure(Integer.BYTES).putInt(name.length);
+                writeBytes(name);
+                long[] words = genre.getValue().toLongArray();
+                ensure(Integer.BYTES).putInt(words.length);
+                for (long word : words) {
+                    ensure(Long.BYTES).putLong(word);
+                }
+            }
+        }
+
+        private void writeInts(int[] values) throws IOException {
+            for (int value : values) {
+                ensure(Integer.BYTES).putInt(value);
+            }
+        }
+
+        private void writeStrings(String[] strings) throws IOException {
+            byte[][] encoded = new byte[strings.length][];
+            int offset = 0;
+            ensure(Integer.BYTES).putInt(0);
+            for (int i = 0; i < strings.length; i++) {
+                encoded[i] = strings[i] == null ? new byte[0] : strings[i].getBytes(StandardCharsets.UTF_8);
+                offset += encoded[i].length;
+                ensure(Integer.BYTES).putInt(offset);
+            }
+            for (byte[] bytes : encoded) {
+                writeBytes(bytes);
+            }
+        }
+
+        private void writeBytes(byte[] bytes) throws IOException {
+            int written = 0;
+            while (written < bytes.length) {
+                int chunk = Math.min(bytes.length - written, ensure(1).remaining());
+                buffer.put(bytes, written, chunk);
+                written += chunk;
+            }
+        }
+
+        private ByteBuffer ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            return buffer;
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            checksum.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package it.unito.iumtweb.springboot.movies;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 /**
  * Entity class representing a Movie record.
@@ -13,16 +15,20 @@ public class Movies {
     private String movieId;
     @Column(columnDefinition = "TEXT")
     private String name;
-    @Column(columnDefinition = "TEXT")
-    private String date;
+    // Year of release, stored as SMALLINT
+    @JdbcTypeCode(SqlTypes.SMALLINT)
+    private Integer date;
     @Column(columnDefinition = "TEXT")
     private String tagline;
     @Column(columnDefinition = "TEXT")
     private String description;
     @Column(nullable = true)
     private Integer minute;
-    @Column(nullable = true, columnDefinition = "TEXT")
-    private String rating;
+    @Column(nullable = true)
+    private Double rating;
+    // Precomputed from the_oscar_awards by the OscarWinnerFlagService
+    @Column(name = "oscar_winner", nullable = false, columnDefinition = "BOOLEAN DEFAULT FALSE")
+    private boolean oscarWinner;
 
     /**
      * Default constructor for Movies.
@@ -30,11 +36,12 @@ public class Movies {
     public Movies() {}
 
     /**
-     * Constructs a new Movies entity with the specified details.
+     * Constructs a new Movies entity with the specified details, as read from the dataset.
+     * Year and rating are parsed leniently: values that are not numbers are left empty.
      *
      * @param movieId     the unique identifier of the movie
      * @param name        the name of the movie
-     * @param date        the release date of the movie
+     * @param date        the year of release of the movie
      * @param tagline     the tagline of the movie
      * @param description the description of the movie
      * @param minute      the duration of the movie in minutes
@@ -43,11 +50,29 @@ public class Movies {
     public Movies(String movieId, String name, String date, String tagline, String description, Integer minute, String rating) {
         this.movieId = movieId;
         this.name = name;
-        this.date = date;
+        Double year = parseNumber(date);
+        this.date = (year == null) ? null : year.intValue();
         this.tagline = tagline;
         this.description = description;
         this.minute = (minute == null) ? 0 : minute;
-        this.rating = (rating == null) ? "0.0" : rating;
+        this.rating = (rating == null) ? Double.valueOf(0.0) : parseNumber(rating);
+    }
+
+    /**
+     * Parses a number read from the dataset, such as "4.27" or the "2023.0" form of years.
+     *
+     * @param text the text to parse
+     * @return the parsed number, or null if the text is empty or not a number
+     */
+    private static Double parseNumber(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        try {
+            return Double.valueOf(text.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
     // Getter & Setter
@@ -75,11 +100,11 @@ public class Movies {
         this.name = name;
     }
 
-    public String getDate() {
+    public Integer getDate() {
         return date;
     }
 
-    public void setDate(String date) {
+    public void setDate(Integer date) {
         this.date = date;
     }
 
@@ -107,14 +132,22 @@ public class Movies {
         this.minute = minute;
     }
 
-    public String getRating() {
+    public Double getRating() {
         return rating;
     }
 
-    public void setRating(String rating) {
+    public void setRating(Double rating) {
         this.rating = rating;
     }
 
+    public boolean isOscarWinner() {
+        return oscarWinner;
+    }
+
+    public void setOscarWinner(boolean oscarWinner) {
+        this.oscarWinner = oscarWinner;
+    }
+
     /**
      * Checks if the movie entity is present (i.e., has a non-null ID).
      * Made it for the tests
@@ -0,0 +1,121 @@
+package it.unito.iumtweb.springboot.movies;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository fragment providing the movie card queries of {@link MoviesRepository}.
+ * <p>
+ * Cards are read with plain JDBC and mapped by position into {@link MoviesCardInfoDTO} records,
+ * instead of being wrapped into Spring Data projection proxies. Pageable sorts may only use
+ * the "rating", "date", "name" and "movie_id" properties; missing values always sort last.
+ * </p>
+ */
+public interface MoviesCardRepository {
+
+    /**
+     * Retrieves a paginated list of movies featuring the specified actor.
+     *
+     * @param name     the name of the actor (case-insensitive)
+     * @param pageable the pagination information
+     * @return a {@link Page} of {@link MoviesCardInfoDTO} objects for movies featuring the actor
+     */
+    Page<MoviesCardInfoDTO> findMoviesByActor(String name, Pageable pageable);
+
+    /**
+     * Retrieves a paginated list of movies whose titles contain the specified string, with their cast as roles.
+     *
+     * @param title    the partial or full title to search for (case-insensitive)
+     * @param pageable the pagination information
+     * @return a {@link Page} of {@link MoviesCardInfoDTO} objects matching the title
+     */
+    Page<MoviesCardInfoDTO> findMoviesByTitle(String title, Pageable pageable);
+
+    /**
+     * Retrieves a paginated list of movies with exactly the specified title, ignoring case, with their cast as roles.
+     *
+     * @param title    the full title to search for (case-insensitive)
+     * @param pageable the pagination information
+     * @return a {@link Page} of {@link MoviesCardInfoDTO} objects with the title
+     */
+    Page<MoviesCardInfoDTO> findMoviesByExactTitle(String title, Pageable pageable);
+
+    /**
+     * Retrieves the cards of the movies with the given IDs, with their cast as roles.
+     * Used to hydrate the page of candidates resolved by the {@link MoviesTitleIndex}; rows come back in no particular order.
+     *
+     * @param movieIds the business identifiers of the movies
+     * @return a list of {@link MoviesCardInfoDTO} objects, one per existing movie
+     */
+    List<MoviesCardInfoDTO> findMovieCardsByIds(Collection<String> movieIds);
+
+    /**
+     * Retrieves a paginated list of movies filtered by a specified genre, with their cast as roles.
+     *
+     * @param genre    the genre of the movie
+     * @param pageable the pagination information
+     * @return a {@link Page} of {@link MoviesCardInfoDTO} objects for movies filtered by a genre
+     */
+    Page<MoviesCardInfoDTO> findMoviesByGenre(String genre, Pageable pageable);
+
+    /**
+     * Retrieves a paginated list of movies released in the specified year.
+     *
+     * @param date     the year of release
+     * @param pageable the pagination information
+     * @return a {@link Page} of {@link MoviesCardInfoDTO} objects released in the specified year
+     */
+    Page<MoviesCardInfoDTO> findMoviesByDate(Integer date, Pageable pageable);
+
+    /**
+     * Retrieves a paginated list of movies with the specified rating.
+     *
+     * @param rating   the rating of the movie
+     * @param pageable the pagination information
+     * @return a {@link Page} of {@link MoviesCardInfoDTO} objects with the specified rating
+     */
+    Page<MoviesCardInfoDTO> findMoviesByRating(Double rating, Pageable pageable);
+
+    /**
+     * Retrieves the movies featuring the specified actor, each with the award category the actor was nominated for
+     * in that movie as roles, and whether that nomination was won as Oscar-winner flag.
+     *
+     * @param name the name of the actor (case-insensitive)
+     * @return a {@link List} of {@link MoviesCardInfoDTO} objects for movies featuring the actor
+     */
+    List<MoviesCardInfoDTO> findMoviesByActorOscarWinner(String name);
+
+    /**
+     * Retrieves a paginated list of movies that share at least a minimum number of specified themes (excluding a given movie),
+     * ordered by number of shared themes and then by rating.
+     *
+     * @param themes    a list of themes to match
+     * @param movieId   the movie ID to exclude from results
+     * @param minThemes the minimum number of matching themes required
+     * @param pageable  the pagination information
+     * @return a {@link Page} of {@link MoviesCardInfoDTO} objects matching the criteria
+     */
+    Page<MoviesCardInfoDTO> findMoviesWithMinimumThemes(List<String> themes, String movieId, int minThemes, Pageable pageable);
+
+    /**
+     * Retrieves the card of a movie by its unique business identifier, with its cast as roles.
+     *
+     * @param movieId  the business identifier of the movie
+     * @param pageable the pagination information
+     * @return a {@link Page} of {@link MoviesCardInfoDTO} containing the card of the movie
+     */
+    Page<MoviesCardInfoDTO> findMovieDetailById(String movieId, Pageable pageable);
+
+    /**
+     * Retrieves a paginated list of movies matching the given filters.
+     * The query only holds the predicates of the filters that are set.
+     *
+     * @param filter   the filters of the listing
+     * @param pageable the pagination information
+     * @return a {@link Page} of {@link MoviesCardInfoDTO} objects matching the filters
+     */
+    Page<MoviesCardInfoDTO> findMoviesWithSmartFilters(MoviesFilter filter, Pageable pageable);
+}
@@ -0,0 +1,187 @@
+package it.unito.iumtweb.springboot.movies;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * JDBC implementation of {@link MoviesCardRepository}, picked up by Spring Data as a fragment of {@link MoviesRepository}.
+ * <p>
+ * Each paginated query is split into a shared FROM/WHERE part, reused by its count query. The count query only runs
+ * when the total cannot be inferred from the page itself, i.e. when the page is full or is not the first one.
+ * </p>
+ */
+class MoviesCardRepositoryImpl implements MoviesCardRepository {
+    /**
+     * Sortable properties and the columns they sort by, shared with the keyset queries.
+     */
+    static final Map<String, String> SORT_COLUMNS = Map.of(
+            "rating", "m.rating",
+            "date", "m.date",
+            "name", "m.name",
+            "movie_id", "m.movie_id");
+
+    private static final String NO_ROLES = "''";
+    static final String CAST = "(SELECT STRING_AGG(DISTINCT a.name, ', ') FROM actors a WHERE a.movie_id = m.movie_id)";
+    private static final String CAST_OR_NA = "COALESCE(" + CAST + ", 'N/A')";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * Constructs a new MoviesCardRepositoryImpl with the specified NamedParameterJdbcTemplate.
+     *
+     * @param jdbc the template used to run the card queries
+     */
+    MoviesCardRepositoryImpl(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public Page<MoviesCardInfoDTO> findMoviesByActor(String name, Pageable pageable) {
+        return page(NO_ROLES,
+                "FROM movies m WHERE EXISTS (SELECT 1 FROM actors a WHERE a.movie_id = m.movie_id AND LOWER(a.name) = LOWER(:name)) ",
+                new MapSqlParameterSource("name", name), pageable);
+    }
+
+    @Override
+    public Page<MoviesCardInfoDTO> findMoviesByTitle(String title, Pageable pageable) {
+        return page(CAST_OR_NA,
+                "FROM movies m WHERE LOWER(m.name) LIKE LOWER(CONCAT('%', :title, '%')) ",
+                new MapSqlParameterSource("title", title), pageable);
+    }
+
+    @Override
+    public Page<MoviesCardInfoDTO> findMoviesByExactTitle(String title, Pageable pageable) {
+        return page(CAST_OR_NA, "FROM movies m WHERE LOWER(m.name) = LOWER(:title) ",
+                new MapSqlParameterSource("title", title), pageable);
+    }
+
+    @Override
+    public List<MoviesCardInfoDTO> findMovieCardsByIds(Collection<String> movieIds) {
+        if (movieIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbc.query(MoviesCardRowMapper.select(CAST_OR_NA) + "FROM movies m WHERE m.movie_id IN (:movieIds)",
+                new MapSqlParameterSource("movieIds", movieIds), MoviesCardRowMapper.INSTANCE);
+    }
+
+    @Override
+    public Page<MoviesCardInfoDTO> findMoviesByGenre(String genre, Pageable pageable) {
+        return page(CAST,
+                "FROM movies m WHERE EXISTS (SELECT 1 FROM genres g WHERE g.movie_id = m.movie_id AND g.genre = :genre) ",
+                new MapSqlParameterSource("genre", genre), pageable);
+    }
+
+    @Override
+    public Page<MoviesCardInfoDTO> findMoviesByDate(Integer date, Pageable pageable) {
+        return page(NO_ROLES, "FROM movies m WHERE m.date = :date ", new MapSqlParameterSource("date", date), pageable);
+    }
+
+    @Override
+    public Page<MoviesCardInfoDTO> findMoviesByRating(Double rating, Pageable pageable) {
+        return page(NO_ROLES, "FROM movies m WHERE m.rating = :rating ", new MapSqlParameterSource("rating", rating), pageable);
+    }
+
+    @Override
+    public List<MoviesCardInfoDTO> findMoviesByActorOscarWinner(String name) {
+        // One row per movie: the nomination won, if any, takes precedence over the others.
+        // Awards are matched through their links to the movie and to the actor
+        return jdbc.query("SELECT DISTINCT ON (m.movie_id) m.movie_id, m.name, m.tagline, m.description, m.rating, m.date, " +
+                        "(SELECT p.link FROM posters p WHERE p.movie_id = m.movie_id LIMIT 1), " +
+                        "o.category, COALESCE(o.winner, false) " +
+                        "FROM movies m " +
+                        "JOIN actors a ON a.movie_id = m.movie_id " +
+                        "LEFT JOIN (oscar_award_links l JOIN the_oscar_awards o ON o.id = l.award_id) " +
+                        "ON l.movie_key = m.id AND l.actor_name_id = " +
+                        "(SELECT n.id FROM actor_names n WHERE n.normalized_name = LOWER(:name)) " +
+                        "WHERE LOWER(a.name) = LOWER(:name) " +
+                        "ORDER BY m.movie_id, o.winner DESC NULLS LAST",
+                new MapSqlParameterSource("name", name), MoviesCardRowMapper.INSTANCE);
+    }
+
+    @Override
+    public Page<MoviesCardInfoDTO> findMoviesWithMinimumThemes(List<String> themes, String movieId, int minThemes, Pageable pageable) {
+        if (themes.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("themes", themes)
+                .addValue("movieId", movieId)
+                .addValue("minThemes", minThemes);
+        String from = "FROM movies m JOIN (SELECT t.movie_id, COUNT(DISTINCT t.theme) AS shared FROM themes t " +
+                "WHERE t.theme IN (:themes) AND t.movie_id <> :movieId " +
+                "GROUP BY t.movie_id HAVING COUNT(DISTINCT t.theme) >= :minThemes) s ON s.movie_id = m.movie_id ";
+        return page(CAST_OR_NA, from, "ORDER BY s.shared DESC, m.rating DESC NULLS LAST, m.movie_id ASC ", params, pageable);
+    }
+
+    @Override
+    public Page<MoviesCardInfoDTO> findMovieDetailById(String movieId, Pageable pageable) {
+        return page(CAST, "FROM movies m WHERE m.movie_id = :movieId ", new MapSqlParameterSource("movieId", movieId), pageable);
+    }
+
+    @Override
+    public Page<MoviesCardInfoDTO> findMoviesWithSmartFilters(MoviesFilter filter, Pageable pageable) {
+        MoviesQuery query = new MoviesQuery().filter(filter);
+        return page(NO_ROLES, query.fromWhere(), query.params(), pageable);
+    }
+
+    /**
+     * Runs a paginated card query sorted according to the pageable.
+     */
+    private Page<MoviesCardInfoDTO> page(String roles, String from, MapSqlParameterSource params, Pageable pageable) {
+        return page(roles, from, orderBy(pageable.getSort()), params, pageable);
+    }
+
+    /**
+     * Runs a paginated card query with an explicit ORDER BY clause, counting the total only when needed.
+     *
+     * @param roles    the SQL expression of the roles column
+     * @param from     the FROM and WHERE clauses, shared with the count query
+     * @param orderBy  the ORDER BY clause
+     * @param params   the parameters of the query
+     * @param pageable the pagination information
+     * @return the requested {@link Page}
+     */
+    private Page<MoviesCardInfoDTO> page(String roles, String from, String orderBy, MapSqlParameterSource params, Pageable pageable) {
+        String sql = MoviesCardRowMapper.select(roles) + from + orderBy;
+        if (pageable.isPaged()) {
+            sql += "LIMIT :limit OFFSET :offset";
+            params.addValue("limit", pageable.getPageSize()).addValue("offset", pageable.getOffset());
+        }
+        List<MoviesCardInfoDTO> content = jdbc.query(sql, params, MoviesCardRowMapper.INSTANCE);
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> Objects.requireNonNull(jdbc.queryForObject("SELECT COUNT(*) " + from, params, Long.class)));
+    }
+
+    /**
+     * Translates a sort into an ORDER BY clause over whitelisted columns, with missing values last
+     * and the movie ID as final tie-breaker so that pages never overlap.
+     *
+     * @param sort the requested sort
+     * @return the ORDER BY clause, followed by a space
+     * @throws IllegalArgumentException if the sort uses an unsupported property
+     */
+    static String orderBy(Sort sort) {
+        StringBuilder clause = new StringBuilder("ORDER BY ");
+        boolean byMovieId = false;
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            }
+            byMovieId |= column.equals("m.movie_id");
+            clause.append(column).append(order.isAscending() ? " ASC" : " DESC").append(" NULLS LAST, ");
+        }
+        if (!byMovieId) {
+            clause.append("m.movie_id ASC, ");
+        }
+        return clause.substring(0, clause.length() - 2) + " ";
+    }
+}
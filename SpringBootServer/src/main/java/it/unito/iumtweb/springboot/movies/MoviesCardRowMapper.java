@@ -0,0 +1,58 @@
+package it.unito.iumtweb.springboot.movies;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the rows of the movie card queries to {@link MoviesCardInfoDTO} records.
+ * <p>
+ * Every card query selects the same nine columns in the same order: movie ID, title, tagline, description,
+ * rating, year of release, poster link, roles and Oscar-winner flag. Columns are therefore read by position,
+ * with no lookup by name and no intermediate tuple.
+ * </p>
+ */
+final class MoviesCardRowMapper implements RowMapper<MoviesCardInfoDTO> {
+    static final MoviesCardRowMapper INSTANCE = new MoviesCardRowMapper();
+
+    private MoviesCardRowMapper() {
+    }
+
+    /**
+     * Builds the SELECT clause of a card query over the movies table aliased as {@code m}.
+     * The poster is read by a scalar subquery, so each movie yields exactly one row whatever its number of posters.
+     *
+     * @param roles the SQL expression of the roles column
+     * @return the SELECT clause, followed by a space
+     */
+    static String select(String roles) {
+        return "SELECT m.movie_id, m.name, m.tagline, m.description, m.rating, m.date, " +
+                "(SELECT p.link FROM posters p WHERE p.movie_id = m.movie_id LIMIT 1), " +
+                roles + ", m.oscar_winner ";
+    }
+
+    @Override
+    public MoviesCardInfoDTO mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new MoviesCardInfoDTO(
+                rs.getString(1),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getString(4),
+                nullableDouble(rs, 5),
+                nullableInt(rs, 6),
+                rs.getString(7),
+                rs.getString(8),
+                rs.getBoolean(9));
+    }
+
+    private static Double nullableDouble(ResultSet rs, int column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Integer nullableInt(ResultSet rs, int column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+}
@@ -0,0 +1,241 @@
+package it.unito.iumtweb.springboot.movies;
+
+import it.unito.iumtweb.springboot.TableStreamer;
+import it.unito.iumtweb.springboot.importer.DatasetImportedEvent;
+import it.unito.iumtweb.springboot.importer.ImportTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Component owning the {@link CatalogSnapshot} used to filter, sort and page the movie listing without querying
+ * the movies table.
+ * <p>
+ * The snapshot is built from the movies and genres tables once the application is ready, rebuilt after every bulk
+ * import of either dataset, and extended with each movie saved by {@link MoviesService#addMovie}. Until the first
+ * build completes, {@link #list} returns an empty {@link Optional} and callers fall back to the database query.
+ * </p>
+ * <p>
+ * Every rebuilt snapshot is also saved to the file set by <code>catalog.snapshot.path</code> (none if empty).
+ * At startup, the saved snapshot is loaded instead of being rebuilt, then caught up with the movies inserted since
+ * its {@link CatalogSnapshotFile.Watermark}. Any other change of the tables since, an update, a deletion or the
+ * truncation starting a re-import, bumps their generation (kept by triggers in <code>table_generations</code>):
+ * the loaded snapshot then only serves the listing while a full rebuild, started right away, replaces it.
+ * </p>
+ */
+@Component
+public class MoviesCatalog {
+    private static final Logger log = LoggerFactory.getLogger(MoviesCatalog.class);
+
+    /**
+     * Maximum number of movies inserted since a saved snapshot for it to be caught up rather than rebuilt.
+     */
+    static final int MAX_CATCH_UP = 10_000;
+
+    private final JdbcTemplate jdbc;
+    private final TableStreamer streamer;
+    private final Path snapshotFile;
+    private volatile CatalogSnapshot snapshot;
+    private volatile CatalogSnapshotFile.Watermark watermark;
+
+    /**
+     * Constructs a new MoviesCatalog with the specified JdbcTemplate, TableStreamer and snapshot file.
+     *
+     * @param jdbc         the template used to read the movies inserted since the snapshot
+     * @param streamer     the streamer of the movies and their genres
+     * @param snapshotFile the file the snapshot is saved to and loaded from, or empty to disable it
+     */
+    public MoviesCatalog(JdbcTemplate jdbc, TableStreamer streamer,
+                         @Value("${catalog.snapshot.path:}") String snapshotFile) {
+        this.jdbc = jdbc;
+        this.streamer = streamer;
+        this.snapshotFile = snapshotFile == null || snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+    }
+
+    /**
+     * Loads the saved snapshot and catches it up once the application has started, or builds a new one.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void onApplicationReady() {
+        if (!load() || !catchUp()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Rebuilds the snapshot once the movies or genres table has been bulk loaded.
+     *
+     * @param event the completed import
+     */
+    @EventListener
+    @Order(DatasetImportedEvent.INDEX_ORDER)
+    @Transactional(readOnly = true)
+    public void onDatasetImported(DatasetImportedEvent event) {
+        if (event.includes(ImportTable.MOVIES) || event.includes(ImportTable.GENRES)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Streams the movies, their title order and their genres into a new snapshot, then swaps it in.
+     * Listings keep being served by the previous snapshot, if any, while the new one is built.
+     */
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        // Read first: rows inserted while streaming are caught up again at the next start, and ignored if known
+        CatalogSnapshotFile.Watermark current = readWatermark();
+        CatalogSnapshot.Builder builder = new CatalogSnapshot.Builder();
+        streamer.stream("SELECT movie_id, name, rating, date FROM movies ORDER BY movie_id", rs -> {
+            double rating = rs.getDouble(3);
+            Double nullableRating = rs.wasNull() ? null : rating;
+            int year = rs.getInt(4);
+            Integer nullableYear = rs.wasNull() ? null : year;
+            builder.addMovie(rs.getString(1), rs.getString(2), nullableRating, nullableYear);
+        });
+        streamer.stream("SELECT movie_id FROM movies ORDER BY name ASC NULLS LAST, movie_id",
+                rs -> builder.appendTitleOrder(rs.getString(1)));
+        streamer.stream("SELECT movie_id, genre FROM genres", rs -> builder.addGenre(rs.getString(1), rs.getString(2)));
+        CatalogSnapshot built = builder.build();
+        snapshot = built;
+        watermark = current;
+        log.info("Movie catalog built: {} movies, {} genres in {} ms", built.size(), built.genreCount(),
+                (System.nanoTime() - start) / 1_000_000);
+        save(built, current);
+    }
+
+    /**
+     * Loads the saved snapshot, if any.
+     *
+     * @return true if a valid snapshot was loaded
+     */
+    private boolean load() {
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return false;
+        }
+        long start = System.nanoTime();
+        try {
+            CatalogSnapshotFile.Loaded loaded = CatalogSnapshotFile.read(snapshotFile);
+            synchronized (this) {
+                snapshot = loaded.snapshot();
+                watermark = loaded.watermark();
+            }
+            log.info("Movie catalog loaded from {}: {} movies in {} ms", snapshotFile, loaded.snapshot().size(),
+                    (System.nanoTime() - start) / 1_000_000);
+            return true;
+        } catch (IOException e) {
+            log.warn("Movie catalog snapshot {} is unusable, rebuilding: {}", snapshotFile, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Adds to the loaded snapshot the movies inserted since its watermark, then saves it.
+     *
+     * @return true if the snapshot is up to date; false if the tables changed otherwise and it must be rebuilt
+     */
+    private synchronized boolean catchUp() {
+        CatalogSnapshotFile.Watermark saved = watermark;
+        CatalogSnapshotFile.Watermark current = readWatermark();
+        if (current.equals(saved)) {
+            return true;
+        }
+        long inserted = current.movieRows() - saved.movieRows();
+        Long newer = jdbc.queryForObject("SELECT COUNT(*) FROM movies WHERE id > ?", Long.class,
+                saved.movieHighWaterMark());
+        boolean onlyInserts = current.generation() == saved.generation()
+                && current.genreHighWaterMark() == saved.genreHighWaterMark()
+                && current.genreRows() == saved.genreRows()
+                && newer != null && newer == inserted;
+        if (!onlyInserts || inserted > MAX_CATCH_UP) {
+            log.info("Movie catalog snapshot is outdated ({} -> {})", saved, current);
+            return false;
+        }
+
+        List<CatalogSnapshot.Row> rows = new ArrayList<>();
+        jdbc.query("SELECT movie_id, name, rating, date FROM movies WHERE id > ? AND id <= ? ORDER BY id",
+                (RowCallbackHandler) rs -> {
+                    double rating = rs.getDouble(3);
+                    Double nullableRating = rs.wasNull() ? null : rating;
+                    int year = rs.getInt(4);
+                    Integer nullableYear = rs.wasNull() ? null : year;
+                    rows.add(new CatalogSnapshot.Row(rs.getString(1), rs.getString(2), nullableRating, nullableYear));
+                }, saved.movieHighWaterMark(), current.movieHighWaterMark());
+        CatalogSnapshot caughtUp = snapshot.withMovies(rows);
+        snapshot = caughtUp;
+        watermark = current;
+        log.info("Movie catalog caught up with {} inserted movies", rows.size());
+        save(caughtUp, current);
+        return true;
+    }
+
+    private CatalogSnapshotFile.Watermark readWatermark() {
+        return jdbc.queryForObject("SELECT (SELECT COALESCE(SUM(generation), 0) FROM table_generations "
+                        + "WHERE table_name IN ('movies', 'genres')), "
+                        + "(SELECT COALESCE(MAX(id), 0) FROM movies), (SELECT COUNT(*) FROM movies), "
+                        + "(SELECT COALESCE(MAX(id), 0) FROM genres), (SELECT COUNT(*) FROM genres)",
+                (rs, rowNum) -> new CatalogSnapshotFile.Watermark(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                        rs.getLong(4), rs.getLong(5)));
+    }
+
+    private void save(CatalogSnapshot saved, CatalogSnapshotFile.Watermark position) {
+        if (snapshotFile == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            CatalogSnapshotFile.write(saved, position, snapshotFile);
+            log.info("Movie catalog saved to {} in {} ms", snapshotFile, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.warn("Movie catalog could not be saved to {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Adds a newly saved movie to the snapshot.
+     *
+     * @param movie the saved {@link Movies} entity
+     */
+    public synchronized void add(Movies movie) {
+        CatalogSnapshot current = snapshot;
+        if (current != null) {
+            snapshot = current.withMovie(movie.getMovieId(), movie.getName(), movie.getRating(), movie.getDate());
+        }
+    }
+
+    /**
+     * Reads a page of the movies matching the filters of the listing, in the order of the given sort.
+     *
+     * @param sortColumn the movies column to sort by ("rating", "date" or "name")
+     * @param descending true to sort by descending key
+     * @param genre      the genre the movies must have, or null for any genre
+     * @param year       the year of release of the movies, or null for any year
+     * @param offset     the number of matching movies to skip
+     * @param limit      the maximum number of movies to return
+     * @return the page with the number of matching movies, or empty if the snapshot is not built yet
+     */
+    public Optional<CatalogSnapshot.Listing> list(String sortColumn, boolean descending, String genre, Integer year,
+                                                  int offset, int limit) {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            return Optional.empty();
+        }
+        return Optional.of(current.list(CatalogSnapshot.SortKey.ofColumn(sortColumn), descending, genre, year,
+                offset, limit));
+    }
+}
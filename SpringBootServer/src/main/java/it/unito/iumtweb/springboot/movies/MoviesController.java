@@ -1,18 +1,16 @@
 package it.unito.iumtweb.springboot.movies;
 
-import it.unito.iumtweb.springboot.actors.ActorsService;
-import it.unito.iumtweb.springboot.crew.CrewService;
-import it.unito.iumtweb.springboot.genres.GenresService;
-import it.unito.iumtweb.springboot.posters.PostersService;
-import it.unito.iumtweb.springboot.releases.ReleasesService;
-import it.unito.iumtweb.springboot.studios.StudiosService;
-import it.unito.iumtweb.springboot.themes.ThemesService;
+import it.unito.iumtweb.springboot.search.DidYouMeanService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * REST controller that exposes endpoints for managing and retrieving movie-related information.
@@ -28,46 +26,45 @@ import java.util.List;
 @RequestMapping("/movies")
 //@CrossOrigin(originPatterns = "http://localhost:[*]", allowCredentials = "true")
 public class MoviesController {
+    /**
+     * Response header carrying, URL-encoded, the corrected title the movies were searched with, or on a 404 the
+     * closest known titles, best first.
+     */
+    static final String DID_YOU_MEAN_HEADER = "X-Did-You-Mean";
+    private static final int DID_YOU_MEAN_LIMIT = 5;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_RELATED_SIZE = 100;
+    private static final int MAX_RELATED_DEPTH = 1000;
+
     private final MoviesService moviesService;
-    private final ActorsService actorsService;
-    private final CrewService crewService;
-    private final GenresService genresService;
-    private final PostersService postersService;
-    private final ReleasesService releasesService;
-    private final StudiosService studiosService;
-    private final ThemesService themesService;
+    private final MoviesInfoService moviesInfoService;
+    private final DidYouMeanService didYouMeanService;
 
     /**
     * Constructs a {@link MoviesController} with the provided service dependencies.
     *
-    * @param moviesService    Service for handling basic movie data and operations
-    * @param actorsService   Service for actor-related operations
-    * @param crewService     Service for crew information (director, writers, etc.)
-    * @param genresService    Service for managing movie genres
-    * @param postersService  Service for handling poster image retrieval
-    * @param releasesService  Service for release date/classification data
-    * @param studiosService   Service for accessing movie studio info
-    * @param themesService    Service for movie themes (categories, keywords, etc.)
+    * @param moviesService     Service for handling basic movie data and operations
+    * @param moviesInfoService Service assembling the complete detail document of a movie
+    * @param didYouMeanService Service correcting misspelled titles
     */
     @Autowired
-    public MoviesController(MoviesService moviesService, ActorsService actorsService, CrewService crewService, GenresService genresService, PostersService postersService, ReleasesService releasesService, StudiosService studiosService, ThemesService themesService) {
+    public MoviesController(MoviesService moviesService, MoviesInfoService moviesInfoService,
+                            DidYouMeanService didYouMeanService) {
         this.moviesService = moviesService;
-        this.actorsService = actorsService;
-        this.crewService = crewService;
-        this.genresService = genresService;
-        this.postersService = postersService;
-        this.releasesService = releasesService;
-        this.studiosService = studiosService;
-        this.themesService = themesService;
+        this.moviesInfoService = moviesInfoService;
+        this.didYouMeanService = didYouMeanService;
     }
 
     /**
      * Retrieves a paginated and filtered list of movies based on provided sorting, categories, and order.
      *
-     * @return a list of {@link MoviesCardInfoDTO} objects representing movies matching the search criteria.
+     * @param page the page number to retrieve (zero-based)
+     * @param size the number of movies per page (at most {@value #MAX_PAGE_SIZE})
+     * @return a list of {@link MoviesCardInfoDTO} objects representing movies matching the search criteria,
+     *         or 400 if the year is not a number or the paging is invalid
      */
     @GetMapping("/options")
-    public Page<MoviesCardInfoDTO> getMovies(@RequestParam(required = false, defaultValue = "popular") String sort,
+    public ResponseEntity<Page<MoviesCardInfoDTO>> getMovies(@RequestParam(required = false, defaultValue = "popular") String sort,
                                              @RequestParam(required = false, defaultValue = "DSC") String order,
                                              @RequestParam(name = "genre", required = false) String genre,
                                              @RequestParam(required = false) String year,
@@ -77,25 +74,86 @@ public class MoviesController {
         String genreFilter = ("all".equals(genre)) ? null : genre;
         String yearFilter = ("all".equals(year)) ? null : year;
         // Passa l'anno al service
-        return moviesService.getMoviesByOptions(sort, genreFilter, yearFilter, order, Integer.parseInt(page), Integer.parseInt(size));
+        try {
+            int pageNumber = Integer.parseInt(page);
+            int pageSize = Integer.parseInt(size);
+            if (pageSize > MAX_PAGE_SIZE || (long) pageNumber * pageSize > Integer.MAX_VALUE) {
+                return ResponseEntity.badRequest().build();
+            }
+            return ResponseEntity.ok(moviesService.getMoviesByOptions(sort, genreFilter, yearFilter, order, pageNumber, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Retrieves a slice of the filtered and sorted movies listing using keyset pagination.
+     * The first slice is requested without a cursor; each following slice is requested with the
+     * <code>nextCursor</code> returned by the previous one, and costs the same however deep the client scrolled.
+     *
+     * @param cursor the continuation token returned with the previous slice, omitted for the first slice
+     * @return a {@link MoviesSliceDTO} with the cards of the slice and the token of the following one,
+     *         or 400 if the token is invalid
+     */
+    @GetMapping("/options/scroll")
+    public ResponseEntity<MoviesSliceDTO> scrollMovies(@RequestParam(required = false, defaultValue = "popular") String sort,
+                                                       @RequestParam(required = false, defaultValue = "DSC") String order,
+                                                       @RequestParam(name = "genre", required = false) String genre,
+                                                       @RequestParam(required = false) String year,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(required = false, defaultValue = "12") Integer size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(moviesService.getMoviesByOptionsAfter(sort, genre, year, order, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
      * Retrieves a paginated list of movies matching the specified title.
+     * If no title contains it, the movies are searched with the closest known title instead, which is returned in
+     * the <code>X-Did-You-Mean</code> header, but only when that correction is unambiguous: a single known title one
+     * edit away. Otherwise the response is a 404 listing the closest titles in that header, if any.
      *
-     * @param filmTitle the title of the movie to search for
+     * @param filmTitle the title of the movie to search for; titles shorter than three characters are matched whole
      * @param page the page number to retrieve (zero-based)
-     * @param size the number of results per page
-     * @return a list of {@link MoviesCardInfoDTO} objects for movies matching the specified title
+     * @param size the number of results per page (at most {@value #MAX_PAGE_SIZE})
+     * @return a list of {@link MoviesCardInfoDTO} objects for movies matching the specified title,
+     *         or 400 if the title is empty or the paging is invalid, or 404 if no movie matches
      */
     @GetMapping("/name/{filmTitle}")
     public ResponseEntity<Page<MoviesCardInfoDTO>> getTitle(@PathVariable String filmTitle,
                                                               @RequestParam(defaultValue = "0") Integer page,
                                                               @RequestParam(defaultValue = "12") Integer size ) {
-        if (filmTitle == null || filmTitle.isEmpty()) {
+        if (filmTitle == null || filmTitle.isBlank()) {
             return ResponseEntity.badRequest().body(null);
         }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE || (long) page * size > Integer.MAX_VALUE) {
+            return ResponseEntity.badRequest().build();
+        }
         Page<MoviesCardInfoDTO> movie = moviesService.getMovieByTitle(filmTitle, page, size);
+        if (movie.getTotalElements() == 0) {
+            Optional<String> correction = didYouMeanService.correctTitle(filmTitle);
+            if (correction.isPresent()) {
+                Page<MoviesCardInfoDTO> corrected = moviesService.getMovieByTitle(correction.get(), page, size);
+                if (!corrected.isEmpty()) {
+                    return ResponseEntity.ok()
+                            .header(DID_YOU_MEAN_HEADER, UriUtils.encode(correction.get(), StandardCharsets.UTF_8))
+                            .body(corrected);
+                }
+            }
+            List<String> didYouMean = didYouMeanService.suggestTitles(filmTitle, DID_YOU_MEAN_LIMIT);
+            if (!didYouMean.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .header(DID_YOU_MEAN_HEADER, didYouMean.stream()
+                                .map(title -> UriUtils.encode(title, StandardCharsets.UTF_8))
+                                .toArray(String[]::new))
+                        .build();
+            }
+        }
         if (movie.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
@@ -129,6 +187,31 @@ public class MoviesController {
         return ResponseEntity.ok(movie);
     }
 
+    /**
+     * Retrieves a slice of the movies belonging to a specific genre using keyset pagination, in the order of {@link #getGenre}.
+     * The first slice is requested without a cursor; each following slice is requested with the
+     * <code>nextCursor</code> returned by the previous one.
+     *
+     * @param genre the genre to filter movies by
+     * @param cursor the continuation token returned with the previous slice, omitted for the first slice
+     * @param size the number of results per slice (at most {@value #MAX_PAGE_SIZE})
+     * @return a {@link MoviesSliceDTO} with the cards of the slice and the token of the following one,
+     *         or 400 if the genre, the size or the token is invalid
+     */
+    @GetMapping("/genre/{genre}/scroll")
+    public ResponseEntity<MoviesSliceDTO> scrollGenre(@PathVariable String genre,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "12") Integer size) {
+        if (genre.isEmpty() || size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(moviesService.getMoviesByGenreAfter(genre, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Retrieves a paginated list of movies with the specified rating.
      *
@@ -151,6 +234,31 @@ public class MoviesController {
         return ResponseEntity.ok(movie);
     }
 
+    /**
+     * Retrieves a slice of the movies with the specified rating using keyset pagination, in the order of {@link #getRating}.
+     * The first slice is requested without a cursor; each following slice is requested with the
+     * <code>nextCursor</code> returned by the previous one.
+     *
+     * @param rating the rating to filter movies
+     * @param cursor the continuation token returned with the previous slice, omitted for the first slice
+     * @param size the number of results per slice (at most {@value #MAX_PAGE_SIZE})
+     * @return a {@link MoviesSliceDTO} with the cards of the slice and the token of the following one,
+     *         or 400 if the rating, the size or the token is invalid
+     */
+    @GetMapping("/rating/{rating}/scroll")
+    public ResponseEntity<MoviesSliceDTO> scrollRating(@PathVariable double rating,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "12") Integer size) {
+        if (rating < 0 || rating > 10 || size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(moviesService.getMoviesByRatingAfter(rating, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Retrieves a paginated list of movies released in a specific year.
      *
@@ -166,13 +274,43 @@ public class MoviesController {
         if (year == null || year.isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
-        Page<MoviesCardInfoDTO> movie = moviesService.getMoviesByYear(year, page, size);
+        Page<MoviesCardInfoDTO> movie;
+        try {
+            movie = moviesService.getMoviesByYear(year, page, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
         if (movie.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         return ResponseEntity.ok(movie);
     }
 
+    /**
+     * Retrieves a slice of the movies released in a specific year using keyset pagination, in the order of {@link #getYear}.
+     * The first slice is requested without a cursor; each following slice is requested with the
+     * <code>nextCursor</code> returned by the previous one.
+     *
+     * @param year the year of release to filter movies
+     * @param cursor the continuation token returned with the previous slice, omitted for the first slice
+     * @param size the number of results per slice (at most {@value #MAX_PAGE_SIZE})
+     * @return a {@link MoviesSliceDTO} with the cards of the slice and the token of the following one,
+     *         or 400 if the year, the size or the token is invalid
+     */
+    @GetMapping("/year/{year}/scroll")
+    public ResponseEntity<MoviesSliceDTO> scrollYear(@PathVariable String year,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "12") Integer size) {
+        if (year.isBlank() || size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(moviesService.getMoviesByYearAfter(year, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Retrieves a list of movies featuring a specific Oscar-winning actor.
      *
@@ -205,18 +343,47 @@ public class MoviesController {
      * Retrieves a list of related movie associated with a specific movie.
      *
      * @param movieId the unique identifier of the movie
-     * @return a list of {@link MoviesCardInfoDTO} objects representing the related movies
+     * @param page    the page number to retrieve (zero-based)
+     * @param size    the number of movies per page (at most {@value #MAX_RELATED_SIZE})
+     * @return a list of {@link MoviesCardInfoDTO} objects representing the related movies,
+     *         or 400 if the paging is invalid or reaches past the first {@value #MAX_RELATED_DEPTH} related movies
      */
     @GetMapping("/related")
-    public List<MoviesCardInfoDTO> getRelatedMovies(@RequestParam String movieId,
-                                                     @RequestParam(defaultValue = "0") String page,
-                                                     @RequestParam(defaultValue = "6") String size) {
-        return moviesService.getRelatedMoviesByThemes(movieId, Integer.parseInt(page), Integer.parseInt(size));
+    public ResponseEntity<List<MoviesCardInfoDTO>> getRelatedMovies(@RequestParam String movieId,
+                                                                    @RequestParam(defaultValue = "0") String page,
+                                                                    @RequestParam(defaultValue = "6") String size) {
+        int pageNumber;
+        int pageSize;
+        try {
+            pageNumber = Integer.parseInt(page);
+            pageSize = Integer.parseInt(size);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (pageNumber < 0 || pageSize < 1 || pageSize > MAX_RELATED_SIZE
+                || ((long) pageNumber + 1) * pageSize > MAX_RELATED_DEPTH) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(moviesService.getRelatedMoviesByThemes(movieId, pageNumber, pageSize));
     }
 
 
 
 
+    /**
+     * Retrieves the complete detail document of a movie: its data, cast, crew, countries, genres, languages,
+     * posters, releases, studios, themes and related movies, all looked up concurrently.
+     *
+     * @param movieId the unique identifier of the movie
+     * @return the {@link MoviesInfoDTO} of the movie, or 404 if no movie has the given ID
+     */
+    @GetMapping("/{movieId}/full")
+    public ResponseEntity<MoviesInfoDTO> getMovieInfo(@PathVariable String movieId) {
+        return moviesInfoService.getMovieInfo(movieId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
    @GetMapping("/{movieId}")
     public ResponseEntity<Page<MoviesCardInfoDTO>> getMovieById(@PathVariable String movieId) {
         Page<MoviesCardInfoDTO> movie = moviesService.getMoviesDetail(movieId);
@@ -236,10 +403,20 @@ public class MoviesController {
 
 
 
+    /**
+     * Retrieves the 20 top-rated movies.
+     *
+     * @return a list of the 20 top-rated {@link Movies} entities
+     */
+    @GetMapping("/top")
+    public ResponseEntity<List<Movies>> getTopMovies() {
+        return ResponseEntity.ok(moviesService.getTopMovies());
+    }
+
     //prende gli anni dei film
     @GetMapping("/years")
-    public ResponseEntity<List<String>> getAllYears() {
-        List<String> years = moviesService.getAllYears();
+    public ResponseEntity<List<Integer>> getAllYears() {
+        List<Integer> years = moviesService.getAllYears();
         return ResponseEntity.ok(years);
     }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package it.unito.iumtweb.springboot.movies;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of a keyset (seek) scroll over the movies listing.
+ * <p>
+ * A cursor records the sort column and direction of the listing together with the sort key and
+ * the movie ID of the last card already returned. The next slice starts right after that
+ * (sort key, movie_id) pair, so every slice costs the same regardless of how deep the client scrolled.
+ * Movies without a sort key come last, in movie ID order: a cursor after one of them resumes within those
+ * movies only (see {@link #isInMissingKeys()}).
+ * Cursors are exchanged with clients as opaque URL-safe tokens through {@link #encode()} and {@link #decode(String)}.
+ * </p>
+ *
+ * @param sortColumn  the movies column the listing is sorted by ("rating", "date" or "name")
+ * @param direction   the direction of the sort column; movie_id is always ascending
+ * @param lastKey     the sort key of the last returned card, {@code null} if that card had no value
+ * @param lastMovieId the movie ID of the last returned card, {@code null} for the first slice
+ */
+public record MoviesCursor(String sortColumn, Sort.Direction direction, String lastKey, String lastMovieId) {
+    private static final String SEPARATOR = "\u001F";
+    private static final String NULL_KEY = "\u0000";
+    private static final String VERSION = "v1";
+
+    /**
+     * Creates the cursor of the first slice of a listing.
+     *
+     * @param sortColumn the column the listing is sorted by
+     * @param direction  the direction of the sort column
+     * @return a cursor positioned before the first card
+     */
+    public static MoviesCursor first(String sortColumn, Sort.Direction direction) {
+        return new MoviesCursor(sortColumn, direction, null, null);
+    }
+
+    /**
+     * Creates the cursor positioned right after the given card.
+     *
+     * @param card the last card of the current slice
+     * @return a cursor for the following slice, with the same sort column and direction
+     */
+    public MoviesCursor after(MoviesCardInfoDTO card) {
+        Object key = switch (sortColumn) {
+            case "date" -> card.yearOfRelease();
+            case "name" -> card.movieTitle();
+            default -> card.rating();
+        };
+        return new MoviesCursor(sortColumn, direction, key == null ? null : key.toString(), card.movieId());
+    }
+
+    /**
+     * Checks whether this cursor points at the beginning of the listing.
+     *
+     * @return true if no card has been returned yet
+     */
+    public boolean isFirst() {
+        return lastMovieId == null;
+    }
+
+    /**
+     * Checks whether this cursor points within the movies without a sort key, which end the listing.
+     *
+     * @return true if the last returned card had no value in the sort column
+     */
+    public boolean isInMissingKeys() {
+        return !isFirst() && lastKey == null;
+    }
+
+    /**
+     * Encodes this cursor as an opaque, URL-safe continuation token.
+     *
+     * @return the continuation token
+     */
+    public String encode() {
+        String raw = String.join(SEPARATOR, VERSION, sortColumn, direction.name(),
+                lastKey == null ? NULL_KEY : lastKey, lastMovieId);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a continuation token produced by {@link #encode()}.
+     *
+     * @param token the continuation token
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static MoviesCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        String[] parts = raw.split(SEPARATOR, -1);
+        if (parts.length != 5 || !VERSION.equals(parts[0]) || parts[4].isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new MoviesCursor(parts[1], Sort.Direction.fromString(parts[2]),
+                NULL_KEY.equals(parts[3]) ? null : parts[3], parts[4]);
+    }
+}
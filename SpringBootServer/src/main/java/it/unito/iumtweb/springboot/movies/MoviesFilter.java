@@ -0,0 +1,31 @@
+package it.unito.iumtweb.springboot.movies;
+
+import java.util.List;
+
+/**
+ * Filters of the movie listing. Every filter is optional: a {@code null} bound or an empty genre list
+ * does not restrict the listing, and is left out of the generated query altogether.
+ *
+ * @param genres    the genres of which the movies must have at least one, or empty for every genre
+ * @param fromYear  the first year of release, inclusive, or {@code null} for no lower bound
+ * @param toYear    the last year of release, inclusive, or {@code null} for no upper bound
+ * @param minRating the minimum rating, inclusive, or {@code null} for no lower bound
+ * @param maxRating the maximum rating, inclusive, or {@code null} for no upper bound
+ */
+public record MoviesFilter(List<String> genres, Integer fromYear, Integer toYear, Double minRating, Double maxRating) {
+
+    public MoviesFilter {
+        genres = genres == null ? List.of() : List.copyOf(genres);
+    }
+
+    /**
+     * Creates the filter of the listing options: a single genre and a single year of release.
+     *
+     * @param genre the genre, or {@code null} for every genre
+     * @param year  the year of release, or {@code null} for every year
+     * @return the filter
+     */
+    public static MoviesFilter of(String genre, Integer year) {
+        return new MoviesFilter(genre == null ? List.of() : List.of(genre), year, year, null, null);
+    }
+}
@@ -6,7 +6,7 @@ import it.unito.iumtweb.springboot.crew.CrewInfoDTO;
 import it.unito.iumtweb.springboot.genres.Genres;
 import it.unito.iumtweb.springboot.languages.Languages;
 import it.unito.iumtweb.springboot.posters.Posters;
-import it.unito.iumtweb.springboot.releases.Releases;
+import it.unito.iumtweb.springboot.releases.ReleasesInfoDTO;
 import it.unito.iumtweb.springboot.studios.Studios;
 import it.unito.iumtweb.springboot.themes.Themes;
 
@@ -37,7 +37,7 @@ public class MoviesInfoDTO {
     private List<Genres> genres;
     private List<Languages> languages;
     private List<Posters> posters;
-    private List<Releases> releases;
+    private List<ReleasesInfoDTO> releases;
     private List<Studios> studios;
     private List<Themes> themes;
     private List<MoviesCardInfoDTO> relatedMovies;
@@ -57,7 +57,7 @@ public class MoviesInfoDTO {
     * @param themes        thematic elements
     * @param relatedMovies list of related movies
     */
-    public MoviesInfoDTO(Movies data, List<Actors> actors, CrewInfoDTO crew, List<Countries> countries, List<Genres> genres, List<Languages> languages, List<Posters> posters, List<Releases> releases, List<Studios> studios, List<Themes> themes, List<MoviesCardInfoDTO> relatedMovies) {
+    public MoviesInfoDTO(Movies data, List<Actors> actors, CrewInfoDTO crew, List<Countries> countries, List<Genres> genres, List<Languages> languages, List<Posters> posters, List<ReleasesInfoDTO> releases, List<Studios> studios, List<Themes> themes, List<MoviesCardInfoDTO> relatedMovies) {
         this.data = data;
         this.actors = actors;
         this.crew = crew;
@@ -128,11 +128,11 @@ public class MoviesInfoDTO {
         this.posters = posters;
     }
 
-    public List<Releases> getReleases() {
+    public List<ReleasesInfoDTO> getReleases() {
         return releases;
     }
 
-    public void setReleases(List<Releases> releases) {
+    public void setReleases(List<ReleasesInfoDTO> releases) {
         this.releases = releases;
     }
 
@@ -0,0 +1,157 @@
+package it.unito.iumtweb.springboot.movies;
+
+import it.unito.iumtweb.springboot.actors.Actors;
+import it.unito.iumtweb.springboot.actors.ActorsService;
+import it.unito.iumtweb.springboot.countries.Countries;
+import it.unito.iumtweb.springboot.countries.CountriesService;
+import it.unito.iumtweb.springboot.crew.CrewInfoDTO;
+import it.unito.iumtweb.springboot.crew.CrewService;
+import it.unito.iumtweb.springboot.genres.Genres;
+import it.unito.iumtweb.springboot.genres.GenresService;
+import it.unito.iumtweb.springboot.languages.Languages;
+import it.unito.iumtweb.springboot.languages.LanguagesService;
+import it.unito.iumtweb.springboot.posters.Posters;
+import it.unito.iumtweb.springboot.posters.PostersService;
+import it.unito.iumtweb.springboot.releases.ReleasesInfoDTO;
+import it.unito.iumtweb.springboot.releases.ReleasesService;
+import it.unito.iumtweb.springboot.studios.Studios;
+import it.unito.iumtweb.springboot.studios.StudiosService;
+import it.unito.iumtweb.springboot.themes.Themes;
+import it.unito.iumtweb.springboot.themes.ThemesService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Service class that assembles the complete detail document of a movie.
+ * <p>
+ * The movie itself is looked up first, so that an unknown ID costs a single query. Each facet of the document
+ * (cast, crew, countries, genres, languages, posters, releases, studios, themes and related movies) is then an
+ * independent query, so they are all started at once on virtual threads, and the latency of the document is close
+ * to the latency of its slowest facet rather than the sum of all of them.
+ * </p>
+ * <p>
+ * Each facet query holds a database connection while it runs, so at most {@value #MAX_CONCURRENT_LOOKUPS}
+ * of them run at once, over every request: the other lookups wait for a permit on their virtual thread,
+ * and the remaining connections of the pool (10 by default) stay available to the other endpoints.
+ * </p>
+ */
+@Service
+public class MoviesInfoService {
+    private static final int RELATED_MOVIES = 6;
+
+    /**
+     * Maximum number of facet lookups running at once, below the size of the connection pool.
+     */
+    static final int MAX_CONCURRENT_LOOKUPS = 4;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore lookups = new Semaphore(MAX_CONCURRENT_LOOKUPS);
+    private final MoviesService moviesService;
+    private final ActorsService actorsService;
+    private final CrewService crewService;
+    private final CountriesService countriesService;
+    private final GenresService genresService;
+    private final LanguagesService languagesService;
+    private final PostersService postersService;
+    private final ReleasesService releasesService;
+    private final StudiosService studiosService;
+    private final ThemesService themesService;
+
+    /**
+     * Constructs a new MoviesInfoService with the services of every facet of the detail document.
+     *
+     * @param moviesService    service for movie data and related movies
+     * @param actorsService    service for the cast
+     * @param crewService      service for the crew
+     * @param countriesService service for the production countries
+     * @param genresService    service for the genres
+     * @param languagesService service for the languages
+     * @param postersService   service for the posters
+     * @param releasesService  service for the releases
+     * @param studiosService   service for the studios
+     * @param themesService    service for the themes
+     */
+    public MoviesInfoService(MoviesService moviesService, ActorsService actorsService, CrewService crewService,
+                             CountriesService countriesService, GenresService genresService, LanguagesService languagesService,
+                             PostersService postersService, ReleasesService releasesService, StudiosService studiosService,
+                             ThemesService themesService) {
+        this.moviesService = moviesService;
+        this.actorsService = actorsService;
+        this.crewService = crewService;
+        this.countriesService = countriesService;
+        this.genresService = genresService;
+        this.languagesService = languagesService;
+        this.postersService = postersService;
+        this.releasesService = releasesService;
+        this.studiosService = studiosService;
+        this.themesService = themesService;
+    }
+
+    /**
+     * Retrieves the complete detail document of a movie, querying all of its facets concurrently
+     * once the movie has been found.
+     *
+     * @param movieId the unique identifier of the movie
+     * @return the {@link MoviesInfoDTO} of the movie, or empty if no movie has the given ID
+     */
+    public Optional<MoviesInfoDTO> getMovieInfo(String movieId) {
+        Movies movie = moviesService.getMovieByMovieId(movieId);
+        if (movie == null) {
+            return Optional.empty();
+        }
+        CompletableFuture<List<Actors>> actors = async(() -> actorsService.getActorsByMovieId(movieId));
+        CompletableFuture<CrewInfoDTO> crew = async(() -> crewService.getCrewByMovieId(movieId));
+        CompletableFuture<List<Countries>> countries = async(() -> countriesService.getCountriesByMovieId(movieId));
+        CompletableFuture<List<Genres>> genres = async(() -> genresService.getGenresByMovieId(movieId));
+        CompletableFuture<List<Languages>> languages = async(() -> languagesService.findLanguagesByMovieId(movieId));
+        CompletableFuture<List<Posters>> posters = async(() -> postersService.getPostersByMovieId(movieId));
+        CompletableFuture<List<ReleasesInfoDTO>> releases = async(() -> releasesService.getReleasesByMovieId(movieId));
+        CompletableFuture<List<Studios>> studios = async(() -> studiosService.getStudiosByMovieId(movieId));
+        CompletableFuture<List<Themes>> themes = async(() -> themesService.getThemesByMovieId(movieId));
+        CompletableFuture<List<MoviesCardInfoDTO>> related =
+                async(() -> moviesService.getRelatedMoviesByThemes(movieId, 0, RELATED_MOVIES));
+
+        try {
+            CompletableFuture.allOf(actors, crew, countries, genres, languages, posters, releases, studios, themes, related).join();
+        } catch (CompletionException e) {
+            // Surface the failure of the first facet as it would have been thrown by a sequential lookup
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return Optional.of(new MoviesInfoDTO(movie, actors.join(), crew.join(), countries.join(), genres.join(),
+                languages.join(), posters.join(), releases.join(), studios.join(), themes.join(), related.join()));
+    }
+
+    /**
+     * Runs a facet lookup on its own virtual thread, once a permit is available.
+     */
+    private <T> CompletableFuture<T> async(Supplier<T> lookup) {
+        return CompletableFuture.supplyAsync(() -> {
+            lookups.acquireUninterruptibly();
+            try {
+                return lookup.get();
+            } finally {
+                lookups.release();
+            }
+        }, executor);
+    }
+
+    /**
+     * Stops accepting lookups when the application shuts down.
+     */
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,27 @@
+package it.unito.iumtweb.springboot.movies;
+
+import org.springframework.data.domain.Slice;
+
+/**
+ * Repository fragment providing keyset (seek) pagination over the movies listing.
+ * <p>
+ * Unlike the OFFSET-based {@link org.springframework.data.domain.Page} queries of {@link MoviesRepository}, these queries seek directly
+ * to the position recorded by a {@link MoviesCursor} and never run a count query,
+ * so the cost of a slice does not depend on how deep the client has scrolled.
+ * </p>
+ */
+public interface MoviesKeysetRepository {
+
+    /**
+     * Retrieves the slice of movies following the given cursor and matching the given filters.
+     * Movies are ordered by the cursor's sort column (missing values last) and then by ascending movie ID.
+     *
+     * @param filter   the filters of the listing
+     * @param cursor   the position to resume from
+     * @param size     the maximum number of cards in the slice
+     * @param withCast whether the cards carry their cast as roles
+     * @return a {@link Slice} of {@link MoviesCardInfoDTO} objects following the cursor
+     * @throws IllegalArgumentException if the cursor's sort column or sort key is invalid
+     */
+    Slice<MoviesCardInfoDTO> findMoviesWithSmartFiltersAfter(MoviesFilter filter, MoviesCursor cursor, int size, boolean withCast);
+}
@@ -0,0 +1,87 @@
+package it.unito.iumtweb.springboot.movies;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link MoviesKeysetRepository}, picked up by Spring Data as a fragment of {@link MoviesRepository}.
+ */
+class MoviesKeysetRepositoryImpl implements MoviesKeysetRepository {
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * Constructs a new MoviesKeysetRepositoryImpl with the specified NamedParameterJdbcTemplate.
+     *
+     * @param jdbc the template used to run the keyset queries
+     */
+    MoviesKeysetRepositoryImpl(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public Slice<MoviesCardInfoDTO> findMoviesWithSmartFiltersAfter(MoviesFilter filter, MoviesCursor cursor, int size, boolean withCast) {
+        String column = MoviesCardRepositoryImpl.SORT_COLUMNS.get(cursor.sortColumn());
+        if (column == null) {
+            throw new IllegalArgumentException("Unsupported sort column: " + cursor.sortColumn());
+        }
+        boolean descending = cursor.direction() == Sort.Direction.DESC;
+        String select = MoviesCardRowMapper.select(withCast ? MoviesCardRepositoryImpl.CAST : "''");
+
+        // Missing keys sort last, so the listing is scanned in two phases: the movies with a key, in key order,
+        // then those without, in movie ID order. A cursor after a card without a key is in the second phase.
+        List<MoviesCardInfoDTO> rows = new ArrayList<>(size + 1);
+        if (!cursor.isInMissingKeys()) {
+            MoviesQuery keyed = new MoviesQuery().filter(filter);
+            if (cursor.isFirst()) {
+                keyed.where(column + " IS NOT NULL");
+            } else {
+                // The first conjunct bounds the index range scan; the second skips the ties already returned
+                String bound = descending ? " <= " : " >= ";
+                String beyond = descending ? " < " : " > ";
+                keyed.where(column + bound + ":lastKey AND (" + column + beyond + ":lastKey OR m.movie_id > :lastMovieId)",
+                        "lastKey", typedKey(cursor));
+                keyed.params().addValue("lastMovieId", cursor.lastMovieId());
+            }
+            rows.addAll(jdbc.query(select + keyed.fromWhere() + "ORDER BY " + column + (descending ? " DESC" : " ASC")
+                    + " NULLS LAST, m.movie_id ASC LIMIT :limit", keyed.params().addValue("limit", size + 1), MoviesCardRowMapper.INSTANCE));
+        }
+        if (rows.size() <= size) {
+            MoviesQuery missing = new MoviesQuery().filter(filter).where(column + " IS NULL");
+            if (cursor.isInMissingKeys()) {
+                missing.where("m.movie_id > :lastMovieId", "lastMovieId", cursor.lastMovieId());
+            }
+            rows.addAll(jdbc.query(select + missing.fromWhere() + "ORDER BY m.movie_id ASC LIMIT :limit",
+                    missing.params().addValue("limit", size + 1 - rows.size()), MoviesCardRowMapper.INSTANCE));
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<MoviesCardInfoDTO> content = hasNext ? rows.subList(0, size) : rows;
+        return new SliceImpl<>(content, PageRequest.ofSize(size), hasNext);
+    }
+
+    /**
+     * Converts the sort key recorded by a cursor to the type of its sort column.
+     *
+     * @param cursor a cursor with a non-null sort key
+     * @return the sort key as a number for the rating and year columns, as text for the title
+     * @throws IllegalArgumentException if the sort key is not a valid value of the column
+     */
+    private static Object typedKey(MoviesCursor cursor) {
+        try {
+            return switch (cursor.sortColumn()) {
+                case "rating" -> Double.valueOf(cursor.lastKey());
+                case "date" -> Integer.valueOf(cursor.lastKey());
+                default -> cursor.lastKey();
+            };
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
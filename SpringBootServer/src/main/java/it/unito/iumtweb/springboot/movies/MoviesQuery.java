@@ -0,0 +1,97 @@
+package it.unito.iumtweb.springboot.movies;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+/**
+ * Small builder of the FROM and WHERE clauses of the movie listing queries over the movies table aliased as {@code m}.
+ * <p>
+ * Only the filters actually set are written, each as the most specific predicate for its values
+ * (equality rather than a one-year range, a single genre rather than a one-element list), and no catch-all
+ * predicate such as {@code :year IS NULL OR m.date = :year} is ever emitted. Every combination of filters
+ * thus yields its own SQL text, which the driver prepares, and PostgreSQL plans, separately: the plan of each
+ * variant can use the indexes matching its predicates instead of a generic plan valid for all of them.
+ * </p>
+ */
+final class MoviesQuery {
+    private final StringBuilder clauses = new StringBuilder("FROM movies m ");
+    private final MapSqlParameterSource params = new MapSqlParameterSource();
+    private boolean filtered;
+
+    /**
+     * Adds a predicate, joined to the previous ones with AND.
+     *
+     * @param predicate the SQL predicate
+     * @return this query
+     */
+    MoviesQuery where(String predicate) {
+        clauses.append(filtered ? "AND " : "WHERE ").append(predicate).append(' ');
+        filtered = true;
+        return this;
+    }
+
+    /**
+     * Adds a predicate with one named parameter.
+     *
+     * @param predicate the SQL predicate
+     * @param name      the name of the parameter used by the predicate
+     * @param value     the value of the parameter
+     * @return this query
+     */
+    MoviesQuery where(String predicate, String name, Object value) {
+        params.addValue(name, value);
+        return where(predicate);
+    }
+
+    /**
+     * Adds the predicates of the filters that are set.
+     *
+     * @param filter the filters of the listing
+     * @return this query
+     */
+    MoviesQuery filter(MoviesFilter filter) {
+        if (filter.genres().size() == 1) {
+            where("EXISTS (SELECT 1 FROM genres g WHERE g.movie_id = m.movie_id AND g.genre = :genre)",
+                    "genre", filter.genres().getFirst());
+        } else if (!filter.genres().isEmpty()) {
+            where("EXISTS (SELECT 1 FROM genres g WHERE g.movie_id = m.movie_id AND g.genre IN (:genres))",
+                    "genres", filter.genres());
+        }
+        range("m.date", "year", filter.fromYear(), filter.toYear());
+        range("m.rating", "rating", filter.minRating(), filter.maxRating());
+        return this;
+    }
+
+    private void range(String column, String name, Object from, Object to) {
+        if (from != null && from.equals(to)) {
+            where(column + " = :" + name, name, from);
+            return;
+        }
+        if (from != null && to != null) {
+            params.addValue("from_" + name, from);
+            where(column + " BETWEEN :from_" + name + " AND :to_" + name, "to_" + name, to);
+        } else if (from != null) {
+            where(column + " >= :from_" + name, "from_" + name, from);
+        } else if (to != null) {
+            where(column + " <= :to_" + name, "to_" + name, to);
+        }
+    }
+
+    /**
+     * Returns the FROM and WHERE clauses, shared by a listing query and its count query.
+     *
+     * @return the clauses, followed by a space
+     */
+    String fromWhere() {
+        return clauses.toString();
+    }
+
+    /**
+     * Returns the parameters of the predicates added so far; further parameters, such as the LIMIT,
+     * may be added by the caller.
+     *
+     * @return the parameters
+     */
+    MapSqlParameterSource params() {
+        return params;
+    }
+}
@@ -0,0 +1,97 @@
+package it.unito.iumtweb.springboot.movies;
+
+import it.unito.iumtweb.springboot.TableStreamer;
+import it.unito.iumtweb.springboot.importer.DatasetImportedEvent;
+import it.unito.iumtweb.springboot.importer.ImportTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Component owning the {@link ThemeSimilarityIndex} used to find the movies related to a movie by their themes.
+ * <p>
+ * The index is built from the themes and movies tables once the application is ready, and rebuilt after every
+ * bulk import of either dataset. Until the first build completes, {@link #related(String, int)} returns an empty
+ * {@link Optional} and callers fall back to the database query.
+ * </p>
+ */
+@Component
+public class MoviesRelatedIndex {
+    private static final Logger log = LoggerFactory.getLogger(MoviesRelatedIndex.class);
+
+    /**
+     * Minimum number of themes a movie must share with another to be related to it.
+     */
+    static final int MIN_SHARED_THEMES = 5;
+
+    private final TableStreamer streamer;
+    private volatile ThemeSimilarityIndex index;
+
+    /**
+     * Constructs a new MoviesRelatedIndex with the specified TableStreamer.
+     *
+     * @param streamer the streamer of the themes and ratings of the movies
+     */
+    public MoviesRelatedIndex(TableStreamer streamer) {
+        this.streamer = streamer;
+    }
+
+    /**
+     * Builds the index once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the index once the themes or the movies table has been bulk loaded.
+     *
+     * @param event the completed import
+     */
+    @EventListener
+    @Order(DatasetImportedEvent.INDEX_ORDER)
+    @Transactional(readOnly = true)
+    public void onDatasetImported(DatasetImportedEvent event) {
+        if (event.includes(ImportTable.THEMES) || event.includes(ImportTable.MOVIES)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Streams every theme, then the ratings of the movies having one, into a new index, then swaps it in.
+     * Queries keep being served by the previous index, if any, while the new one is built.
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        ThemeSimilarityIndex.Builder builder = new ThemeSimilarityIndex.Builder();
+        streamer.stream("SELECT movie_id, theme FROM themes", rs -> builder.addTheme(rs.getString(1), rs.getString(2)));
+        streamer.stream("SELECT movie_id, rating FROM movies WHERE rating IS NOT NULL",
+                rs -> builder.setRating(rs.getString(1), rs.getDouble(2)));
+        ThemeSimilarityIndex built = builder.build();
+        index = built;
+        log.info("Related movies index built: {} movies, {} themes in {} ms",
+                built.size(), built.themeCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Finds the movies related to the given one, i.e. sharing at least {@value #MIN_SHARED_THEMES} themes with it.
+     *
+     * @param movieId the business identifier of the reference movie
+     * @param limit   the maximum number of movies to return
+     * @return the IDs of the related movies from the most to the least similar, or empty if the index is not built yet
+     */
+    public Optional<List<String>> related(String movieId, int limit) {
+        ThemeSimilarityIndex current = index;
+        return current == null ? Optional.empty() : Optional.of(current.related(movieId, MIN_SHARED_THEMES, limit));
+    }
+}
@@ -1,15 +1,23 @@
 package it.unito.iumtweb.springboot.movies;
 
+import it.unito.iumtweb.springboot.cache.CacheNames;
 import it.unito.iumtweb.springboot.themes.Themes;
 import it.unito.iumtweb.springboot.themes.ThemesRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -22,16 +30,29 @@ import java.util.Optional;
 public class MoviesService {
     private final MoviesRepository moviesRepo;
     private final ThemesRepository themesRepo;
+    private final OscarWinnerFlagService oscarWinnerFlagService;
+    private final MoviesTitleIndex titleIndex;
+    private final MoviesRelatedIndex relatedIndex;
+    private final MoviesCatalog catalog;
 
     /**
-     * Constructs a new MoviesService with the specified MoviesRepository and ThemesRepository.
+     * Constructs a new MoviesService with the specified repositories, OscarWinnerFlagService and in-memory indexes.
      *
-     * @param moviesRepo the repository for movie entities
-     * @param themesRepo the repository for theme entities
+     * @param moviesRepo             the repository for movie entities
+     * @param themesRepo             the repository for theme entities
+     * @param oscarWinnerFlagService the service maintaining the precomputed Oscar-winner flag
+     * @param titleIndex             the in-memory index answering title searches
+     * @param relatedIndex           the in-memory index finding related movies by their themes
+     * @param catalog                the in-memory snapshot filtering, sorting and paging the movie listing
      */
-    public MoviesService(MoviesRepository moviesRepo, ThemesRepository themesRepo) {
+    public MoviesService(MoviesRepository moviesRepo, ThemesRepository themesRepo, OscarWinnerFlagService oscarWinnerFlagService,
+                         MoviesTitleIndex titleIndex, MoviesRelatedIndex relatedIndex, MoviesCatalog catalog) {
         this.moviesRepo = moviesRepo;
         this.themesRepo = themesRepo;
+        this.oscarWinnerFlagService = oscarWinnerFlagService;
+        this.titleIndex = titleIndex;
+        this.relatedIndex = relatedIndex;
+        this.catalog = catalog;
     }
 
     /**
@@ -50,7 +71,10 @@ public class MoviesService {
 
     /**
      * Retrieves a paginated list of movies whose titles contain the specified string, ignoring case.
+     * A string shorter than {@value TitleTrigramIndex#MIN_QUERY_LENGTH} characters only finds the titles equal to it.
      * The results are paginated and sorted by rating in descending order.
+     * Matches are resolved by the in-memory {@link MoviesTitleIndex}, and only the cards of the requested page
+     * are read from the database. The database search is used until the index has been built.
      *
      * @param title the title or partial title to search for (case-insensitive)
      * @param page the page number to retrieve (zero-based)
@@ -59,7 +83,37 @@ public class MoviesService {
      */
     public Page<MoviesCardInfoDTO> getMovieByTitle(String title,int page, int size) {
         Pageable pageable = PageRequest.of(page,size,Sort.by(Sort.Direction.DESC,"rating"));
-        return moviesRepo.findMoviesByTitle(title, pageable);
+        // Only the movies up to the end of the page are ranked
+        int limit = (int) Math.min(pageable.getOffset() + size, Integer.MAX_VALUE);
+        Optional<TitleTrigramIndex.Matches> matches = titleIndex.search(title, limit);
+        if (matches.isEmpty()) {
+            return title.length() < TitleTrigramIndex.MIN_QUERY_LENGTH
+                    ? moviesRepo.findMoviesByExactTitle(title, pageable)
+                    : moviesRepo.findMoviesByTitle(title, pageable);
+        }
+
+        List<String> movieIds = matches.get().movieIds();
+        int from = (int) Math.min(pageable.getOffset(), movieIds.size());
+        List<String> pageIds = movieIds.subList(from, movieIds.size());
+        return new PageImpl<>(getMovieCardsByIds(pageIds), pageable, matches.get().total());
+    }
+
+    /**
+     * Reads the cards of the given movies with a single query, in the order of the IDs.
+     *
+     * @param movieIds the IDs of the movies, in the order of the result
+     * @return the cards of the movies that still exist, in the order of the IDs
+     */
+    public List<MoviesCardInfoDTO> getMovieCardsByIds(List<String> movieIds) {
+        if (movieIds.isEmpty()) {
+            return List.of();
+        }
+        // Restore the order of the IDs, which the IN query does not preserve
+        Map<String, MoviesCardInfoDTO> cards = new HashMap<>();
+        for (MoviesCardInfoDTO card : moviesRepo.findMovieCardsByIds(movieIds)) {
+            cards.put(card.movieId(), card);
+        }
+        return movieIds.stream().map(cards::get).filter(Objects::nonNull).toList();
     }
 
     /**
@@ -84,10 +138,11 @@ public class MoviesService {
      * @param page the page number to retrieve (zero-based)
      * @param size the number of results per page
      * @return a list of {@link MoviesCardInfoDTO} objects for movies released in the specified year
+     * @throws IllegalArgumentException if the year is not a number
      */
     public Page<MoviesCardInfoDTO> getMoviesByYear(String year, Integer page, Integer size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("name").descending());
-        return moviesRepo.findMoviesByDate(year, pageable);
+        return moviesRepo.findMoviesByDate(resolveYear(year), pageable);
     }
 
     /**
@@ -107,6 +162,9 @@ public class MoviesService {
     /**
      * Retrieves a paginated list of movies filtered and sorted according to the provided options.
      * Allows sorting by rating, year of release, or movie title, and filtering by genres.
+     * The page is selected by the in-memory {@link MoviesCatalog}, and only its cards are read from the database;
+     * the database query is used until the catalog has been built.
+     * The first three pages of each combination of options, which the home page loads, are cached.
      *
      * @param sort the sorting criteria ("newest", "movie", or default "rating")
      * @param genres a list of genres to filter by; if null or empty, no genre filtering is applied
@@ -114,17 +172,15 @@ public class MoviesService {
      * @param page the page number to retrieve (zero-based)
      * @param size the number of results per page
      * @return a {@link Page} of {@link MoviesCardInfoDTO} objects matching the criteria
+     * @throws IllegalArgumentException if the year is not a number
      */
+    @Cacheable(cacheNames = CacheNames.MOVIES_OPTIONS, condition = "#page < 3")
     public Page<MoviesCardInfoDTO> getMoviesByOptions(String sort, String genres, String year, String order, Integer page, Integer size) {
 
 
-        String sorting = switch (sort) {
-            case "year", "newest" -> "date";
-            case "movie", "title" -> "name";
-            default -> "rating";
-        };
+        String sorting = resolveSortColumn(sort);
 
-        Sort.Direction direction = (order != null && order.equalsIgnoreCase("ASC")) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort.Direction direction = resolveDirection(order);
 
         
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sorting).and(Sort.by(Sort.Direction.ASC, "movie_id")));
@@ -132,13 +188,152 @@ public class MoviesService {
 
         String genreParam = (genres == null || genres.isEmpty() ||  genres.equals("all"))
                 ? null : genres;
+        Integer yearParam = resolveYear(year);
+
+        Optional<CatalogSnapshot.Listing> listing = catalog.list(sorting, direction == Sort.Direction.DESC,
+                genreParam, yearParam, (int) pageable.getOffset(), size);
+        if (listing.isPresent()) {
+            return new PageImpl<>(getMovieCardsByIds(listing.get().movieIds()), pageable, listing.get().total());
+        }
+        return moviesRepo.findMoviesWithSmartFilters(MoviesFilter.of(genreParam, yearParam), pageable);
+    }
 
+    /**
+     * Retrieves the slice of movies following the given continuation token, with the same filter and sort
+     * options as {@link #getMoviesByOptions}. Uses keyset pagination: the listing is resumed right after the
+     * (sort key, movie ID) of the previous slice, without OFFSET and without any count query.
+     *
+     * @param sort the sorting criteria ("newest", "movie", or default "rating")
+     * @param genres the genre to filter by; if null, empty or "all", no genre filtering is applied
+     * @param year the year of release to filter by; if null, empty or "all", no year filtering is applied
+     * @param order the sort order ("ASC" for ascending, otherwise descending)
+     * @param cursor the continuation token returned with the previous slice, or null for the first slice
+     * @param size the number of results per slice
+     * @return a {@link MoviesSliceDTO} with the cards of the slice and the token of the following one
+     * @throws IllegalArgumentException if the token is malformed or was issued for a different sort,
+     *                                  or if the year is not a number
+     */
+    public MoviesSliceDTO getMoviesByOptionsAfter(String sort, String genres, String year, String order, String cursor, Integer size) {
+        String genreParam = (genres == null || genres.isEmpty() || genres.equals("all")) ? null : genres;
+        return scroll(MoviesFilter.of(genreParam, resolveYear(year)), false,
+                MoviesCursor.first(resolveSortColumn(sort), resolveDirection(order)), cursor, size);
+    }
+
+    /**
+     * Retrieves the slice of movies of a genre following the given continuation token, in the order of
+     * {@link #getMoviesByGenre}: by rating in descending order, with their cast as roles.
+     *
+     * @param genre the genre to filter movies by
+     * @param cursor the continuation token returned with the previous slice, or null for the first slice
+     * @param size the number of results per slice
+     * @return a {@link MoviesSliceDTO} with the cards of the slice and the token of the following one
+     * @throws IllegalArgumentException if the token is malformed or was issued for a different sort
+     */
+    public MoviesSliceDTO getMoviesByGenreAfter(String genre, String cursor, Integer size) {
+        return scroll(MoviesFilter.of(genre, null), true, MoviesCursor.first("rating", Sort.Direction.DESC), cursor, size);
+    }
 
-        String yearParam = (year == null || year.trim().isEmpty() || year.equalsIgnoreCase("all"))
-                ? null : year;
+    /**
+     * Retrieves the slice of movies released in a year following the given continuation token, in the order of
+     * {@link #getMoviesByYear}: by movie name in descending order.
+     *
+     * @param year the year of release to filter movies
+     * @param cursor the continuation token returned with the previous slice, or null for the first slice
+     * @param size the number of results per slice
+     * @return a {@link MoviesSliceDTO} with the cards of the slice and the token of the following one
+     * @throws IllegalArgumentException if the token is malformed or was issued for a different sort,
+     *                                  or if the year is not a number
+     */
+    public MoviesSliceDTO getMoviesByYearAfter(String year, String cursor, Integer size) {
+        Integer yearParam = resolveYear(year);
+        if (yearParam == null) {
+            throw new IllegalArgumentException("Missing year");
+        }
+        return scroll(MoviesFilter.of(null, yearParam), false, MoviesCursor.first("name", Sort.Direction.DESC), cursor, size);
+    }
 
+    /**
+     * Retrieves the slice of movies with the specified rating following the given continuation token,
+     * in the order of {@link #getMoviesByRating}.
+     *
+     * @param rating the rating to filter movies
+     * @param cursor the continuation token returned with the previous slice, or null for the first slice
+     * @param size the number of results per slice
+     * @return a {@link MoviesSliceDTO} with the cards of the slice and the token of the following one
+     * @throws IllegalArgumentException if the token is malformed or was issued for a different sort
+     */
+    public MoviesSliceDTO getMoviesByRatingAfter(Double rating, String cursor, Integer size) {
+        return scroll(new MoviesFilter(List.of(), null, null, rating, rating), false,
+                MoviesCursor.first("rating", Sort.Direction.DESC), cursor, size);
+    }
 
-        return moviesRepo.findMoviesWithSmartFilters(genreParam, yearParam, pageable);
+    /**
+     * Reads the slice of a keyset-paginated listing following the given continuation token.
+     *
+     * @param filter the filters of the listing
+     * @param withCast whether the cards carry their cast as roles
+     * @param first the position of the first slice, which sets the sort of the listing
+     * @param cursor the continuation token returned with the previous slice, or null for the first slice
+     * @param size the number of results per slice
+     * @return a {@link MoviesSliceDTO} with the cards of the slice and the token of the following one
+     * @throws IllegalArgumentException if the token is malformed or was issued for a different sort
+     */
+    private MoviesSliceDTO scroll(MoviesFilter filter, boolean withCast, MoviesCursor first, String cursor, int size) {
+        MoviesCursor position = first;
+        if (cursor != null && !cursor.isEmpty()) {
+            MoviesCursor decoded = MoviesCursor.decode(cursor);
+            if (!decoded.sortColumn().equals(first.sortColumn()) || decoded.direction() != first.direction()) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort");
+            }
+            position = decoded;
+        }
+
+        Slice<MoviesCardInfoDTO> slice = moviesRepo.findMoviesWithSmartFiltersAfter(filter, position, size, withCast);
+        String nextCursor = slice.hasNext() ? position.after(slice.getContent().getLast()).encode() : null;
+        return new MoviesSliceDTO(slice.getContent(), nextCursor, slice.hasNext());
+    }
+
+    /**
+     * Maps a sort option of the listing endpoints to the movies column it sorts by.
+     *
+     * @param sort the sorting criteria ("year", "newest", "movie", "title", or default "rating")
+     * @return the name of the sort column
+     */
+    private static String resolveSortColumn(String sort) {
+        return switch (sort) {
+            case "year", "newest" -> "date";
+            case "movie", "title" -> "name";
+            default -> "rating";
+        };
+    }
+
+    /**
+     * Parses the year filter of the listing endpoints. Years formatted as decimals by older clients
+     * (e.g. "2023.0") are accepted.
+     *
+     * @param year the year of release, or null, empty or "all" for no year filter
+     * @return the year of release, or null for no year filter
+     * @throws IllegalArgumentException if the year is not a number
+     */
+    private static Integer resolveYear(String year) {
+        if (year == null || year.isBlank() || year.equalsIgnoreCase("all")) {
+            return null;
+        }
+        try {
+            return new BigDecimal(year.trim()).intValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid year: " + year, e);
+        }
+    }
+
+    /**
+     * Maps an order option of the listing endpoints to a sort direction.
+     *
+     * @param order the sort order ("ASC" for ascending, otherwise descending)
+     * @return the sort direction
+     */
+    private static Sort.Direction resolveDirection(String order) {
+        return (order != null && order.equalsIgnoreCase("ASC")) ? Sort.Direction.ASC : Sort.Direction.DESC;
     }
 
     List<MoviesCardInfoDTO> getMoviesByActorOscarWinner(String name) {
@@ -148,7 +343,9 @@ public class MoviesService {
     /**
      * Finds movies similar to the specified movie based on shared themes.
      * Retrieves a paginated list of movies that share at least 5 themes with the given movie,
-     * excluding the movie itself.
+     * excluding the movie itself, from the most to the least similar.
+     * Related movies are ranked by the in-memory {@link MoviesRelatedIndex}, and only their cards are read
+     * from the database, with a single query. The database search is used until the index has been built.
      *
      * @param movieId the unique identifier of the reference movie
      * @param page the page number to retrieve (zero-based)
@@ -156,14 +353,17 @@ public class MoviesService {
      * @return a list of {@link MoviesCardInfoDTO} objects representing related movies
      */
     public List<MoviesCardInfoDTO> getRelatedMoviesByThemes(String movieId, Integer page, Integer size) {
-        List<Themes> themes = themesRepo.findThemesByMovieId(movieId);
-        List<String> themesNames = themes.stream().map(Themes::getTheme).toList();
-
         Pageable pageable = PageRequest.of(page, size);
-        Page<MoviesCardInfoDTO> pageOfMovies = moviesRepo.findMoviesWithMinimumThemes(themesNames, movieId, 5, pageable);
+        Optional<List<String>> related = relatedIndex.related(movieId, (int) pageable.getOffset() + size);
+        if (related.isPresent()) {
+            List<String> movieIds = related.get();
+            int from = (int) Math.min(pageable.getOffset(), movieIds.size());
+            return getMovieCardsByIds(movieIds.subList(from, movieIds.size()));
+        }
 
-        System.out.println("Related movies: " + pageOfMovies.getContent());
-        return pageOfMovies.getContent();
+        List<Themes> themes = themesRepo.findThemesByMovieId(movieId);
+        List<String> themesNames = themes.stream().map(Themes::getTheme).toList();
+        return moviesRepo.findMoviesWithMinimumThemes(themesNames, movieId, MoviesRelatedIndex.MIN_SHARED_THEMES, pageable).getContent();
     }
 
 
@@ -180,12 +380,28 @@ public class MoviesService {
     }
 
     /**
-     * Adds a new movie to the database.
+     * Adds a new movie to the database, resolves its Oscar-winner flag, makes it searchable by title
+     * and adds it to the catalog of the listing.
+     * Evicts the cached lists the new movie may belong to.
      *
      * @param movie the {@link Movies} entity to be saved
      */
+    @CacheEvict(cacheNames = {CacheNames.YEARS, CacheNames.TOP_MOVIES, CacheNames.MOVIES_OPTIONS}, allEntries = true)
     public void addMovie(Movies movie) {
         moviesRepo.save(movie);
+        oscarWinnerFlagService.refreshTitle(movie.getName());
+        titleIndex.add(movie);
+        catalog.add(movie);
+    }
+
+    /**
+     * Retrieves a movie by its unique business identifier.
+     *
+     * @param movieId the unique identifier of the movie
+     * @return the {@link Movies} entity, or null if not found
+     */
+    public Movies getMovieByMovieId(String movieId) {
+        return moviesRepo.findByMovieId(movieId);
     }
 
     /**
@@ -196,12 +412,27 @@ public class MoviesService {
     public List<Movies> getAllMovies() {
         return moviesRepo.findAll();
     }
-
-
-
-    public List<String> getAllYears() {
+    /**
+     * Retrieves the distinct years of release of all movies.
+     * The list is cached and evicted whenever a movie is added.
+     *
+     * @return a list of years of release
+     */
+    @Cacheable(CacheNames.YEARS)
+    public List<Integer> getAllYears() {
         return moviesRepo.findAllDistinctYears();
     }
 
+    /**
+     * Retrieves the 20 top-rated movies.
+     * The list is cached and evicted whenever a movie is added.
+     *
+     * @return a list of the 20 top-rated {@link Movies} entities
+     */
+    @Cacheable(CacheNames.TOP_MOVIES)
+    public List<Movies> getTopMovies() {
+        return moviesRepo.findTop20MoviesByOrderByRatingDesc();
+    }
+
 
 }
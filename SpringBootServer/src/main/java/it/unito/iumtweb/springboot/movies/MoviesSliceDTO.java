@@ -0,0 +1,64 @@
+package it.unito.iumtweb.springboot.movies;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing one slice of a keyset-paginated movies listing.
+ * <p>
+ * Contains the movie cards of the slice and the opaque continuation token to pass back
+ * as <code>cursor</code> to obtain the following slice. No total count is provided:
+ * computing it would cost a full scan of the filtered listing on every request.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * MoviesSliceDTO slice = new MoviesSliceDTO(cards, "djEfcmF0aW5nH0RFU0Mf...", true);
+ * }
+ * </pre>
+ * </p>
+ */
+public class MoviesSliceDTO {
+    private List<MoviesCardInfoDTO> content;
+    private String nextCursor;
+    private boolean hasNext;
+
+    /**
+     * Constructs a {@code MoviesSliceDTO} with the specified cards and continuation token.
+     *
+     * @param content    the movie cards of the slice
+     * @param nextCursor the token of the following slice, or {@code null} if this is the last slice
+     * @param hasNext    true if another slice follows this one
+     */
+    public MoviesSliceDTO(List<MoviesCardInfoDTO> content, String nextCursor, boolean hasNext) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    // Getter & Setter
+    public List<MoviesCardInfoDTO> getContent() {
+        return content;
+    }
+
+    public void setContent(List<MoviesCardInfoDTO> content) {
+        this.content = content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
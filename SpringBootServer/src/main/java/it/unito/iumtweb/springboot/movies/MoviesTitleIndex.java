@@ -0,0 +1,102 @@
+package it.unito.iumtweb.springboot.movies;
+
+import it.unito.iumtweb.springboot.TableStreamer;
+import it.unito.iumtweb.springboot.importer.DatasetImportedEvent;
+import it.unito.iumtweb.springboot.importer.ImportTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Component owning the {@link TitleTrigramIndex} used to answer title searches without scanning the movies table.
+ * <p>
+ * The index is built from the movies table once the application is ready, rebuilt after every bulk import
+ * of the movies dataset, and kept up to date by {@link MoviesService#addMovie}. Until the first build completes,
+ * {@link #search(String)} returns an empty {@link Optional} and callers fall back to the database query.
+ * </p>
+ */
+@Component
+public class MoviesTitleIndex {
+    private static final Logger log = LoggerFactory.getLogger(MoviesTitleIndex.class);
+
+    private final TableStreamer streamer;
+    private volatile TitleTrigramIndex index;
+
+    /**
+     * Constructs a new MoviesTitleIndex with the specified TableStreamer.
+     *
+     * @param streamer the streamer of the titles of the movies table
+     */
+    public MoviesTitleIndex(TableStreamer streamer) {
+        this.streamer = streamer;
+    }
+
+    /**
+     * Builds the index once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the index once the movies table has been bulk loaded.
+     *
+     * @param event the completed import
+     */
+    @EventListener
+    @Order(DatasetImportedEvent.INDEX_ORDER)
+    @Transactional(readOnly = true)
+    public void onDatasetImported(DatasetImportedEvent event) {
+        if (event.includes(ImportTable.MOVIES)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Streams every title of the movies table into a new index, then swaps it in.
+     * Searches keep being served by the previous index, if any, while the new one is built.
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        TitleTrigramIndex built = new TitleTrigramIndex();
+        streamer.stream("SELECT movie_id, name, rating FROM movies",
+                rs -> built.add(rs.getString("movie_id"), rs.getString("name"), rs.getDouble("rating")));
+        index = built;
+        log.info("Title index built: {} movies in {} ms", built.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Adds a newly saved movie to the index.
+     *
+     * @param movie the saved {@link Movies} entity
+     */
+    public void add(Movies movie) {
+        TitleTrigramIndex current = index;
+        if (current != null) {
+            current.add(movie.getMovieId(), movie.getName(), movie.getRating() == null ? 0 : movie.getRating());
+        }
+    }
+
+    /**
+     * Resolves a title search to the IDs of the best matching movies.
+     *
+     * @param title the partial or full title to search for (case-insensitive)
+     * @param limit the maximum number of movies to return
+     * @return the IDs of the best matching movies ordered by descending rating, with the number of matching movies,
+     *         or empty if the index is not built yet
+     */
+    public Optional<TitleTrigramIndex.Matches> search(String title, int limit) {
+        TitleTrigramIndex current = index;
+        return current == null ? Optional.empty() : Optional.of(current.search(title, limit));
+    }
+}
@@ -0,0 +1,96 @@
+package it.unito.iumtweb.springboot.movies;
+
+import it.unito.iumtweb.springboot.importer.DatasetImportedEvent;
+import it.unito.iumtweb.springboot.importer.ImportTable;
+import it.unito.iumtweb.springboot.theoscarawards.OscarAwardChangedEvent;
+import it.unito.iumtweb.springboot.theoscarawards.OscarAwardLinkService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service that maintains the precomputed {@code oscar_winner} flag of the movies table.
+ * <p>
+ * Movie cards used to resolve the flag with a correlated subquery on the awards table for every row.
+ * The flag is now resolved once: entirely after a dataset import, and only for the affected titles
+ * whenever an award is inserted, updated or deleted, or a movie is added.
+ * </p>
+ * <p>
+ * A movie is flagged when a winning award is linked to it by the {@link OscarAwardLinkService}, so a remake
+ * sharing the title of a winning film is no longer flagged. Flags are refreshed after the links they read.
+ * </p>
+ */
+@Service
+public class OscarWinnerFlagService {
+    private static final Logger log = LoggerFactory.getLogger(OscarWinnerFlagService.class);
+
+    private final MoviesRepository moviesRepo;
+    private final OscarAwardLinkService oscarAwardLinkService;
+
+    /**
+     * Constructs a new OscarWinnerFlagService with the specified MoviesRepository and OscarAwardLinkService.
+     *
+     * @param moviesRepo            the repository for movie entities
+     * @param oscarAwardLinkService the service linking the awards to the movies
+     */
+    public OscarWinnerFlagService(MoviesRepository moviesRepo, OscarAwardLinkService oscarAwardLinkService) {
+        this.moviesRepo = moviesRepo;
+        this.oscarAwardLinkService = oscarAwardLinkService;
+    }
+
+    /**
+     * Recomputes the flag of every movie with two set-based updates that only write the rows whose flag changes.
+     */
+    @Transactional
+    public void refreshAll() {
+        int cleared = moviesRepo.clearStaleOscarWinnerFlags();
+        int set = moviesRepo.setOscarWinnerFlags();
+        log.info("Oscar winner flags refreshed: {} set, {} cleared", set, cleared);
+    }
+
+    /**
+     * Links the awards of the given title to the movies again, e.g. once a movie with that title has been added,
+     * then recomputes the flag of the movies with that title.
+     *
+     * @param title the title of the movies to refresh
+     */
+    @Transactional
+    public void refreshTitle(String title) {
+        if (title != null) {
+            oscarAwardLinkService.resolveFilmTitle(title);
+            moviesRepo.refreshOscarWinnerFlag(title);
+        }
+    }
+
+    /**
+     * Rebuilds every flag once the movies or the awards table has been bulk loaded, after the award links.
+     *
+     * @param event the completed import
+     */
+    @EventListener
+    @Order(OscarAwardLinkService.ORDER + 1)
+    @Transactional
+    public void onDatasetImported(DatasetImportedEvent event) {
+        if (event.includes(ImportTable.MOVIES) || event.includes(ImportTable.THE_OSCAR_AWARDS)) {
+            refreshAll();
+        }
+    }
+
+    /**
+     * Refreshes the flags of the titles affected by an award change, once the change has been committed
+     * and the links of the award have been resolved.
+     *
+     * @param event the award change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Order(OscarAwardLinkService.ORDER + 1)
+    public void onOscarAwardChanged(OscarAwardChangedEvent event) {
+        event.filmTitles().forEach(moviesRepo::refreshOscarWinnerFlag);
+    }
+}
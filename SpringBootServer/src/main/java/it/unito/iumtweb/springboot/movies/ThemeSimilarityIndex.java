@@ -0,0 +1,255 @@
+package it.unito.iumtweb.springboot.movies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Immutable in-memory inverted index from themes to movies, ranking the movies related to a given one.
+ * <p>
+ * Themes are dictionary-encoded into dense int IDs and movies into dense int ordinals. Each movie keeps the sorted
+ * IDs of its distinct themes, and each theme the sorted ordinals of its movies (its posting list). The movies
+ * related to a movie are found by walking the posting lists of its themes and counting, for each candidate,
+ * the themes it shares. Candidates sharing enough themes are scored by Jaccard similarity,
+ * <code>shared / (themesOfA + themesOfB - shared)</code>, so that a movie matching few of its many themes ranks
+ * below one matching most of its few, and only the best <code>limit</code> are kept in a bounded heap.
+ * </p>
+ * <p>
+ * The counters are plain arrays borrowed from a pool and reset through the list of touched candidates,
+ * so a query allocates nothing proportional to the number of movies. Instances are built once by a {@link Builder}
+ * and never modified, so they can be queried concurrently without locking.
+ * </p>
+ */
+public class ThemeSimilarityIndex {
+    private final Map<String, Integer> ordinals;
+    private final String[] movieIds;
+    private final float[] ratings;
+    private final int[][] movieThemes;
+    private final int[][] postings;
+    private final Queue<Scratch> scratches = new ConcurrentLinkedQueue<>();
+    // Worst candidate first: lowest score, then lowest rating, then highest movie ID
+    private final Comparator<Candidate> worstFirst;
+
+    private ThemeSimilarityIndex(Map<String, Integer> ordinals, String[] movieIds, float[] ratings,
+                                 int[][] movieThemes, int[][] postings) {
+        this.ordinals = ordinals;
+        this.movieIds = movieIds;
+        this.ratings = ratings;
+        this.movieThemes = movieThemes;
+        this.postings = postings;
+        this.worstFirst = Comparator.comparingDouble(Candidate::score)
+                .thenComparingDouble(c -> ratings[c.ordinal()])
+                .thenComparing(c -> movieIds[c.ordinal()], Comparator.reverseOrder());
+    }
+
+    /**
+     * Finds the movies sharing the most themes with the given movie, relative to their number of themes.
+     *
+     * @param movieId   the business identifier of the reference movie, which is never part of the result
+     * @param minShared the minimum number of themes a movie must share with the reference movie
+     * @param limit     the maximum number of movies to return
+     * @return the IDs of the related movies, ordered by descending similarity, then by descending rating
+     *         and then by movie ID; empty if the movie has no theme
+     */
+    public List<String> related(String movieId, int minShared, int limit) {
+        Integer reference = ordinals.get(movieId);
+        if (reference == null || limit <= 0 || movieThemes[reference].length < minShared) {
+            return List.of();
+        }
+        int[] themes = movieThemes[reference];
+        Scratch scratch = borrow();
+        int touched = 0;
+        try {
+            int[] counts = scratch.counts;
+            for (int theme : themes) {
+                for (int candidate : postings[theme]) {
+                    if (counts[candidate]++ == 0) {
+                        scratch.touched[touched++] = candidate;
+                    }
+                }
+            }
+
+            PriorityQueue<Candidate> best = new PriorityQueue<>(Math.min(limit, 1024) + 1, worstFirst);
+            for (int i = 0; i < touched; i++) {
+                int candidate = scratch.touched[i];
+                int shared = counts[candidate];
+                counts[candidate] = 0;
+                if (candidate == reference || shared < minShared) {
+                    continue;
+                }
+                Candidate scored = new Candidate(candidate,
+                        (double) shared / (themes.length + movieThemes[candidate].length - shared));
+                if (best.size() < limit) {
+                    best.add(scored);
+                } else if (worstFirst.compare(scored, best.peek()) > 0) {
+                    best.poll();
+                    best.add(scored);
+                }
+            }
+
+            String[] result = new String[best.size()];
+            for (int i = result.length - 1; i >= 0; i--) {
+                result[i] = movieIds[best.poll().ordinal()];
+            }
+            return Arrays.asList(result);
+        } finally {
+            scratches.offer(scratch);
+        }
+    }
+
+    /**
+     * Returns the number of indexed movies, i.e. of movies with at least one theme.
+     *
+     * @return the number of indexed movies
+     */
+    public int size() {
+        return movieIds.length;
+    }
+
+    /**
+     * Returns the number of distinct themes.
+     *
+     * @return the number of distinct themes
+     */
+    public int themeCount() {
+        return postings.length;
+    }
+
+    private Scratch borrow() {
+        Scratch scratch = scratches.poll();
+        return scratch != null ? scratch : new Scratch(movieIds.length);
+    }
+
+    /**
+     * A movie sharing themes with the reference movie, with its similarity score.
+     */
+    private record Candidate(int ordinal, double score) {
+    }
+
+    /**
+     * Per-query counters, one per movie, all zero between queries.
+     */
+    private static final class Scratch {
+        private final int[] counts;
+        private final int[] touched;
+
+        Scratch(int size) {
+            counts = new int[size];
+            touched = new int[size];
+        }
+    }
+
+    /**
+     * Accumulates (movie, theme) pairs and ratings, then encodes them into a {@link ThemeSimilarityIndex}.
+     * Not thread-safe.
+     */
+    public static class Builder {
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final List<String> movieIds = new ArrayList<>();
+        private final Map<String, Integer> themeIds = new HashMap<>();
+        private float[] ratings = new float[1024];
+        private int[] pairMovies = new int[1024];
+        private int[] pairThemes = new int[1024];
+        private int pairs;
+
+        /**
+         * Records that a movie has a theme. Duplicate pairs are ignored.
+         *
+         * @param movieId the business identifier of the movie
+         * @param theme   the theme of the movie
+         * @return this builder
+         */
+        public Builder addTheme(String movieId, String theme) {
+            if (movieId == null || theme == null) {
+                return this;
+            }
+            int movie = ordinals.computeIfAbsent(movieId, id -> {
+                movieIds.add(id);
+                return movieIds.size() - 1;
+            });
+            int themeId = themeIds.computeIfAbsent(theme, t -> themeIds.size());
+            if (pairs == pairMovies.length) {
+                pairMovies = Arrays.copyOf(pairMovies, pairs * 2);
+                pairThemes = Arrays.copyOf(pairThemes, pairs * 2);
+            }
+            pairMovies[pairs] = movie;
+            pairThemes[pairs] = themeId;
+            pairs++;
+            return this;
+        }
+
+        /**
+         * Sets the rating of a movie, used to rank equally similar movies. Movies without themes are ignored.
+         *
+         * @param movieId the business identifier of the movie
+         * @param rating  the rating of the movie
+         * @return this builder
+         */
+        public Builder setRating(String movieId, double rating) {
+            Integer movie = ordinals.get(movieId);
+            if (movie != null) {
+                if (movie >= ratings.length) {
+                    ratings = Arrays.copyOf(ratings, Math.max(movie + 1, ratings.length * 2));
+                }
+                ratings[movie] = (float) rating;
+            }
+            return this;
+        }
+
+        /**
+         * Encodes the accumulated pairs: the distinct themes of each movie, then the posting list of each theme.
+         *
+         * @return the new index
+         */
+        public ThemeSimilarityIndex build() {
+            int movies = movieIds.size();
+            int[] offsets = new int[movies + 1];
+            for (int i = 0; i < pairs; i++) {
+                offsets[pairMovies[i] + 1]++;
+            }
+            for (int m = 0; m < movies; m++) {
+                offsets[m + 1] += offsets[m];
+            }
+            int[] grouped = new int[pairs];
+            int[] next = Arrays.copyOf(offsets, movies);
+            for (int i = 0; i < pairs; i++) {
+                grouped[next[pairMovies[i]]++] = pairThemes[i];
+            }
+
+            int[][] movieThemes = new int[movies][];
+            int[] themeSizes = new int[themeIds.size()];
+            for (int m = 0; m < movies; m++) {
+                int[] themes = Arrays.copyOfRange(grouped, offsets[m], offsets[m + 1]);
+                Arrays.sort(themes);
+                int distinct = 0;
+                for (int theme : themes) {
+                    if (distinct == 0 || themes[distinct - 1] != theme) {
+                        themes[distinct++] = theme;
+                        themeSizes[theme]++;
+                    }
+                }
+                movieThemes[m] = Arrays.copyOf(themes, distinct);
+            }
+
+            // Movies are visited in ordinal order, so every posting list comes out sorted
+            int[][] postings = new int[themeSizes.length][];
+            for (int t = 0; t < postings.length; t++) {
+                postings[t] = new int[themeSizes[t]];
+                themeSizes[t] = 0;
+            }
+            for (int m = 0; m < movies; m++) {
+                for (int theme : movieThemes[m]) {
+                    postings[theme][themeSizes[theme]++] = m;
+                }
+            }
+            return new ThemeSimilarityIndex(Map.copyOf(ordinals), movieIds.toArray(String[]::new),
+                    Arrays.copyOf(ratings, movies), movieThemes, postings);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package it.unito.iumtweb.springboot.movies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram inverted index over movie titles, answering case-insensitive substring queries.
+ * <p>
+ * Every title is assigned a dense int ordinal and lower-cased once. Each trigram (three consecutive characters)
+ * of a title points to a posting list of the ordinals containing it. A substring query of at least three characters
+ * intersects the posting lists of its own trigrams, smallest first, and verifies the few surviving candidates with
+ * {@link String#contains}, so its cost depends on the number of matches rather than on the number of titles.
+ * Shorter queries have no trigram and would have to scan every title: they only match the titles equal to them
+ * ("Up", "M"), looked up by whole title. Only the best matches asked for are ranked, in a bounded heap of ordinals;
+ * the others are only counted.
+ * </p>
+ * <p>
+ * Ordinals are appended in insertion order, so every posting list is sorted and can be intersected by merging.
+ * The index is safe for concurrent use: searches share a read lock, additions take the write lock.
+ * </p>
+ */
+public class TitleTrigramIndex {
+    /**
+     * Minimum length of a substring query: the length of a trigram. Shorter queries match whole titles only.
+     */
+    static final int MIN_QUERY_LENGTH = 3;
+
+    /**
+     * The best matches of a query.
+     *
+     * @param movieIds the IDs of the best matching movies, by descending rating and then by movie ID
+     * @param total    the number of matching movies
+     */
+    public record Matches(List<String> movieIds, int total) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IntList> postings = new HashMap<>();
+    private final Map<String, IntList> wholeTitles = new HashMap<>();
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private String[] movieIds = new String[1024];
+    private String[] titles = new String[1024];
+    private float[] ratings = new float[1024];
+    private int size;
+
+    /**
+     * Adds a movie to the index, or updates its title and rating if it is already indexed.
+     * The trigrams of a previous title are not removed: stale candidates are discarded by the verification step.
+     *
+     * @param movieId the business identifier of the movie
+     * @param title   the title of the movie
+     * @param rating  the rating of the movie, used to rank results
+     */
+    public void add(String movieId, String title, double rating) {
+        if (movieId == null || title == null) {
+            return;
+        }
+        String normalized = normalize(title);
+        lock.writeLock().lock();
+        try {
+            Integer existing = ordinals.get(movieId);
+            int ordinal;
+            if (existing != null) {
+                ordinal = existing;
+            } else {
+                ordinal = size++;
+                ensureCapacity(size);
+                movieIds[ordinal] = movieId;
+                ordinals.put(movieId, ordinal);
+            }
+            titles[ordinal] = normalized;
+            ratings[ordinal] = (float) rating;
+            if (normalized.length() < MIN_QUERY_LENGTH) {
+                wholeTitles.computeIfAbsent(normalized, k -> new IntList()).addSorted(ordinal);
+            }
+            for (int i = 0; i + 3 <= normalized.length(); i++) {
+                IntList list = postings.computeIfAbsent(trigram(normalized, i), k -> new IntList());
+                // Titles repeating a trigram, or re-added movies, must not duplicate the ordinal
+                if (list.size == 0 || list.values[list.size - 1] != ordinal) {
+                    list.addSorted(ordinal);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the best indexed movies whose title contains the given string, ignoring case.
+     * A query shorter than {@value #MIN_QUERY_LENGTH} characters only finds the titles equal to it.
+     *
+     * @param query the partial or full title to search for
+     * @param limit the maximum number of movies to return
+     * @return the IDs of the best matching movies, ordered by descending rating and then by movie ID,
+     *         with the number of matching movies
+     */
+    public Matches search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return new Matches(List.of(), 0);
+        }
+        boolean whole = normalized.length() < MIN_QUERY_LENGTH;
+        lock.readLock().lock();
+        try {
+            int[] candidates = whole ? wholeTitleCandidates(normalized) : candidates(normalized);
+            // Min-heap of the best matches so far, the worst one at the root
+            int[] best = new int[Math.min(limit, candidates.length)];
+            int kept = 0;
+            int total = 0;
+            for (int ordinal : candidates) {
+                if (whole ? !titles[ordinal].equals(normalized) : !titles[ordinal].contains(normalized)) {
+                    continue;
+                }
+                total++;
+                if (kept < best.length) {
+                    best[kept] = ordinal;
+                    siftUp(best, kept++);
+                } else if (ranksBefore(ordinal, best[0])) {
+                    best[0] = ordinal;
+                    siftDown(best, kept);
+                }
+            }
+            String[] result = new String[kept];
+            for (int i = kept - 1; i >= 0; i--) {
+                result[i] = movieIds[best[0]];
+                best[0] = best[i];
+                siftDown(best, i);
+            }
+            return new Matches(Arrays.asList(result), total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed movies.
+     *
+     * @return the number of indexed movies
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Intersects the posting lists of every trigram of the query, starting from the shortest one.
+     *
+     * @param normalized the lower-cased query, at least three characters long
+     * @return the sorted ordinals containing every trigram of the query
+     */
+    private int[] candidates(String normalized) {
+        List<IntList> lists = new ArrayList<>();
+        for (int i = 0; i + 3 <= normalized.length(); i++) {
+            IntList list = postings.get(trigram(normalized, i));
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        int[] result = Arrays.copyOf(lists.getFirst().values, lists.getFirst().size);
+        int length = result.length;
+        for (int l = 1; l < lists.size() && length > 0; l++) {
+            IntList other = lists.get(l);
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < length && j < other.size; ) {
+                int a = result[i];
+                int b = other.values[j];
+                if (a == b) {
+                    result[kept++] = a;
+                    i++;
+                    j++;
+                } else if (a < b) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            length = kept;
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    /**
+     * Returns the ordinals of the titles equal to a query too short to have a trigram.
+     *
+     * @param normalized the lower-cased query, shorter than three characters
+     * @return the sorted ordinals whose title is, or was, the query
+     */
+    private int[] wholeTitleCandidates(String normalized) {
+        IntList list = wholeTitles.get(normalized);
+        return list == null ? new int[0] : Arrays.copyOf(list.values, list.size);
+    }
+
+    /**
+     * Tells whether a movie ranks before another one: higher rating first, then lower movie ID.
+     */
+    private boolean ranksBefore(int a, int b) {
+        int byRating = Float.compare(ratings[a], ratings[b]);
+        return byRating != 0 ? byRating > 0 : movieIds[a].compareTo(movieIds[b]) < 0;
+    }
+
+    private void siftUp(int[] heap, int position) {
+        int ordinal = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!ranksBefore(heap[parent], ordinal)) {
+                break;
+            }
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = ordinal;
+    }
+
+    private void siftDown(int[] heap, int size) {
+        int ordinal = heap[0];
+        int position = 0;
+        while (2 * position + 1 < size) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && ranksBefore(heap[child], heap[child + 1])) {
+                child++;
+            }
+            if (!ranksBefore(ordinal, heap[child])) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = ordinal;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > movieIds.length) {
+            int newLength = Math.max(capacity, movieIds.length * 2);
+            movieIds = Arrays.copyOf(movieIds, newLength);
+            titles = Arrays.copyOf(titles, newLength);
+            ratings = Arrays.copyOf(ratings, newLength);
+        }
+    }
+
+    /**
+     * Normalizes a title or a query the same way PostgreSQL's {@code LOWER()} is used by the title search.
+     *
+     * @param text the text to normalize
+     * @return the lower-cased text
+     */
+    static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Packs the three characters starting at the given position into a single key.
+     */
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    /**
+     * Growable, sorted list of primitive ordinals.
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void addSorted(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            // Re-added movies may append an ordinal lower than the last one: keep the list sorted
+            int position = size;
+            while (position > 0 && values[position - 1] > value) {
+                position--;
+            }
+            if (position > 0 && values[position - 1] == value) {
+                return;
+            }
+            System.arraycopy(values, position, values, position + 1, size - position);
+            values[position] = value;
+            size++;
+        }
+    }
+}
@@ -5,6 +5,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * Repository interface for managing {@link Releases} entities.
  * Provides methods for querying releases by movie ID with pagination.
@@ -22,4 +24,12 @@ public interface ReleasesRepository extends JpaRepository<Releases, Long> {
      */
     Page<ReleasesInfoDTO> findReleasesByMovieId(String movieId, Pageable pageable);
 
+    /**
+     * Retrieves every release of the specified movie ID.
+     *
+     * @param movieId the unique identifier of the movie
+     * @return a list of {@link ReleasesInfoDTO} objects for the given movie
+     */
+    List<ReleasesInfoDTO> findReleasesByMovieId(String movieId);
+
 }
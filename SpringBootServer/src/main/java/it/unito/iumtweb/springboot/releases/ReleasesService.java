@@ -6,6 +6,8 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 /**
  * Service class that provides high-level operations for retrieving and analyzing
  * Releases data. This class acts as an intermediate layer between the controller
@@ -37,4 +39,14 @@ public class ReleasesService {
         Pageable pageable = PageRequest.of(page, size);
         return repo.findReleasesByMovieId(movieId, pageable);
     }
+
+    /**
+     * Retrieves every release of the specified movie ID.
+     *
+     * @param movieId the unique identifier of the movie to search for
+     * @return a list of {@link ReleasesInfoDTO} objects that match the movie ID
+     */
+    public List<ReleasesInfoDTO> getReleasesByMovieId(String movieId) {
+        return repo.findReleasesByMovieId(movieId);
+    }
 }
@@ -0,0 +1,32 @@
+package it.unito.iumtweb.springboot.schema;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Configuration class running the schema migrations at startup.
+ * <p>
+ * Flyway applies the versioned migrations (<code>V*</code>) once each, then the repeatable ones (<code>R__*</code>)
+ * whenever their content changed, and refuses to start if an applied migration was edited afterwards.
+ * The schema is then checked by {@link SchemaVerifier}, before Hibernate validates the entities against it.
+ * </p>
+ */
+@Configuration
+public class SchemaConfig {
+
+    /**
+     * Migrates the database, then verifies the resulting schema.
+     * The verifier reads Flyway's own DataSource: JDBC templates managed by Spring wait for the migrations to complete.
+     *
+     * @return the migration strategy used by Spring Boot's Flyway initializer
+     */
+    @Bean
+    public FlywayMigrationStrategy verifyingMigrationStrategy() {
+        return flyway -> {
+            flyway.migrate();
+            new SchemaVerifier(new JdbcTemplate(flyway.getConfiguration().getDataSource())).verify();
+        };
+    }
+}
@@ -0,0 +1,133 @@
+package it.unito.iumtweb.springboot.schema;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks, right after the migrations, that the database provides what the queries of the application rely on.
+ * <p>
+ * Hibernate's schema validation only covers the columns mapped by the entities. This verifier also covers what
+ * the native and JDBC queries expect: the typed columns they compare and sort on, and the indexes that keep their
+ * lookups from scanning whole tables. An index that is missing, or left invalid by an interrupted build, is reported
+ * as drift and prevents the application from starting.
+ * </p>
+ */
+public class SchemaVerifier {
+    private static final Logger log = LoggerFactory.getLogger(SchemaVerifier.class);
+
+    /**
+     * Indexes created by the migrations, by name, with the table they belong to.
+     */
+    static final Map<String, String> REQUIRED_INDEXES = Map.ofEntries(
+            Map.entry("movies_movie_id_idx", "movies"),
+            Map.entry("actors_movie_id_idx", "actors"),
+            Map.entry("crew_movie_id_idx", "crew"),
+            Map.entry("countries_movie_id_idx", "countries"),
+            Map.entry("genres_movie_id_idx", "genres"),
+            Map.entry("languages_movie_id_idx", "languages"),
+            Map.entry("posters_movie_id_idx", "posters"),
+            Map.entry("releases_movie_id_idx", "releases"),
+            Map.entry("studios_movie_id_idx", "studios"),
+            Map.entry("themes_movie_id_idx", "themes"),
+            Map.entry("themes_theme_movie_id_idx", "themes"),
+            Map.entry("actors_lower_name_idx", "actors"),
+            Map.entry("movies_lower_name_idx", "movies"),
+            Map.entry("the_oscar_awards_lower_actor_name_idx", "the_oscar_awards"),
+            Map.entry("the_oscar_awards_lower_film_title_idx", "the_oscar_awards"),
+            Map.entry("movies_rating_idx", "movies"),
+            Map.entry("movies_rating_desc_idx", "movies"),
+            Map.entry("movies_date_idx", "movies"),
+            Map.entry("movies_date_desc_idx", "movies"),
+            Map.entry("movies_date_rating_desc_idx", "movies"),
+            Map.entry("actor_names_normalized_name_trgm_idx", "actor_names"),
+            Map.entry("actor_names_film_count_idx", "actor_names"),
+            Map.entry("oscar_award_links_movie_key_idx", "oscar_award_links"),
+            Map.entry("oscar_award_links_actor_name_id_idx", "oscar_award_links"));
+
+    /**
+     * Columns whose type the queries depend on, as "table.column", with their type as reported by
+     * <code>information_schema.columns</code>.
+     */
+    static final Map<String, String> REQUIRED_COLUMN_TYPES = Map.of(
+            "movies.movie_id", "character varying",
+            "movies.rating", "double precision",
+            "movies.date", "smallint",
+            "movies.oscar_winner", "boolean",
+            "the_oscar_awards.winner", "boolean",
+            "actor_names.movie_ids", "ARRAY");
+
+    private final JdbcTemplate jdbc;
+
+    /**
+     * Constructs a new SchemaVerifier with the specified JdbcTemplate.
+     *
+     * @param jdbc the template used to read the catalog of the database
+     */
+    public SchemaVerifier(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Reads the valid indexes and the column types of the current schema and compares them with the requirements.
+     *
+     * @throws IllegalStateException if anything required is missing or has a different type
+     */
+    public void verify() {
+        Map<String, String> indexes = new HashMap<>();
+        jdbc.query("SELECT c.relname, t.relname FROM pg_index i " +
+                        "JOIN pg_class c ON c.oid = i.indexrelid " +
+                        "JOIN pg_class t ON t.oid = i.indrelid " +
+                        "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                        "WHERE n.nspname = current_schema() AND i.indisvalid",
+                rs -> {
+                    indexes.put(rs.getString(1), rs.getString(2));
+                });
+        Map<String, String> columnTypes = new HashMap<>();
+        jdbc.query("SELECT table_name, column_name, data_type FROM information_schema.columns " +
+                        "WHERE table_schema = current_schema()",
+                rs -> {
+                    columnTypes.put(rs.getString(1) + "." + rs.getString(2), rs.getString(3));
+                });
+
+        List<String> drift = findDrift(indexes, columnTypes);
+        if (!drift.isEmpty()) {
+            throw new IllegalStateException("Database schema does not match the queries: " + String.join("; ", drift));
+        }
+        log.info("Schema verified: {} indexes, {} typed columns", REQUIRED_INDEXES.size(), REQUIRED_COLUMN_TYPES.size());
+    }
+
+    /**
+     * Lists the differences between the requirements and the actual schema.
+     *
+     * @param indexes     the valid indexes of the schema, by name, with their table
+     * @param columnTypes the types of the columns of the schema, keyed by "table.column"
+     * @return a description of each difference, sorted; empty if the schema meets every requirement
+     */
+    static List<String> findDrift(Map<String, String> indexes, Map<String, String> columnTypes) {
+        List<String> drift = new ArrayList<>();
+        REQUIRED_COLUMN_TYPES.forEach((column, type) -> {
+            String actual = columnTypes.get(column);
+            if (actual == null) {
+                drift.add("missing column " + column);
+            } else if (!actual.equals(type)) {
+                drift.add("column " + column + " is " + actual + ", expected " + type);
+            }
+        });
+        REQUIRED_INDEXES.forEach((index, table) -> {
+            String actual = indexes.get(index);
+            if (actual == null) {
+                drift.add("missing or invalid index " + index + " on " + table);
+            } else if (!actual.equals(table)) {
+                drift.add("index " + index + " is on " + actual + ", expected " + table);
+            }
+        });
+        drift.sort(null);
+        return drift;
+    }
+}
@@ -0,0 +1,267 @@
+package it.unito.iumtweb.springboot.search;
+
+import it.unito.iumtweb.springboot.suggest.PrefixSuggester;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable BK-tree finding the entries of a dictionary within a small edit distance of a misspelled query.
+ * <p>
+ * Entries are normalized (lower-cased, without accents) and a normalized form is stored once, with the spelling of
+ * its best scored entry. Each node of the tree keeps its children by their Levenshtein distance from it; since the
+ * distance is a metric, a query at distance d from a node only needs to visit the children at distance d - k to
+ * d + k to find every entry within distance k. Nodes are stored in flat arrays, children as linked siblings.
+ * </p>
+ * <p>
+ * The number of distances computed by a lookup is capped by {@link #MAX_VISITS}, so a lookup runs in bounded time
+ * even on a large dictionary. The children nearest to the query are visited first, which tends to reach close entries
+ * early, but does not guarantee it: a lookup cut off by the cap misses the entries it has not visited, and may then
+ * return a farther entry although a closer one exists. {@link #unique} only answers from a lookup that completed.
+ * </p>
+ */
+public class BkTree {
+    /**
+     * Maximum number of nodes whose distance to the query is computed by a lookup.
+     */
+    static final int MAX_VISITS = 20_000;
+
+    private final String[] keys;
+    private final String[] texts;
+    private final float[] scores;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] edge;
+
+    private BkTree(String[] keys, String[] texts, float[] scores, int[] firstChild, int[] nextSibling, int[] edge) {
+        this.keys = keys;
+        this.texts = texts;
+        this.scores = scores;
+        this.firstChild = firstChild;
+        this.nextSibling = nextSibling;
+        this.edge = edge;
+    }
+
+    /**
+     * Finds the entries within the given edit distance of the query, closest first. If the lookup is cut off by
+     * {@link #MAX_VISITS}, the entries found until then are returned, which may miss closer ones.
+     *
+     * @param query       the text to correct
+     * @param maxDistance the maximum number of inserted, deleted or substituted characters
+     * @param limit       the maximum number of entries to return
+     * @return the spellings of the matching entries, by distance, then by descending score, then alphabetically
+     */
+    public List<String> closest(String query, int maxDistance, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        List<int[]> found = lookup(query, maxDistance).found();
+        found.sort((a, b) -> {
+            if (a[0] != b[0]) {
+                return Integer.compare(a[0], b[0]);
+            }
+            int byScore = Float.compare(scores[b[1]], scores[a[1]]);
+            return byScore != 0 ? byScore : texts[a[1]].compareTo(texts[b[1]]);
+        });
+        List<String> result = new ArrayList<>(Math.min(limit, found.size()));
+        for (int i = 0; i < found.size() && i < limit; i++) {
+            result.add(texts[found.get(i)[1]]);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the only entry within the given edit distance of the query, if the lookup visited every node it had to.
+     *
+     * @param query       the text to correct
+     * @param maxDistance the maximum number of inserted, deleted or substituted characters
+     * @return the spelling of the entry, or null if no entry or several entries are that close,
+     *         or if the lookup was cut off by {@link #MAX_VISITS}
+     */
+    public String unique(String query, int maxDistance) {
+        Lookup lookup = lookup(query, maxDistance);
+        return lookup.complete() && lookup.found().size() == 1 ? texts[lookup.found().getFirst()[1]] : null;
+    }
+
+    /**
+     * Entries found by a lookup, as (distance, node) pairs, and whether every node within reach was visited.
+     */
+    private record Lookup(List<int[]> found, boolean complete) {
+    }
+
+    private Lookup lookup(String query, int maxDistance) {
+        String key = PrefixSuggester.normalize(query).trim();
+        List<int[]> found = new ArrayList<>();
+        if (keys.length == 0 || key.isEmpty()) {
+            return new Lookup(found, true);
+        }
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        int[] rows = new int[2 * (key.length() + 1)];
+        int visits = 0;
+        while (top > 0 && visits < MAX_VISITS) {
+            int node = stack[--top];
+            visits++;
+            int distance = distance(key, keys[node], rows);
+            if (distance <= maxDistance) {
+                found.add(new int[]{distance, node});
+            }
+            // Push the farthest children first, so that the nearest ones are popped first
+            int low = distance - maxDistance;
+            int high = distance + maxDistance;
+            int pushedFrom = top;
+            for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+                if (edge[child] >= low && edge[child] <= high) {
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = child;
+                }
+            }
+            sortByDistanceFrom(stack, pushedFrom, top, distance);
+        }
+        return new Lookup(found, top == 0);
+    }
+
+    /**
+     * Returns the number of distinct normalized entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Orders the children just pushed so that those whose edge is closest to the distance of their parent
+     * are on top of the stack.
+     */
+    private void sortByDistanceFrom(int[] stack, int from, int to, int distance) {
+        for (int i = from + 1; i < to; i++) {
+            int child = stack[i];
+            int gap = Math.abs(edge[child] - distance);
+            int j = i - 1;
+            while (j >= from && Math.abs(edge[stack[j]] - distance) < gap) {
+                stack[j + 1] = stack[j];
+                j--;
+            }
+            stack[j + 1] = child;
+        }
+    }
+
+    /**
+     * Computes the Levenshtein distance between two strings, with two rows of the dynamic programming matrix.
+     *
+     * @param a    the first string
+     * @param b    the second string
+     * @param rows scratch space of at least 2 * (a.length() + 1) integers
+     * @return the minimum number of single character insertions, deletions and substitutions turning a into b
+     */
+    static int distance(String a, String b, int[] rows) {
+        int width = a.length() + 1;
+        int previous = 0;
+        int current = width;
+        for (int i = 0; i < width; i++) {
+            rows[i] = i;
+        }
+        for (int j = 1; j <= b.length(); j++) {
+            rows[current] = j;
+            char c = b.charAt(j - 1);
+            for (int i = 1; i < width; i++) {
+                int substitution = rows[previous + i - 1] + (a.charAt(i - 1) == c ? 0 : 1);
+                int deletion = rows[previous + i] + 1;
+                int insertion = rows[current + i - 1] + 1;
+                rows[current + i] = Math.min(substitution, Math.min(deletion, insertion));
+            }
+            int swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return rows[previous + width - 1];
+    }
+
+    /**
+     * Accumulates the entries of a dictionary, then inserts them into a {@link BkTree}. Not thread-safe.
+     */
+    public static class Builder {
+        private final Map<String, Integer> entries = new HashMap<>();
+        private final List<String> keys = new ArrayList<>();
+        private final List<String> texts = new ArrayList<>();
+        private float[] scores = new float[1024];
+
+        /**
+         * Adds an entry. Of the entries with the same normalized form, the one with the highest score is kept.
+         *
+         * @param text  the entry, as it should be suggested
+         * @param score the score ranking entries at the same distance, highest first
+         * @return this builder
+         */
+        public Builder add(String text, double score) {
+            if (text == null) {
+                return this;
+            }
+            String key = PrefixSuggester.normalize(text).trim();
+            if (key.isEmpty()) {
+                return this;
+            }
+            Integer index = entries.get(key);
+            if (index == null) {
+                index = keys.size();
+                entries.put(key, index);
+                keys.add(key);
+                texts.add(text);
+                if (index == scores.length) {
+                    scores = Arrays.copyOf(scores, index * 2);
+                }
+                scores[index] = (float) score;
+            } else if (score > scores[index]) {
+                texts.set(index, text);
+                scores[index] = (float) score;
+            }
+            return this;
+        }
+
+        /**
+         * Inserts the entries into the tree, in the order they were first added.
+         *
+         * @return the new tree
+         */
+        public BkTree build() {
+            int size = keys.size();
+            int[] firstChild = new int[size];
+            int[] nextSibling = new int[size];
+            int[] edge = new int[size];
+            Arrays.fill(firstChild, -1);
+            Arrays.fill(nextSibling, -1);
+            String[] keyArray = keys.toArray(String[]::new);
+            int maxLength = 0;
+            for (String key : keyArray) {
+                maxLength = Math.max(maxLength, key.length());
+            }
+            int[] rows = new int[2 * (maxLength + 1)];
+            for (int node = 1; node < size; node++) {
+                int parent = 0;
+                while (true) {
+                    int distance = distance(keyArray[node], keyArray[parent], rows);
+                    int child = firstChild[parent];
+                    while (child >= 0 && edge[child] != distance) {
+                        child = nextSibling[child];
+                    }
+                    if (child < 0) {
+                        edge[node] = distance;
+                        nextSibling[node] = firstChild[parent];
+                        firstChild[parent] = node;
+                        break;
+                    }
+                    parent = child;
+                }
+            }
+            return new BkTree(keyArray, texts.toArray(String[]::new), Arrays.copyOf(scores, size),
+                    firstChild, nextSibling, edge);
+        }
+    }
+}
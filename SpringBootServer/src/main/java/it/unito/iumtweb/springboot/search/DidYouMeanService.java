@@ -0,0 +1,164 @@
+package it.unito.iumtweb.springboot.search;
+
+import it.unito.iumtweb.springboot.TableStreamer;
+import it.unito.iumtweb.springboot.importer.DatasetImportedEvent;
+import it.unito.iumtweb.springboot.importer.ImportTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service correcting misspelled actor names and movie titles, from two in-memory {@link BkTree} dictionaries.
+ * <p>
+ * Lookups by exact name fail on a single typo ("Margo Robbie"); this service offers the closest known spellings
+ * instead, within one edit for short texts and two edits otherwise. Actor names are read from the actor dimension
+ * and ranked by number of movies, titles from the movies table and ranked by rating. Both dictionaries are built
+ * once the application is ready and rebuilt after an import of their dataset; until the first build completes,
+ * no correction is offered.
+ * </p>
+ */
+@Service
+public class DidYouMeanService {
+    private static final Logger log = LoggerFactory.getLogger(DidYouMeanService.class);
+
+    /**
+     * Length from which two edits are tolerated instead of one.
+     */
+    static final int TWO_EDITS_FROM_LENGTH = 6;
+
+    private final TableStreamer streamer;
+    private volatile BkTree actors;
+    private volatile BkTree titles;
+
+    /**
+     * Constructs a new DidYouMeanService with the specified TableStreamer.
+     *
+     * @param streamer the streamer of the actor names and movie titles
+     */
+    public DidYouMeanService(TableStreamer streamer) {
+        this.streamer = streamer;
+    }
+
+    /**
+     * Builds both dictionaries once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void onApplicationReady() {
+        rebuildActors();
+        rebuildTitles();
+    }
+
+    /**
+     * Rebuilds the dictionaries whose dataset has been bulk loaded.
+     *
+     * @param event the completed import
+     */
+    @EventListener
+    @Order(DatasetImportedEvent.INDEX_ORDER)
+    @Transactional(readOnly = true)
+    public void onDatasetImported(DatasetImportedEvent event) {
+        if (event.includes(ImportTable.ACTORS)) {
+            rebuildActors();
+        }
+        if (event.includes(ImportTable.MOVIES)) {
+            rebuildTitles();
+        }
+    }
+
+    /**
+     * Rebuilds the dictionary of actor names from the actor dimension.
+     */
+    @Transactional(readOnly = true)
+    public void rebuildActors() {
+        actors = build("actors", "SELECT name, film_count FROM actor_names WHERE film_count > 0");
+    }
+
+    /**
+     * Rebuilds the dictionary of movie titles from the movies table.
+     */
+    @Transactional(readOnly = true)
+    public void rebuildTitles() {
+        titles = build("titles", "SELECT name, COALESCE(rating, 0) FROM movies");
+    }
+
+    /**
+     * Finds the known actor names closest to a misspelled one.
+     *
+     * @param name  the misspelled name
+     * @param limit the maximum number of names to return
+     * @return the closest names, best first; empty if none is close enough or the dictionary is not built yet
+     */
+    public List<String> suggestActorNames(String name, int limit) {
+        return closest(actors, name, limit);
+    }
+
+    /**
+     * Corrects a misspelled actor name when the correction is unambiguous: a single known name is one edit away.
+     *
+     * @param name the misspelled name
+     * @return the only known name one edit away; empty if there is none, if there are several, or if the
+     *         dictionary is not built yet
+     */
+    public Optional<String> correctActorName(String name) {
+        BkTree tree = actors;
+        if (tree == null || name == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(tree.unique(name, 1));
+    }
+
+    /**
+     * Finds the known movie titles closest to a misspelled one.
+     *
+     * @param title the misspelled title
+     * @param limit the maximum number of titles to return
+     * @return the closest titles, best first; empty if none is close enough or the dictionary is not built yet
+     */
+    public List<String> suggestTitles(String title, int limit) {
+        return closest(titles, title, limit);
+    }
+
+    /**
+     * Corrects a misspelled movie title when the correction is unambiguous: a single known title is one edit away.
+     *
+     * @param title the misspelled title
+     * @return the only known title one edit away; empty if there is none, if there are several, or if the
+     *         dictionary is not built yet
+     */
+    public Optional<String> correctTitle(String title) {
+        BkTree tree = titles;
+        if (tree == null || title == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(tree.unique(title, 1));
+    }
+
+    private static List<String> closest(BkTree tree, String text, int limit) {
+        if (tree == null || text == null) {
+            return List.of();
+        }
+        int maxDistance = text.trim().length() >= TWO_EDITS_FROM_LENGTH ? 2 : 1;
+        return tree.closest(text, maxDistance, limit);
+    }
+
+    /**
+     * Streams the (text, score) rows of a query into a new dictionary.
+     */
+    private BkTree build(String name, String sql) {
+        long start = System.nanoTime();
+        BkTree.Builder builder = new BkTree.Builder();
+        streamer.stream(sql, rs -> builder.add(rs.getString(1), rs.getDouble(2)));
+        BkTree tree = builder.build();
+        log.info("Did-you-mean dictionary '{}' built: {} entries in {} ms", name, tree.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return tree;
+    }
+}
@@ -0,0 +1,84 @@
+package it.unito.iumtweb.springboot.search;
+
+import it.unito.iumtweb.springboot.movies.MoviesCardInfoDTO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller that exposes the search box of the site.
+ * Endpoints are mapped at the root: <code>/search</code> for movies and <code>/searchActors</code> for actors.
+ */
+@RestController
+public class SearchController {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final SearchService service;
+
+    /**
+     * Constructs a new SearchController with the specified SearchService.
+     *
+     * @param service the service ranking movies and actors
+     */
+    public SearchController(SearchService service) {
+        this.service = service;
+    }
+
+    /**
+     * Searches the movies whose title, tagline, cast or crew match the searched text.
+     *
+     * @param request the searched text, with an optional page (default 0) and page size (default 12)
+     * @return a list of {@link MoviesCardInfoDTO} objects, best match first,
+     *         or 400 if the text is empty or the paging is invalid
+     */
+    @PostMapping("/search")
+    public ResponseEntity<List<MoviesCardInfoDTO>> searchMovies(@RequestBody SearchRequestDTO request) {
+        int page = request.getPage() != null ? request.getPage() : 0;
+        int size = request.getSize() != null ? request.getSize() : SearchRequestDTO.DEFAULT_SIZE;
+        return searchMovies(request.getSearchValue(), page, size);
+    }
+
+    /**
+     * Searches the movies whose title, tagline, cast or crew match the searched text.
+     *
+     * @param searchValue the searched text
+     * @param page        the page number to retrieve (default 0)
+     * @param size        the number of movies per page (default 12, at most {@value #MAX_PAGE_SIZE})
+     * @return a list of {@link MoviesCardInfoDTO} objects, best match first,
+     *         or 400 if the text is empty or the paging is invalid
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<MoviesCardInfoDTO>> searchMovies(@RequestParam String searchValue,
+                                                                @RequestParam(defaultValue = "0") int page,
+                                                                @RequestParam(defaultValue = "12") int size) {
+        if (searchValue == null || searchValue.isBlank() || page < 0 || size < 1 || size > MAX_PAGE_SIZE
+                || (long) page * size > Integer.MAX_VALUE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(service.searchMovies(searchValue, page, size));
+    }
+
+    /**
+     * Searches the actor names matching the searched text.
+     *
+     * @param searchValue the searched text
+     * @param page        the page number to retrieve (default 0)
+     * @param size        the number of names per page (default 12, at most {@value #MAX_PAGE_SIZE})
+     * @return a list of actor names, best match first, or 400 if the text is empty or the paging is invalid
+     */
+    @GetMapping("/searchActors")
+    public ResponseEntity<List<String>> searchActors(@RequestParam String searchValue,
+                                                     @RequestParam(defaultValue = "0") int page,
+                                                     @RequestParam(defaultValue = "12") int size) {
+        if (searchValue == null || searchValue.isBlank() || page < 0 || size < 1 || size > MAX_PAGE_SIZE
+                || (long) page * size > Integer.MAX_VALUE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(service.searchActors(searchValue, page, size));
+    }
+}
@@ -0,0 +1,388 @@
+package it.unito.iumtweb.springboot.search;
+
+import it.unito.iumtweb.springboot.suggest.PrefixSuggester;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Immutable in-memory inverted index ranking documents (movies, actors) against a free-text query.
+ * <p>
+ * Each document has a key, a boost (its rating or popularity) and the text of up to eight fields, each with a weight.
+ * Texts are split into normalized tokens (lower-cased, without accents). The sorted token dictionary maps every
+ * token to a posting list holding, for each document containing it, the document ordinal and the bit mask of the
+ * fields it appears in, so that a token found in the title and the cast of a movie is a single posting.
+ * </p>
+ * <p>
+ * A query matches the documents containing all of its tokens, the last one being completed as a prefix,
+ * as it may not be fully typed. The text score of a document sums, over the query tokens, the weight of the best
+ * field the token appears in times the inverse document frequency of the token; the final score multiplies it by
+ * the boost of the document. Scores are accumulated in arrays borrowed from a pool and only the requested page
+ * is selected, with a bounded heap.
+ * </p>
+ */
+public class SearchIndex {
+    /**
+     * Maximum number of dictionary tokens a query prefix expands to.
+     */
+    static final int MAX_PREFIX_EXPANSION = 64;
+
+    private final String[] keys;
+    private final float[] boosts;
+    private final float[] fieldWeights;
+    private final String[] tokens;
+    private final int[] offsets;
+    private final int[] postingDocs;
+    private final byte[] postingFields;
+    private final Queue<Scratch> scratches = new ConcurrentLinkedQueue<>();
+
+    private SearchIndex(String[] keys, float[] boosts, float[] fieldWeights, String[] tokens, int[] offsets,
+                        int[] postingDocs, byte[] postingFields) {
+        this.keys = keys;
+        this.boosts = boosts;
+        this.fieldWeights = fieldWeights;
+        this.tokens = tokens;
+        this.offsets = offsets;
+        this.postingDocs = postingDocs;
+        this.postingFields = postingFields;
+    }
+
+    /**
+     * Finds the documents matching every token of the query, best first.
+     *
+     * @param query  the free-text query
+     * @param offset the number of best documents to skip
+     * @param limit  the maximum number of documents to return
+     * @return the keys of the matching documents, by descending score and then by ordinal
+     */
+    public List<String> search(String query, int offset, int limit) {
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty() || limit <= 0 || offset < 0) {
+            return List.of();
+        }
+        Scratch scratch = borrow();
+        int touched = 0;
+        try {
+            for (int t = 0; t < queryTokens.size(); t++) {
+                boolean last = t == queryTokens.size() - 1;
+                int[] range = last ? prefixRange(queryTokens.get(t)) : exactRange(queryTokens.get(t));
+                if (range[0] == range[1]) {
+                    return List.of();
+                }
+                touched = accumulate(scratch, touched, range[0], range[1], t);
+            }
+
+            int wanted = offset + limit;
+            int required = queryTokens.size();
+            PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(wanted, 1024) + 1, (a, b) -> {
+                int byScore = Float.compare(scratch.scores[a], scratch.scores[b]);
+                return byScore != 0 ? byScore : Integer.compare(b, a);
+            });
+            for (int i = 0; i < touched; i++) {
+                int doc = scratch.touched[i];
+                if (scratch.matched[doc] == required) {
+                    scratch.scores[doc] *= boosts[doc];
+                    best.add(doc);
+                    if (best.size() > wanted) {
+                        best.poll();
+                    }
+                }
+            }
+            // The heap polls worst first: the page comes out in reverse, before the documents skipped by the offset
+            int count = best.size() - Math.min(offset, best.size());
+            String[] page = new String[count];
+            for (int i = count - 1; i >= 0; i--) {
+                page[i] = keys[best.poll()];
+            }
+            return Arrays.asList(page);
+        } finally {
+            for (int i = 0; i < touched; i++) {
+                int doc = scratch.touched[i];
+                scratch.scores[doc] = 0;
+                scratch.matched[doc] = 0;
+            }
+            scratches.offer(scratch);
+        }
+    }
+
+    /**
+     * Returns the number of documents.
+     *
+     * @return the number of documents
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the number of distinct tokens.
+     *
+     * @return the number of distinct tokens
+     */
+    public int tokenCount() {
+        return tokens.length;
+    }
+
+    /**
+     * Returns the number of (token, document) postings.
+     *
+     * @return the number of postings
+     */
+    public int postingCount() {
+        return postingDocs.length;
+    }
+
+    /**
+     * Adds the contribution of the tokens in the given dictionary range to the documents matched by every previous
+     * query token. A document containing several tokens of a prefix expansion counts once, with its best one.
+     *
+     * @return the new number of touched documents
+     */
+    private int accumulate(Scratch scratch, int touched, int fromToken, int toToken, int queryToken) {
+        for (int token = fromToken; token < toToken; token++) {
+            int from = offsets[token];
+            int to = offsets[token + 1];
+            float idf = (float) Math.log(1 + (double) keys.length / (to - from));
+            for (int p = from; p < to; p++) {
+                int doc = postingDocs[p];
+                if (scratch.matched[doc] < queryToken) {
+                    // Missed a previous query token
+                    continue;
+                }
+                float contribution = idf * bestWeight(postingFields[p]);
+                if (scratch.matched[doc] == queryToken) {
+                    if (queryToken == 0) {
+                        scratch.touched[touched++] = doc;
+                    }
+                    scratch.matched[doc] = queryToken + 1;
+                    scratch.scores[doc] += contribution;
+                    scratch.lastContribution[doc] = contribution;
+                } else if (contribution > scratch.lastContribution[doc]) {
+                    // Already matched by another token of the same prefix expansion
+                    scratch.scores[doc] += contribution - scratch.lastContribution[doc];
+                    scratch.lastContribution[doc] = contribution;
+                }
+            }
+        }
+        return touched;
+    }
+
+    private float bestWeight(byte fields) {
+        float best = 0;
+        for (int f = 0; f < fieldWeights.length; f++) {
+            if ((fields & (1 << f)) != 0) {
+                best = Math.max(best, fieldWeights[f]);
+            }
+        }
+        return best;
+    }
+
+    private int[] exactRange(String token) {
+        int position = Arrays.binarySearch(tokens, token);
+        return position < 0 ? new int[]{0, 0} : new int[]{position, position + 1};
+    }
+
+    private int[] prefixRange(String prefix) {
+        int from = Arrays.binarySearch(tokens, prefix);
+        if (from < 0) {
+            from = -from - 1;
+        }
+        int to = from;
+        while (to < tokens.length && to - from < MAX_PREFIX_EXPANSION && tokens[to].startsWith(prefix)) {
+            to++;
+        }
+        return new int[]{from, to};
+    }
+
+    private Scratch borrow() {
+        Scratch scratch = scratches.poll();
+        return scratch != null ? scratch : new Scratch(keys.length);
+    }
+
+    /**
+     * Splits a text into normalized tokens: maximal runs of letters and digits, lower-cased, without accents.
+     *
+     * @param text the text to split
+     * @return the tokens of the text, in order
+     */
+    static List<String> tokenize(String text) {
+        String normalized = PrefixSuggester.normalize(text);
+        List<String> result = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean inToken = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (inToken && start < 0) {
+                start = i;
+            } else if (!inToken && start >= 0) {
+                result.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Per-query accumulators, one slot per document, all zero between queries.
+     */
+    private static final class Scratch {
+        private final float[] scores;
+        private final float[] lastContribution;
+        private final int[] matched;
+        private final int[] touched;
+
+        Scratch(int size) {
+            scores = new float[size];
+            lastContribution = new float[size];
+            matched = new int[size];
+            touched = new int[size];
+        }
+    }
+
+    /**
+     * Accumulates documents and the tokens of their fields, then encodes them into a {@link SearchIndex}.
+     * Not thread-safe.
+     */
+    public static class Builder {
+        private final float[] fieldWeights;
+        private final List<String> keys = new ArrayList<>();
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final Map<String, Integer> tokenIds = new HashMap<>();
+        private float[] boosts = new float[1024];
+        private int[] pairTokens = new int[1024];
+        private int[] pairDocFields = new int[1024];
+        private int pairs;
+
+        /**
+         * Creates a builder for documents with the given fields.
+         *
+         * @param fieldWeights the weight of each field, by field number (at most 8)
+         * @throws IllegalArgumentException if there are more than 8 fields
+         */
+        public Builder(float... fieldWeights) {
+            if (fieldWeights.length > 8) {
+                throw new IllegalArgumentException("At most 8 fields are supported");
+            }
+            this.fieldWeights = fieldWeights.clone();
+        }
+
+        /**
+         * Adds a document, or updates the boost of an already added one.
+         *
+         * @param key   the key identifying the document
+         * @param boost the factor applied to the text score of the document
+         * @return this builder
+         */
+        public Builder addDocument(String key, double boost) {
+            int doc = ordinals.computeIfAbsent(key, k -> {
+                keys.add(k);
+                return keys.size() - 1;
+            });
+            if (doc >= boosts.length) {
+                boosts = Arrays.copyOf(boosts, boosts.length * 2);
+            }
+            boosts[doc] = (float) boost;
+            return this;
+        }
+
+        /**
+         * Multiplies the boost of an already added document. Unknown documents are ignored.
+         *
+         * @param key    the key identifying the document
+         * @param factor the factor to apply
+         * @return this builder
+         */
+        public Builder multiplyBoost(String key, double factor) {
+            Integer doc = ordinals.get(key);
+            if (doc != null) {
+                boosts[doc] *= (float) factor;
+            }
+            return this;
+        }
+
+        /**
+         * Indexes a text in a field of an already added document. Texts of unknown documents are ignored.
+         *
+         * @param key   the key identifying the document
+         * @param field the field number of the text
+         * @param text  the text to index
+         * @return this builder
+         */
+        public Builder addText(String key, int field, String text) {
+            Integer doc = key == null ? null : ordinals.get(key);
+            if (doc == null || text == null) {
+                return this;
+            }
+            for (String token : tokenize(text)) {
+                int tokenId = tokenIds.computeIfAbsent(token, t -> tokenIds.size());
+                if (pairs == pairTokens.length) {
+                    pairTokens = Arrays.copyOf(pairTokens, pairs * 2);
+                    pairDocFields = Arrays.copyOf(pairDocFields, pairs * 2);
+                }
+                pairTokens[pairs] = tokenId;
+                pairDocFields[pairs] = (doc << 3) | field;
+                pairs++;
+            }
+            return this;
+        }
+
+        /**
+         * Sorts the token dictionary, then groups the (token, document, field) triples into posting lists,
+         * one posting per (token, document) with the mask of its fields.
+         *
+         * @return the new index
+         */
+        public SearchIndex build() {
+            String[] sortedTokens = tokenIds.keySet().toArray(String[]::new);
+            Arrays.sort(sortedTokens);
+            int[] rank = new int[sortedTokens.length];
+            for (int i = 0; i < sortedTokens.length; i++) {
+                rank[tokenIds.get(sortedTokens[i])] = i;
+            }
+
+            // Counting sort of the triples by token rank
+            int[] starts = new int[sortedTokens.length + 1];
+            for (int i = 0; i < pairs; i++) {
+                starts[rank[pairTokens[i]] + 1]++;
+            }
+            for (int t = 0; t < sortedTokens.length; t++) {
+                starts[t + 1] += starts[t];
+            }
+            int[] grouped = new int[pairs];
+            int[] next = Arrays.copyOf(starts, sortedTokens.length);
+            for (int i = 0; i < pairs; i++) {
+                grouped[next[rank[pairTokens[i]]]++] = pairDocFields[i];
+            }
+            pairTokens = null;
+            pairDocFields = null;
+
+            // Sort each list by document and merge the fields of a same document
+            int[] offsets = new int[sortedTokens.length + 1];
+            int postings = 0;
+            byte[] fields = new byte[pairs];
+            for (int t = 0; t < sortedTokens.length; t++) {
+                offsets[t] = postings;
+                Arrays.sort(grouped, starts[t], starts[t + 1]);
+                for (int i = starts[t]; i < starts[t + 1]; i++) {
+                    int doc = grouped[i] >>> 3;
+                    byte field = (byte) (1 << (grouped[i] & 7));
+                    if (postings > offsets[t] && grouped[postings - 1] == doc) {
+                        fields[postings - 1] |= field;
+                    } else {
+                        grouped[postings] = doc;
+                        fields[postings] = field;
+                        postings++;
+                    }
+                }
+            }
+            offsets[sortedTokens.length] = postings;
+            return new SearchIndex(keys.toArray(String[]::new), Arrays.copyOf(boosts, keys.size()), fieldWeights,
+                    sortedTokens, offsets, Arrays.copyOf(grouped, postings), Arrays.copyOf(fields, postings));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package it.unito.iumtweb.springboot.search;
+
+/**
+ * Data Transfer Object (DTO) representing the body of a movie search.
+ * <p>
+ * Only the searched text is required; the page defaults to the first one, of {@value #DEFAULT_SIZE} movies.
+ * </p>
+ *
+ * <p>
+ * Example JSON body:
+ * <pre>
+ * {@code
+ * { "searchValue": "dark knight nolan", "page": 0, "size": 12 }
+ * }
+ * </pre>
+ * </p>
+ */
+public class SearchRequestDTO {
+    static final int DEFAULT_SIZE = 12;
+
+    private String searchValue;
+    private Integer page;
+    private Integer size;
+
+    /**
+     * Constructs an empty {@code SearchRequestDTO}, filled in from the request body.
+     */
+    public SearchRequestDTO() {
+    }
+
+    /**
+     * Constructs a {@code SearchRequestDTO} with the specified values.
+     *
+     * @param searchValue the searched text
+     * @param page        the page number to retrieve (zero-based)
+     * @param size        the number of movies per page
+     */
+    public SearchRequestDTO(String searchValue, Integer page, Integer size) {
+        this.searchValue = searchValue;
+        this.page = page;
+        this.size = size;
+    }
+
+    // Getter & Setter
+    public String getSearchValue() {
+        return searchValue;
+    }
+
+    public void setSearchValue(String searchValue) {
+        this.searchValue = searchValue;
+    }
+
+    public Integer getPage() {
+        return page;
+    }
+
+    public void setPage(Integer page) {
+        this.page = page;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+}
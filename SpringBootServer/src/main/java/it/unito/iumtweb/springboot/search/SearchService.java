@@ -0,0 +1,166 @@
+package it.unito.iumtweb.springboot.search;
+
+import it.unito.iumtweb.springboot.TableStreamer;
+import it.unito.iumtweb.springboot.actors.ActorsService;
+import it.unito.iumtweb.springboot.importer.DatasetImportedEvent;
+import it.unito.iumtweb.springboot.importer.ImportTable;
+import it.unito.iumtweb.springboot.movies.MoviesCardInfoDTO;
+import it.unito.iumtweb.springboot.movies.MoviesService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Service answering the search box with movies and actors ranked by an in-memory {@link SearchIndex}.
+ * <p>
+ * Every movie is a single document gathering its title, its tagline, its cast and its crew, so that one lookup
+ * matches "nolan batman" against the crew and the title of the same movie. Its score is the text match times
+ * its rating times its popularity, measured by the size of its cast. Actors are a second index over the actor
+ * dimension, ranked by number of movies.
+ * </p>
+ * <p>
+ * Both indexes are built once the application is ready and rebuilt after an import of one of their datasets;
+ * searches keep being served by the previous index while a new one is built. Until the first build completes,
+ * searches fall back to the title and name lookups of the database.
+ * </p>
+ */
+@Service
+public class SearchService {
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+    static final int TITLE = 0;
+    static final int TAGLINE = 1;
+    static final int CAST = 2;
+    static final int CREW = 3;
+    static final float[] MOVIE_FIELD_WEIGHTS = {3f, 1f, 2f, 1.5f};
+
+    private final TableStreamer streamer;
+    private final MoviesService moviesService;
+    private final ActorsService actorsService;
+    private volatile SearchIndex movies;
+    private volatile SearchIndex actors;
+
+    /**
+     * Constructs a new SearchService with the specified TableStreamer and services.
+     *
+     * @param streamer      the streamer of the indexed tables
+     * @param moviesService the service reading the cards of the movies found
+     * @param actorsService the service searching actor names until the index is built
+     */
+    public SearchService(TableStreamer streamer, MoviesService moviesService, ActorsService actorsService) {
+        this.streamer = streamer;
+        this.moviesService = moviesService;
+        this.actorsService = actorsService;
+    }
+
+    /**
+     * Builds both indexes once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void onApplicationReady() {
+        rebuildMovies();
+        rebuildActors();
+    }
+
+    /**
+     * Rebuilds the indexes whose datasets have been bulk loaded.
+     *
+     * @param event the completed import
+     */
+    @EventListener
+    @Order(DatasetImportedEvent.INDEX_ORDER)
+    @Transactional(readOnly = true)
+    public void onDatasetImported(DatasetImportedEvent event) {
+        if (event.includes(ImportTable.MOVIES) || event.includes(ImportTable.ACTORS) || event.includes(ImportTable.CREW)) {
+            rebuildMovies();
+        }
+        if (event.includes(ImportTable.ACTORS)) {
+            rebuildActors();
+        }
+    }
+
+    /**
+     * Rebuilds the movie index from the movies, actors and crew tables.
+     */
+    @Transactional(readOnly = true)
+    public void rebuildMovies() {
+        long start = System.nanoTime();
+        SearchIndex.Builder builder = new SearchIndex.Builder(MOVIE_FIELD_WEIGHTS);
+        streamer.stream("SELECT movie_id, name, tagline, rating FROM movies", rs -> {
+            String movieId = rs.getString(1);
+            double rating = rs.getDouble(4);
+            builder.addDocument(movieId, 1 + rating);
+            builder.addText(movieId, TITLE, rs.getString(2));
+            builder.addText(movieId, TAGLINE, rs.getString(3));
+        });
+        streamer.stream("SELECT movie_id, COUNT(*) FROM actors GROUP BY movie_id",
+                rs -> builder.multiplyBoost(rs.getString(1), Math.log(2 + rs.getInt(2))));
+        streamer.stream("SELECT movie_id, name FROM actors",
+                rs -> builder.addText(rs.getString(1), CAST, rs.getString(2)));
+        streamer.stream("SELECT movie_id, name FROM crew",
+                rs -> builder.addText(rs.getString(1), CREW, rs.getString(2)));
+        movies = logBuilt("movies", builder.build(), start);
+    }
+
+    /**
+     * Rebuilds the actor index from the actor dimension.
+     */
+    @Transactional(readOnly = true)
+    public void rebuildActors() {
+        long start = System.nanoTime();
+        SearchIndex.Builder builder = new SearchIndex.Builder(1f);
+        streamer.stream("SELECT name, film_count FROM actor_names WHERE film_count > 0", rs -> {
+            String name = rs.getString(1);
+            builder.addDocument(name, Math.log(2 + rs.getInt(2)));
+            builder.addText(name, 0, name);
+        });
+        actors = logBuilt("actors", builder.build(), start);
+    }
+
+    /**
+     * Searches the movies whose title, tagline, cast or crew contain every word of the given text,
+     * the last word being completed as a prefix.
+     *
+     * @param searchValue the searched text
+     * @param page        the page number to retrieve (zero-based)
+     * @param size        the number of movies per page
+     * @return a list of {@link MoviesCardInfoDTO} objects, best match first
+     */
+    public List<MoviesCardInfoDTO> searchMovies(String searchValue, int page, int size) {
+        SearchIndex current = movies;
+        if (current == null) {
+            return moviesService.getMovieByTitle(searchValue, page, size).getContent();
+        }
+        return moviesService.getMovieCardsByIds(current.search(searchValue, page * size, size));
+    }
+
+    /**
+     * Searches the actor names containing every word of the given text, the last word being completed as a prefix.
+     *
+     * @param searchValue the searched text
+     * @param page        the page number to retrieve (zero-based)
+     * @param size        the number of names per page
+     * @return a list of actor names, best match first
+     */
+    public List<String> searchActors(String searchValue, int page, int size) {
+        SearchIndex current = actors;
+        if (current == null) {
+            return actorsService.getActorByName(searchValue, page, size);
+        }
+        return current.search(searchValue, page * size, size);
+    }
+
+
+    private static SearchIndex logBuilt(String name, SearchIndex index, long start) {
+        log.info("Search index '{}' built: {} documents, {} tokens, {} postings in {} ms", name, index.size(),
+                index.tokenCount(), index.postingCount(), (System.nanoTime() - start) / 1_000_000);
+        return index;
+    }
+}
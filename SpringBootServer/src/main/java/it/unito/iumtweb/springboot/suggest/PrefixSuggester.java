@@ -0,0 +1,423 @@
+package it.unito.iumtweb.springboot.suggest;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable in-memory completion index answering "starts with" queries over names, best scored first.
+ * <p>
+ * Every entry (an actor name or a movie title) is normalized once: lower-cased, without accents.
+ * The index keys are the suffixes of the normalized entries that start at a word, so that "pitt" completes
+ * "Brad Pitt" as well as "Pitty". Keys are not stored as strings: each one is a single int packing the entry
+ * ordinal and the offset of the word, and the array of keys is sorted by the text they point to. The keys
+ * starting with a prefix therefore form one contiguous range, found by two binary searches.
+ * </p>
+ * <p>
+ * Short ranges are scanned at query time. For every prefix whose range is longer than {@link #SCAN_LIMIT},
+ * the best {@link #MAX_LIMIT} entries are precomputed at build time, bottom-up from the lists of the longer
+ * prefixes, so that no query ever scans more than {@link #SCAN_LIMIT} keys.
+ * </p>
+ */
+public class PrefixSuggester {
+    /**
+     * Maximum number of completions of a query.
+     */
+    public static final int MAX_LIMIT = 10;
+    /**
+     * Longest range of keys scanned at query time; longer ranges have precomputed completions.
+     */
+    static final int SCAN_LIMIT = 128;
+
+    private static final int OFFSET_BITS = 8;
+    private static final int MAX_OFFSET = (1 << OFFSET_BITS) - 1;
+    private static final int MAX_WORDS = 4;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final String[] texts;
+    private final String[] ids;
+    private final String[] normalized;
+    private final float[] scores;
+    private final int[] keys;
+    private final Map<String, int[]> precomputed;
+
+    private PrefixSuggester(String[] texts, String[] ids, String[] normalized, float[] scores, int[] keys) {
+        this.texts = texts;
+        this.ids = ids;
+        this.normalized = normalized;
+        this.scores = scores;
+        this.keys = keys;
+        this.precomputed = new HashMap<>();
+        if (keys.length > 0) {
+            precompute(0, keys.length, 0);
+        }
+    }
+
+    /**
+     * Completes a prefix with the best scored entries having a word starting with it.
+     *
+     * @param prefix the text typed so far, in any case and with or without accents
+     * @param limit  the maximum number of completions, capped at {@link #MAX_LIMIT}
+     * @return the matching entries, by descending score and then by text
+     */
+    public List<Suggestion> complete(String prefix, int limit) {
+        String query = normalize(prefix).strip();
+        int max = Math.min(limit, MAX_LIMIT);
+        if (query.isEmpty() || max <= 0) {
+            return List.of();
+        }
+        int[] best = precomputed.get(query);
+        if (best == null) {
+            int lo = lowerBound(query);
+            int hi = upperBound(query, lo);
+            best = select(collect(lo, hi), max);
+        }
+        List<Suggestion> result = new ArrayList<>(Math.min(max, best.length));
+        for (int i = 0; i < best.length && i < max; i++) {
+            result.add(new Suggestion(texts[best[i]], ids[best[i]]));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return texts.length;
+    }
+
+    /**
+     * Returns the number of keys, i.e. of indexed word suffixes.
+     *
+     * @return the number of keys
+     */
+    public int keyCount() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the number of prefixes with precomputed completions.
+     *
+     * @return the number of precomputed prefixes
+     */
+    public int precomputedCount() {
+        return precomputed.size();
+    }
+
+    /**
+     * Estimates the heap retained by the index, assuming compact (Latin-1) strings and compressed references.
+     *
+     * @return the estimated retained size in bytes
+     */
+    public long estimatedBytes() {
+        long bytes = array(keys.length, 4) + array(scores.length, 4) + 3 * array(texts.length, 4);
+        for (int i = 0; i < texts.length; i++) {
+            bytes += string(texts[i]) + string(ids[i]);
+            if (normalized[i] != texts[i]) {
+                bytes += string(normalized[i]);
+            }
+        }
+        for (Map.Entry<String, int[]> entry : precomputed.entrySet()) {
+            // HashMap node, key and value
+            bytes += 32 + string(entry.getKey()) + array(entry.getValue().length, 4);
+        }
+        return bytes + array(precomputed.size() * 2, 4);
+    }
+
+    /**
+     * Normalizes an entry or a query: lower-cased, without diacritics.
+     *
+     * @param text the text to normalize
+     * @return the normalized text
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        if (lower.chars().allMatch(c -> c < 0x80)) {
+            return lower;
+        }
+        return MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    /**
+     * Precomputes the completions of every prefix of the given range that is too long to be scanned.
+     * The range holds the keys sharing their first <code>depth</code> characters.
+     *
+     * @return the best entries of the range, at most {@link #MAX_LIMIT}
+     */
+    private int[] precompute(int lo, int hi, int depth) {
+        if (hi - lo <= SCAN_LIMIT) {
+            return select(collect(lo, hi), MAX_LIMIT);
+        }
+        List<Integer> candidates = new ArrayList<>();
+        int i = lo;
+        // Keys equal to the prefix sort first
+        while (i < hi && keyLength(keys[i]) == depth) {
+            candidates.add(entry(keys[i]));
+            i++;
+        }
+        while (i < hi) {
+            char c = charAt(keys[i], depth);
+            int j = i + 1;
+            while (j < hi && charAt(keys[j], depth) == c) {
+                j++;
+            }
+            for (int best : precompute(i, j, depth + 1)) {
+                candidates.add(best);
+            }
+            i = j;
+        }
+        int[] best = select(candidates.stream().mapToInt(Integer::intValue).toArray(), MAX_LIMIT);
+        if (depth > 0) {
+            int key = keys[lo];
+            int start = offset(key);
+            precomputed.put(normalized[entry(key)].substring(start, start + depth), best);
+        }
+        return best;
+    }
+
+    /**
+     * Lists the entries of the keys of a range, possibly more than once.
+     */
+    private int[] collect(int lo, int hi) {
+        int[] entries = new int[hi - lo];
+        for (int i = lo; i < hi; i++) {
+            entries[i - lo] = entry(keys[i]);
+        }
+        return entries;
+    }
+
+    /**
+     * Selects the best distinct entries among candidates, by descending score and then by text.
+     */
+    private int[] select(int[] candidates, int max) {
+        int[] best = new int[Math.min(max, candidates.length)];
+        int size = 0;
+        for (int candidate : candidates) {
+            boolean duplicate = false;
+            for (int i = 0; i < size && !duplicate; i++) {
+                duplicate = best[i] == candidate;
+            }
+            if (duplicate || (size == best.length && !better(candidate, best[size - 1]))) {
+                continue;
+            }
+            int position = size == best.length ? size - 1 : size++;
+            while (position > 0 && better(candidate, best[position - 1])) {
+                best[position] = best[position - 1];
+                position--;
+            }
+            best[position] = candidate;
+        }
+        return size == best.length ? best : Arrays.copyOf(best, size);
+    }
+
+    private boolean better(int a, int b) {
+        int byScore = Float.compare(scores[b], scores[a]);
+        if (byScore != 0) {
+            return byScore < 0;
+        }
+        int byText = texts[a].compareTo(texts[b]);
+        return byText != 0 ? byText < 0 : a < b;
+    }
+
+    /**
+     * Finds the first key not sorting before the query.
+     */
+    private int lowerBound(String query) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(keys[mid], query) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Finds the first key, from <code>from</code>, not starting with the query.
+     */
+    private int upperBound(String query, int from) {
+        int lo = from;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (startsWith(keys[mid], query)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int compare(int key, String query) {
+        String text = normalized[entry(key)];
+        int offset = offset(key);
+        int length = Math.min(text.length() - offset, query.length());
+        for (int i = 0; i < length; i++) {
+            int diff = text.charAt(offset + i) - query.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return (text.length() - offset) - query.length();
+    }
+
+    private boolean startsWith(int key, String query) {
+        return normalized[entry(key)].startsWith(query, offset(key));
+    }
+
+    private int keyLength(int key) {
+        return normalized[entry(key)].length() - offset(key);
+    }
+
+    private char charAt(int key, int depth) {
+        return normalized[entry(key)].charAt(offset(key) + depth);
+    }
+
+    private static int entry(int key) {
+        return key >>> OFFSET_BITS;
+    }
+
+    private static int offset(int key) {
+        return key & MAX_OFFSET;
+    }
+
+    private static long array(int length, int elementBytes) {
+        return 16 + (long) length * elementBytes;
+    }
+
+    private static long string(String value) {
+        // String object, then its byte array
+        return 24 + array(value.length(), 1);
+    }
+
+    /**
+     * A completion: the text to display and the identifier of the entry.
+     *
+     * @param text the actor name or movie title
+     * @param id   the identifier of the entry (actor key or movie ID)
+     */
+    public record Suggestion(String text, String id) {
+    }
+
+    /**
+     * Accumulates entries, then sorts their keys into a {@link PrefixSuggester}. Not thread-safe.
+     */
+    public static class Builder {
+        private final List<String> texts = new ArrayList<>();
+        private final List<String> ids = new ArrayList<>();
+        private float[] scores = new float[1024];
+
+        /**
+         * Adds an entry.
+         *
+         * @param text  the text to complete and display
+         * @param id    the identifier of the entry
+         * @param score the rank of the entry among the completions of a same prefix, higher first
+         * @return this builder
+         */
+        public Builder add(String text, String id, double score) {
+            if (text == null || text.isBlank() || id == null) {
+                return this;
+            }
+            if (texts.size() == scores.length) {
+                scores = Arrays.copyOf(scores, scores.length * 2);
+            }
+            scores[texts.size()] = (float) score;
+            texts.add(text);
+            ids.add(id);
+            return this;
+        }
+
+        /**
+         * Normalizes the entries, lists the word suffixes of each and sorts them.
+         *
+         * @return the new index
+         * @throws IllegalStateException if there are too many entries to be packed into the keys
+         */
+        public PrefixSuggester build() {
+            int size = texts.size();
+            if (size > (Integer.MAX_VALUE >>> OFFSET_BITS)) {
+                throw new IllegalStateException("Too many entries: " + size);
+            }
+            String[] normalized = new String[size];
+            int[] keys = new int[size * 2];
+            int keyCount = 0;
+            for (int e = 0; e < size; e++) {
+                String text = texts.get(e);
+                String norm = normalize(text).strip();
+                // Share the string when normalization changes nothing
+                normalized[e] = norm.equals(text) ? text : norm;
+                int words = 0;
+                for (int i = 0; i < norm.length() && i <= MAX_OFFSET && words < MAX_WORDS; i++) {
+                    if (Character.isLetterOrDigit(norm.charAt(i)) && (i == 0 || !Character.isLetterOrDigit(norm.charAt(i - 1)))) {
+                        if (keyCount == keys.length) {
+                            keys = Arrays.copyOf(keys, keyCount * 2);
+                        }
+                        keys[keyCount++] = (e << OFFSET_BITS) | i;
+                        words++;
+                    }
+                }
+            }
+            int[] sorted = Arrays.copyOf(keys, keyCount);
+            sort(sorted, normalized);
+            return new PrefixSuggester(texts.toArray(String[]::new), ids.toArray(String[]::new), normalized,
+                    Arrays.copyOf(scores, size), sorted);
+        }
+
+        /**
+         * Sorts keys by the suffix they point to, with a merge sort on primitive ints.
+         */
+        private static void sort(int[] keys, String[] normalized) {
+            int[] buffer = new int[keys.length];
+            for (int width = 1; width < keys.length; width *= 2) {
+                for (int lo = 0; lo < keys.length - width; lo += 2 * width) {
+                    int mid = lo + width;
+                    int hi = Math.min(lo + 2 * width, keys.length);
+                    if (compareKeys(keys[mid - 1], keys[mid], normalized) <= 0) {
+                        continue;
+                    }
+                    System.arraycopy(keys, lo, buffer, lo, hi - lo);
+                    int i = lo;
+                    int j = mid;
+                    for (int k = lo; k < hi; k++) {
+                        if (j >= hi || (i < mid && compareKeys(buffer[i], buffer[j], normalized) <= 0)) {
+                            keys[k] = buffer[i++];
+                        } else {
+                            keys[k] = buffer[j++];
+                        }
+                    }
+                }
+            }
+        }
+
+        private static int compareKeys(int a, int b, String[] normalized) {
+            String textA = normalized[entry(a)];
+            String textB = normalized[entry(b)];
+            int offsetA = offset(a);
+            int offsetB = offset(b);
+            int length = Math.min(textA.length() - offsetA, textB.length() - offsetB);
+            for (int i = 0; i < length; i++) {
+                int diff = textA.charAt(offsetA + i) - textB.charAt(offsetB + i);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return (textA.length() - offsetA) - (textB.length() - offsetB);
+        }
+    }
+}
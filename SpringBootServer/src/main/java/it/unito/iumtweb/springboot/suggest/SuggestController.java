@@ -0,0 +1,60 @@
+package it.unito.iumtweb.springboot.suggest;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller that exposes the search box completions.
+ * All endpoints are mapped under <code>/suggest</code>.
+ */
+@RestController
+@RequestMapping("/suggest")
+public class SuggestController {
+    private final SuggestService service;
+
+    /**
+     * Constructs a new SuggestController with the specified SuggestService.
+     *
+     * @param service the service completing actor names and movie titles
+     */
+    public SuggestController(SuggestService service) {
+        this.service = service;
+    }
+
+    /**
+     * Completes the text typed in the search box with actor names and movie titles having a word starting with it.
+     *
+     * @param q     the text typed so far
+     * @param type  "actors", "movies" or "all" (default)
+     * @param limit the maximum number of completions of each kind (default 10, at most 10)
+     * @return a {@link SuggestionsDTO} with the completions, 400 if the text is empty,
+     *         or 503 while the indexes are being built for the first time
+     */
+    @GetMapping
+    public ResponseEntity<SuggestionsDTO> suggest(@RequestParam String q,
+                                                  @RequestParam(defaultValue = "all") String type,
+                                                  @RequestParam(defaultValue = "10") int limit) {
+        if (q == null || q.isBlank() || limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return service.suggest(q, type, limit)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    /**
+     * Retrieves the size and estimated memory footprint of the completion indexes.
+     *
+     * @return a list of {@link SuggestStatsDTO} objects, one per built index
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<SuggestStatsDTO>> getStats() {
+        return ResponseEntity.ok(service.getStats());
+    }
+}
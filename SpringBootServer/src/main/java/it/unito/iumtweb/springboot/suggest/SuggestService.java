@@ -0,0 +1,148 @@
+package it.unito.iumtweb.springboot.suggest;
+
+import it.unito.iumtweb.springboot.TableStreamer;
+import it.unito.iumtweb.springboot.importer.DatasetImportedEvent;
+import it.unito.iumtweb.springboot.importer.ImportTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service completing the search box as the user types, from two in-memory {@link PrefixSuggester} indexes.
+ * <p>
+ * Actor names are read from the actor dimension and ranked by number of movies; movie titles are read from the
+ * movies table and ranked by rating. Both indexes are built once the application is ready and rebuilt after an
+ * import of their dataset; queries keep being served by the previous index while a new one is built.
+ * Until the first build completes, {@link #suggest} returns an empty {@link Optional}.
+ * </p>
+ */
+@Service
+public class SuggestService {
+    private static final Logger log = LoggerFactory.getLogger(SuggestService.class);
+
+    private final TableStreamer streamer;
+    private volatile BuiltIndex actors;
+    private volatile BuiltIndex movies;
+
+    /**
+     * An index with the time its build took.
+     */
+    private record BuiltIndex(PrefixSuggester suggester, long buildMillis) {
+    }
+
+    /**
+     * Constructs a new SuggestService with the specified TableStreamer.
+     *
+     * @param streamer the streamer of the actor names and movie titles
+     */
+    public SuggestService(TableStreamer streamer) {
+        this.streamer = streamer;
+    }
+
+    /**
+     * Builds both indexes once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void onApplicationReady() {
+        rebuildActors();
+        rebuildMovies();
+    }
+
+    /**
+     * Rebuilds the indexes whose dataset has been bulk loaded.
+     *
+     * @param event the completed import
+     */
+    @EventListener
+    @Order(DatasetImportedEvent.INDEX_ORDER)
+    @Transactional(readOnly = true)
+    public void onDatasetImported(DatasetImportedEvent event) {
+        if (event.includes(ImportTable.ACTORS)) {
+            rebuildActors();
+        }
+        if (event.includes(ImportTable.MOVIES)) {
+            rebuildMovies();
+        }
+    }
+
+    /**
+     * Rebuilds the index of actor names from the actor dimension.
+     */
+    @Transactional(readOnly = true)
+    public void rebuildActors() {
+        actors = build("actors", "SELECT name, id, film_count FROM actor_names WHERE film_count > 0");
+    }
+
+    /**
+     * Rebuilds the index of movie titles from the movies table.
+     */
+    @Transactional(readOnly = true)
+    public void rebuildMovies() {
+        movies = build("movies", "SELECT name, movie_id, COALESCE(rating, 0) FROM movies");
+    }
+
+    /**
+     * Completes the given text with actor names, movie titles or both.
+     *
+     * @param query the text typed so far
+     * @param type  "actors", "movies", or anything else for both
+     * @param limit the maximum number of completions of each kind
+     * @return the completions, or empty if the indexes are not built yet
+     */
+    public Optional<SuggestionsDTO> suggest(String query, String type, int limit) {
+        BuiltIndex currentActors = actors;
+        BuiltIndex currentMovies = movies;
+        if (currentActors == null || currentMovies == null) {
+            return Optional.empty();
+        }
+        boolean withActors = !"movies".equals(type);
+        boolean withMovies = !"actors".equals(type);
+        return Optional.of(new SuggestionsDTO(
+                withActors ? currentActors.suggester().complete(query, limit) : List.of(),
+                withMovies ? currentMovies.suggester().complete(query, limit) : List.of()));
+    }
+
+    /**
+     * Reports the size and estimated memory footprint of the indexes built so far.
+     *
+     * @return a list of {@link SuggestStatsDTO} objects, one per built index
+     */
+    public List<SuggestStatsDTO> getStats() {
+        List<SuggestStatsDTO> stats = new ArrayList<>(2);
+        addStats(stats, "actors", actors);
+        addStats(stats, "movies", movies);
+        return stats;
+    }
+
+    private static void addStats(List<SuggestStatsDTO> stats, String name, BuiltIndex index) {
+        if (index != null) {
+            PrefixSuggester suggester = index.suggester();
+            stats.add(new SuggestStatsDTO(name, suggester.size(), suggester.keyCount(), suggester.precomputedCount(),
+                    suggester.estimatedBytes(), index.buildMillis()));
+        }
+    }
+
+    /**
+     * Streams the (text, id, score) rows of a query into a new index.
+     */
+    private BuiltIndex build(String name, String sql) {
+        long start = System.nanoTime();
+        PrefixSuggester.Builder builder = new PrefixSuggester.Builder();
+        streamer.stream(sql, rs -> builder.add(rs.getString(1), rs.getString(2), rs.getDouble(3)));
+        PrefixSuggester suggester = builder.build();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Suggest index '{}' built: {} entries, {} keys, {} precomputed prefixes, ~{} MB in {} ms", name,
+                suggester.size(), suggester.keyCount(), suggester.precomputedCount(),
+                suggester.estimatedBytes() / (1024 * 1024), millis);
+        return new BuiltIndex(suggester, millis);
+    }
+}
@@ -0,0 +1,90 @@
+package it.unito.iumtweb.springboot.suggest;
+
+/**
+ * Data Transfer Object (DTO) representing the size of a completion index.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * SuggestStatsDTO stats = new SuggestStatsDTO("actors", 612000, 1310000, 18500, 61000000, 840);
+ * }
+ * </pre>
+ * </p>
+ */
+public class SuggestStatsDTO {
+    private String name;
+    private int entries;
+    private int keys;
+    private int precomputedPrefixes;
+    private long estimatedBytes;
+    private long buildMillis;
+
+    /**
+     * Constructs a {@code SuggestStatsDTO} with the specified figures.
+     *
+     * @param name                the name of the index ("actors" or "movies")
+     * @param entries             the number of indexed names or titles
+     * @param keys                the number of indexed word suffixes
+     * @param precomputedPrefixes the number of prefixes with precomputed completions
+     * @param estimatedBytes      the estimated heap retained by the index
+     * @param buildMillis         the time taken by the last build
+     */
+    public SuggestStatsDTO(String name, int entries, int keys, int precomputedPrefixes, long estimatedBytes, long buildMillis) {
+        this.name = name;
+        this.entries = entries;
+        this.keys = keys;
+        this.precomputedPrefixes = precomputedPrefixes;
+        this.estimatedBytes = estimatedBytes;
+        this.buildMillis = buildMillis;
+    }
+
+    // Getter & Setter
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+
+    public void setEntries(int entries) {
+        this.entries = entries;
+    }
+
+    public int getKeys() {
+        return keys;
+    }
+
+    public void setKeys(int keys) {
+        this.keys = keys;
+    }
+
+    public int getPrecomputedPrefixes() {
+        return precomputedPrefixes;
+    }
+
+    public void setPrecomputedPrefixes(int precomputedPrefixes) {
+        this.precomputedPrefixes = precomputedPrefixes;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public void setEstimatedBytes(long estimatedBytes) {
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    public long getBuildMillis() {
+        return buildMillis;
+    }
+
+    public void setBuildMillis(long buildMillis) {
+        this.buildMillis = buildMillis;
+    }
+}
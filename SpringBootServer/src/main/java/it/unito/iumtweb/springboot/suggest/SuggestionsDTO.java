@@ -0,0 +1,54 @@
+package it.unito.iumtweb.springboot.suggest;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing the completions of a search box query.
+ * <p>
+ * Actor names and movie titles are completed separately, each list ordered from the best match:
+ * actors by number of movies, movies by rating.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * SuggestionsDTO suggestions = new SuggestionsDTO(
+ *     List.of(new PrefixSuggester.Suggestion("Brad Pitt", "1042")),
+ *     List.of(new PrefixSuggester.Suggestion("Brazil", "1000873")));
+ * }
+ * </pre>
+ * </p>
+ */
+public class SuggestionsDTO {
+    private List<PrefixSuggester.Suggestion> actors;
+    private List<PrefixSuggester.Suggestion> movies;
+
+    /**
+     * Constructs a {@code SuggestionsDTO} with the specified completions.
+     *
+     * @param actors the completed actor names, with their actor key
+     * @param movies the completed movie titles, with their movie ID
+     */
+    public SuggestionsDTO(List<PrefixSuggester.Suggestion> actors, List<PrefixSuggester.Suggestion> movies) {
+        this.actors = actors;
+        this.movies = movies;
+    }
+
+    // Getter & Setter
+    public List<PrefixSuggester.Suggestion> getActors() {
+        return actors;
+    }
+
+    public void setActors(List<PrefixSuggester.Suggestion> actors) {
+        this.actors = actors;
+    }
+
+    public List<PrefixSuggester.Suggestion> getMovies() {
+        return movies;
+    }
+
+    public void setMovies(List<PrefixSuggester.Suggestion> movies) {
+        this.movies = movies;
+    }
+}
@@ -0,0 +1,16 @@
+package it.unito.iumtweb.springboot.theoscarawards;
+
+import java.util.Set;
+
+/**
+ * Application event published whenever a {@link TheOscarAwards} row is inserted, updated or deleted.
+ * <p>
+ * The event carries both the current and the previous film title and nominee name of the award,
+ * so that listeners maintaining data derived from the awards table can refresh only the affected entries.
+ * </p>
+ *
+ * @param awardId       the identifier of the changed award
+ * @param filmTitles    the film titles affected by the change (previous and current, without nulls)
+ * @param nomineeNames  the nominee names affected by the change (previous and current, without nulls)
+ */
+public record OscarAwardChangedEvent(Long awardId, Set<String> filmTitles, Set<String> nomineeNames) {}
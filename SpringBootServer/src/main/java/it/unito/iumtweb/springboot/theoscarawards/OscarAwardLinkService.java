@@ -0,0 +1,173 @@
+package it.unito.iumtweb.springboot.theoscarawards;
+
+import it.unito.iumtweb.springboot.actors.ActorChangedEvent;
+import it.unito.iumtweb.springboot.importer.DatasetImportedEvent;
+import it.unito.iumtweb.springboot.importer.ImportTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service that maintains the {@code oscar_award_links} table, linking every award to the movie and to the actor
+ * it is about, with a confidence score for each match.
+ * <p>
+ * An award is linked to the movie with the title of its film (ignoring case) released in the year of the film or
+ * one year apart, the closest year first, so that a remake sharing the title of a winning film is told apart.
+ * The movie confidence is 1 for the same year, 0.9 one year apart and 0.5 when either year is missing, divided by
+ * the number of movies matching equally well. The nominee is linked to the actor with that name; the actor
+ * confidence is 1 when the actor is credited in the linked movie, 0.5 otherwise. Missing matches score 0.
+ * </p>
+ * <p>
+ * The queries combining awards with movies or actors join the links on integer keys. The links are resolved
+ * entirely after an import of the awards, movies or actors, and only for the affected awards whenever an award,
+ * a credit or a movie changes. Import and change listeners run after the actor dimension has been refreshed and
+ * before the data derived from the links (Oscar-winner flags, actor Oscar profiles) is. Deleting a movie clears
+ * the movie of its links in the database itself (see the V8 migration), since no foreign key can do it.
+ * </p>
+ */
+@Service
+public class OscarAwardLinkService {
+    private static final Logger log = LoggerFactory.getLogger(OscarAwardLinkService.class);
+
+    /**
+     * Order of the listeners resolving the links: right after the actor dimension has been refreshed.
+     */
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 1;
+
+    private static final String UPSERT = "INSERT INTO oscar_award_links " +
+            "(award_id, movie_key, movie_confidence, actor_name_id, actor_confidence) " +
+            "SELECT o.id, m.id, COALESCE(m.confidence, 0), n.id, " +
+            "CASE WHEN n.id IS NULL THEN 0 " +
+            "WHEN EXISTS (SELECT 1 FROM actors a WHERE a.movie_id = m.movie_id AND LOWER(a.name) = n.normalized_name) THEN 1 " +
+            "ELSE 0.5 END " +
+            "FROM the_oscar_awards o " +
+            "LEFT JOIN LATERAL (" +
+            "SELECT candidate.id, candidate.movie_id, " +
+            "candidate.score / COUNT(*) OVER (PARTITION BY candidate.score) AS confidence " +
+            "FROM (SELECT c.id, c.movie_id, " +
+            "CASE WHEN o.year_film IS NULL OR c.date IS NULL THEN 0.5 WHEN c.date = o.year_film THEN 1 ELSE 0.9 END AS score " +
+            "FROM movies c WHERE LOWER(c.name) = LOWER(o.film_title) " +
+            "AND (o.year_film IS NULL OR c.date IS NULL OR c.date BETWEEN o.year_film - 1 AND o.year_film + 1)) candidate " +
+            "ORDER BY candidate.score DESC, candidate.id LIMIT 1) m ON true " +
+            "LEFT JOIN actor_names n ON n.normalized_name = LOWER(o.actor_name) AND n.film_count > 0 " +
+            // The WHERE clause is never empty, so that ON CONFLICT is not read as the condition of the last join
+            "WHERE %s " +
+            "ON CONFLICT (award_id) DO UPDATE SET movie_key = EXCLUDED.movie_key, " +
+            "movie_confidence = EXCLUDED.movie_confidence, actor_name_id = EXCLUDED.actor_name_id, " +
+            "actor_confidence = EXCLUDED.actor_confidence " +
+            "WHERE (oscar_award_links.movie_key, oscar_award_links.movie_confidence, " +
+            "oscar_award_links.actor_name_id, oscar_award_links.actor_confidence) IS DISTINCT FROM " +
+            "(EXCLUDED.movie_key, EXCLUDED.movie_confidence, EXCLUDED.actor_name_id, EXCLUDED.actor_confidence)";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * Constructs a new OscarAwardLinkService with the specified NamedParameterJdbcTemplate.
+     *
+     * @param jdbc the template used to resolve the links
+     */
+    public OscarAwardLinkService(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Resolves the links of every award, writing only the links that change, and drops those of removed awards.
+     */
+    @Transactional
+    public void resolveAll() {
+        int removed = jdbc.update("DELETE FROM oscar_award_links l " +
+                "WHERE NOT EXISTS (SELECT 1 FROM the_oscar_awards o WHERE o.id = l.award_id)", new MapSqlParameterSource());
+        int resolved = jdbc.update(UPSERT.formatted("true"), new MapSqlParameterSource());
+        jdbc.getJdbcTemplate().execute("ANALYZE oscar_award_links");
+        log.info("Oscar award links resolved: {} updated, {} removed", resolved, removed);
+    }
+
+    /**
+     * Resolves the links of an award, or drops them if the award no longer exists.
+     *
+     * @param awardId the identifier of the award
+     */
+    @Transactional
+    public void resolveAward(Long awardId) {
+        if (awardId == null) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("awardId", awardId);
+        jdbc.update("DELETE FROM oscar_award_links WHERE award_id = :awardId", params);
+        jdbc.update(UPSERT.formatted("o.id = :awardId"), params);
+    }
+
+    /**
+     * Resolves the links of the awards of a film, e.g. once a movie with that title has been added.
+     *
+     * @param filmTitle the title of the film, in any case
+     */
+    @Transactional
+    public void resolveFilmTitle(String filmTitle) {
+        if (filmTitle != null) {
+            jdbc.update(UPSERT.formatted("LOWER(o.film_title) = LOWER(:title)"),
+                    new MapSqlParameterSource("title", filmTitle));
+        }
+    }
+
+    /**
+     * Resolves the links of the awards of a nominee, e.g. once a credit of an actor with that name has changed.
+     *
+     * @param nominee the name of the nominee, in any case
+     */
+    @Transactional
+    public void resolveNominee(String nominee) {
+        if (nominee != null) {
+            jdbc.update(UPSERT.formatted("LOWER(o.actor_name) = LOWER(:name)"),
+                    new MapSqlParameterSource("name", nominee));
+        }
+    }
+
+    /**
+     * Resolves every link once the awards, movies or actors table has been bulk loaded,
+     * after the actor dimension has been refreshed.
+     *
+     * @param event the completed import
+     */
+    @EventListener
+    @Order(ORDER)
+    @Transactional
+    public void onDatasetImported(DatasetImportedEvent event) {
+        if (event.includes(ImportTable.THE_OSCAR_AWARDS) || event.includes(ImportTable.MOVIES)
+                || event.includes(ImportTable.ACTORS)) {
+            resolveAll();
+        }
+    }
+
+    /**
+     * Resolves the links of a changed award, once the change has been committed.
+     *
+     * @param event the award change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Order(ORDER)
+    public void onOscarAwardChanged(OscarAwardChangedEvent event) {
+        resolveAward(event.awardId());
+    }
+
+    /**
+     * Resolves the links of the awards of the actors whose credits changed, once the change has been committed.
+     *
+     * @param event the credit change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Order(ORDER)
+    public void onActorChanged(ActorChangedEvent event) {
+        event.names().forEach(this::resolveNominee);
+    }
+}
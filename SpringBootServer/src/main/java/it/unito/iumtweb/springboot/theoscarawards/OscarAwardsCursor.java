@@ -0,0 +1,61 @@
+package it.unito.iumtweb.springboot.theoscarawards;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of a scroll over the nominations ordered by ceremony.
+ * <p>
+ * Nominations are listed by ascending ceremony year, then by ascending ID; a cursor records that pair for the last
+ * nomination already returned, and the next slice starts right after it. The position stays valid when the index is
+ * rebuilt in between. Cursors are exchanged with clients as opaque URL-safe tokens through {@link #encode()} and
+ * {@link #decode(String)}.
+ * </p>
+ *
+ * @param yearCeremony the ceremony year of the last returned nomination, {@link Integer#MAX_VALUE} if it had none
+ * @param id           the ID of the last returned nomination
+ */
+public record OscarAwardsCursor(int yearCeremony, long id) {
+    private static final String SEPARATOR = ":";
+    private static final String VERSION = "v1";
+
+    /**
+     * Creates the cursor positioned right after the given nomination.
+     *
+     * @param award the last nomination of the current slice
+     * @return a cursor for the following slice
+     */
+    public static OscarAwardsCursor after(OscarAwardsIndex.Award award) {
+        return new OscarAwardsCursor(OscarAwardsIndex.ceremonyKey(award), award.id());
+    }
+
+    /**
+     * Encodes this cursor as an opaque, URL-safe continuation token.
+     *
+     * @return the continuation token
+     */
+    public String encode() {
+        String raw = String.join(SEPARATOR, VERSION, Integer.toString(yearCeremony), Long.toString(id));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a continuation token produced by {@link #encode()}.
+     *
+     * @param token the continuation token
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static OscarAwardsCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR, -1);
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new OscarAwardsCursor(Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException included
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
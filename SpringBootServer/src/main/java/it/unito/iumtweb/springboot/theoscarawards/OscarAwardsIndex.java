@@ -0,0 +1,393 @@
+package it.unito.iumtweb.springboot.theoscarawards;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable in-memory index of the Oscar nominations, answering every award question with a hash lookup.
+ * <p>
+ * Nominations are kept in table order and grouped by normalized nominee name, normalized film title, category,
+ * category family and year of the film. Names and titles are normalized by trimming and lower-casing them, categories
+ * by upper-casing them. The family of a category is its name without qualifier, e.g. "ACTOR" for
+ * "ACTOR IN A LEADING ROLE" and "DIRECTING" for "DIRECTING (Comedy Picture)".
+ * </p>
+ * <p>
+ * The groups of a nominee or a film hold a few dozen nominations at most, so the questions combining several
+ * keys scan one of them after the lookup.
+ * </p>
+ * <p>
+ * Winning and other nominations are also precomputed in ceremony order, by ascending ceremony year then ID,
+ * so that a slice of a range of ceremonies starts with a binary search on the position of its cursor.
+ * </p>
+ */
+public class OscarAwardsIndex {
+    /**
+     * Category of the best picture award.
+     */
+    static final String BEST_PICTURE = "FILM";
+
+    /**
+     * Family of the acting categories of male performers.
+     */
+    static final String ACTING = "ACTOR";
+
+    private final List<Award> awards;
+    private final List<Award> winners;
+    private final List<Award> notWinners;
+    private final Map<String, List<Award>> byNominee;
+    private final Map<String, List<Award>> byFilm;
+    private final Map<String, List<Award>> byCategory;
+    private final Map<String, List<Award>> byFamily;
+    private final Map<Integer, List<Award>> byYearFilm;
+    private final Award[] winnersByCeremony;
+    private final Award[] notWinnersByCeremony;
+
+    /**
+     * An Oscar nomination.
+     *
+     * @param id           the ID of the nomination
+     * @param yearFilm     the year of the film
+     * @param yearCeremony the year of the ceremony
+     * @param ceremony     the ceremony number
+     * @param category     the award category
+     * @param nominee      the name of the nominee
+     * @param film         the title of the film
+     * @param winner       true if the nomination won the award
+     */
+    public record Award(long id, Integer yearFilm, Integer yearCeremony, Integer ceremony, String category,
+                        String nominee, String film, boolean winner) {
+    }
+
+    private OscarAwardsIndex(List<Award> awards) {
+        this.awards = List.copyOf(awards);
+        this.winners = this.awards.stream().filter(Award::winner).toList();
+        this.notWinners = this.awards.stream().filter(award -> !award.winner()).toList();
+        this.byNominee = group(this.awards, award -> normalize(award.nominee()));
+        this.byFilm = group(this.awards, award -> normalize(award.film()));
+        this.byCategory = group(this.awards, award -> normalizeCategory(award.category()));
+        this.byFamily = group(this.awards, award -> family(award.category()));
+        this.byYearFilm = group(this.awards, Award::yearFilm);
+        Comparator<Award> byCeremony = Comparator.comparingInt(OscarAwardsIndex::ceremonyKey).thenComparingLong(Award::id);
+        this.winnersByCeremony = winners.stream().sorted(byCeremony).toArray(Award[]::new);
+        this.notWinnersByCeremony = notWinners.stream().sorted(byCeremony).toArray(Award[]::new);
+    }
+
+    /**
+     * Creates an index over the given nominations.
+     *
+     * @param awards the nominations, in the order in which lists are returned
+     * @return the new index
+     */
+    public static OscarAwardsIndex of(List<Award> awards) {
+        return new OscarAwardsIndex(awards);
+    }
+
+    /**
+     * Derives the index of the awards table after a change of a single row.
+     *
+     * @param id    the ID of the changed nomination
+     * @param award the nomination as it is now, with that ID, or null if it was deleted
+     * @return the new index; this index is left unchanged
+     */
+    public OscarAwardsIndex with(long id, Award award) {
+        // Nominations are kept by ascending ID, the order of the table
+        List<Award> changed = new ArrayList<>(awards.size() + 1);
+        boolean placed = award == null;
+        for (Award existing : awards) {
+            if (!placed && existing.id() > id) {
+                changed.add(award);
+                placed = true;
+            }
+            if (existing.id() != id) {
+                changed.add(existing);
+            }
+        }
+        if (!placed) {
+            changed.add(award);
+        }
+        return new OscarAwardsIndex(changed);
+    }
+
+    /**
+     * Finds a nomination by ID with a binary search, nominations being kept by ascending ID.
+     *
+     * @param id the ID of the nomination
+     * @return the nomination, or null if there is none with that ID
+     */
+    public Award get(long id) {
+        int low = 0;
+        int high = awards.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Award award = awards.get(mid);
+            if (award.id() < id) {
+                low = mid + 1;
+            } else if (award.id() > id) {
+                high = mid - 1;
+            } else {
+                return award;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Counts the nominations of a nominee in a category, won or not.
+     *
+     * @param nominee  the name of the nominee (case-insensitive)
+     * @param category the award category (case-insensitive)
+     * @return the number of nominations
+     */
+    public int countNominations(String nominee, String category) {
+        String key = normalizeCategory(category);
+        int count = 0;
+        for (Award award : byNominee.getOrDefault(normalize(nominee), List.of())) {
+            if (key.equals(normalizeCategory(award.category()))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the awards won by a nominee in every category of a family.
+     *
+     * @param nominee the name of the nominee (case-insensitive)
+     * @param family  the category family, e.g. "ACTOR" for every acting category of male performers
+     * @return the number of awards won
+     */
+    public int countWins(String nominee, String family) {
+        String key = normalizeCategory(family);
+        int count = 0;
+        for (Award award : byNominee.getOrDefault(normalize(nominee), List.of())) {
+            if (award.winner() && key.equals(family(award.category()))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether a film won the best picture award at the ceremony of a given year.
+     *
+     * @param film         the title of the film (case-insensitive)
+     * @param yearCeremony the year of the ceremony
+     * @return true if the film won best picture that year
+     */
+    public boolean wonBestPicture(String film, int yearCeremony) {
+        for (Award award : byFilm.getOrDefault(normalize(film), List.of())) {
+            if (award.winner() && award.yearCeremony() != null && award.yearCeremony() == yearCeremony
+                    && BEST_PICTURE.equals(normalizeCategory(award.category()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a nominee won an award of a category family for a film.
+     *
+     * @param nominee the name of the nominee (case-insensitive)
+     * @param film    the title of the film (case-insensitive)
+     * @param family  the category family
+     * @return true if the nominee won such an award for the film
+     */
+    public boolean wonForFilm(String nominee, String film, String family) {
+        String filmKey = normalize(film);
+        String familyKey = normalizeCategory(family);
+        for (Award award : byNominee.getOrDefault(normalize(nominee), List.of())) {
+            if (award.winner() && filmKey.equals(normalize(award.film())) && familyKey.equals(family(award.category()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the nominations of a category.
+     *
+     * @param category the award category (case-insensitive)
+     * @return the nominations, in table order
+     */
+    public List<Award> byCategory(String category) {
+        return byCategory.getOrDefault(normalizeCategory(category), List.of());
+    }
+
+    /**
+     * Returns the nominations of every category of a family.
+     *
+     * @param family the category family (case-insensitive)
+     * @return the nominations, in table order
+     */
+    public List<Award> byFamily(String family) {
+        return byFamily.getOrDefault(normalizeCategory(family), List.of());
+    }
+
+    /**
+     * Returns the nominations of a nominee.
+     *
+     * @param nominee the name of the nominee (case-insensitive)
+     * @return the nominations, in table order
+     */
+    public List<Award> byNominee(String nominee) {
+        return byNominee.getOrDefault(normalize(nominee), List.of());
+    }
+
+    /**
+     * Returns the nominations of a film.
+     *
+     * @param film the title of the film (case-insensitive)
+     * @return the nominations, in table order
+     */
+    public List<Award> byFilm(String film) {
+        return byFilm.getOrDefault(normalize(film), List.of());
+    }
+
+    /**
+     * Returns the nominations of the films of a year.
+     *
+     * @param yearFilm the year of the films
+     * @return the nominations, in table order
+     */
+    public List<Award> byYearFilm(int yearFilm) {
+        return byYearFilm.getOrDefault(yearFilm, List.of());
+    }
+
+    /**
+     * Returns every nomination.
+     *
+     * @return the nominations, in table order
+     */
+    public List<Award> all() {
+        return awards;
+    }
+
+    /**
+     * Returns the nominations that won.
+     *
+     * @return the winning nominations, in table order
+     */
+    public List<Award> winners() {
+        return winners;
+    }
+
+    /**
+     * Returns the nominations that did not win.
+     *
+     * @return the other nominations, in table order
+     */
+    public List<Award> notWinners() {
+        return notWinners;
+    }
+
+    /**
+     * Lists, in ceremony order, the nominations of a range of ceremonies that follow a cursor.
+     * A category matches the nominations of that very category, and those of every category of its family.
+     *
+     * @param winner   true for the winning nominations, false for the others
+     * @param fromYear the first ceremony year, inclusive
+     * @param toYear   the last ceremony year, inclusive
+     * @param category the category or category family (case-insensitive), or null for every category
+     * @param after    the position of the last nomination already returned, or null to start from the beginning
+     * @param limit    the maximum number of nominations to return
+     * @return the matching nominations after the cursor, by ascending ceremony year then ID
+     */
+    public List<Award> byCeremony(boolean winner, int fromYear, int toYear, String category, OscarAwardsCursor after,
+                                  int limit) {
+        Award[] ordered = winner ? winnersByCeremony : notWinnersByCeremony;
+        String key = category == null ? null : normalizeCategory(category);
+        List<Award> page = new ArrayList<>(Math.min(limit, 256));
+        int start = after == null || after.yearCeremony() < fromYear
+                ? firstAfter(ordered, fromYear, Long.MIN_VALUE)
+                : firstAfter(ordered, after.yearCeremony(), after.id());
+        for (int i = start; i < ordered.length && page.size() < limit; i++) {
+            Award award = ordered[i];
+            if (ceremonyKey(award) > toYear) {
+                break;
+            }
+            if (key == null || key.equals(normalizeCategory(award.category())) || key.equals(family(award.category()))) {
+                page.add(award);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Returns the position of the first nomination following (year, id) in ceremony order.
+     */
+    private static int firstAfter(Award[] ordered, int year, long id) {
+        int low = 0;
+        int high = ordered.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int compare = Integer.compare(ceremonyKey(ordered[middle]), year);
+            if (compare < 0 || (compare == 0 && ordered[middle].id() <= id)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the ceremony year a nomination is ordered by; nominations without a year come last.
+     *
+     * @param award the nomination
+     * @return its ceremony year, or {@link Integer#MAX_VALUE} if it has none
+     */
+    static int ceremonyKey(Award award) {
+        return award.yearCeremony() == null ? Integer.MAX_VALUE : award.yearCeremony();
+    }
+
+    /**
+     * Returns the number of nominations.
+     *
+     * @return the number of nominations
+     */
+    public int size() {
+        return awards.size();
+    }
+
+    /**
+     * Returns the family of a category: its upper-cased name up to the first " IN " or " (", if any.
+     *
+     * @param category the award category
+     * @return the category family, or an empty string for a missing category
+     */
+    static String family(String category) {
+        String family = normalizeCategory(category);
+        int qualifier = family.indexOf(" IN ");
+        int parenthesis = family.indexOf(" (");
+        if (parenthesis >= 0 && (qualifier < 0 || parenthesis < qualifier)) {
+            qualifier = parenthesis;
+        }
+        return qualifier < 0 ? family : family.substring(0, qualifier);
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalizeCategory(String category) {
+        return category == null ? "" : category.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static <K> Map<K, List<Award>> group(List<Award> awards, Function<Award, K> key) {
+        Map<K, List<Award>> groups = new HashMap<>();
+        for (Award award : awards) {
+            K value = key.apply(award);
+            if (value != null) {
+                groups.computeIfAbsent(value, k -> new ArrayList<>()).add(award);
+            }
+        }
+        groups.replaceAll((k, list) -> Collections.unmodifiableList(list));
+        return Map.copyOf(groups);
+    }
+}
@@ -0,0 +1,278 @@
+package it.unito.iumtweb.springboot.theoscarawards;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Aggregate cube of the Oscar nominations, counting nominations and wins along the dimensions
+ * the dashboards slice them by.
+ * <p>
+ * Three cuboids are materialized: (category, ceremony year), (nominee, category family) and (film, year of the film).
+ * Roll-ups to category families, decades, all years or all families are summed from these cuboids on demand,
+ * which touches at most a few thousand cells. Nominees and films are keyed by their normalized name, and shown
+ * with the first spelling met.
+ * </p>
+ * <p>
+ * The cube is maintained incrementally: {@link #apply} updates it in place with the change of a single nomination,
+ * subtracting its previous version and adding its new one, so a change touches only the cells of that nomination.
+ * Nominee names and film titles are counted like the cells, and dropped with the last nomination referring to them.
+ * The cube is safe for concurrent use: roll-ups share a read lock, so they never see a change half applied,
+ * and changes take the write lock.
+ * </p>
+ */
+public class OscarStatsCube {
+    /**
+     * Granularity of the ceremony years in the category statistics.
+     */
+    public enum Period {
+        CEREMONY, DECADE, ALL
+    }
+
+    /**
+     * Criterion the statistics are ranked by.
+     */
+    public enum Measure {
+        WINS, NOMINATIONS
+    }
+
+    /**
+     * Aggregated counts of one cell of a roll-up.
+     *
+     * @param label       the category, nominee or film of the cell
+     * @param year        the ceremony year, the first year of the decade or the year of the film; null for all years
+     * @param nominations the number of nominations
+     * @param wins        the number of nominations that won
+     */
+    public record Row(String label, Integer year, int nominations, int wins) {
+    }
+
+    private record Counts(int nominations, int wins) {
+        Counts plus(Counts other) {
+            return new Counts(nominations + other.nominations, wins + other.wins);
+        }
+    }
+
+    private record Label(String spelling, int nominations) {
+    }
+
+    private record CategoryCell(String category, Integer yearCeremony) {
+    }
+
+    private record NomineeCell(String nominee, String family) {
+    }
+
+    private record FilmCell(String film, Integer yearFilm) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<CategoryCell, Counts> categories = new HashMap<>();
+    private final Map<NomineeCell, Counts> nominees = new HashMap<>();
+    private final Map<FilmCell, Counts> films = new HashMap<>();
+    private final Map<String, Label> nomineeNames = new HashMap<>();
+    private final Map<String, Label> filmTitles = new HashMap<>();
+
+    private OscarStatsCube() {
+    }
+
+    /**
+     * Computes the cube of the given nominations.
+     *
+     * @param awards the nominations
+     * @return the new cube
+     */
+    public static OscarStatsCube of(List<OscarAwardsIndex.Award> awards) {
+        OscarStatsCube cube = new OscarStatsCube();
+        awards.forEach(award -> cube.add(award, 1));
+        return cube;
+    }
+
+    /**
+     * Updates the cube with the change of a single nomination.
+     *
+     * @param removed the nomination as it was before the change, or null if it has been inserted
+     * @param added   the nomination as it is after the change, or null if it has been deleted
+     */
+    public void apply(OscarAwardsIndex.Award removed, OscarAwardsIndex.Award added) {
+        if (Objects.equals(removed, added)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (removed != null) {
+                add(removed, -1);
+            }
+            if (added != null) {
+                add(added, 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts nominations and wins per category or category family, and per ceremony, decade or overall.
+     *
+     * @param families true to roll categories up to their families
+     * @param period   the granularity of the ceremony years
+     * @param fromYear the first ceremony year, inclusive
+     * @param toYear   the last ceremony year, inclusive
+     * @return the rows, by category then year
+     */
+    public List<Row> byCategory(boolean families, Period period, int fromYear, int toYear) {
+        Map<CategoryCell, Counts> rolledUp = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            categories.forEach((cell, counts) -> {
+                Integer year = cell.yearCeremony();
+                if (year == null ? fromYear != Integer.MIN_VALUE || toYear != Integer.MAX_VALUE
+                        : year < fromYear || year > toYear) {
+                    return;
+                }
+                Integer bucket = switch (period) {
+                    case CEREMONY -> year;
+                    case DECADE -> year == null ? null : Math.floorDiv(year, 10) * 10;
+                    case ALL -> null;
+                };
+                String category = families ? OscarAwardsIndex.family(cell.category()) : cell.category();
+                rolledUp.merge(new CategoryCell(category, bucket), counts, Counts::plus);
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return rolledUp.entrySet().stream()
+                .map(entry -> new Row(entry.getKey().category(), entry.getKey().yearCeremony(),
+                        entry.getValue().nominations(), entry.getValue().wins()))
+                .sorted(Comparator.comparing(Row::label)
+                        .thenComparing(Row::year, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    /**
+     * Ranks the nominees, in every category or in the categories of a family.
+     *
+     * @param family  the category family (case-insensitive), or null for every category
+     * @param measure the criterion ranking the nominees
+     * @param limit   the maximum number of nominees to return
+     * @return the best ranked nominees
+     */
+    public List<Row> topNominees(String family, Measure measure, int limit) {
+        String key = family == null ? null : OscarAwardsIndex.family(family);
+        Map<String, Counts> rolledUp = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            nominees.forEach((cell, counts) -> {
+                if (key == null || key.equals(cell.family())) {
+                    rolledUp.merge(cell.nominee(), counts, Counts::plus);
+                }
+            });
+            return top(rolledUp, nominee -> nomineeNames.get(nominee).spelling(), nominee -> null, measure, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks the films, a remake being counted apart from the original film.
+     *
+     * @param measure the criterion ranking the films
+     * @param limit   the maximum number of films to return
+     * @return the best ranked films
+     */
+    public List<Row> topFilms(Measure measure, int limit) {
+        lock.readLock().lock();
+        try {
+            return top(films, cell -> filmTitles.get(cell.film()).spelling(), FilmCell::yearFilm, measure, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static <K> List<Row> top(Map<K, Counts> cells, Function<K, String> label, Function<K, Integer> year,
+                                     Measure measure, int limit) {
+        Comparator<Row> byWins = Comparator.comparingInt(Row::wins);
+        Comparator<Row> byNominations = Comparator.comparingInt(Row::nominations);
+        Comparator<Row> order = (measure == Measure.WINS ? byWins.thenComparing(byNominations)
+                : byNominations.thenComparing(byWins)).reversed()
+                .thenComparing(Row::label, Comparator.nullsLast(Comparator.naturalOrder()));
+        return cells.entrySet().stream()
+                .map(entry -> new Row(label.apply(entry.getKey()), year.apply(entry.getKey()),
+                        entry.getValue().nominations(), entry.getValue().wins()))
+                .sorted(order)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Adds a nomination to every cuboid, or subtracts it with a negative sign; emptied cells and the names
+     * and titles no longer referred to are dropped.
+     */
+    private void add(OscarAwardsIndex.Award award, int sign) {
+        Counts delta = new Counts(sign, award.winner() ? sign : 0);
+        String category = award.category() == null ? "" : award.category().trim();
+        merge(categories, new CategoryCell(category, award.yearCeremony()), delta);
+        if (award.nominee() != null) {
+            String nominee = OscarAwardsIndex.normalize(award.nominee());
+            label(nomineeNames, nominee, award.nominee().trim(), sign);
+            merge(nominees, new NomineeCell(nominee, OscarAwardsIndex.family(category)), delta);
+        }
+        if (award.film() != null) {
+            String film = OscarAwardsIndex.normalize(award.film());
+            label(filmTitles, film, award.film().trim(), sign);
+            merge(films, new FilmCell(film, award.yearFilm()), delta);
+        }
+    }
+
+    private static <K> void merge(Map<K, Counts> cells, K cell, Counts delta) {
+        Counts merged = cells.getOrDefault(cell, new Counts(0, 0)).plus(delta);
+        if (merged.nominations() <= 0) {
+            cells.remove(cell);
+        } else {
+            cells.put(cell, merged);
+        }
+    }
+
+    private static void label(Map<String, Label> labels, String key, String spelling, int sign) {
+        Label label = labels.get(key);
+        // The first spelling met is kept for as long as the name is referred to
+        int nominations = (label == null ? 0 : label.nominations()) + sign;
+        if (nominations <= 0) {
+            labels.remove(key);
+        } else {
+            labels.put(key, new Label(label == null ? spelling : label.spelling(), nominations));
+        }
+    }
+
+    /**
+     * Returns the number of materialized cells, over the three cuboids.
+     *
+     * @return the number of cells
+     */
+    public int cellCount() {
+        lock.readLock().lock();
+        try {
+            return categories.size() + nominees.size() + films.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of nominee names and film titles held for the rankings.
+     *
+     * @return the number of names and titles
+     */
+    int labelCount() {
+        lock.readLock().lock();
+        try {
+            return nomineeNames.size() + filmTitles.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -7,6 +7,7 @@ import jakarta.persistence.*;
  */
 @Entity
 @Table(name = "TheOscarAwards")
+@EntityListeners(TheOscarAwardsChangeListener.class)
 public class TheOscarAwards {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -21,6 +22,11 @@ public class TheOscarAwards {
     private String filmTitle;
     @Column(columnDefinition = "BOOLEAN")
     private Boolean winner;
+    // Values read from the database, used to refresh derived data when they change
+    @Transient
+    private String loadedActorName;
+    @Transient
+    private String loadedFilmTitle;
 
     /**
      * Default constructor for TheOscarAwards.
@@ -112,5 +118,20 @@ public class TheOscarAwards {
     public void setWinner(Boolean winner) {
         this.winner = winner;
     }
-}
 
+    String getLoadedActorName() {
+        return loadedActorName;
+    }
+
+    String getLoadedFilmTitle() {
+        return loadedFilmTitle;
+    }
+
+    /**
+     * Records the current nominee name and film title as the values stored in the database.
+     */
+    void rememberLoadedState() {
+        this.loadedActorName = actorName;
+        this.loadedFilmTitle = filmTitle;
+    }
+}
@@ -0,0 +1,59 @@
+package it.unito.iumtweb.springboot.theoscarawards;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * JPA entity listener that turns every change of a {@link TheOscarAwards} row into an {@link OscarAwardChangedEvent}.
+ * <p>
+ * The listener is instantiated by Spring through Hibernate's bean container, so it can publish application events.
+ * The film title and nominee name read from the database are remembered on load, so that an update
+ * also refreshes the entries derived from the previous values.
+ * </p>
+ */
+@Component
+public class TheOscarAwardsChangeListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Constructs a new TheOscarAwardsChangeListener with the specified ApplicationEventPublisher.
+     *
+     * @param eventPublisher the publisher of the {@link OscarAwardChangedEvent}
+     */
+    public TheOscarAwardsChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostLoad
+    void remember(TheOscarAwards award) {
+        award.rememberLoadedState();
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void publish(TheOscarAwards award) {
+        eventPublisher.publishEvent(new OscarAwardChangedEvent(award.getId(),
+                nonNull(award.getFilmTitle(), award.getLoadedFilmTitle()),
+                nonNull(award.getActorName(), award.getLoadedActorName())));
+        award.rememberLoadedState();
+    }
+
+    private static Set<String> nonNull(String current, String previous) {
+        Set<String> values = new HashSet<>(2);
+        if (current != null) {
+            values.add(current);
+        }
+        if (previous != null) {
+            values.add(previous);
+        }
+        return Set.copyOf(values);
+    }
+}
@@ -1,9 +1,14 @@
 package it.unito.iumtweb.springboot.theoscarawards;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 
 /**
  * REST controller that exposes endpoints for querying Oscar awards data.
@@ -14,6 +19,9 @@ import java.util.List;
 @RestController
 @RequestMapping("/the_oscar_awards")
 public class TheOscarAwardsController {
+    private static final int MAX_SLICE_SIZE = 1000;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final TheOscarAwardsService service;
 
     /**
@@ -45,6 +53,178 @@ public class TheOscarAwardsController {
         return ResponseEntity.ok(service.getNotWinnerNominations());
     }
 
+    /**
+     * Retrieves a slice of the Oscar-winning entries in ceremony order, using keyset pagination.
+     * The first slice is requested without a cursor; each following slice is requested with the
+     * <code>nextCursor</code> returned by the previous one.
+     *
+     * @param fromYear the first ceremony year, inclusive (optional)
+     * @param toYear   the last ceremony year, inclusive (optional)
+     * @param category the category, or category family such as "ACTOR" (optional)
+     * @param cursor   the continuation token returned with the previous slice, omitted for the first slice
+     * @param size     the number of entries per slice (default 100, at most {@value #MAX_SLICE_SIZE})
+     * @return a {@link TheOscarAwardsSliceDTO}, 400 if the paging is invalid,
+     *         or 503 while the awards are being loaded for the first time
+     */
+    @GetMapping("/winners/scroll")
+    public ResponseEntity<TheOscarAwardsSliceDTO> scrollWinners(@RequestParam(required = false) Integer fromYear,
+                                                                @RequestParam(required = false) Integer toYear,
+                                                                @RequestParam(required = false) String category,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "100") int size) {
+        return scroll(true, fromYear, toYear, category, cursor, size);
+    }
+
+    /**
+     * Retrieves a slice of the Oscar nominations that did not win in ceremony order, using keyset pagination.
+     *
+     * @param fromYear the first ceremony year, inclusive (optional)
+     * @param toYear   the last ceremony year, inclusive (optional)
+     * @param category the category, or category family such as "ACTOR" (optional)
+     * @param cursor   the continuation token returned with the previous slice, omitted for the first slice
+     * @param size     the number of entries per slice (default 100, at most {@value #MAX_SLICE_SIZE})
+     * @return a {@link TheOscarAwardsSliceDTO}, 400 if the paging is invalid,
+     *         or 503 while the awards are being loaded for the first time
+     */
+    @GetMapping("/notwinners/scroll")
+    public ResponseEntity<TheOscarAwardsSliceDTO> scrollNotWinners(@RequestParam(required = false) Integer fromYear,
+                                                                   @RequestParam(required = false) Integer toYear,
+                                                                   @RequestParam(required = false) String category,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(defaultValue = "100") int size) {
+        return scroll(false, fromYear, toYear, category, cursor, size);
+    }
+
+    /**
+     * Streams the Oscar-winning entries in ceremony order as newline-delimited JSON, one entry per line.
+     *
+     * @param fromYear the first ceremony year, inclusive (optional)
+     * @param toYear   the last ceremony year, inclusive (optional)
+     * @param category the category, or category family such as "ACTOR" (optional)
+     * @return the stream, or 503 while the awards are being loaded for the first time
+     */
+    @GetMapping("/winners/stream")
+    public ResponseEntity<StreamingResponseBody> streamWinners(@RequestParam(required = false) Integer fromYear,
+                                                               @RequestParam(required = false) Integer toYear,
+                                                               @RequestParam(required = false) String category) {
+        return stream(true, fromYear, toYear, category);
+    }
+
+    /**
+     * Streams the Oscar nominations that did not win in ceremony order as newline-delimited JSON, one per line.
+     *
+     * @param fromYear the first ceremony year, inclusive (optional)
+     * @param toYear   the last ceremony year, inclusive (optional)
+     * @param category the category, or category family such as "ACTOR" (optional)
+     * @return the stream, or 503 while the awards are being loaded for the first time
+     */
+    @GetMapping("/notwinners/stream")
+    public ResponseEntity<StreamingResponseBody> streamNotWinners(@RequestParam(required = false) Integer fromYear,
+                                                                  @RequestParam(required = false) Integer toYear,
+                                                                  @RequestParam(required = false) String category) {
+        return stream(false, fromYear, toYear, category);
+    }
+
+    /**
+     * Retrieves the number of nominations and wins per category and per ceremony year, rolled up on demand.
+     *
+     * @param rollUp   "category" to count each category apart, "family" to group them by family such as "ACTOR"
+     *                 (default "category")
+     * @param per      "ceremony", "decade" or "all" for the granularity of the years (default "all")
+     * @param fromYear the first ceremony year, inclusive (optional)
+     * @param toYear   the last ceremony year, inclusive (optional)
+     * @return a ResponseEntity containing the rows by category then year, 400 if an option is unknown,
+     *         or 503 while the awards are being loaded for the first time
+     */
+    @GetMapping("/stats/categories")
+    public ResponseEntity<List<OscarStatsCube.Row>> getCategoryStats(
+            @RequestParam(defaultValue = "category") String rollUp,
+            @RequestParam(defaultValue = "all") String per,
+            @RequestParam(required = false) Integer fromYear,
+            @RequestParam(required = false) Integer toYear) {
+        if (!rollUp.equals("category") && !rollUp.equals("family")) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            OscarStatsCube.Period period = OscarStatsCube.Period.valueOf(per.toUpperCase(Locale.ROOT));
+            return orUnavailable(service.getCategoryStats(rollUp.equals("family"), period, fromYear, toYear));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Retrieves the nominees with the most wins or nominations.
+     *
+     * @param family the category family to restrict the ranking to, such as "ACTOR" (optional)
+     * @param rankBy "wins" or "nominations" (default "wins")
+     * @param limit  the maximum number of nominees to return (default 10)
+     * @return a ResponseEntity containing the best ranked nominees, 400 if an option is invalid,
+     *         or 503 while the awards are being loaded for the first time
+     */
+    @GetMapping("/stats/nominees")
+    public ResponseEntity<List<OscarStatsCube.Row>> getTopNominees(@RequestParam(required = false) String family,
+                                                                   @RequestParam(defaultValue = "wins") String rankBy,
+                                                                   @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            OscarStatsCube.Measure measure = OscarStatsCube.Measure.valueOf(rankBy.toUpperCase(Locale.ROOT));
+            return orUnavailable(service.getTopNominees(family, measure, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Retrieves the films with the most wins or nominations.
+     *
+     * @param rankBy "wins" or "nominations" (default "wins")
+     * @param limit  the maximum number of films to return (default 10)
+     * @return a ResponseEntity containing the best ranked films with their year, 400 if an option is invalid,
+     *         or 503 while the awards are being loaded for the first time
+     */
+    @GetMapping("/stats/films")
+    public ResponseEntity<List<OscarStatsCube.Row>> getTopFilms(@RequestParam(defaultValue = "wins") String rankBy,
+                                                                @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            OscarStatsCube.Measure measure = OscarStatsCube.Measure.valueOf(rankBy.toUpperCase(Locale.ROOT));
+            return orUnavailable(service.getTopFilms(measure, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private static <T> ResponseEntity<T> orUnavailable(Optional<T> result) {
+        return result.map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    private ResponseEntity<TheOscarAwardsSliceDTO> scroll(boolean winner, Integer fromYear, Integer toYear,
+                                                          String category, String cursor, int size) {
+        if (size < 1 || size > MAX_SLICE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return orUnavailable(service.getNominationsByCeremony(winner, fromYear, toYear, category, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(boolean winner, Integer fromYear, Integer toYear,
+                                                         String category) {
+        if (!service.isIndexLoaded()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        StreamingResponseBody body = out -> service.streamNominationsByCeremony(winner, fromYear, toYear, category, out);
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
     /**
      * Retrieves all awards belonging to a specific category.
      *
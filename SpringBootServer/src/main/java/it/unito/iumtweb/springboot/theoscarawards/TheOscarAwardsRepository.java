@@ -19,7 +19,7 @@ public interface TheOscarAwardsRepository extends JpaRepository<TheOscarAwards,
      * @param category the category of the award
      * @return the number of Oscar awards matching the criteria
      */
-    @Query(nativeQuery = true, value = "SELECT COUNT(*) FROM the_oscar_awards WHERE name = ?1 AND category = ?2")
+    @Query(nativeQuery = true, value = "SELECT COUNT(*) FROM the_oscar_awards WHERE actor_name = ?1 AND category = ?2")
     int countTheOscarAwardsByNameAndCategory(String name, String category);
 
 
@@ -27,7 +27,7 @@ public interface TheOscarAwardsRepository extends JpaRepository<TheOscarAwards,
 
     @Query(nativeQuery = true, value =
             "SELECT COUNT(*) FROM the_oscar_awards " +
-                    "WHERE LOWER(name) = LOWER(?1) " +
+                    "WHERE LOWER(actor_name) = LOWER(?1) " +
                     "AND category LIKE 'ACTOR%' " + // Cattura tutte le varianti di "ACTOR IN A..."
                     "AND winner = true") // Conta solo le vittorie (t)
     int countOscarsByActorGenericCategory(String name);
@@ -58,13 +58,16 @@ public interface TheOscarAwardsRepository extends JpaRepository<TheOscarAwards,
     boolean findWinnerByFilmAndYear(String film, int yearCeremony);
 
     /**
-     * Retrieves if the specified actor won an Oscar for the given movie in the "ACTOR" category.
+     * Retrieves if the specified actor won an Oscar for the given movie in an acting category
+     * ("ACTOR" or "ACTOR IN A ... ROLE"), ignoring case, as {@link OscarAwardsIndex#wonForFilm} does.
      *
      * @param name the name of the actor
      * @param filmTitle the title of the movie
      * @return true if the actor won an Oscar for that movie, false otherwise
      */
-    @Query(nativeQuery = true, value = "SELECT o.winner = TRUE FROM the_oscar_awards o WHERE o.name = :name AND o.film_title = :filmTitle AND o.category = 'ACTOR' LIMIT 1")
+    @Query(nativeQuery = true, value = "SELECT EXISTS (SELECT 1 FROM the_oscar_awards o " +
+            "WHERE LOWER(o.actor_name) = LOWER(:name) AND LOWER(o.film_title) = LOWER(:filmTitle) " +
+            "AND o.category LIKE 'ACTOR%' AND o.winner = TRUE)")
     boolean findWinnerByActorName(String name, String filmTitle);
 
     /**
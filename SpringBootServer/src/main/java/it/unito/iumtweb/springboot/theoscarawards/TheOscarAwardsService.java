@@ -1,20 +1,149 @@
 package it.unito.iumtweb.springboot.theoscarawards;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import it.unito.iumtweb.springboot.importer.DatasetImportedEvent;
+import it.unito.iumtweb.springboot.importer.ImportTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Service class that provides high-level operations for retrieving and analyzing
  * Oscar awards data. This class acts as an intermediate layer between the controller
  * and the repository, converting entities into DTOs when needed.
+ * <p>
+ * The awards table is small, so it is loaded into an immutable {@link OscarAwardsIndex} once the application
+ * is ready, and every question is answered from memory. The index is rebuilt after a bulk import of the awards,
+ * and derived from the current one with the single changed row after every committed change of an award; the new
+ * index is then swapped in atomically: readers always see either the previous or the new index, never a partial one.
+ * Until the first load completes, questions go to the database.
+ * </p>
+ * <p>
+ * The {@link OscarStatsCube} answering the statistics is aggregated again only after a rebuild; a single changed
+ * row updates it in place with the previous and the new version of that row.
+ * </p>
  */
 @Service
 public class TheOscarAwardsService {
+    private static final Logger log = LoggerFactory.getLogger(TheOscarAwardsService.class);
+
+    /**
+     * Number of nominations serialized between two flushes of a stream.
+     */
+    static final int STREAM_CHUNK = 500;
+
+    private static final String SELECT_AWARDS =
+            "SELECT id, year_film, year_ceremony, ceremony, category, actor_name, film_title, winner FROM the_oscar_awards ";
+
     private final TheOscarAwardsRepository theOscarAwardsRepository;
+    private final JdbcTemplate jdbc;
+    private final ObjectWriter ndjsonWriter;
+    private final AtomicReference<OscarAwardsIndex> index = new AtomicReference<>();
+    private final AtomicReference<OscarStatsCube> stats = new AtomicReference<>();
 
-    public TheOscarAwardsService(TheOscarAwardsRepository theOscarAwardsRepository) {
+    /**
+     * Constructs a new TheOscarAwardsService with the specified repository, JdbcTemplate and ObjectMapper.
+     *
+     * @param theOscarAwardsRepository the repository queried until the index is loaded
+     * @param jdbc                     the template used to load the awards table
+     * @param objectMapper             the mapper serializing the streamed nominations
+     */
+    public TheOscarAwardsService(TheOscarAwardsRepository theOscarAwardsRepository, JdbcTemplate jdbc,
+                                 ObjectMapper objectMapper) {
         this.theOscarAwardsRepository = theOscarAwardsRepository;
+        this.jdbc = jdbc;
+        this.ndjsonWriter = objectMapper.writerFor(TheOscarAwardsInfoDTO.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Loads the index once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Reloads the index once the awards table has been bulk loaded.
+     *
+     * @param event the completed import
+     */
+    @EventListener
+    @Order(DatasetImportedEvent.INDEX_ORDER)
+    public void onDatasetImported(DatasetImportedEvent event) {
+        if (event.includes(ImportTable.THE_OSCAR_AWARDS)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Updates the index with the changed award once the change has been committed.
+     *
+     * @param event the award change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOscarAwardChanged(OscarAwardChangedEvent event) {
+        refreshAward(event.awardId());
+    }
+
+    /**
+     * Reads the whole awards table into a new index, then swaps it in.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        OscarAwardsIndex built = OscarAwardsIndex.of(jdbc.query(SELECT_AWARDS + "ORDER BY id", this::toAward));
+        OscarStatsCube cube = OscarStatsCube.of(built.all());
+        index.set(built);
+        stats.set(cube);
+        log.info("Oscar awards index built: {} nominations, {} statistics cells in {} ms", built.size(),
+                cube.cellCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Reads a single award again and swaps in the index derived from the current one with that award,
+     * instead of reading the whole table, then applies the change of that award to the statistics.
+     * The whole table is read if no index is loaded yet.
+     *
+     * @param awardId the ID of the changed award
+     */
+    public synchronized void refreshAward(Long awardId) {
+        OscarAwardsIndex current = index.get();
+        if (current == null || awardId == null) {
+            rebuild();
+            return;
+        }
+        List<OscarAwardsIndex.Award> rows = jdbc.query(SELECT_AWARDS + "WHERE id = ?", this::toAward, awardId);
+        OscarAwardsIndex.Award award = rows.isEmpty() ? null : rows.getFirst();
+        index.set(current.with(awardId, award));
+        stats.get().apply(current.get(awardId), award);
+    }
+
+    private OscarAwardsIndex.Award toAward(ResultSet rs, int rowNum) throws SQLException {
+        return new OscarAwardsIndex.Award(
+                rs.getLong(1),
+                rs.getObject(2, Integer.class),
+                rs.getObject(3, Integer.class),
+                rs.getObject(4, Integer.class),
+                rs.getString(5),
+                rs.getString(6),
+                rs.getString(7),
+                rs.getBoolean(8));
     }
 
     /**
@@ -25,7 +154,25 @@ public class TheOscarAwardsService {
      * @return the number of awards matching the given criteria
      */
     public int countAwards(String name, String category) {
-        return theOscarAwardsRepository.countTheOscarAwardsByNameAndCategory(name, category);
+        OscarAwardsIndex current = index.get();
+        if (current == null) {
+            return theOscarAwardsRepository.countTheOscarAwardsByNameAndCategory(name, category);
+        }
+        return current.countNominations(name, category);
+    }
+
+    /**
+     * Counts the Oscars won by an actor in any acting category ("ACTOR", "ACTOR IN A LEADING ROLE", ...).
+     *
+     * @param name the name of the actor
+     * @return the number of acting awards won
+     */
+    public int countActingWins(String name) {
+        OscarAwardsIndex current = index.get();
+        if (current == null) {
+            return theOscarAwardsRepository.countOscarsByActorGenericCategory(name);
+        }
+        return current.countWins(name, OscarAwardsIndex.ACTING);
     }
 
     /**
@@ -35,8 +182,11 @@ public class TheOscarAwardsService {
      * @return a list of {@link TheOscarAwardsInfoDTO} objects representing the awards in that category
      */
     public List<TheOscarAwardsInfoDTO> getAwardsByCategory(String category) {
-        return theOscarAwardsRepository.findByCategory(category)
-                .stream().map(this::toDTO).toList();
+        OscarAwardsIndex current = index.get();
+        if (current == null) {
+            return theOscarAwardsRepository.findByCategory(category).stream().map(this::toDTO).toList();
+        }
+        return toDTOs(current.byCategory(category));
     }
 
     /**
@@ -46,8 +196,11 @@ public class TheOscarAwardsService {
      * @return a list of {@link TheOscarAwardsInfoDTO} objects representing the awards in that year
      */
     public List<TheOscarAwardsInfoDTO> getAwardsByYearFilm(int yearFilm) {
-        return theOscarAwardsRepository.findByYearFilm(yearFilm)
-                .stream().map(this::toDTO).toList();
+        OscarAwardsIndex current = index.get();
+        if (current == null) {
+            return theOscarAwardsRepository.findByYearFilm(yearFilm).stream().map(this::toDTO).toList();
+        }
+        return toDTOs(current.byYearFilm(yearFilm));
     }
 
     /**
@@ -59,7 +212,11 @@ public class TheOscarAwardsService {
      * @return {@code true} if the film won Best Picture that year, {@code false} otherwise
      */
     public boolean didFilmWinBestPicture(String filmTitle, int yearCeremony) {
-        return theOscarAwardsRepository.findWinnerByFilmAndYear(filmTitle, yearCeremony);
+        OscarAwardsIndex current = index.get();
+        if (current == null) {
+            return theOscarAwardsRepository.findWinnerByFilmAndYear(filmTitle, yearCeremony);
+        }
+        return current.wonBestPicture(filmTitle, yearCeremony);
     }
 
     /**
@@ -70,7 +227,11 @@ public class TheOscarAwardsService {
      * @return {@code true} if the actor won an Oscar for that movie, {@code false} otherwise
      */
     public boolean didActorWinForMovie(String actorName, String filmTitle) {
-        return theOscarAwardsRepository.findWinnerByActorName(actorName, filmTitle);
+        OscarAwardsIndex current = index.get();
+        if (current == null) {
+            return theOscarAwardsRepository.findWinnerByActorName(actorName, filmTitle);
+        }
+        return current.wonForFilm(actorName, filmTitle, OscarAwardsIndex.ACTING);
     }
 
     /**
@@ -79,8 +240,11 @@ public class TheOscarAwardsService {
      * @return a list of {@link TheOscarAwardsInfoDTO} objects representing all winning awards
      */
     public List<TheOscarAwardsInfoDTO> getWinners() {
-        return theOscarAwardsRepository.findByWinnerTrue()
-                .stream().map(this::toDTO).toList();
+        OscarAwardsIndex current = index.get();
+        if (current == null) {
+            return theOscarAwardsRepository.findByWinnerTrue().stream().map(this::toDTO).toList();
+        }
+        return toDTOs(current.winners());
     }
 
     /**
@@ -89,8 +253,130 @@ public class TheOscarAwardsService {
      * @return a list of {@link TheOscarAwardsInfoDTO} objects representing non-winning nominations
      */
     public List<TheOscarAwardsInfoDTO> getNotWinnerNominations () {
-        return theOscarAwardsRepository.findByWinnerFalse()
-                .stream().map(this::toDTO).toList();
+        OscarAwardsIndex current = index.get();
+        if (current == null) {
+            return theOscarAwardsRepository.findByWinnerFalse().stream().map(this::toDTO).toList();
+        }
+        return toDTOs(current.notWinners());
+    }
+
+    /**
+     * Retrieves the slice of nominations following the given continuation token, in ceremony order,
+     * restricted to a range of ceremony years and optionally to a category or category family.
+     *
+     * @param winner   true for the winning nominations, false for the others
+     * @param fromYear the first ceremony year, inclusive, or null for no lower bound
+     * @param toYear   the last ceremony year, inclusive, or null for no upper bound
+     * @param category the category or category family, or null for every category
+     * @param cursor   the continuation token returned with the previous slice, or null for the first slice
+     * @param size     the number of nominations per slice
+     * @return the slice with the token of the following one, or empty if the index is not loaded yet
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public Optional<TheOscarAwardsSliceDTO> getNominationsByCeremony(boolean winner, Integer fromYear, Integer toYear,
+                                                                     String category, String cursor, int size) {
+        OscarAwardsCursor after = cursor == null || cursor.isEmpty() ? null : OscarAwardsCursor.decode(cursor);
+        OscarAwardsIndex current = index.get();
+        if (current == null) {
+            return Optional.empty();
+        }
+        List<OscarAwardsIndex.Award> awards = current.byCeremony(winner, lowerBound(fromYear), upperBound(toYear),
+                category, after, size + 1);
+        boolean hasNext = awards.size() > size;
+        List<OscarAwardsIndex.Award> content = hasNext ? awards.subList(0, size) : awards;
+        String nextCursor = hasNext ? OscarAwardsCursor.after(content.getLast()).encode() : null;
+        return Optional.of(new TheOscarAwardsSliceDTO(toDTOs(content), nextCursor, hasNext));
+    }
+
+    /**
+     * Writes the nominations of a range of ceremonies as newline-delimited JSON, one nomination per line,
+     * in ceremony order. Nominations are read and serialized {@value #STREAM_CHUNK} at a time from the index
+     * loaded when the stream started, so memory stays bounded whatever the number of nominations.
+     *
+     * @param winner   true for the winning nominations, false for the others
+     * @param fromYear the first ceremony year, inclusive, or null for no lower bound
+     * @param toYear   the last ceremony year, inclusive, or null for no upper bound
+     * @param category the category or category family, or null for every category
+     * @param out      the stream written to
+     * @return false if the index is not loaded yet, in which case nothing is written
+     * @throws IOException if the stream cannot be written
+     */
+    public boolean streamNominationsByCeremony(boolean winner, Integer fromYear, Integer toYear, String category,
+                                               OutputStream out) throws IOException {
+        OscarAwardsIndex current = index.get();
+        if (current == null) {
+            return false;
+        }
+        OscarAwardsCursor after = null;
+        List<OscarAwardsIndex.Award> chunk;
+        do {
+            chunk = current.byCeremony(winner, lowerBound(fromYear), upperBound(toYear), category, after, STREAM_CHUNK);
+            for (OscarAwardsIndex.Award award : chunk) {
+                ndjsonWriter.writeValue(out, toDTO(award));
+                out.write('\n');
+            }
+            out.flush();
+            if (!chunk.isEmpty()) {
+                after = OscarAwardsCursor.after(chunk.getLast());
+            }
+        } while (chunk.size() == STREAM_CHUNK);
+        return true;
+    }
+
+    /**
+     * Counts nominations and wins per category or category family, and per ceremony, decade or overall.
+     *
+     * @param families true to roll categories up to their families
+     * @param period   the granularity of the ceremony years
+     * @param fromYear the first ceremony year, inclusive, or null for no lower bound
+     * @param toYear   the last ceremony year, inclusive, or null for no upper bound
+     * @return the rows by category then year, or empty if the index is not loaded yet
+     */
+    public Optional<List<OscarStatsCube.Row>> getCategoryStats(boolean families, OscarStatsCube.Period period,
+                                                               Integer fromYear, Integer toYear) {
+        return Optional.ofNullable(stats.get())
+                .map(cube -> cube.byCategory(families, period, lowerBound(fromYear), upperBound(toYear)));
+    }
+
+    /**
+     * Ranks the nominees, in every category or in the categories of a family.
+     *
+     * @param family  the category family, or null for every category
+     * @param measure the criterion ranking the nominees
+     * @param limit   the maximum number of nominees to return
+     * @return the best ranked nominees, or empty if the index is not loaded yet
+     */
+    public Optional<List<OscarStatsCube.Row>> getTopNominees(String family, OscarStatsCube.Measure measure, int limit) {
+        return Optional.ofNullable(stats.get()).map(cube -> cube.topNominees(family, measure, limit));
+    }
+
+    /**
+     * Ranks the films by their nominations or wins.
+     *
+     * @param measure the criterion ranking the films
+     * @param limit   the maximum number of films to return
+     * @return the best ranked films, or empty if the index is not loaded yet
+     */
+    public Optional<List<OscarStatsCube.Row>> getTopFilms(OscarStatsCube.Measure measure, int limit) {
+        return Optional.ofNullable(stats.get()).map(cube -> cube.topFilms(measure, limit));
+    }
+
+    /**
+     * Checks whether the index is loaded.
+     *
+     * @return true once the index has been loaded
+     */
+    public boolean isIndexLoaded() {
+        return index.get() != null;
+    }
+
+    private static int lowerBound(Integer fromYear) {
+        return fromYear == null ? Integer.MIN_VALUE : fromYear;
+    }
+
+    private static int upperBound(Integer toYear) {
+        // Nominations without a ceremony year sort last, under Integer.MAX_VALUE
+        return toYear == null ? Integer.MAX_VALUE : toYear;
     }
 
     /**
@@ -109,4 +395,24 @@ public class TheOscarAwardsService {
         );
     }
 
+    /**
+     * Converts indexed nominations into DTOs.
+     *
+     * @param awards the nominations to convert
+     * @return the DTOs, in the same order
+     */
+    private List<TheOscarAwardsInfoDTO> toDTOs(List<OscarAwardsIndex.Award> awards) {
+        return awards.stream().map(TheOscarAwardsService::toDTO).toList();
+    }
+
+    /**
+     * Converts an indexed nomination into a DTO.
+     *
+     * @param award the nomination to convert
+     * @return a DTO representation of the given nomination
+     */
+    private static TheOscarAwardsInfoDTO toDTO(OscarAwardsIndex.Award award) {
+        return new TheOscarAwardsInfoDTO(award.yearFilm(), award.category(), award.nominee(), award.film(),
+                award.winner());
+    }
 }
@@ -0,0 +1,63 @@
+package it.unito.iumtweb.springboot.theoscarawards;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing one slice of the nominations listed by ceremony.
+ * <p>
+ * Contains the nominations of the slice and the opaque continuation token to pass back
+ * as <code>cursor</code> to obtain the following slice.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * TheOscarAwardsSliceDTO slice = new TheOscarAwardsSliceDTO(nominations, "djE6MTk5NToxMjM0", true);
+ * }
+ * </pre>
+ * </p>
+ */
+public class TheOscarAwardsSliceDTO {
+    private List<TheOscarAwardsInfoDTO> content;
+    private String nextCursor;
+    private boolean hasNext;
+
+    /**
+     * Constructs a {@code TheOscarAwardsSliceDTO} with the specified nominations and continuation token.
+     *
+     * @param content    the nominations of the slice
+     * @param nextCursor the token of the following slice, or {@code null} if this is the last slice
+     * @param hasNext    true if another slice follows this one
+     */
+    public TheOscarAwardsSliceDTO(List<TheOscarAwardsInfoDTO> content, String nextCursor, boolean hasNext) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    // Getter & Setter
+    public List<TheOscarAwardsInfoDTO> getContent() {
+        return content;
+    }
+
+    public void setContent(List<TheOscarAwardsInfoDTO> content) {
+        this.content = content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
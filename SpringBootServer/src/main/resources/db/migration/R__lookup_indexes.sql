@@ -0,0 +1,26 @@
+-- Indexes serving the per-movie lookups and the case-insensitive name filters of the repositories.
+-- Repeatable migration: Flyway re-applies it whenever this file changes, so adding an index only
+-- takes a new statement here (and its name in SchemaVerifier). Every statement must stay idempotent.
+
+-- Per-movie lookups (findThemesByMovieId, findCrewByMovieId, ...) and the correlated subqueries of the card queries
+CREATE INDEX IF NOT EXISTS movies_movie_id_idx ON movies (movie_id);
+CREATE INDEX IF NOT EXISTS actors_movie_id_idx ON actors (movie_id);
+CREATE INDEX IF NOT EXISTS crew_movie_id_idx ON crew (movie_id);
+CREATE INDEX IF NOT EXISTS countries_movie_id_idx ON countries (movie_id);
+CREATE INDEX IF NOT EXISTS genres_movie_id_idx ON genres (movie_id);
+CREATE INDEX IF NOT EXISTS languages_movie_id_idx ON languages (movie_id);
+CREATE INDEX IF NOT EXISTS posters_movie_id_idx ON posters (movie_id);
+CREATE INDEX IF NOT EXISTS releases_movie_id_idx ON releases (movie_id);
+CREATE INDEX IF NOT EXISTS studios_movie_id_idx ON studios (movie_id);
+CREATE INDEX IF NOT EXISTS themes_movie_id_idx ON themes (movie_id);
+
+-- Related movies: themes shared with a given movie
+CREATE INDEX IF NOT EXISTS themes_theme_movie_id_idx ON themes (theme, movie_id);
+
+-- Equality filters on LOWER(...) of the actor, title and Oscar queries
+CREATE INDEX IF NOT EXISTS actors_lower_name_idx ON actors (LOWER(name));
+CREATE INDEX IF NOT EXISTS movies_lower_name_idx ON movies (LOWER(name));
+CREATE INDEX IF NOT EXISTS the_oscar_awards_lower_actor_name_idx ON the_oscar_awards (LOWER(actor_name));
+CREATE INDEX IF NOT EXISTS the_oscar_awards_lower_film_title_idx ON the_oscar_awards (LOWER(film_title));
+
+ANALYZE movies, actors, crew, countries, genres, languages, posters, releases, studios, themes, the_oscar_awards;
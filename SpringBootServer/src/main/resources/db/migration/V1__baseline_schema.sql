@@ -0,0 +1,90 @@
+-- Schema of the Letterboxd dataset as previously generated by Hibernate from the entities.
+-- Databases created before Flyway was introduced are baselined at version 0 and already have
+-- these tables, so every CREATE TABLE is a no-op for them: the columns added since then are added
+-- by the ALTER TABLE statements at the end, for both kinds of database.
+
+CREATE TABLE IF NOT EXISTS movies (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    movie_id     varchar(255),
+    name         text,
+    date         text,
+    tagline      text,
+    description  text,
+    minute       integer,
+    rating       text
+);
+
+CREATE TABLE IF NOT EXISTS actors (
+    id       bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    movie_id varchar(255),
+    name     varchar(255),
+    role     varchar(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS crew (
+    id       bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    movie_id varchar(255),
+    role     text,
+    name     text
+);
+
+CREATE TABLE IF NOT EXISTS countries (
+    id       bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    movie_id varchar(255),
+    country  text
+);
+
+CREATE TABLE IF NOT EXISTS genres (
+    id       bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    movie_id varchar(255),
+    genre    text
+);
+
+CREATE TABLE IF NOT EXISTS languages (
+    id       bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    movie_id varchar(255),
+    language varchar(255)
+);
+
+CREATE TABLE IF NOT EXISTS posters (
+    id       bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    movie_id varchar(255),
+    link     text
+);
+
+CREATE TABLE IF NOT EXISTS releases (
+    id       bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    movie_id varchar(255),
+    country  text,
+    date     text,
+    type     text,
+    rating   text
+);
+
+CREATE TABLE IF NOT EXISTS studios (
+    id       bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    movie_id varchar(255),
+    studio   varchar(255)
+);
+
+CREATE TABLE IF NOT EXISTS themes (
+    id       bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    movie_id varchar(255),
+    theme    text
+);
+
+CREATE TABLE IF NOT EXISTS the_oscar_awards (
+    id            bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    year_film     integer,
+    year_ceremony integer,
+    ceremony      integer,
+    category      text,
+    actor_name    text,
+    film_title    text,
+    winner        boolean
+);
+
+-- Columns not generated by Hibernate before Flyway
+
+-- Whether an Oscar was won for the movie, maintained from the resolved award links (see V5)
+ALTER TABLE movies ADD COLUMN IF NOT EXISTS oscar_winner boolean NOT NULL DEFAULT false;
@@ -0,0 +1,23 @@
+-- Ratings and years of release become numbers, so that listings sort numerically instead of
+-- lexicographically and filters compare without casts. Values that are not numbers (empty strings,
+-- stray text) become NULL instead of failing the migration; years exported as "2023.0" are truncated.
+
+ALTER TABLE movies
+    ALTER COLUMN rating TYPE double precision
+        USING CASE WHEN btrim(rating) ~ '^[+-]?([0-9]+\.?[0-9]*|\.[0-9]+)$'
+                   THEN btrim(rating)::double precision END,
+    ALTER COLUMN "date" TYPE smallint
+        USING CASE WHEN btrim("date") ~ '^[0-9]{1,4}(\.[0-9]*)?$'
+                   THEN trunc(btrim("date")::numeric)::smallint END;
+
+-- One index per listing order, each ending with movie_id: the tie-breaker of every paginated query.
+-- Missing values sort last in both directions, as in the queries.
+CREATE INDEX IF NOT EXISTS movies_rating_idx ON movies (rating, movie_id);
+CREATE INDEX IF NOT EXISTS movies_rating_desc_idx ON movies (rating DESC NULLS LAST, movie_id);
+CREATE INDEX IF NOT EXISTS movies_date_idx ON movies ("date", movie_id);
+CREATE INDEX IF NOT EXISTS movies_date_desc_idx ON movies ("date" DESC NULLS LAST, movie_id);
+
+-- Listing of a single year, by rating: the default home page query once a year is selected.
+CREATE INDEX IF NOT EXISTS movies_date_rating_desc_idx ON movies ("date", rating DESC NULLS LAST, movie_id);
+
+ANALYZE movies;
@@ -0,0 +1,27 @@
+-- Actor dimension: one row per distinct actor name (compared lower-cased, as by the actor queries),
+-- with the number of movies it appears in. The actors table has one row per credit, so autocomplete
+-- searched and de-duplicated millions of rows; it now searches this much smaller table.
+-- Rows are never deleted, so the id of an actor stays stable across imports: actors that disappear
+-- from the dataset keep their row with a film count of 0. Maintained by ActorNamesService.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE TABLE actor_names (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    normalized_name text    NOT NULL UNIQUE,
+    name            text    NOT NULL,
+    film_count      integer NOT NULL DEFAULT 0
+);
+
+INSERT INTO actor_names (normalized_name, name, film_count)
+SELECT LOWER(name), mode() WITHIN GROUP (ORDER BY name), COUNT(DISTINCT movie_id)
+FROM actors
+WHERE name IS NOT NULL AND name <> ''
+GROUP BY LOWER(name);
+
+-- Substring search (LIKE '%...%') on the normalized name
+CREATE INDEX actor_names_normalized_name_trgm_idx ON actor_names USING gin (normalized_name gin_trgm_ops);
+-- Most credited actors first, for short prefixes matching many names
+CREATE INDEX actor_names_film_count_idx ON actor_names (film_count DESC, normalized_name);
+
+ANALYZE actor_names;
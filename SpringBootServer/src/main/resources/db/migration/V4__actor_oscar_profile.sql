@@ -0,0 +1,42 @@
+-- Oscar profile of the actor dimension, so that an actor page is one keyed read instead of a join of the
+-- actors, movies and awards tables on LOWER(...) of names and titles at every request:
+-- * the number of nominations and wins of the actor in the acting categories (ACTOR, ACTOR IN A ... ROLE);
+-- * actor_oscar_films, the movies of the actor with the nomination of the actor for that movie, if any,
+--   the winning nomination taking precedence over the others.
+-- Maintained by ActorNamesService, with the rest of the dimension.
+
+-- The joins below on LOWER(...) of names and titles need the lookup indexes of R__lookup_indexes.sql, which
+-- repeatable migrations only create after every pending versioned one: without them, each award would scan
+-- the whole movies and actors tables of a baselined database.
+CREATE INDEX IF NOT EXISTS actors_lower_name_idx ON actors (LOWER(name));
+CREATE INDEX IF NOT EXISTS movies_lower_name_idx ON movies (LOWER(name));
+
+ALTER TABLE actor_names
+    ADD COLUMN oscar_nominations integer NOT NULL DEFAULT 0,
+    ADD COLUMN oscar_wins        integer NOT NULL DEFAULT 0;
+
+CREATE TABLE actor_oscar_films (
+    actor_name_id bigint       NOT NULL REFERENCES actor_names (id),
+    movie_id      varchar(255) NOT NULL,
+    category      text,
+    winner        boolean      NOT NULL,
+    PRIMARY KEY (actor_name_id, movie_id)
+);
+
+UPDATE actor_names n
+SET oscar_nominations = s.nominations, oscar_wins = s.wins
+FROM (SELECT LOWER(actor_name) AS normalized_name, COUNT(*) AS nominations, COUNT(*) FILTER (WHERE winner) AS wins
+      FROM the_oscar_awards
+      WHERE category LIKE 'ACTOR%'
+      GROUP BY LOWER(actor_name)) s
+WHERE n.normalized_name = s.normalized_name;
+
+INSERT INTO actor_oscar_films (actor_name_id, movie_id, category, winner)
+SELECT DISTINCT ON (n.id, a.movie_id) n.id, a.movie_id, o.category, COALESCE(o.winner, false)
+FROM the_oscar_awards o
+JOIN actor_names n ON n.normalized_name = LOWER(o.actor_name)
+JOIN actors a ON LOWER(a.name) = n.normalized_name
+JOIN movies m ON m.movie_id = a.movie_id AND LOWER(m.name) = LOWER(o.film_title)
+ORDER BY n.id, a.movie_id, o.winner DESC NULLS LAST;
+
+ANALYZE actor_names, actor_oscar_films;
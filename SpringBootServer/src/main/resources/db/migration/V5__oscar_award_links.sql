@@ -0,0 +1,79 @@
+-- Entity resolution of the awards: each row of the_oscar_awards is linked once to the movie and to the actor it
+-- is about, so that the queries combining awards with movies or actors join on integer keys instead of comparing
+-- LOWER(...) of titles and names at every request. Matching on the title alone also flagged every remake of a
+-- winning film; the year of the film now picks the right one.
+-- * movie_key (movies.id): the movie with the title of the film, released in the year of the film or one year
+--   apart, the closest year first. movie_confidence is 1 for the same year, 0.9 one year apart and 0.5 when either
+--   year is missing, divided by the number of movies matching equally well; 0 when no movie matches.
+-- * actor_name_id (actor_names.id): the actor with the name of the nominee. actor_confidence is 1 when the actor
+--   is credited in the linked movie, 0.5 otherwise; 0 when no actor has that name.
+-- There are no foreign keys to movies and the_oscar_awards, which the importer truncates.
+-- Maintained by OscarAwardLinkService; the statements below are the same as its own.
+
+-- The joins below on LOWER(...) of names and titles need the lookup indexes of R__lookup_indexes.sql, which
+-- repeatable migrations only create after every pending versioned one: without them, each award would scan
+-- the whole movies and actors tables of a baselined database.
+CREATE INDEX IF NOT EXISTS actors_lower_name_idx ON actors (LOWER(name));
+CREATE INDEX IF NOT EXISTS movies_lower_name_idx ON movies (LOWER(name));
+
+CREATE TABLE oscar_award_links (
+    award_id         bigint PRIMARY KEY,
+    movie_key        bigint,
+    movie_confidence real   NOT NULL,
+    actor_name_id    bigint REFERENCES actor_names (id),
+    actor_confidence real   NOT NULL
+);
+
+CREATE INDEX oscar_award_links_movie_key_idx ON oscar_award_links (movie_key);
+CREATE INDEX oscar_award_links_actor_name_id_idx ON oscar_award_links (actor_name_id);
+
+INSERT INTO oscar_award_links (award_id, movie_key, movie_confidence, actor_name_id, actor_confidence)
+SELECT o.id, m.id, COALESCE(m.confidence, 0), n.id,
+       CASE WHEN n.id IS NULL THEN 0
+            WHEN EXISTS (SELECT 1 FROM actors a WHERE a.movie_id = m.movie_id AND LOWER(a.name) = n.normalized_name)
+                THEN 1
+            ELSE 0.5 END
+FROM the_oscar_awards o
+LEFT JOIN LATERAL (
+    SELECT candidate.id, candidate.movie_id, candidate.score / COUNT(*) OVER (PARTITION BY candidate.score) AS confidence
+    FROM (SELECT c.id, c.movie_id,
+                 CASE WHEN o.year_film IS NULL OR c.date IS NULL THEN 0.5
+                      WHEN c.date = o.year_film THEN 1
+                      ELSE 0.9 END AS score
+          FROM movies c
+          WHERE LOWER(c.name) = LOWER(o.film_title)
+            AND (o.year_film IS NULL OR c.date IS NULL OR c.date BETWEEN o.year_film - 1 AND o.year_film + 1)) candidate
+    ORDER BY candidate.score DESC, candidate.id
+    LIMIT 1) m ON true
+LEFT JOIN actor_names n ON n.normalized_name = LOWER(o.actor_name) AND n.film_count > 0;
+
+-- Data derived from the awards, recomputed from the links
+
+UPDATE movies m
+SET oscar_winner = EXISTS (SELECT 1 FROM oscar_award_links l JOIN the_oscar_awards o ON o.id = l.award_id
+                           WHERE l.movie_key = m.id AND o.winner)
+WHERE oscar_winner IS DISTINCT FROM EXISTS (SELECT 1 FROM oscar_award_links l JOIN the_oscar_awards o ON o.id = l.award_id
+                                            WHERE l.movie_key = m.id AND o.winner);
+
+UPDATE actor_names n
+SET oscar_nominations = COALESCE(s.nominations, 0), oscar_wins = COALESCE(s.wins, 0)
+FROM actor_names a
+LEFT JOIN (SELECT l.actor_name_id, COUNT(*) AS nominations, COUNT(*) FILTER (WHERE o.winner) AS wins
+           FROM oscar_award_links l
+           JOIN the_oscar_awards o ON o.id = l.award_id
+           WHERE l.actor_name_id IS NOT NULL AND o.category LIKE 'ACTOR%'
+           GROUP BY l.actor_name_id) s ON s.actor_name_id = a.id
+WHERE n.id = a.id
+  AND (n.oscar_nominations <> COALESCE(s.nominations, 0) OR n.oscar_wins <> COALESCE(s.wins, 0));
+
+DELETE FROM actor_oscar_films;
+
+INSERT INTO actor_oscar_films (actor_name_id, movie_id, category, winner)
+SELECT DISTINCT ON (l.actor_name_id, m.movie_id) l.actor_name_id, m.movie_id, o.category, COALESCE(o.winner, false)
+FROM oscar_award_links l
+JOIN the_oscar_awards o ON o.id = l.award_id
+JOIN movies m ON m.id = l.movie_key
+WHERE l.actor_confidence = 1
+ORDER BY l.actor_name_id, m.movie_id, o.winner DESC NULLS LAST;
+
+ANALYZE oscar_award_links, movies, actor_names, actor_oscar_films;
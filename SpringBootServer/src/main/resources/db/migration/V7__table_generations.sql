@@ -0,0 +1,27 @@
+-- Generation of the tables read by the in-memory movie catalog, bumped by every statement that changes or removes
+-- rows of them: UPDATE of a column the catalog reads, DELETE and TRUNCATE (which every re-import starts with).
+-- Inserts do not bump it: a saved catalog snapshot catches up with them by id. A snapshot is reused at startup
+-- only if the generations are still the ones it was built at (see MoviesCatalog).
+
+CREATE TABLE table_generations (
+    table_name text   PRIMARY KEY,
+    generation bigint NOT NULL
+);
+
+INSERT INTO table_generations (table_name, generation) VALUES ('movies', 0), ('genres', 0);
+
+CREATE FUNCTION bump_table_generation() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO table_generations (table_name, generation) VALUES (TG_TABLE_NAME, 1)
+    ON CONFLICT (table_name) DO UPDATE SET generation = table_generations.generation + 1;
+    RETURN NULL;
+END
+$$;
+
+-- Only the columns of the catalog: the Oscar-winner flag is rewritten after every award change
+CREATE TRIGGER movies_generation_update AFTER UPDATE OF movie_id, name, rating, date ON movies
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_table_generation();
+CREATE TRIGGER movies_generation_delete AFTER DELETE OR TRUNCATE ON movies
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_table_generation();
+CREATE TRIGGER genres_generation AFTER UPDATE OR DELETE OR TRUNCATE ON genres
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_table_generation();
@@ -0,0 +1,19 @@
+-- Awards linked to a deleted movie kept its movies.id in oscar_award_links.movie_key until the next resolution of
+-- every link, since there is no foreign key to movies (which the importer truncates). Deleting movies now clears
+-- the movie of their links in the same statement; the actor stays linked, with the confidence of an actor credited
+-- in no linked movie. A truncation is followed by the resolution of every link (see OscarAwardLinkService).
+
+CREATE FUNCTION clear_deleted_movie_links() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    UPDATE oscar_award_links l
+    SET movie_key = NULL, movie_confidence = 0,
+        actor_confidence = CASE WHEN l.actor_name_id IS NULL THEN 0 ELSE 0.5 END
+    FROM deleted_movies d
+    WHERE l.movie_key = d.id;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER movies_clear_award_links AFTER DELETE ON movies
+    REFERENCING OLD TABLE AS deleted_movies
+    FOR EACH STATEMENT EXECUTE FUNCTION clear_deleted_movie_links();
@@ -0,0 +1,114 @@
+package it.unito.iumtweb.springboot;
+
+import it.unito.iumtweb.springboot.actors.ActorNamesRepository;
+import it.unito.iumtweb.springboot.actors.ActorNamesService;
+import it.unito.iumtweb.springboot.importer.DatasetImportedEvent;
+import it.unito.iumtweb.springboot.importer.ImportReport;
+import it.unito.iumtweb.springboot.importer.ImportTable;
+import it.unito.iumtweb.springboot.movies.MoviesRepository;
+import it.unito.iumtweb.springboot.movies.OscarWinnerFlagService;
+import it.unito.iumtweb.springboot.theoscarawards.OscarAwardLinkService;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Publishes a {@link DatasetImportedEvent} outside any transaction, as the importer does, to the listeners
+ * maintaining the tables derived in the database, and checks the order and the transactions they run in.
+ */
+class DatasetImportChainTest {
+
+    @Configuration
+    @EnableTransactionManagement
+    static class TransactionConfig {
+    }
+
+    /**
+     * A statement run by a listener, with the number of the transaction it ran in (0 for none).
+     */
+    private record Statement(String name, int transaction) {
+    }
+
+    private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+    private final List<Statement> statements = new ArrayList<>();
+
+    private int record(String name) {
+        statements.add(new Statement(name,
+                TransactionSynchronizationManager.isActualTransactionActive() ? transactionManager.begun() : 0));
+        return 0;
+    }
+
+    private List<Integer> transactionsOf(String... names) {
+        List<String> wanted = List.of(names);
+        return statements.stream().filter(s -> wanted.contains(s.name())).map(Statement::transaction).distinct().toList();
+    }
+
+    private int positionOf(String name) {
+        return statements.stream().map(Statement::name).toList().indexOf(name);
+    }
+
+    @Test
+    void dimensionThenLinksThenFlagsAndProfilesEachCommitInTheirOwnTransaction() {
+        ActorNamesRepository actorNamesRepo = mock(ActorNamesRepository.class);
+        when(actorNamesRepo.upsertAll()).thenAnswer(invocation -> record("upsertAll"));
+        when(actorNamesRepo.clearMissing()).thenAnswer(invocation -> record("clearMissing"));
+        when(actorNamesRepo.refreshAllOscarCounts()).thenAnswer(invocation -> record("refreshAllOscarCounts"));
+        when(actorNamesRepo.clearMissingOscarCounts()).thenAnswer(invocation -> record("clearMissingOscarCounts"));
+        doAnswer(invocation -> record("deleteAllOscarFilms")).when(actorNamesRepo).deleteAllOscarFilms();
+        when(actorNamesRepo.insertAllOscarFilms()).thenAnswer(invocation -> record("insertAllOscarFilms"));
+        NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+        when(jdbc.update(anyString(), any(SqlParameterSource.class)))
+                .thenAnswer(invocation -> record(invocation.getArgument(0, String.class).startsWith("DELETE")
+                        ? "deleteLinks" : "upsertLinks"));
+        when(jdbc.getJdbcTemplate()).thenReturn(mock(JdbcTemplate.class));
+        MoviesRepository moviesRepo = mock(MoviesRepository.class);
+        when(moviesRepo.clearStaleOscarWinnerFlags()).thenAnswer(invocation -> record("clearStaleOscarWinnerFlags"));
+        when(moviesRepo.setOscarWinnerFlags()).thenAnswer(invocation -> record("setOscarWinnerFlags"));
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.getBeanFactory().registerSingleton("transactionManager", transactionManager);
+            context.getBeanFactory().registerSingleton("actorNamesRepo", actorNamesRepo);
+            context.getBeanFactory().registerSingleton("jdbc", jdbc);
+            context.getBeanFactory().registerSingleton("moviesRepo", moviesRepo);
+            context.register(TransactionConfig.class, ActorNamesService.class, OscarAwardLinkService.class,
+                    OscarWinnerFlagService.class);
+            context.refresh();
+
+            context.publishEvent(new DatasetImportedEvent(List.of(new ImportReport(ImportTable.MOVIES, 1, 1),
+                    new ImportReport(ImportTable.ACTORS, 1, 1), new ImportReport(ImportTable.THE_OSCAR_AWARDS, 1, 1))));
+        }
+
+        assertEquals(List.of("upsertAll", "clearMissing", "deleteLinks", "upsertLinks"),
+                statements.subList(0, 4).stream().map(Statement::name).toList());
+        assertEquals(10, statements.size());
+        assertTrue(positionOf("clearStaleOscarWinnerFlags") < positionOf("setOscarWinnerFlags"));
+        assertTrue(positionOf("deleteAllOscarFilms") < positionOf("insertAllOscarFilms"));
+
+        List<Integer> dimension = transactionsOf("upsertAll", "clearMissing");
+        List<Integer> links = transactionsOf("deleteLinks", "upsertLinks");
+        List<Integer> flags = transactionsOf("clearStaleOscarWinnerFlags", "setOscarWinnerFlags");
+        List<Integer> profiles = transactionsOf("refreshAllOscarCounts", "clearMissingOscarCounts",
+                "deleteAllOscarFilms", "insertAllOscarFilms");
+        for (List<Integer> step : List.of(dimension, links, flags, profiles)) {
+            assertEquals(1, step.size(), "each step runs in a single transaction");
+            assertNotEquals(0, step.getFirst(), "each step runs in a transaction");
+        }
+        assertEquals(4, transactionManager.begun());
+        assertEquals(4, transactionManager.committed());
+    }
+}
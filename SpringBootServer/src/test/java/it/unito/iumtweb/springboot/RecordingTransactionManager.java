@@ -0,0 +1,59 @@
+package it.unito.iumtweb.springboot;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transaction manager without a database, for the tests checking that statements run in a transaction.
+ * It only counts the transactions it begins and commits; the transaction state seen by the code under test
+ * ({@link TransactionSynchronizationManager#isActualTransactionActive()}) is the one Spring maintains.
+ */
+public class RecordingTransactionManager extends AbstractPlatformTransactionManager {
+    private final AtomicInteger begun = new AtomicInteger();
+    private final AtomicInteger committed = new AtomicInteger();
+
+    @Override
+    protected Object doGetTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    @Override
+    protected boolean isExistingTransaction(Object transaction) {
+        return (Boolean) transaction;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        begun.incrementAndGet();
+    }
+
+    @Override
+    protected Object doSuspend(Object transaction) {
+        return transaction;
+    }
+
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        committed.incrementAndGet();
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+    }
+
+    public int begun() {
+        return begun.get();
+    }
+
+    public int committed() {
+        return committed.get();
+    }
+}
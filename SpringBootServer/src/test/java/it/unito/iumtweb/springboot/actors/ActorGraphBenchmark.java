@@ -0,0 +1,84 @@
+package it.unito.iumtweb.springboot.actors;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the size of the actor graph and the latency of its queries at the size of the actors dataset:
+ * one million actors credited about five million times in nine hundred thousand movies, a few actors
+ * appearing in many more movies than the others as in the real cast lists.
+ * <p>
+ * Run with {@code ./gradlew benchmark}; excluded from the regular test task.
+ * </p>
+ */
+@Tag("benchmark")
+class ActorGraphBenchmark {
+    private static final int ACTORS = 1_000_000;
+    private static final int MOVIES = 900_000;
+    private static final int CREDITS = 5_000_000;
+    private static final int WARMUP_QUERIES = 20_000;
+    private static final int MEASURED_QUERIES = 20_000;
+
+    private long sink;
+
+    @Test
+    void queriesStayUnderTenMillisecondsAtP99() {
+        Random random = new Random(11);
+        ActorGraph.Builder builder = new ActorGraph.Builder();
+        for (int i = 0; i < CREDITS; i++) {
+            // Squaring a uniform value skews the credits towards the first actors
+            double skew = random.nextDouble();
+            int actor = (int) (skew * skew * ACTORS);
+            builder.addCredit("tt" + random.nextInt(MOVIES), "Actor " + actor);
+        }
+        long start = System.nanoTime();
+        ActorGraph graph = builder.build();
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("%,d actors, %,d movies, %,d credits, ~%,d MB, built in %,d ms%n", graph.actorCount(),
+                graph.movieCount(), graph.edgeCount(), graph.estimatedBytes() / (1024 * 1024), buildMillis);
+        report("co-stars", run(graph, random, WARMUP_QUERIES, MEASURED_QUERIES, 0));
+        report("shared movies", run(graph, random, WARMUP_QUERIES, MEASURED_QUERIES, 1));
+        long[] paths = run(graph, random, WARMUP_QUERIES, MEASURED_QUERIES, 2);
+        report("shortest paths", paths);
+
+        assertTrue(percentile(paths, 0.99) < 10_000_000, "p99 of the path searches should stay under 10 ms");
+    }
+
+    private long[] run(ActorGraph graph, Random random, int warmup, int measured, int query) {
+        long[] latencies = new long[measured];
+        for (int i = 0; i < warmup + measured; i++) {
+            String name = "Actor " + random.nextInt(ACTORS);
+            String other = "Actor " + random.nextInt(ACTORS);
+            long start = System.nanoTime();
+            sink += switch (query) {
+                case 0 -> graph.coStars(name, 10).size();
+                case 1 -> graph.sharedMovies(name, other).size();
+                default -> {
+                    ActorGraph.Path path = graph.shortestPath(name, other, 6);
+                    yield path == null ? 0 : path.movieIds().size();
+                }
+            };
+            if (i >= warmup) {
+                latencies[i - warmup] = System.nanoTime() - start;
+            }
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private void report(String name, long[] latencies) {
+        System.out.printf("%s over %,d queries: p50 %,d ns, p99 %,d ns, p99.9 %,d ns, max %,d ns (checksum %d)%n",
+                name, latencies.length, percentile(latencies, 0.50), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), latencies[latencies.length - 1], sink);
+    }
+
+    private static long percentile(long[] sorted, double rank) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(rank * sorted.length))];
+    }
+}
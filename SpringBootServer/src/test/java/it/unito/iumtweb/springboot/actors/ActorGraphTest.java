@@ -0,0 +1,86 @@
+package it.unito.iumtweb.springboot.actors;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActorGraphTest {
+
+    /**
+     * Bacon and Hanks share two movies; Smith is linked to Bacon through Streep; Loner is isolated.
+     */
+    private static ActorGraph sample() {
+        return new ActorGraph.Builder()
+                .addCredit("m1", "kevin bacon").addCredit("m1", "Tom Hanks")
+                .addCredit("m2", "Kevin Bacon").addCredit("m2", "Tom Hanks").addCredit("m2", "Tom Hanks")
+                .addCredit("m3", "Tom Hanks").addCredit("m3", "Meryl Streep")
+                .addCredit("m4", "Meryl Streep").addCredit("m4", "Will Smith")
+                .addCredit("m5", "Kevin Bacon").addCredit("m5", "Meryl Streep").addCredit("m5", "Extra")
+                .addCredit("m6", "Loner")
+                .addName("Kevin Bacon")
+                .build();
+    }
+
+    @Test
+    void countsActorsMoviesAndDistinctCredits() {
+        ActorGraph graph = sample();
+
+        assertEquals(6, graph.actorCount());
+        assertEquals(6, graph.movieCount());
+        assertEquals(12, graph.edgeCount());
+        assertTrue(graph.estimatedBytes() > 0);
+    }
+
+    @Test
+    void ranksCoStarsBySharedMoviesThenName() {
+        List<ActorGraph.CoStar> coStars = sample().coStars("KEVIN BACON", 10);
+
+        assertEquals(List.of(new ActorGraph.CoStar("Tom Hanks", 2), new ActorGraph.CoStar("Extra", 1),
+                new ActorGraph.CoStar("Meryl Streep", 1)), coStars);
+        assertEquals(1, sample().coStars("Kevin Bacon", 1).size());
+        assertEquals(coStars, sample().coStars("Kevin Bacon", Integer.MAX_VALUE));
+        assertEquals(List.of(), sample().coStars("Nobody", 10));
+    }
+
+    @Test
+    void intersectsFilmographies() {
+        ActorGraph graph = sample();
+
+        assertEquals(List.of("m1", "m2"), graph.sharedMovies("Tom Hanks", "kevin bacon"));
+        assertEquals(List.of(), graph.sharedMovies("Tom Hanks", "Loner"));
+    }
+
+    @Test
+    void findsShortestPathsWithTheirMovies() {
+        ActorGraph graph = sample();
+
+        ActorGraph.Path direct = graph.shortestPath("Tom Hanks", "Meryl Streep", 6);
+        assertEquals(List.of("Tom Hanks", "Meryl Streep"), direct.actors());
+        assertEquals(List.of("m3"), direct.movieIds());
+
+        ActorGraph.Path twoHops = graph.shortestPath("Will Smith", "Tom Hanks", 6);
+        assertEquals(List.of("Will Smith", "Meryl Streep", "Tom Hanks"), twoHops.actors());
+        assertEquals(List.of("m4", "m3"), twoHops.movieIds());
+
+        ActorGraph.Path throughCoStar = graph.shortestPath("Extra", "Will Smith", 6);
+        assertEquals(3, throughCoStar.actors().size());
+        assertEquals(List.of("m5", "m4"), throughCoStar.movieIds());
+
+        assertEquals(List.of("Kevin Bacon"), graph.shortestPath("Kevin Bacon", "kevin bacon", 6).actors());
+    }
+
+    @Test
+    void stopsAtMaxDepthAndBetweenComponents() {
+        ActorGraph graph = sample();
+
+        assertNull(graph.shortestPath("Will Smith", "Tom Hanks", 1));
+        assertNull(graph.shortestPath("Kevin Bacon", "Loner", 6));
+        assertNull(graph.shortestPath("Kevin Bacon", "Nobody", 6));
+        // Scratch arrays are reused: a later search must not see the marks of the previous ones
+        assertEquals(2, graph.shortestPath("Will Smith", "Kevin Bacon", 6).movieIds().size());
+    }
+}
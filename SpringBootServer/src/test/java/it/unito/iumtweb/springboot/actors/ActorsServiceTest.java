@@ -0,0 +1,95 @@
+package it.unito.iumtweb.springboot.actors;
+
+import it.unito.iumtweb.springboot.movies.MoviesCardInfoDTO;
+import it.unito.iumtweb.springboot.movies.MoviesRepository;
+import it.unito.iumtweb.springboot.search.DidYouMeanService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ActorsServiceTest {
+
+    private record Row(String getName, int getFilmCount, int getOscarNominations, int getOscarWins,
+                       String getMovieId, String getCategory, Boolean getWinner) implements ActorProfileRow {
+    }
+
+    private final ActorNamesRepository actorNamesRepo = mock(ActorNamesRepository.class);
+    private final MoviesRepository moviesRepo = mock(MoviesRepository.class);
+    private final DidYouMeanService didYouMeanService = mock(DidYouMeanService.class);
+    private final ActorsService service = new ActorsService(mock(ActorsRepository.class), actorNamesRepo, moviesRepo,
+            didYouMeanService);
+
+    private static MoviesCardInfoDTO card(String movieId) {
+        return new MoviesCardInfoDTO(movieId, "Title " + movieId, null, null, 4.0, 2000, null, "", false);
+    }
+
+    @Test
+    void profileRowsBecomeCardsInProfileOrderWithTheNominationOfTheActor() {
+        when(actorNamesRepo.findProfile("Jane Doe")).thenReturn(List.of(
+                new Row("Jane Doe", 3, 2, 1, "m1", "ACTRESS IN A LEADING ROLE", true),
+                new Row("Jane Doe", 3, 2, 1, "m2", null, null),
+                new Row("Jane Doe", 3, 2, 1, "m3", "ACTRESS IN A SUPPORTING ROLE", false)));
+        // The cards are read by ID, in no particular order
+        when(moviesRepo.findMovieCardsByIds(List.of("m1", "m2", "m3"))).thenReturn(List.of(card("m3"), card("m1"), card("m2")));
+
+        ActorsInfoDTO info = service.getActorsInfo("Jane Doe");
+
+        assertEquals("Jane Doe", info.getName());
+        assertEquals(1, info.getOscarNumber());
+        assertEquals(2, info.getOscarNominations());
+        assertEquals(3, info.getFilmCount());
+        assertEquals(List.of("m1", "m2", "m3"), info.getMovies().stream().map(MoviesCardInfoDTO::movieId).toList());
+        assertEquals("ACTRESS IN A LEADING ROLE", info.getMovies().get(0).roles());
+        assertTrue(info.getMovies().get(0).oscarWinner());
+        assertNull(info.getMovies().get(1).roles());
+        assertFalse(info.getMovies().get(1).oscarWinner());
+        assertFalse(info.getMovies().get(2).oscarWinner());
+        assertEquals(List.of(), info.getDidYouMean());
+        verifyNoInteractions(didYouMeanService);
+    }
+
+    @Test
+    void misspelledNameIsCorrectedWhenASingleNameIsOneEditAway() {
+        when(actorNamesRepo.findProfile("Jane Do")).thenReturn(List.of());
+        when(didYouMeanService.suggestActorNames("Jane Do", 5)).thenReturn(List.of("Jane Doe", "Jane Dole"));
+        when(didYouMeanService.correctActorName("Jane Do")).thenReturn(Optional.of("Jane Doe"));
+        when(actorNamesRepo.findProfile("Jane Doe")).thenReturn(List.of(new Row("Jane Doe", 1, 0, 0, "m1", null, null)));
+        when(moviesRepo.findMovieCardsByIds(List.of("m1"))).thenReturn(List.of(card("m1")));
+
+        ActorsInfoDTO info = service.getActorsInfo("Jane Do");
+
+        assertEquals("Jane Doe", info.getName());
+        assertEquals(List.of("m1"), info.getMovies().stream().map(MoviesCardInfoDTO::movieId).toList());
+        assertEquals(List.of("Jane Doe", "Jane Dole"), info.getDidYouMean());
+    }
+
+    @Test
+    void ambiguousOrFartherSuggestionsAreOnlyListed() {
+        when(actorNamesRepo.findProfile("Jon Do")).thenReturn(List.of());
+        when(didYouMeanService.suggestActorNames("Jon Do", 5)).thenReturn(List.of("John Doe", "Jon Dee"));
+        when(didYouMeanService.correctActorName("Jon Do")).thenReturn(Optional.empty());
+
+        ActorsInfoDTO info = service.getActorsInfo("Jon Do");
+
+        assertNull(info.getName());
+        assertEquals(List.of(), info.getMovies());
+        assertEquals(List.of("John Doe", "Jon Dee"), info.getDidYouMean());
+        verify(actorNamesRepo, times(1)).findProfile(anyString());
+        verifyNoInteractions(moviesRepo);
+    }
+
+    @Test
+    void unknownActorWithoutSuggestionIsNotFound() {
+        when(actorNamesRepo.findProfile(anyString())).thenReturn(List.of());
+        when(didYouMeanService.suggestActorNames(anyString(), anyInt())).thenReturn(List.of());
+
+        assertNull(service.getActorsInfo("Nobody"));
+        verifyNoInteractions(moviesRepo);
+    }
+}
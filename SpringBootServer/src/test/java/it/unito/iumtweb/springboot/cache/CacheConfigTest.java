@@ -0,0 +1,38 @@
+package it.unito.iumtweb.springboot.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConfigTest {
+
+    @Test
+    void everyNamedCacheIsDeclaredAndRecordsStatistics() {
+        CacheManager manager = new CacheConfig().cacheManager();
+        CacheService service = new CacheService(manager);
+
+        manager.getCache(CacheNames.GENRES).put("all", List.of("Drama", "Comedy"));
+        manager.getCache(CacheNames.GENRES).get("all");
+        manager.getCache(CacheNames.GENRES).get("missing");
+
+        CacheStatsDTO genres = service.getStats().stream()
+                .filter(stats -> stats.getName().equals(CacheNames.GENRES))
+                .findFirst().orElseThrow();
+        assertEquals(1, genres.getHits());
+        assertEquals(1, genres.getMisses());
+        assertEquals(2, genres.getWeight());
+        assertEquals(CacheConfig.SPECS.size(), service.getStats().size());
+        assertNull(manager.getCache("undeclared"));
+    }
+
+    @Test
+    void entriesAreWeighedByTheirElements() {
+        assertEquals(3, CacheConfig.weigh(new PageImpl<>(List.of("a", "b", "c"))));
+        assertEquals(1, CacheConfig.weigh(List.of()));
+        assertEquals(1, CacheConfig.weigh("value"));
+    }
+}
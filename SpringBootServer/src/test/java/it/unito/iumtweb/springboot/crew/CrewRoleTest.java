@@ -0,0 +1,18 @@
+package it.unito.iumtweb.springboot.crew;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CrewRoleTest {
+
+    @Test
+    void resolvesEverySpellingOfTheMainRoles() {
+        assertEquals(CrewRole.DIRECTOR, CrewRole.of("Director"));
+        assertEquals(CrewRole.PRODUCER, CrewRole.of(" producer "));
+        assertEquals(CrewRole.SCREENWRITER, CrewRole.of("Writer"));
+        assertEquals(CrewRole.SCREENWRITER, CrewRole.of("SCREENWRITER"));
+        assertEquals(CrewRole.OTHER, CrewRole.of("Executive producer"));
+        assertEquals(CrewRole.OTHER, CrewRole.of(null));
+    }
+}
@@ -0,0 +1,61 @@
+package it.unito.iumtweb.springboot.facets;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FacetIndexTest {
+
+    private static FacetIndex sample() {
+        FacetIndex.Builder builder = new FacetIndex.Builder();
+        // Added by rank, best first
+        builder.addMovie("a").addMovie("b").addMovie("c").addMovie("d").addMovie("a");
+        builder.addValue(Facet.GENRE, "a", "Drama").addValue(Facet.GENRE, "a", "Crime")
+                .addValue(Facet.GENRE, "b", "Drama")
+                .addValue(Facet.GENRE, "c", "Comedy")
+                .addValue(Facet.GENRE, "d", "Drama").addValue(Facet.GENRE, "d", "Comedy")
+                .addValue(Facet.GENRE, "unknown", "Drama");
+        builder.addValue(Facet.YEAR, "a", "1994").addValue(Facet.YEAR, "b", "1994")
+                .addValue(Facet.YEAR, "c", "2001").addValue(Facet.YEAR, "d", "2001");
+        return builder.build();
+    }
+
+    @Test
+    void intersectsFacetsAndUnitesValuesInRankOrder() {
+        FacetIndex index = sample();
+
+        FacetIndex.Selection drama = index.select(Map.of(Facet.GENRE, List.of("Drama")), 0, 10, 10);
+        assertEquals(List.of("a", "b", "d"), drama.movieIds());
+        assertEquals(3, drama.total());
+
+        FacetIndex.Selection selection = index.select(
+                Map.of(Facet.GENRE, List.of("Crime", "Comedy"), Facet.YEAR, List.of("2001")), 0, 10, 10);
+        assertEquals(List.of("c", "d"), selection.movieIds());
+
+        assertEquals(List.of(), index.select(Map.of(Facet.GENRE, List.of("Western")), 0, 10, 10).movieIds());
+        assertEquals(List.of("c", "d"), index.select(Map.of(), 2, 10, 10).movieIds());
+        assertEquals(4, index.select(Map.of(Facet.STUDIO, List.of()), 0, 1, 10).total());
+        // Neither the end of the page nor the heap of the counts is sized after the limits
+        FacetIndex.Selection unbounded = index.select(Map.of(), 3, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        assertEquals(List.of("d"), unbounded.movieIds());
+        assertEquals(3, unbounded.counts().get(Facet.GENRE).size());
+    }
+
+    @Test
+    void countsValuesWithTheFiltersOfTheOtherFacets() {
+        FacetIndex.Selection selection = sample().select(
+                Map.of(Facet.GENRE, List.of("Drama"), Facet.YEAR, List.of("2001")), 0, 10, 2);
+
+        assertEquals(List.of("d"), selection.movieIds());
+        // Genres within 2001, whatever the selected genre; ties by value, at most 2 values
+        assertEquals(List.of(new FacetIndex.ValueCount("Comedy", 2), new FacetIndex.ValueCount("Drama", 1)),
+                selection.counts().get(Facet.GENRE));
+        // Years within dramas, whatever the selected year
+        assertEquals(List.of(new FacetIndex.ValueCount("1994", 2), new FacetIndex.ValueCount("2001", 1)),
+                selection.counts().get(Facet.YEAR));
+        assertEquals(List.of(), selection.counts().get(Facet.STUDIO));
+    }
+}
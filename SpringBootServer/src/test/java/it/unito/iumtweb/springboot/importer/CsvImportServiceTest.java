@@ -0,0 +1,99 @@
+package it.unito.iumtweb.springboot.importer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CsvImportServiceTest {
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final Statement statement = mock(Statement.class);
+    private final PreparedStatement insert = mock(PreparedStatement.class);
+    private final CsvImportService service = new CsvImportService(dataSource, mock(ApplicationEventPublisher.class));
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void connect() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.prepareStatement(anyString())).thenReturn(insert);
+    }
+
+    private Path genres(int rows) throws IOException {
+        List<String> lines = new ArrayList<>();
+        // Columns are matched by header, whatever their order
+        lines.add("genre,id");
+        for (int i = 0; i < rows; i++) {
+            lines.add("Drama," + i);
+        }
+        return Files.write(directory.resolve("genres.csv"), lines);
+    }
+
+    @Test
+    void truncatesAndLoadsEveryBatchInASingleTransaction() throws Exception {
+        ImportReport report = service.importTable(ImportTable.GENRES, genres(CsvImportService.BATCH_SIZE + 1), true);
+
+        assertEquals(CsvImportService.BATCH_SIZE + 1, report.rows());
+        InOrder order = inOrder(connection, statement, insert);
+        order.verify(connection).setAutoCommit(false);
+        order.verify(statement).execute("TRUNCATE TABLE genres RESTART IDENTITY");
+        order.verify(insert, times(2)).executeBatch();
+        order.verify(connection).commit();
+        order.verify(connection).setAutoCommit(true);
+        verify(connection, times(1)).commit();
+        verify(insert).setString(1, String.valueOf(CsvImportService.BATCH_SIZE));
+        verify(insert, times(CsvImportService.BATCH_SIZE + 1)).setString(2, "Drama");
+    }
+
+    @Test
+    void blankCellOfANotNullTextColumnIsLoadedAsAnEmptyString() throws Exception {
+        Path actors = Files.write(directory.resolve("actors.csv"),
+                List.of("id,name,role", "1,Tom Hanks,", "2,Meg Ryan,Annie Reed", "3,,"));
+
+        ImportReport report = service.importTable(ImportTable.ACTORS, actors, true);
+
+        assertEquals(3, report.rows());
+        verify(insert, times(2)).setString(3, "");
+        verify(insert).setString(3, "Annie Reed");
+        verify(insert).setNull(2, Types.VARCHAR);
+        verify(insert, never()).setNull(eq(3), anyInt());
+        verify(connection).commit();
+    }
+
+    @Test
+    void failedBatchRollsBackTheTruncation() throws Exception {
+        when(insert.executeBatch()).thenReturn(new int[0]).thenThrow(new SQLException("duplicate key"));
+        Path file = genres(CsvImportService.BATCH_SIZE + 1);
+
+        assertThrows(SQLException.class, () -> service.importTable(ImportTable.GENRES, file, true));
+
+        verify(statement).execute("TRUNCATE TABLE genres RESTART IDENTITY");
+        verify(connection, never()).commit();
+        verify(connection).rollback();
+        verify(connection).setAutoCommit(true);
+    }
+}
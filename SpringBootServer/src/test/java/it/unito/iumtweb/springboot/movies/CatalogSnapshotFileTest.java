@@ -0,0 +1,64 @@
+package it.unito.iumtweb.springboot.movies;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static it.unito.iumtweb.springboot.movies.CatalogSnapshot.SortKey.DATE;
+import static it.unito.iumtweb.springboot.movies.CatalogSnapshot.SortKey.NAME;
+import static it.unito.iumtweb.springboot.movies.CatalogSnapshot.SortKey.RATING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CatalogSnapshotFileTest {
+    private static final CatalogSnapshotFile.Watermark WATERMARK = new CatalogSnapshotFile.Watermark(3, 42, 5, 17, 6);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackTheColumnsAndTheWatermark() throws IOException {
+        CatalogSnapshot original = CatalogSnapshotTest.sample().withMovie("6", "Ça tourne", 2.0, 2001);
+        Path file = directory.resolve("snapshots/catalog.snapshot");
+        CatalogSnapshotFile.write(original, WATERMARK, file);
+
+        CatalogSnapshotFile.Loaded loaded = CatalogSnapshotFile.read(file);
+        CatalogSnapshot copy = loaded.snapshot();
+
+        assertEquals(WATERMARK, loaded.watermark());
+        assertEquals(original.size(), copy.size());
+        assertEquals(original.genreCount(), copy.genreCount());
+        for (CatalogSnapshot.SortKey key : CatalogSnapshot.SortKey.values()) {
+            for (boolean descending : new boolean[]{false, true}) {
+                assertEquals(original.list(key, descending, null, null, 0, 10),
+                        copy.list(key, descending, null, null, 0, 10));
+            }
+        }
+        assertEquals(original.list(RATING, true, "Sci-Fi", null, 0, 10), copy.list(RATING, true, "Sci-Fi", null, 0, 10));
+        assertEquals(original.list(NAME, false, null, 1985, 0, 10), copy.list(NAME, false, null, 1985, 0, 10));
+        // Movies can still be added to a loaded snapshot
+        assertEquals(original.withMovie("8", "Alphaville", null, 1965).list(DATE, false, null, null, 0, 10),
+                copy.withMovie("8", "Alphaville", null, 1965).list(DATE, false, null, null, 0, 10));
+    }
+
+    @Test
+    void rejectsCorruptedFiles() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshotFile.write(CatalogSnapshotTest.sample(), WATERMARK, file);
+        byte[] bytes = Files.readAllBytes(file);
+
+        bytes[bytes.length - 3] ^= 1;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.read(file));
+
+        bytes[0] = 'X';
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.read(file));
+
+        Files.write(file, new byte[10]);
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.read(file));
+    }
+}
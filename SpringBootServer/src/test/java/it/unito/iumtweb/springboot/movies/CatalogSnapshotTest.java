@@ -0,0 +1,85 @@
+package it.unito.iumtweb.springboot.movies;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static it.unito.iumtweb.springboot.movies.CatalogSnapshot.SortKey.DATE;
+import static it.unito.iumtweb.springboot.movies.CatalogSnapshot.SortKey.NAME;
+import static it.unito.iumtweb.springboot.movies.CatalogSnapshot.SortKey.RATING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CatalogSnapshotTest {
+
+    static CatalogSnapshot sample() {
+        CatalogSnapshot.Builder builder = new CatalogSnapshot.Builder()
+                .addMovie("1", "Brazil", 3.9, 1985)
+                .addMovie("2", "Alien", 4.2, 1979)
+                .addMovie("3", "Cube", null, 1997)
+                .addMovie("4", "Aliens", 4.2, null)
+                .addMovie("5", null, 3.1, 1985)
+                .addMovie("1", "Duplicate", 1.0, 2000);
+        // As returned by ORDER BY name ASC NULLS LAST, movie_id
+        for (String movieId : List.of("2", "4", "1", "3", "5")) {
+            builder.appendTitleOrder(movieId);
+        }
+        builder.addGenre("1", "Sci-Fi").addGenre("2", "Horror").addGenre("2", "Sci-Fi")
+                .addGenre("4", "Sci-Fi").addGenre("5", "Drama").addGenre("unknown", "Drama");
+        return builder.build();
+    }
+
+    private static List<String> all(CatalogSnapshot catalog, CatalogSnapshot.SortKey key, boolean descending) {
+        return catalog.list(key, descending, null, null, 0, 10).movieIds();
+    }
+
+    @Test
+    void sortsLikeTheListingQuery() {
+        CatalogSnapshot catalog = sample();
+
+        // Missing keys last in both directions, ties by ascending movie_id
+        assertEquals(List.of("2", "4", "1", "5", "3"), all(catalog, RATING, true));
+        assertEquals(List.of("5", "1", "2", "4", "3"), all(catalog, RATING, false));
+        assertEquals(List.of("3", "1", "5", "2", "4"), all(catalog, DATE, true));
+        assertEquals(List.of("2", "1", "5", "3", "4"), all(catalog, DATE, false));
+        assertEquals(List.of("2", "4", "1", "3", "5"), all(catalog, NAME, false));
+        assertEquals(List.of("3", "1", "4", "2", "5"), all(catalog, NAME, true));
+        assertEquals(5, catalog.size());
+    }
+
+    @Test
+    void filtersAndPagesWithTheTotal() {
+        CatalogSnapshot catalog = sample();
+
+        CatalogSnapshot.Listing sciFi = catalog.list(RATING, true, "Sci-Fi", null, 1, 1);
+        assertEquals(List.of("4"), sciFi.movieIds());
+        assertEquals(3, sciFi.total());
+
+        CatalogSnapshot.Listing of1985 = catalog.list(NAME, false, null, 1985, 0, 10);
+        assertEquals(List.of("1", "5"), of1985.movieIds());
+        assertEquals(List.of("1"), catalog.list(NAME, false, "Sci-Fi", 1985, 0, 10).movieIds());
+        assertEquals(0, catalog.list(NAME, false, "Western", null, 0, 10).total());
+
+        CatalogSnapshot.Listing beyond = catalog.list(DATE, true, null, null, 4, 10);
+        assertEquals(List.of("4"), beyond.movieIds());
+        assertEquals(5, beyond.total());
+        assertEquals(List.of("4"), catalog.list(DATE, true, null, null, 4, Integer.MAX_VALUE).movieIds());
+    }
+
+    @Test
+    void insertsNewMoviesInEveryOrder() {
+        CatalogSnapshot catalog = sample().withMovie("0", "Blade Runner", 4.2, 1982);
+
+        assertEquals(List.of("0", "2", "4", "1", "5", "3"), all(catalog, RATING, true));
+        assertEquals(List.of("2", "0", "1", "5", "3", "4"), all(catalog, DATE, false));
+        assertEquals(List.of("2", "4", "0", "1", "3", "5"), all(catalog, NAME, false));
+        assertEquals(List.of("3", "1", "0", "4", "2", "5"), all(catalog, NAME, true));
+        assertEquals(catalog, catalog.withMovie("2", "Again", 1.0, 2000));
+
+        CatalogSnapshot batch = sample().withMovies(List.of(
+                new CatalogSnapshot.Row("7", "Zardoz", 2.5, 1974),
+                new CatalogSnapshot.Row("0", "Blade Runner", 4.2, 1982),
+                new CatalogSnapshot.Row("7", "Twice", 5.0, 2000)));
+        assertEquals(List.of("0", "2", "4", "1", "5", "7", "3"), all(batch, RATING, true));
+        assertEquals(List.of("7", "2", "0", "1", "5", "3", "4"), all(batch, DATE, false));
+    }
+}
@@ -0,0 +1,182 @@
+package it.unito.iumtweb.springboot.movies;
+
+import org.hibernate.jpa.spi.NativeQueryTupleTransformer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.ReturnedType;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Constructor;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the cost of turning one 12-card page of query rows into movie cards, as serialization then reads them:
+ * through the Spring Data JPA interface projection of the former {@code MoviesCardInfoDTO} native queries,
+ * and through {@link MoviesCardRowMapper} into records.
+ * <p>
+ * The projection path runs the classes a native {@code @Query} ran per row: Hibernate's
+ * {@link NativeQueryTupleTransformer} builds the tuple, the tuple converter of Spring Data JPA wraps it into a map,
+ * and the repository's projection factory builds the proxy, which converts the rating and year to the strings
+ * the former interface declared. Only the reading of the JDBC columns into an array is written here.
+ * Both paths read the same in-memory rows, so the figures isolate mapping from database and network time.
+ * Run with {@code ./gradlew benchmark}; excluded from the regular test task.
+ * </p>
+ */
+@Tag("benchmark")
+class MoviesCardMappingBenchmark {
+    private static final int PAGE_SIZE = 12;
+    private static final int WARMUP_PAGES = 20_000;
+    private static final int MEASURED_PAGES = 100_000;
+    private static final String[] ALIASES = {
+            "movieId", "movieTitle", "tagline", "description", "rating",
+            "yearOfRelease", "posterLink", "roles", "oscarWinner"};
+
+    /**
+     * The former {@code MoviesCardInfoDTO} interface projection, unchanged.
+     */
+    public interface ProjectedCard {
+        Long getId();
+        String getMovieId();
+        String getMovieTitle();
+        String getTagline();
+        String getDescription();
+        String getRating();
+        String getYearOfRelease();
+        String getPosterLink();
+        String getRoles();
+        Boolean getOscarWinner();
+    }
+
+    private final SpelAwareProxyProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+    private final Converter<Object, Object> tuples = tupleConverter(projections);
+    private long sink;
+
+    /**
+     * Creates the converter Spring Data JPA applies to the tuples of a native query returning {@link ProjectedCard}.
+     * The class is package-private in Spring Data JPA, hence the reflection.
+     */
+    @SuppressWarnings("unchecked")
+    private static Converter<Object, Object> tupleConverter(SpelAwareProxyProjectionFactory projections) {
+        try {
+            Constructor<?> constructor = Class.forName(
+                            "org.springframework.data.jpa.repository.query.AbstractJpaQuery$TupleConverter")
+                    .getConstructor(ReturnedType.class, boolean.class);
+            constructor.setAccessible(true);
+            return (Converter<Object, Object>) constructor.newInstance(
+                    ReturnedType.of(ProjectedCard.class, Movies.class, projections), true);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Spring Data JPA tuple converter not found", e);
+        }
+    }
+
+    @Test
+    void recordMappingIsCheaperThanProjectionProxies() throws SQLException {
+        CachedRowSet page = samplePage();
+
+        measure(page, this::mapWithProjections, WARMUP_PAGES);
+        measure(page, this::mapWithRecords, WARMUP_PAGES);
+        long[] projected = measure(page, this::mapWithProjections, MEASURED_PAGES);
+        long[] records = measure(page, this::mapWithRecords, MEASURED_PAGES);
+
+        System.out.printf("Per %d-card page over %d pages:%n", PAGE_SIZE, MEASURED_PAGES);
+        System.out.printf("  projection proxies: %,8d bytes allocated, %,8d ns CPU%n",
+                projected[0] / MEASURED_PAGES, projected[1] / MEASURED_PAGES);
+        System.out.printf("  record row mapper:  %,8d bytes allocated, %,8d ns CPU%n",
+                records[0] / MEASURED_PAGES, records[1] / MEASURED_PAGES);
+        System.out.printf("  (checksum %d)%n", sink);
+
+        assertTrue(records[0] < projected[0], "record mapping should allocate less than projection proxies");
+    }
+
+    @FunctionalInterface
+    private interface PageMapper {
+        void map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Maps the page the given number of times.
+     *
+     * @return the bytes allocated and the CPU nanoseconds spent by the current thread
+     */
+    private static long[] measure(CachedRowSet page, PageMapper mapper, int pages) throws SQLException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long bytes = threads.getCurrentThreadAllocatedBytes();
+        long cpu = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < pages; i++) {
+            page.beforeFirst();
+            mapper.map(page);
+        }
+        return new long[]{threads.getCurrentThreadAllocatedBytes() - bytes, threads.getCurrentThreadCpuTime() - cpu};
+    }
+
+    /**
+     * Former path: each row becomes a native query tuple, converted and wrapped into a projection proxy.
+     */
+    private void mapWithProjections(ResultSet rs) throws SQLException {
+        while (rs.next()) {
+            Object[] row = new Object[ALIASES.length];
+            for (int column = 1; column <= ALIASES.length; column++) {
+                row[column - 1] = rs.getObject(column);
+            }
+            Object tuple = NativeQueryTupleTransformer.INSTANCE.transformTuple(row, ALIASES);
+            ProjectedCard card = projections.createProjection(ProjectedCard.class, tuples.convert(tuple));
+            sink += card.getMovieId().length() + card.getMovieTitle().length() + card.getTagline().length()
+                    + card.getDescription().length() + card.getRating().length() + card.getYearOfRelease().length()
+                    + card.getPosterLink().length() + card.getRoles().length() + (card.getOscarWinner() ? 1 : 0)
+                    + (card.getId() == null ? 0 : 1);
+        }
+    }
+
+    /**
+     * Current path: each row is read by position into a record.
+     */
+    private void mapWithRecords(ResultSet rs) throws SQLException {
+        int row = 0;
+        while (rs.next()) {
+            MoviesCardInfoDTO card = MoviesCardRowMapper.INSTANCE.mapRow(rs, row++);
+            sink += card.movieId().length() + card.movieTitle().length() + card.tagline().length()
+                    + card.description().length() + card.rating().intValue() + card.yearOfRelease()
+                    + card.posterLink().length() + card.roles().length() + (card.oscarWinner() ? 1 : 0);
+        }
+    }
+
+    private static CachedRowSet samplePage() throws SQLException {
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(ALIASES.length);
+        for (int column = 1; column <= ALIASES.length; column++) {
+            metaData.setColumnName(column, ALIASES[column - 1]);
+            metaData.setColumnType(column, switch (column) {
+                case 5 -> Types.DOUBLE;
+                case 6 -> Types.SMALLINT;
+                case 9 -> Types.BOOLEAN;
+                default -> Types.VARCHAR;
+            });
+        }
+        CachedRowSet rows = RowSetProvider.newFactory().createCachedRowSet();
+        rows.setMetaData(metaData);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            rows.moveToInsertRow();
+            rows.updateString(1, String.valueOf(1_000_000 + i));
+            rows.updateString(2, "Movie title " + i);
+            rows.updateString(3, "A tagline worth reading");
+            rows.updateString(4, "A description long enough to look like a synopsis of the movie number " + i);
+            rows.updateDouble(5, 3.8 + i % 10 / 100.0);
+            rows.updateShort(6, (short) (2010 + i));
+            rows.updateString(7, "https://a.ltrbxd.com/resized/film-poster/" + i + ".jpg");
+            rows.updateString(8, "Actor One, Actor Two, Actor Three");
+            rows.updateBoolean(9, i % 3 == 0);
+            rows.insertRow();
+            rows.moveToCurrentRow();
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,34 @@
+package it.unito.iumtweb.springboot.movies;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoviesCursorTest {
+
+    @Test
+    void encodedCursorDecodesToTheSamePosition() {
+        MoviesCursor cursor = new MoviesCursor("rating", Sort.Direction.DESC, "4.56", "1000002");
+
+        MoviesCursor decoded = MoviesCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertFalse(decoded.isFirst());
+    }
+
+    @Test
+    void missingSortKeySurvivesTheRoundTrip() {
+        MoviesCursor cursor = new MoviesCursor("date", Sort.Direction.ASC, null, "1000007");
+
+        assertNull(MoviesCursor.decode(cursor.encode()).lastKey());
+        assertTrue(MoviesCursor.decode(cursor.encode()).isInMissingKeys());
+        assertFalse(MoviesCursor.first("date", Sort.Direction.ASC).isInMissingKeys());
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> MoviesCursor.decode("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> MoviesCursor.decode("dGVzdA"));
+    }
+}
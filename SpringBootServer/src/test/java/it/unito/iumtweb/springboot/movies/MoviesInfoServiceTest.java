@@ -0,0 +1,82 @@
+package it.unito.iumtweb.springboot.movies;
+
+import it.unito.iumtweb.springboot.actors.ActorsService;
+import it.unito.iumtweb.springboot.countries.CountriesService;
+import it.unito.iumtweb.springboot.crew.CrewService;
+import it.unito.iumtweb.springboot.genres.GenresService;
+import it.unito.iumtweb.springboot.languages.LanguagesService;
+import it.unito.iumtweb.springboot.posters.PostersService;
+import it.unito.iumtweb.springboot.releases.ReleasesService;
+import it.unito.iumtweb.springboot.studios.StudiosService;
+import it.unito.iumtweb.springboot.themes.ThemesService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class MoviesInfoServiceTest {
+
+    private final MoviesService moviesService = mock(MoviesService.class);
+    private final ActorsService actorsService = mock(ActorsService.class);
+    private final CrewService crewService = mock(CrewService.class);
+    private final CountriesService countriesService = mock(CountriesService.class);
+    private final GenresService genresService = mock(GenresService.class);
+    private final LanguagesService languagesService = mock(LanguagesService.class);
+    private final PostersService postersService = mock(PostersService.class);
+    private final ReleasesService releasesService = mock(ReleasesService.class);
+    private final StudiosService studiosService = mock(StudiosService.class);
+    private final ThemesService themesService = mock(ThemesService.class);
+    private final MoviesInfoService service = new MoviesInfoService(moviesService, actorsService, crewService,
+            countriesService, genresService, languagesService, postersService, releasesService, studiosService,
+            themesService);
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void unknownMovieIsNotFoundWithoutLookingUpItsFacets() {
+        when(moviesService.getMovieByMovieId("missing")).thenReturn(null);
+
+        assertEquals(Optional.empty(), service.getMovieInfo("missing"));
+        verify(moviesService).getMovieByMovieId("missing");
+        verifyNoMoreInteractions(moviesService);
+        verifyNoInteractions(actorsService, crewService, countriesService, genresService, languagesService,
+                postersService, releasesService, studiosService, themesService);
+    }
+
+    @Test
+    void facetLookupsRunConcurrentlyUpToTheBound() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger highest = new AtomicInteger();
+        Answer<List<?>> slowLookup = invocation -> {
+            highest.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            running.decrementAndGet();
+            return List.of();
+        };
+        when(moviesService.getMovieByMovieId("1")).thenReturn(new Movies());
+        when(actorsService.getActorsByMovieId(anyString())).then(slowLookup);
+        when(countriesService.getCountriesByMovieId(anyString())).then(slowLookup);
+        when(genresService.getGenresByMovieId(anyString())).then(slowLookup);
+        when(languagesService.findLanguagesByMovieId(anyString())).then(slowLookup);
+        when(postersService.getPostersByMovieId(anyString())).then(slowLookup);
+        when(releasesService.getReleasesByMovieId(anyString())).then(slowLookup);
+        when(studiosService.getStudiosByMovieId(anyString())).then(slowLookup);
+        when(themesService.getThemesByMovieId(anyString())).then(slowLookup);
+        when(moviesService.getRelatedMoviesByThemes(anyString(), anyInt(), anyInt())).then(slowLookup);
+
+        assertTrue(service.getMovieInfo("1").isPresent());
+        assertTrue(highest.get() > 1);
+        assertTrue(highest.get() <= MoviesInfoService.MAX_CONCURRENT_LOOKUPS);
+    }
+}
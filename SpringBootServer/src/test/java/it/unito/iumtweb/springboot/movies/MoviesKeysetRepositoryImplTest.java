@@ -0,0 +1,71 @@
+package it.unito.iumtweb.springboot.movies;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class MoviesKeysetRepositoryImplTest {
+    private final NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+    private final MoviesKeysetRepositoryImpl repository = new MoviesKeysetRepositoryImpl(jdbc);
+
+    private static MoviesCardInfoDTO card(String movieId, Double rating) {
+        return new MoviesCardInfoDTO(movieId, "Title " + movieId, "", "", rating, 2000, null, "", false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> queries(int times) {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbc, times(times)).query(sql.capture(), any(SqlParameterSource.class), any(RowMapper.class));
+        return sql.getAllValues();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void keyedSeekIsBoundedAndFullSlicesSkipTheMissingKeys() {
+        when(jdbc.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of(card("3", 4.0), card("4", 3.9), card("5", 3.9)));
+        MoviesCursor cursor = new MoviesCursor("rating", Sort.Direction.DESC, "4.0", "2");
+
+        Slice<MoviesCardInfoDTO> slice = repository.findMoviesWithSmartFiltersAfter(MoviesFilter.of(null, null), cursor, 2, false);
+
+        assertTrue(slice.hasNext());
+        assertEquals(2, slice.getContent().size());
+        String sql = queries(1).getFirst();
+        assertTrue(sql.contains("m.rating <= :lastKey AND (m.rating < :lastKey OR m.movie_id > :lastMovieId)"), sql);
+        assertFalse(sql.contains("IS NULL"), sql);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exhaustedKeysContinueWithTheMissingKeysAndTheirCursorStaysThere() {
+        when(jdbc.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of(card("7", 1.0)))
+                .thenReturn(List.of(card("1", null), card("8", null)));
+
+        Slice<MoviesCardInfoDTO> slice = repository.findMoviesWithSmartFiltersAfter(MoviesFilter.of(null, null),
+                MoviesCursor.first("rating", Sort.Direction.ASC), 2, false);
+
+        assertEquals(List.of("7", "1"), slice.getContent().stream().map(MoviesCardInfoDTO::movieId).toList());
+        assertTrue(slice.hasNext());
+        List<String> sql = queries(2);
+        assertTrue(sql.get(0).contains("m.rating IS NOT NULL"), sql.get(0));
+        assertTrue(sql.get(1).contains("m.rating IS NULL"), sql.get(1));
+
+        MoviesCursor next = MoviesCursor.first("rating", Sort.Direction.ASC).after(slice.getContent().getLast());
+        repository.findMoviesWithSmartFiltersAfter(MoviesFilter.of(null, null), next, 2, false);
+
+        String resumed = queries(3).get(2);
+        assertTrue(resumed.contains("m.rating IS NULL AND m.movie_id > :lastMovieId"), resumed);
+    }
+}
@@ -0,0 +1,51 @@
+package it.unito.iumtweb.springboot.movies;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class MoviesQueryTest {
+
+    @Test
+    void noFilterEmitsNoWhereClause() {
+        MoviesQuery query = new MoviesQuery().filter(MoviesFilter.of(null, null));
+
+        assertEquals("FROM movies m ", query.fromWhere());
+        assertEquals(0, query.params().getParameterNames().length);
+    }
+
+    @Test
+    void singleValuesUseEqualities() {
+        MoviesQuery query = new MoviesQuery().filter(MoviesFilter.of("Drama", 1999));
+
+        assertEquals("FROM movies m "
+                + "WHERE EXISTS (SELECT 1 FROM genres g WHERE g.movie_id = m.movie_id AND g.genre = :genre) "
+                + "AND m.date = :year ", query.fromWhere());
+        assertEquals("Drama", query.params().getValue("genre"));
+        assertEquals(1999, query.params().getValue("year"));
+    }
+
+    @Test
+    void genreSetsAndRangesUseTheirOwnPredicates() {
+        MoviesQuery query = new MoviesQuery()
+                .filter(new MoviesFilter(List.of("Drama", "Comedy"), 1990, 1999, 4.0, null));
+
+        assertEquals("FROM movies m "
+                + "WHERE EXISTS (SELECT 1 FROM genres g WHERE g.movie_id = m.movie_id AND g.genre IN (:genres)) "
+                + "AND m.date BETWEEN :from_year AND :to_year "
+                + "AND m.rating >= :from_rating ", query.fromWhere());
+        assertEquals(List.of("Drama", "Comedy"), query.params().getValue("genres"));
+        assertFalse(query.params().hasValue("to_rating"));
+    }
+
+    @Test
+    void extraPredicatesAreJoinedWithAnd() {
+        MoviesQuery query = new MoviesQuery().where("m.rating IS NULL")
+                .filter(new MoviesFilter(null, null, 2000, null, null));
+
+        assertEquals("FROM movies m WHERE m.rating IS NULL AND m.date <= :to_year ", query.fromWhere());
+    }
+}
@@ -0,0 +1,60 @@
+package it.unito.iumtweb.springboot.movies;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ThemeSimilarityIndexTest {
+
+    private static ThemeSimilarityIndex sample() {
+        ThemeSimilarityIndex.Builder builder = new ThemeSimilarityIndex.Builder();
+        themes(builder, "1", "a", "b", "c", "d");
+        // Same themes as 1: Jaccard 1
+        themes(builder, "2", "a", "b", "c", "d");
+        // Three of the four themes of 1 among five: Jaccard 3/6
+        themes(builder, "3", "a", "b", "c", "x", "y");
+        // Three of the four themes of 1 among three, listed twice: Jaccard 3/4
+        themes(builder, "4", "b", "c", "d", "b");
+        // Same score as 4, higher rating
+        themes(builder, "5", "a", "c", "d");
+        // A single shared theme
+        themes(builder, "6", "d", "z");
+        builder.setRating("4", 3.1).setRating("5", 4.2).setRating("unknown", 5.0);
+        return builder.build();
+    }
+
+    private static void themes(ThemeSimilarityIndex.Builder builder, String movieId, String... themes) {
+        for (String theme : themes) {
+            builder.addTheme(movieId, theme);
+        }
+    }
+
+    @Test
+    void ranksBySimilarityThenRatingThenMovieId() {
+        assertEquals(List.of("2", "5", "4", "3", "6"), sample().related("1", 1, 10));
+    }
+
+    @Test
+    void keepsOnlyTheBestCandidatesSharingEnoughThemes() {
+        ThemeSimilarityIndex index = sample();
+
+        assertEquals(List.of("2", "5"), index.related("1", 3, 2));
+        assertEquals(List.of("2", "5", "4", "3"), index.related("1", 3, 10));
+        // The initial capacity of the heap is capped, whatever the limit asked for
+        assertEquals(List.of("2", "5", "4", "3"), index.related("1", 3, Integer.MAX_VALUE));
+        assertEquals(List.of(), index.related("6", 3, 10));
+        assertEquals(List.of(), index.related("missing", 1, 10));
+    }
+
+    @Test
+    void encodesDistinctThemesOnce() {
+        ThemeSimilarityIndex index = sample();
+
+        assertEquals(6, index.size());
+        assertEquals(7, index.themeCount());
+        // Repeated queries reuse zeroed counters
+        assertEquals(index.related("4", 1, 3), index.related("4", 1, 3));
+    }
+}
@@ -0,0 +1,72 @@
+package it.unito.iumtweb.springboot.movies;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TitleTrigramIndexTest {
+
+    private static TitleTrigramIndex sampleIndex() {
+        TitleTrigramIndex index = new TitleTrigramIndex();
+        index.add("1", "The Godfather", 4.6);
+        index.add("2", "The Godfather Part II", 4.5);
+        index.add("3", "Barbie", 3.9);
+        index.add("4", "Oppenheimer", 4.2);
+        return index;
+    }
+
+    private static List<String> search(TitleTrigramIndex index, String query) {
+        return index.search(query, 10).movieIds();
+    }
+
+    @Test
+    void substringMatchesAreRankedByRating() {
+        assertEquals(List.of("1", "2"), search(sampleIndex(), "GODFATHER"));
+        assertEquals(List.of("2"), search(sampleIndex(), "her part"));
+    }
+
+    @Test
+    void onlyTheBestMatchesAreReturnedWithTheNumberOfMatches() {
+        TitleTrigramIndex index = sampleIndex();
+        index.add("6", "The Godfather Part III", 3.8);
+        index.add("0", "Godfather Tapes", 4.5);
+
+        assertEquals(new TitleTrigramIndex.Matches(List.of("1", "0"), 4), index.search("godfather", 2));
+        assertEquals(new TitleTrigramIndex.Matches(List.of("1", "0", "2", "6"), 4), index.search("godfather", 100));
+        assertEquals(List.of("1"), index.search("godfather", 1).movieIds());
+    }
+
+    @Test
+    void queriesShorterThanATrigramMatchWholeTitlesOnly() {
+        TitleTrigramIndex index = sampleIndex();
+        index.add("7", "Up", 4.0);
+        index.add("8", "M", 4.3);
+        index.add("9", "UP", 3.2);
+
+        assertEquals(new TitleTrigramIndex.Matches(List.of("7", "9"), 2), index.search("up", 10));
+        assertEquals(List.of("8"), search(index, "m"));
+        assertEquals(new TitleTrigramIndex.Matches(List.of(), 0), index.search("he", 10));
+        assertEquals(List.of(), search(index, ""));
+
+        index.add("7", "Upside", 4.0);
+        assertEquals(List.of("9"), search(index, "Up"));
+    }
+
+    @Test
+    void trigramsOutOfOrderAreNotMatches() {
+        assertEquals(List.of(), search(sampleIndex(), "father god"));
+    }
+
+    @Test
+    void addedMoviesBecomeSearchableAndRenamedOnesStopMatching() {
+        TitleTrigramIndex index = sampleIndex();
+        index.add("5", "Barbarian", 3.4);
+        index.add("3", "Dune", 4.1);
+
+        assertEquals(List.of("5"), search(index, "barb"));
+        assertEquals(List.of("3"), search(index, "dune"));
+        assertEquals(4 + 1, index.size());
+    }
+}
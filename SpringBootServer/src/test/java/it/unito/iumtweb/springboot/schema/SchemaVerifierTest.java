@@ -0,0 +1,92 @@
+package it.unito.iumtweb.springboot.schema;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SchemaVerifierTest {
+
+    /**
+     * Answers the catalog queries of the verifier with the given indexes and column types.
+     */
+    private static JdbcTemplate catalog(Map<String, String> indexes, Map<String, String> columnTypes) {
+        return new JdbcTemplate() {
+            @Override
+            public void query(String sql, RowCallbackHandler handler) {
+                List<String[]> rows = new ArrayList<>();
+                if (sql.contains("pg_index")) {
+                    indexes.forEach((index, table) -> rows.add(new String[]{index, table}));
+                } else {
+                    columnTypes.forEach((column, type) -> rows.add(new String[]{
+                            column.substring(0, column.indexOf('.')), column.substring(column.indexOf('.') + 1), type}));
+                }
+                try {
+                    for (String[] row : rows) {
+                        ResultSet rs = mock(ResultSet.class);
+                        for (int i = 0; i < row.length; i++) {
+                            when(rs.getString(i + 1)).thenReturn(row[i]);
+                        }
+                        handler.processRow(rs);
+                    }
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+    }
+
+    @Test
+    void migratedSchemaPassesVerification() {
+        Map<String, String> indexes = new HashMap<>(SchemaVerifier.REQUIRED_INDEXES);
+        indexes.put("movies_pkey", "movies");
+        Map<String, String> columnTypes = new HashMap<>(SchemaVerifier.REQUIRED_COLUMN_TYPES);
+        columnTypes.put("movies.name", "text");
+
+        assertDoesNotThrow(() -> new SchemaVerifier(catalog(indexes, columnTypes)).verify());
+    }
+
+    @Test
+    void driftPreventsStartup() {
+        Map<String, String> indexes = new HashMap<>(SchemaVerifier.REQUIRED_INDEXES);
+        // Left invalid by an interrupted build, so not listed among the valid indexes
+        indexes.remove("actors_lower_name_idx");
+        indexes.put("movies_rating_idx", "movies_old");
+        Map<String, String> columnTypes = new HashMap<>(SchemaVerifier.REQUIRED_COLUMN_TYPES);
+        columnTypes.put("movies.date", "text");
+        columnTypes.remove("actor_names.movie_ids");
+
+        IllegalStateException drift = assertThrows(IllegalStateException.class,
+                () -> new SchemaVerifier(catalog(indexes, columnTypes)).verify());
+
+        assertEquals("Database schema does not match the queries: "
+                + "column movies.date is text, expected smallint; "
+                + "index movies_rating_idx is on movies_old, expected movies; "
+                + "missing column actor_names.movie_ids; "
+                + "missing or invalid index actors_lower_name_idx on actors", drift.getMessage());
+    }
+
+    @Test
+    void reportsMissingIndexesAndUntypedColumns() {
+        Map<String, String> indexes = new HashMap<>(SchemaVerifier.REQUIRED_INDEXES);
+        indexes.remove("themes_movie_id_idx");
+        Map<String, String> columnTypes = new HashMap<>(SchemaVerifier.REQUIRED_COLUMN_TYPES);
+        columnTypes.put("movies.rating", "text");
+
+        List<String> drift = SchemaVerifier.findDrift(indexes, columnTypes);
+
+        assertEquals(List.of(
+                "column movies.rating is text, expected double precision",
+                "missing or invalid index themes_movie_id_idx on themes"), drift);
+    }
+}
@@ -0,0 +1,60 @@
+package it.unito.iumtweb.springboot.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BkTreeTest {
+
+    private static BkTree sample() {
+        return new BkTree.Builder()
+                .add("Margot Robbie", 80)
+                .add("Margo Robbins", 3)
+                .add("Tim Robbins", 60)
+                .add("Tom Hanks", 90)
+                .add("Tom Banks", 1)
+                .add("Zoë Saldaña", 40)
+                // Same normalized form, lower score: the first spelling is kept
+                .add("tom hanks", 2)
+                .add(" ", 100)
+                .build();
+    }
+
+    @Test
+    void findsEntriesWithinTheEditDistanceClosestFirst() {
+        BkTree tree = sample();
+
+        assertEquals(List.of("Margot Robbie"), tree.closest("Margo Robbie", 1, 5));
+        assertEquals(List.of("Margot Robbie", "Margo Robbins"), tree.closest("Margo Robbie", 2, 5));
+        assertEquals(List.of("Tom Hanks", "Tom Banks"), tree.closest("TOM HANKS", 1, 5));
+        assertEquals(List.of("Tom Hanks"), tree.closest("tom hanks", 1, 1));
+        assertEquals(List.of("Zoë Saldaña"), tree.closest("zoe saldana", 0, 5));
+        assertEquals(List.of(), tree.closest("Meryl Streep", 2, 5));
+        assertEquals(6, tree.size());
+    }
+
+    @Test
+    void correctsOnlyToTheSingleEntryThatClose() {
+        BkTree tree = sample();
+
+        assertEquals("Margot Robbie", tree.unique("Margo Robbie", 1));
+        assertEquals("Tom Hanks", tree.unique("tom hank", 1));
+        // Tom Hanks and Tom Banks are both one edit away
+        assertNull(tree.unique("Tom Xanks", 1));
+        assertNull(tree.unique("Meryl Streep", 1));
+        assertNull(tree.unique("", 1));
+    }
+
+    @Test
+    void computesTheLevenshteinDistance() {
+        int[] rows = new int[32];
+
+        assertEquals(3, BkTree.distance("kitten", "sitting", rows));
+        assertEquals(3, BkTree.distance("", "abc", rows));
+        assertEquals(0, BkTree.distance("same", "same", rows));
+        assertEquals(1, BkTree.distance("margo", "margot", rows));
+    }
+}
@@ -0,0 +1,56 @@
+package it.unito.iumtweb.springboot.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchIndexTest {
+
+    private static SearchIndex sample() {
+        SearchIndex.Builder builder = new SearchIndex.Builder(3f, 1f, 2f);
+        builder.addDocument("1", 1).addText("1", 0, "The Dark Knight").addText("1", 2, "Christian Bale");
+        builder.addDocument("2", 1).addText("2", 0, "Batman Begins").addText("2", 1, "The knight rises in the dark");
+        // Same text as 1, lower boost
+        builder.addDocument("3", 0.5).addText("3", 0, "The Dark Knight").addText("3", 2, "Christian Bale");
+        builder.addDocument("4", 1).addText("4", 0, "Amélie").addText("4", 2, "Audrey Tautou");
+        builder.addDocument("5", 1).addText("5", 0, "Knightriders");
+        builder.multiplyBoost("3", 2).multiplyBoost("unknown", 5).addText("unknown", 0, "ignored");
+        return builder.build();
+    }
+
+    @Test
+    void matchesEveryWordAndRanksByFieldWeightThenBoost() {
+        SearchIndex index = sample();
+
+        // Title (3) beats tagline (1); 1 and 3 tie on score, then by ordinal
+        assertEquals(List.of("1", "3", "2"), index.search("dark knight", 0, 10));
+        assertEquals(List.of("1", "3"), index.search("BALE knight", 0, 10));
+        assertEquals(List.of(), index.search("bale batman", 0, 10));
+        assertEquals(List.of(), index.search("  ", 0, 10));
+    }
+
+    @Test
+    void completesTheLastWordAsAPrefix() {
+        SearchIndex index = sample();
+
+        // "knightriders" is rarer than "knight"
+        assertEquals(List.of("5", "1", "3", "2"), index.search("knig", 0, 10));
+        // Only the last word is a prefix
+        assertEquals(List.of(), index.search("knig dark", 0, 10));
+        assertEquals(List.of("4"), index.search("amelie aud", 0, 10));
+    }
+
+    @Test
+    void pagesTheRankedDocuments() {
+        SearchIndex index = sample();
+
+        assertEquals(List.of("5", "1"), index.search("knig", 0, 2));
+        assertEquals(List.of("3", "2"), index.search("knig", 2, 2));
+        assertEquals(List.of(), index.search("knig", 4, 2));
+        // Repeated queries reuse zeroed accumulators
+        assertEquals(index.search("dark knight", 1, 2), index.search("dark knight", 1, 2));
+        assertEquals(5, index.size());
+    }
+}
@@ -0,0 +1,81 @@
+package it.unito.iumtweb.springboot.suggest;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the latency of completions over an index of the size of the actors dataset:
+ * one million two-word names built from random syllables, queried with prefixes of one to six characters.
+ * <p>
+ * Run with {@code ./gradlew benchmark}; excluded from the regular test task.
+ * </p>
+ */
+@Tag("benchmark")
+class PrefixSuggesterBenchmark {
+    private static final int ENTRIES = 1_000_000;
+    private static final int WARMUP_QUERIES = 200_000;
+    private static final int MEASURED_QUERIES = 200_000;
+    private static final String[] SYLLABLES = {
+            "an", "be", "ca", "de", "el", "fi", "ga", "ho", "in", "jo", "ka", "li", "ma", "no", "or",
+            "pa", "qu", "ri", "sa", "te", "ul", "va", "wi", "xe", "yo", "za", "mar", "son", "ton", "ber"};
+
+    private long sink;
+
+    @Test
+    void completionsStayUnderTwoMillisecondsAtP99() {
+        Random random = new Random(7);
+        String[] names = new String[ENTRIES];
+        PrefixSuggester.Builder builder = new PrefixSuggester.Builder();
+        for (int i = 0; i < ENTRIES; i++) {
+            names[i] = word(random) + " " + word(random);
+            builder.add(names[i], String.valueOf(i), random.nextInt(200));
+        }
+        long start = System.nanoTime();
+        PrefixSuggester suggester = builder.build();
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+
+        run(suggester, names, random, WARMUP_QUERIES);
+        long[] latencies = run(suggester, names, random, MEASURED_QUERIES);
+        Arrays.sort(latencies);
+
+        System.out.printf("%,d entries, %,d keys, %,d precomputed prefixes, ~%,d MB, built in %,d ms%n",
+                suggester.size(), suggester.keyCount(), suggester.precomputedCount(),
+                suggester.estimatedBytes() / (1024 * 1024), buildMillis);
+        System.out.printf("Over %,d queries: p50 %,d ns, p99 %,d ns, p99.9 %,d ns, max %,d ns (checksum %d)%n",
+                MEASURED_QUERIES, percentile(latencies, 0.50), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), latencies[latencies.length - 1], sink);
+
+        assertTrue(percentile(latencies, 0.99) < 2_000_000, "p99 should stay under 2 ms");
+    }
+
+    private long[] run(PrefixSuggester suggester, String[] names, Random random, int queries) {
+        long[] latencies = new long[queries];
+        for (int i = 0; i < queries; i++) {
+            String name = names[random.nextInt(names.length)];
+            String prefix = name.substring(0, Math.min(name.length(), 1 + random.nextInt(6)));
+            long start = System.nanoTime();
+            sink += suggester.complete(prefix, PrefixSuggester.MAX_LIMIT).size();
+            latencies[i] = System.nanoTime() - start;
+        }
+        return latencies;
+    }
+
+    private static long percentile(long[] sorted, double rank) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(rank * sorted.length))];
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+        return word.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package it.unito.iumtweb.springboot.suggest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixSuggesterTest {
+
+    @Test
+    void completesAnyWordIgnoringCaseAndAccents() {
+        PrefixSuggester suggester = new PrefixSuggester.Builder()
+                .add("Brad Pitt", "1", 80)
+                .add("Pitty Sing", "2", 3)
+                .add("Amélie Poulain", "3", 10)
+                .add("Bradley Cooper", "4", 50)
+                .build();
+
+        assertEquals(List.of("Brad Pitt", "Pitty Sing"), texts(suggester.complete("PIT", 10)));
+        assertEquals(List.of("Brad Pitt", "Bradley Cooper"), texts(suggester.complete("brad", 10)));
+        assertEquals(List.of("Brad Pitt"), texts(suggester.complete("brad p", 10)));
+        assertEquals(List.of("Amélie Poulain"), texts(suggester.complete("ame", 10)));
+        assertEquals(List.of("3"), suggester.complete("Amé", 1).stream().map(PrefixSuggester.Suggestion::id).toList());
+        assertEquals(List.of(), suggester.complete("itt", 10));
+        assertEquals(List.of(), suggester.complete(" ", 10));
+    }
+
+    @Test
+    void precomputedCompletionsMatchAFullScan() {
+        Random random = new Random(42);
+        PrefixSuggester.Builder builder = new PrefixSuggester.Builder();
+        List<String> names = new ArrayList<>();
+        List<Float> scores = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            String name = word(random) + " " + word(random);
+            float score = random.nextInt(100);
+            names.add(name);
+            scores.add(score);
+            builder.add(name, String.valueOf(i), score);
+        }
+        PrefixSuggester suggester = builder.build();
+        assertTrue(suggester.precomputedCount() > 0);
+
+        for (String prefix : List.of("a", "b", "ab", "ba", "abc", "c a", "zz")) {
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < names.size(); i++) {
+                String name = names.get(i);
+                for (int start = 0; start < name.length(); start++) {
+                    if ((start == 0 || name.charAt(start - 1) == ' ') && name.startsWith(prefix, start)) {
+                        expected.add(i);
+                        break;
+                    }
+                }
+            }
+            expected.sort(Comparator.<Integer>comparingDouble(i -> -scores.get(i)).thenComparing(names::get).thenComparing(i -> i));
+            List<String> top = expected.stream().limit(PrefixSuggester.MAX_LIMIT).map(names::get).toList();
+            assertEquals(top, texts(suggester.complete(prefix.toUpperCase(Locale.ROOT), PrefixSuggester.MAX_LIMIT)), prefix);
+        }
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 1 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(3)));
+        }
+        return word.toString();
+    }
+
+    private static List<String> texts(List<PrefixSuggester.Suggestion> suggestions) {
+        return suggestions.stream().map(PrefixSuggester.Suggestion::text).toList();
+    }
+}
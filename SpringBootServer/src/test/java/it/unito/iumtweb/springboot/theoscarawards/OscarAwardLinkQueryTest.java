@@ -0,0 +1,139 @@
+package it.unito.iumtweb.springboot.theoscarawards;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the link resolution of {@link OscarAwardLinkService} against PostgreSQL. The tests only run when
+ * {@code TEST_DATABASE_URL} (with {@code TEST_DATABASE_USER} and {@code TEST_DATABASE_PASSWORD}) points at a scratch
+ * database: it is migrated, and the tables the tests use are emptied before each of them.
+ */
+@EnabledIfEnvironmentVariable(named = "TEST_DATABASE_URL", matches = ".+")
+class OscarAwardLinkQueryTest {
+    private static JdbcTemplate jdbc;
+    private static OscarAwardLinkService service;
+
+    @BeforeAll
+    static void migrate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(System.getenv("TEST_DATABASE_URL"),
+                System.getenv("TEST_DATABASE_USER"), System.getenv("TEST_DATABASE_PASSWORD"));
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+        service = new OscarAwardLinkService(new NamedParameterJdbcTemplate(jdbc));
+    }
+
+    @BeforeEach
+    void emptyTables() {
+        jdbc.execute("TRUNCATE movies, actors, the_oscar_awards, oscar_award_links, actor_oscar_films, actor_names "
+                + "RESTART IDENTITY CASCADE");
+    }
+
+    private static long movie(String movieId, String name, Integer year) {
+        return jdbc.queryForObject("INSERT INTO movies (movie_id, name, date) VALUES (?, ?, ?) RETURNING id",
+                Long.class, movieId, name, year);
+    }
+
+    private static long award(Integer yearFilm, String nominee, String film) {
+        return jdbc.queryForObject("INSERT INTO the_oscar_awards (year_film, category, actor_name, film_title, winner) "
+                + "VALUES (?, 'ACTOR IN A LEADING ROLE', ?, ?, TRUE) RETURNING id", Long.class, yearFilm, nominee, film);
+    }
+
+    private static long actor(String movieId, String name) {
+        jdbc.update("INSERT INTO actors (movie_id, name, role) VALUES (?, ?, '')", movieId, name);
+        return jdbc.queryForObject("INSERT INTO actor_names (normalized_name, name, film_count) VALUES (LOWER(?), ?, 1) "
+                + "ON CONFLICT (normalized_name) DO UPDATE SET film_count = actor_names.film_count + 1 RETURNING id",
+                Long.class, name, name);
+    }
+
+    private static Map<String, Object> link(long awardId) {
+        return jdbc.queryForMap("SELECT movie_key, movie_confidence, actor_name_id, actor_confidence "
+                + "FROM oscar_award_links WHERE award_id = ?", awardId);
+    }
+
+    private static double confidence(Map<String, Object> link, String column) {
+        return ((Number) link.get(column)).doubleValue();
+    }
+
+    @Test
+    void linksTheMovieOfTheYearOfTheFilmOrOneYearApart() {
+        long original = movie("m1", "Little Women", 1994);
+        long remake = movie("m2", "Little Women", 2019);
+        long crash = movie("m3", "Crash", 2005);
+        long sameYear = award(2019, "Saoirse Ronan", "little women");
+        long yearApart = award(2004, "Matt Dillon", "Crash");
+        long tooFar = award(1933, "Katharine Hepburn", "Little Women");
+
+        service.resolveAll();
+
+        assertEquals(remake, link(sameYear).get("movie_key"));
+        assertEquals(1, confidence(link(sameYear), "movie_confidence"), 1e-6);
+        assertEquals(crash, link(yearApart).get("movie_key"));
+        assertEquals(0.9, confidence(link(yearApart), "movie_confidence"), 1e-6);
+        assertNull(link(tooFar).get("movie_key"));
+        assertEquals(0, confidence(link(tooFar), "movie_confidence"), 1e-6);
+        assertNotEquals(original, link(sameYear).get("movie_key"));
+    }
+
+    @Test
+    void candidatesMatchingEquallyWellSplitTheConfidence() {
+        long first = movie("m1", "Hamlet", 1948);
+        movie("m2", "Hamlet", 1948);
+        movie("m3", "Hamlet", 1996);
+        long tied = award(1948, "Laurence Olivier", "Hamlet");
+        long withoutYear = award(null, "Kenneth Branagh", "Hamlet");
+
+        service.resolveAll();
+
+        assertEquals(first, link(tied).get("movie_key"));
+        assertEquals(0.5, confidence(link(tied), "movie_confidence"), 1e-6);
+        // Every candidate scores 0.5 when the year of the film is missing
+        assertEquals(first, link(withoutYear).get("movie_key"));
+        assertEquals(0.5 / 3, confidence(link(withoutYear), "movie_confidence"), 1e-6);
+    }
+
+    @Test
+    void actorConfidenceTellsACreditInTheLinkedMovieFromAHomonym() {
+        movie("m1", "Philadelphia", 1993);
+        movie("m2", "Big", 1988);
+        long hanks = actor("m1", "Tom Hanks");
+        long washington = actor("m2", "Denzel Washington");
+        long credited = award(1993, "Tom Hanks", "Philadelphia");
+        long notCredited = award(1993, "denzel washington", "Philadelphia");
+        long unknown = award(1993, "Antonio Banderas", "Philadelphia");
+
+        service.resolveAll();
+
+        assertEquals(hanks, link(credited).get("actor_name_id"));
+        assertEquals(1, confidence(link(credited), "actor_confidence"), 1e-6);
+        assertEquals(washington, link(notCredited).get("actor_name_id"));
+        assertEquals(0.5, confidence(link(notCredited), "actor_confidence"), 1e-6);
+        assertNull(link(unknown).get("actor_name_id"));
+        assertEquals(0, confidence(link(unknown), "actor_confidence"), 1e-6);
+    }
+
+    @Test
+    void deletingAMovieClearsItFromTheLinks() {
+        long movie = movie("m1", "Philadelphia", 1993);
+        long hanks = actor("m1", "Tom Hanks");
+        long award = award(1993, "Tom Hanks", "Philadelphia");
+        service.resolveAll();
+        assertEquals(movie, link(award).get("movie_key"));
+
+        jdbc.update("DELETE FROM movies WHERE id = ?", movie);
+
+        assertNull(link(award).get("movie_key"));
+        assertEquals(0, confidence(link(award), "movie_confidence"), 1e-6);
+        assertEquals(hanks, link(award).get("actor_name_id"));
+        assertEquals(0.5, confidence(link(award), "actor_confidence"), 1e-6);
+    }
+}
@@ -0,0 +1,101 @@
+package it.unito.iumtweb.springboot.theoscarawards;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OscarAwardsIndexTest {
+
+    private static OscarAwardsIndex sample() {
+        return OscarAwardsIndex.of(List.of(
+                new OscarAwardsIndex.Award(1, 1993, 1994, 66, "ACTOR IN A LEADING ROLE", "Tom Hanks", "Philadelphia", true),
+                new OscarAwardsIndex.Award(2, 1994, 1995, 67, "ACTOR IN A LEADING ROLE", "Tom Hanks", "Forrest Gump", true),
+                new OscarAwardsIndex.Award(3, 1994, 1995, 67, "FILM", "Wendy Finerman", "Forrest Gump", true),
+                new OscarAwardsIndex.Award(4, 1994, 1995, 67, "FILM", "Niki Marvin", "The Shawshank Redemption", false),
+                new OscarAwardsIndex.Award(5, 1998, 1999, 71, "ACTOR IN A LEADING ROLE", "Tom Hanks", "Saving Private Ryan", false),
+                new OscarAwardsIndex.Award(6, 1928, 1929, 1, "DIRECTING (Comedy Picture)", "Lewis Milestone", "Two Arabian Knights", true)));
+    }
+
+    @Test
+    void familiesDropTheQualifierOfTheCategory() {
+        assertEquals("ACTOR", OscarAwardsIndex.family("Actor in a Leading Role"));
+        assertEquals("DIRECTING", OscarAwardsIndex.family("DIRECTING (Comedy Picture)"));
+        assertEquals("FILM", OscarAwardsIndex.family("FILM"));
+        assertEquals("", OscarAwardsIndex.family(null));
+    }
+
+    @Test
+    void countsNominationsAndWinsIgnoringCase() {
+        OscarAwardsIndex index = sample();
+
+        assertEquals(3, index.countNominations(" tom hanks", "actor in a leading role"));
+        assertEquals(2, index.countWins("TOM HANKS", "ACTOR"));
+        assertEquals(0, index.countWins("Nobody", "ACTOR"));
+    }
+
+    @Test
+    void answersWinnerQuestions() {
+        OscarAwardsIndex index = sample();
+
+        assertTrue(index.wonBestPicture("forrest gump", 1995));
+        assertFalse(index.wonBestPicture("Forrest Gump", 1994));
+        assertFalse(index.wonBestPicture("The Shawshank Redemption", 1995));
+        assertTrue(index.wonForFilm("Tom Hanks", "Philadelphia", "ACTOR"));
+        assertFalse(index.wonForFilm("Tom Hanks", "Saving Private Ryan", "ACTOR"));
+    }
+
+    @Test
+    void singleRowChangesKeepTableOrder() {
+        OscarAwardsIndex index = sample();
+        OscarAwardsIndex.Award won = new OscarAwardsIndex.Award(5, 1998, 1999, 71, "ACTOR IN A LEADING ROLE", "Tom Hanks",
+                "Saving Private Ryan", true);
+        OscarAwardsIndex.Award added = new OscarAwardsIndex.Award(9, 2000, 2001, 73, "FILM", "Douglas Wick", "Gladiator", true);
+
+        OscarAwardsIndex changed = index.with(5, won).with(9, added).with(1, null);
+
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L, 9L), changed.all().stream().map(OscarAwardsIndex.Award::id).toList());
+        assertEquals(2, changed.countWins("Tom Hanks", "ACTOR"));
+        assertTrue(changed.wonBestPicture("Gladiator", 2001));
+        assertEquals(6, index.size());
+    }
+
+    @Test
+    void listsKeepTableOrder() {
+        OscarAwardsIndex index = sample();
+
+        assertEquals(6, index.size());
+        assertEquals(4, index.winners().size());
+        assertEquals("Niki Marvin", index.notWinners().getFirst().nominee());
+        assertEquals(List.of("Wendy Finerman", "Niki Marvin"),
+                index.byCategory("film").stream().map(OscarAwardsIndex.Award::nominee).toList());
+        assertEquals(3, index.byYearFilm(1994).size());
+        assertEquals(2, index.byFilm("FORREST GUMP").size());
+        assertEquals(1, index.byFamily("directing").size());
+    }
+
+    @Test
+    void slicesCeremoniesAfterTheCursor() {
+        OscarAwardsIndex index = sample();
+
+        List<OscarAwardsIndex.Award> first = index.byCeremony(true, 1990, 2000, null, null, 2);
+        assertEquals(List.of(1L, 2L), ids(first));
+
+        OscarAwardsCursor cursor = OscarAwardsCursor.decode(OscarAwardsCursor.after(first.getLast()).encode());
+        List<OscarAwardsIndex.Award> next = index.byCeremony(true, 1990, 2000, null, cursor, 2);
+        assertEquals(List.of(3L), ids(next));
+
+        assertEquals(List.of(1L, 2L), ids(index.byCeremony(true, Integer.MIN_VALUE, Integer.MAX_VALUE, "actor", null, 10)));
+        assertEquals(List.of(6L), ids(index.byCeremony(true, Integer.MIN_VALUE, 1990, null, null, 10)));
+        assertEquals(List.of(4L), ids(index.byCeremony(false, 1995, 1995, "Film", null, 10)));
+        assertThrows(IllegalArgumentException.class, () -> OscarAwardsCursor.decode("djE6eDox"));
+    }
+
+    private static List<Long> ids(List<OscarAwardsIndex.Award> awards) {
+        return awards.stream().map(OscarAwardsIndex.Award::id).toList();
+    }
+}
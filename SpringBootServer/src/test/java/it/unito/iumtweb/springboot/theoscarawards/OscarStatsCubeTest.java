@@ -0,0 +1,101 @@
+package it.unito.iumtweb.springboot.theoscarawards;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OscarStatsCubeTest {
+
+    private static final List<OscarAwardsIndex.Award> AWARDS = List.of(
+            new OscarAwardsIndex.Award(1, 1993, 1994, 66, "ACTOR IN A LEADING ROLE", "Tom Hanks", "Philadelphia", true),
+            new OscarAwardsIndex.Award(2, 1994, 1995, 67, "ACTOR IN A LEADING ROLE", "Tom Hanks", "Forrest Gump", true),
+            new OscarAwardsIndex.Award(3, 1994, 1995, 67, "FILM", "Wendy Finerman", "Forrest Gump", true),
+            new OscarAwardsIndex.Award(4, 1994, 1995, 67, "DIRECTING", "Robert Zemeckis", "Forrest Gump", true),
+            new OscarAwardsIndex.Award(5, 1994, 1995, 67, "FILM", "Niki Marvin", "The Shawshank Redemption", false),
+            new OscarAwardsIndex.Award(6, 1998, 1999, 71, "ACTOR IN A LEADING ROLE", "tom hanks", "Saving Private Ryan", false),
+            new OscarAwardsIndex.Award(7, 1928, 1929, 1, "DIRECTING (Comedy Picture)", "Lewis Milestone", "Two Arabian Knights", true));
+
+    /**
+     * Every roll-up of a cube, to compare cubes by what they answer.
+     */
+    private static List<List<OscarStatsCube.Row>> rollUps(OscarStatsCube cube) {
+        List<List<OscarStatsCube.Row>> rollUps = new ArrayList<>();
+        for (OscarStatsCube.Period period : OscarStatsCube.Period.values()) {
+            rollUps.add(cube.byCategory(false, period, Integer.MIN_VALUE, Integer.MAX_VALUE));
+            rollUps.add(cube.byCategory(true, period, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        }
+        for (OscarStatsCube.Measure measure : OscarStatsCube.Measure.values()) {
+            rollUps.add(cube.topNominees(null, measure, Integer.MAX_VALUE));
+            rollUps.add(cube.topFilms(measure, Integer.MAX_VALUE));
+        }
+        return rollUps;
+    }
+
+    @Test
+    void rollsCategoriesUpToFamiliesAndDecades() {
+        OscarStatsCube cube = OscarStatsCube.of(AWARDS);
+
+        assertEquals(List.of(
+                        new OscarStatsCube.Row("ACTOR", 1990, 3, 2),
+                        new OscarStatsCube.Row("DIRECTING", 1920, 1, 1),
+                        new OscarStatsCube.Row("DIRECTING", 1990, 1, 1),
+                        new OscarStatsCube.Row("FILM", 1990, 2, 1)),
+                cube.byCategory(true, OscarStatsCube.Period.DECADE, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertEquals(List.of(new OscarStatsCube.Row("FILM", null, 2, 1)),
+                cube.byCategory(false, OscarStatsCube.Period.ALL, 1995, 1995).stream()
+                        .filter(row -> row.label().equals("FILM")).toList());
+    }
+
+    @Test
+    void ranksNomineesAndFilms() {
+        OscarStatsCube cube = OscarStatsCube.of(AWARDS);
+
+        assertEquals(new OscarStatsCube.Row("Tom Hanks", null, 3, 2),
+                cube.topNominees(null, OscarStatsCube.Measure.WINS, 1).getFirst());
+        assertEquals(List.of("Tom Hanks"), cube.topNominees("actor", OscarStatsCube.Measure.NOMINATIONS, 5).stream()
+                .map(OscarStatsCube.Row::label).toList());
+        assertEquals(new OscarStatsCube.Row("Forrest Gump", 1994, 3, 3),
+                cube.topFilms(OscarStatsCube.Measure.WINS, 1).getFirst());
+    }
+
+    @Test
+    void incrementalUpdatesMatchAFullRecomputation() {
+        OscarStatsCube cube = OscarStatsCube.of(AWARDS);
+        List<OscarAwardsIndex.Award> changed = new ArrayList<>(AWARDS.subList(1, AWARDS.size()));
+        changed.set(4, new OscarAwardsIndex.Award(6, 1998, 1999, 71, "ACTOR IN A LEADING ROLE", "Tom Hanks",
+                "Saving Private Ryan", true));
+        changed.add(new OscarAwardsIndex.Award(8, 2000, 2001, 73, "FILM", "Douglas Wick", "Gladiator", true));
+
+        cube.apply(AWARDS.get(0), null);
+        cube.apply(AWARDS.get(5), changed.get(4));
+        cube.apply(null, changed.get(6));
+
+        OscarStatsCube recomputed = OscarStatsCube.of(changed);
+        assertEquals(rollUps(recomputed), rollUps(cube));
+        assertEquals(recomputed.cellCount(), cube.cellCount());
+        assertEquals(recomputed.labelCount(), cube.labelCount());
+        assertEquals(new OscarStatsCube.Row("Tom Hanks", null, 2, 2),
+                cube.topNominees("ACTOR", OscarStatsCube.Measure.WINS, 1).getFirst());
+    }
+
+    @Test
+    void namesAndTitlesAreDroppedWithTheirLastNomination() {
+        OscarStatsCube cube = OscarStatsCube.of(AWARDS.subList(4, 5));
+        OscarAwardsIndex.Award renamed = new OscarAwardsIndex.Award(5, 1994, 1995, 67, "FILM", "Liz Glotzer",
+                "Shawshank", false);
+
+        cube.apply(AWARDS.get(4), renamed);
+
+        assertEquals(2, cube.labelCount());
+        assertEquals(List.of(new OscarStatsCube.Row("Shawshank", 1994, 1, 0)),
+                cube.topFilms(OscarStatsCube.Measure.NOMINATIONS, 5));
+
+        cube.apply(renamed, null);
+
+        assertEquals(0, cube.cellCount());
+        assertEquals(0, cube.labelCount());
+    }
+}